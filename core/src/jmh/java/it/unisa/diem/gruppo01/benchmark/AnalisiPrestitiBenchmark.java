@@ -0,0 +1,97 @@
+/**
+ * @file AnalisiPrestitiBenchmark.java
+ * @brief Benchmark JMH per le analisi dei prestiti sullo storico.
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=AnalisiPrestitiBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.AnalisiPrestiti;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.StoricoPrestiti;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura l'analisi di un anno di prestiti chiusi (da 1M a 10M) letti dallo storico su disco,
+ * con 50k titoli dalla popolarità non uniforme: deve restare sotto il secondo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AnalisiPrestitiBenchmark {
+
+    private static final LocalDate DA = LocalDate.of(2025, 1, 1); ///< Primo giorno del periodo.
+
+    @Param({"1000000", "10000000"})
+    private int prestiti; ///< Numero di prestiti dello storico.
+
+    private File file; ///< File dello storico.
+    private StoricoPrestiti storico; ///< Storico popolato con prestiti sintetici.
+
+    /**
+     * @brief Scrive lo storico con prestiti casuali nel 2025.
+     * @throws IOException Se lo storico non può essere scritto.
+     */
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        file = Files.createTempFile("storico", ".dat").toFile();
+        file.delete();
+        storico = new StoricoPrestiti(file);
+        Random random = new Random(42);
+        Libro[] libri = new Libro[50_000];
+        for (int i = 0; i < libri.length; i++) {
+            libri[i] = new Libro(String.valueOf(978_000_000 + i), "Titolo" + i, "Autore" + (i % 2000), LocalDate.of(2000, 1, 1), 1);
+        }
+        Studente studente = new Studente("Cognome", "Nome", "0612700001", "s@studenti.unisa.it", "Nessuna", false);
+        for (int i = 0; i < prestiti; i++) {
+            LocalDate inizio = DA.plusDays(random.nextInt(365));
+            storico.accoda(new Prestito(libri[(int) (libri.length * Math.pow(random.nextDouble(), 3))], studente,
+                    inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), inizio.plusDays(1 + random.nextInt(70))));
+        }
+        storico.scarica();
+    }
+
+    /**
+     * @brief Elimina il file dello storico.
+     */
+    @TearDown(Level.Trial)
+    public void pulisci() {
+        file.delete();
+    }
+
+    /**
+     * @brief Analisi dell'intero anno con il pool comune.
+     * @return Il rapporto (restituito per evitare la dead-code elimination).
+     * @throws IOException Se lo storico non può essere letto.
+     */
+    @Benchmark
+    public AnalisiPrestiti.Rapporto analizza() throws IOException {
+        return new AnalisiPrestiti(ForkJoinPool.commonPool()).analizza(storico, List.of(), null, DA, LocalDate.of(2025, 12, 31), LocalDate.of(2026, 1, 1));
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * @file ArchivioStudentiBenchmark.java
+ * @brief Benchmark JMH per il caricamento dell'Elenco dall'archivio binario e dal CSV.
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=ArchivioStudentiBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura il caricamento di un elenco di studenti, ciascuno con tre prestiti,
+ * dallo stesso contenuto salvato con salvaCSV() e con salvaDOS().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ArchivioStudentiBenchmark {
+
+    @Param({"10000", "100000", "300000"})
+    private int studenti; ///< Numero di studenti dell'elenco.
+
+    private File fileCSV; ///< Elenco salvato in formato CSV.
+    private File fileBinario; ///< Elenco salvato nell'archivio binario.
+
+    /**
+     * @brief Genera l'elenco e lo salva nei due formati.
+     * @throws IOException Se i file non possono essere scritti.
+     */
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        Elenco elenco = new Elenco();
+        LocalDate oggi = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < studenti; i++) {
+            Studente s = new Studente("Cognome" + i, "Nome" + i, String.valueOf(100000 + i), "s" + i + "@studenti.unisa.it", "Nessuna", false);
+            for (int j = 0; j < 3; j++) {
+                LocalDate inizio = oggi.minusDays((i + j) % 365);
+                Libro libro = new Libro(String.valueOf(9788800000000L + i * 3L + j), "Titolo del libro " + (i * 3 + j), "Autore " + (i % 997), LocalDate.of(1900 + i % 125, 1, 1), 0);
+                s.aggiungiPrestito(new Prestito(libro, s, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), j == 0 ? inizio.plusDays(10) : null));
+            }
+            elenco.aggiungiStudente(s);
+        }
+
+        fileCSV = File.createTempFile("Lista_studenti", ".csv");
+        fileBinario = File.createTempFile("Lista_studenti", ".dat");
+        elenco.salvaCSV(fileCSV.getPath());
+        elenco.salvaDOS(fileBinario.getPath());
+    }
+
+    /**
+     * @brief Elimina i file generati.
+     */
+    @TearDown(Level.Trial)
+    public void pulisci() {
+        fileCSV.delete();
+        fileBinario.delete();
+    }
+
+    /**
+     * @brief Caricamento dal file CSV (Elenco.caricaCSV).
+     * @return L'elenco caricato.
+     */
+    @Benchmark
+    public Elenco caricaCSV() {
+        Elenco elenco = new Elenco();
+        elenco.caricaCSV(fileCSV.getPath());
+        return elenco;
+    }
+
+    /**
+     * @brief Caricamento dall'archivio binario (Elenco.caricaDOS).
+     * @return L'elenco caricato.
+     * @throws IOException Se il file non può essere letto.
+     */
+    @Benchmark
+    public Elenco caricaBinario() throws IOException {
+        Elenco elenco = new Elenco();
+        elenco.caricaDOS(fileBinario.getPath());
+        return elenco;
+    }
+}
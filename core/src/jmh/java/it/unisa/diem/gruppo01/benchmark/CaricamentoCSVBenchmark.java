@@ -0,0 +1,202 @@
+/**
+ * @file CaricamentoCSVBenchmark.java
+ * @brief Benchmark JMH per il caricamento dei file CSV del Catalogo e dell'Elenco.
+ * Confronta il lettore mappato in memoria (LettoreCSVMappato) con la lettura
+ * BufferedReader + String.split() + trim() usata in precedenza, su file da milioni di righe.
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=CaricamentoCSVBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.LettoreCSVMappato;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * @brief Misura il tempo di caricamento di un file CSV di libri e di uno di studenti con prestiti.
+ * I file vengono generati una sola volta per prova, nel formato scritto da
+ * Catalogo.salvaCSV() ed Elenco.salvaCSV().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CaricamentoCSVBenchmark {
+
+    @Param({"1000000", "3000000"})
+    private int righe; ///< Numero di righe di dati di ciascun file.
+
+    private File fileLibri; ///< File CSV dei libri.
+    private File fileStudenti; ///< File CSV degli studenti (una riga per prestito).
+
+    /**
+     * @brief Genera i due file CSV.
+     * @throws IOException Se i file non possono essere scritti.
+     */
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        fileLibri = File.createTempFile("Lista_Libri", ".csv");
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(fileLibri)))) {
+            pw.println("Elenco Libri");
+            pw.println("Titolo;Autore;ISBN;Anno pb;Num_Copie");
+            for (int i = 0; i < righe; i++) {
+                pw.println("Titolo del libro numero " + i + ";Autore " + (i % 9973) + ";" + (9788800000000L + i) + ";" + (1900 + i % 125) + ";" + (i % 7));
+            }
+        }
+
+        // Circa tre prestiti per studente
+        fileStudenti = File.createTempFile("Lista_studenti", ".csv");
+        LocalDate oggi = LocalDate.of(2025, 1, 1);
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(fileStudenti)))) {
+            pw.println("Elenco Studenti");
+            pw.println("Cognome; Nome; Matricola; Email; Sanzione; Ritardo; PrestitoAttivo; ISBN; Titolo; Autore; AnnoPubblicazione; DataInizio; DataScadenza; DataRestituzione");
+            for (int i = 0; i < righe; i++) {
+                int studente = i / 3;
+                LocalDate inizio = oggi.minusDays(i % 365);
+                pw.println("Cognome" + studente + ";Nome" + studente + ";" + (100000 + studente) + ";s" + studente + "@studenti.unisa.it;Nessuna;false;3;"
+                        + (9788800000000L + i) + ";Titolo del libro numero " + i + ";Autore " + (i % 9973) + ";" + (1900 + i % 125) + ";"
+                        + inizio + ";" + inizio.plusDays(30) + ";" + (i % 4 == 0 ? inizio.plusDays(20).toString() : ""));
+            }
+        }
+    }
+
+    /**
+     * @brief Elimina i file generati.
+     */
+    @TearDown(Level.Trial)
+    public void pulisci() {
+        fileLibri.delete();
+        fileStudenti.delete();
+    }
+
+    /**
+     * @brief Caricamento dei libri tramite LettoreCSVMappato.
+     * @param[in] bh Blackhole che consuma i libri letti.
+     * @throws IOException Se il file non può essere letto.
+     */
+    @Benchmark
+    public void libriMappato(Blackhole bh) throws IOException {
+        LettoreCSVMappato.leggiLibri(fileLibri, bh::consume);
+    }
+
+    /**
+     * @brief Caricamento dei libri con BufferedReader e split() (comportamento precedente di Catalogo.caricaCSV()).
+     * @param[in] bh Blackhole che consuma i libri letti.
+     * @throws IOException Se il file non può essere letto.
+     */
+    @Benchmark
+    public void libriBufferedReader(Blackhole bh) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(fileLibri))) {
+            br.readLine();
+            br.readLine();
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] dati = line.split(";");
+                if (dati.length == 5) {
+                    try {
+                        String titolo = dati[0].trim();
+                        String autore = dati[1].trim();
+                        String isbn = dati[2].trim();
+                        LocalDate annoPb = LocalDate.of(Integer.parseInt(dati[3].trim()), 1, 1);
+                        int numCopie = Integer.parseInt(dati[4].trim());
+                        bh.consume(new Libro(isbn, titolo, autore, annoPb, numCopie));
+                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                        System.err.println("Attenzione: Riga CSV non valida e saltata: " + line);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Caricamento degli studenti tramite LettoreCSVMappato.
+     * @return Gli studenti letti.
+     * @throws IOException Se il file non può essere letto.
+     */
+    @Benchmark
+    public HashMap<String, Studente> studentiMappato() throws IOException {
+        return LettoreCSVMappato.leggiStudenti(fileStudenti);
+    }
+
+    /**
+     * @brief Caricamento degli studenti con BufferedReader e split() (comportamento precedente di Elenco.caricaDati()).
+     * @return Gli studenti letti.
+     * @throws IOException Se il file non può essere letto.
+     */
+    @Benchmark
+    public HashMap<String, Studente> studentiBufferedReader() throws IOException {
+        HashMap<String, Studente> studentiMappa = new HashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(fileStudenti))) {
+            br.readLine();
+            br.readLine();
+            String riga;
+            while ((riga = br.readLine()) != null) {
+                try {
+                    String[] campi = riga.split(";", -1);
+                    if (campi.length >= 6) {
+                        String matricola = campi[2].trim();
+                        Studente studenteCorrente = studentiMappa.get(matricola);
+                        if (studenteCorrente == null) {
+                            studenteCorrente = new Studente(campi[0].trim(), campi[1].trim(), matricola, campi[3].trim(), campi[4].trim(), Boolean.parseBoolean(campi[5].trim()));
+                            studentiMappa.put(matricola, studenteCorrente);
+                        }
+                        if (campi.length >= 14 && !campi[6].trim().isEmpty() && Integer.parseInt(campi[6].trim()) > 0) {
+                            String isbn = campi[7].trim();
+                            String titolo = campi[8].trim();
+                            String autore = campi[9].trim();
+                            String annoPbStr = campi[10].trim();
+                            LocalDate dataInizio = LocalDate.parse(campi[11].trim());
+                            LocalDate dataScadenza = LocalDate.parse(campi[12].trim());
+                            LocalDate annoPb;
+                            if (annoPbStr.length() == 4 && annoPbStr.matches("\\d{4}")) {
+                                annoPb = LocalDate.of(Integer.parseInt(annoPbStr), 1, 1);
+                            } else {
+                                try {
+                                    annoPb = LocalDate.parse(annoPbStr);
+                                } catch (DateTimeParseException e) {
+                                    annoPb = LocalDate.now();
+                                }
+                            }
+                            String dataRestituzioneStr = campi[13].trim();
+                            LocalDate dataRestituzione = dataRestituzioneStr.isEmpty() ? null : LocalDate.parse(dataRestituzioneStr);
+                            Libro libro = new Libro(isbn, titolo, autore, annoPb, 0);
+                            studenteCorrente.aggiungiPrestito(new Prestito(libro, studenteCorrente, dataInizio, dataScadenza, dataRestituzione));
+                        }
+                    }
+                } catch (Exception parsingEx) {
+                    System.err.println("ERRORE CRITICO DI PARSING NELLA RIGA: " + riga);
+                }
+            }
+        }
+        return studentiMappa;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * @file CatalogoBenchmark.java
+ * @brief Benchmark JMH per la ricerca dei libri nel Catalogo.
+ * Confronta la ricerca per ISBN tramite indice primario e la ricerca per sottostringa
+ * tramite indice a trigrammi con la scansione lineare del TreeSet,
+ * al variare della dimensione del catalogo, e misura prestito e restituzione di una copia.
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=CatalogoBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Libro;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura il costo di una ricerca per ISBN su cataloghi da 1k a 1M libri.
+ * Il tempo di cercaLibroPerISBN deve restare costante al crescere del catalogo,
+ * mentre la scansione lineare (il comportamento precedente) cresce con n.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogoBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int dimensione; ///< Numero di libri presenti nel catalogo.
+
+    private Catalogo catalogo; ///< Catalogo popolato con libri sintetici.
+    private String[] isbnCercati; ///< ISBN estratti a caso tra quelli presenti.
+    private String[] titoliCercati; ///< Sottostringhe di titoli estratti a caso.
+    private int prossimo; ///< Indice del prossimo ISBN da cercare.
+
+    /**
+     * @brief Popola il catalogo e prepara la sequenza di ISBN da cercare.
+     */
+    @Setup(Level.Trial)
+    public void prepara() {
+        catalogo = new Catalogo();
+        LocalDate anno = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < dimensione; i++) {
+            catalogo.aggiungiLibro(new Libro("ISBN-" + i, "Titolo " + i, "Autore " + (i % 997), anno, 1));
+        }
+
+        Random random = new Random(42);
+        isbnCercati = new String[1024];
+        titoliCercati = new String[1024];
+        for (int i = 0; i < isbnCercati.length; i++) {
+            isbnCercati[i] = "ISBN-" + random.nextInt(dimensione);
+            titoliCercati[i] = "olo " + random.nextInt(dimensione);
+        }
+    }
+
+    /**
+     * @brief Restituisce il prossimo ISBN da cercare, in modo circolare.
+     * @return Un ISBN presente nel catalogo.
+     */
+    private String prossimoIsbn() {
+        prossimo = (prossimo + 1) & (isbnCercati.length - 1);
+        return isbnCercati[prossimo];
+    }
+
+    /**
+     * @brief Ricerca tramite l'indice primario del Catalogo.
+     * @return Il libro trovato (restituito per evitare la dead-code elimination).
+     */
+    @Benchmark
+    public Libro cercaPerIndice() {
+        return catalogo.cercaLibroPerISBN(prossimoIsbn());
+    }
+
+    /**
+     * @brief Prestito e restituzione di una copia (decrementaCopie e incrementaCopie),
+     * che individuano il libro tramite l'indice primario.
+     * @return true se il prestito è riuscito.
+     */
+    @Benchmark
+    public boolean prestaERestituisci() {
+        String isbn = prossimoIsbn();
+        boolean prestato = catalogo.decrementaCopie(isbn);
+        catalogo.incrementaCopie(isbn);
+        return prestato;
+    }
+
+    /**
+     * @brief Ricerca tramite scansione lineare del TreeSet (comportamento precedente all'indice).
+     * @return Il libro trovato.
+     */
+    @Benchmark
+    public Libro cercaPerScansione() {
+        String isbn = prossimoIsbn();
+        for (Libro libro : catalogo.getInventarioLibri()) {
+            if (libro.getIsbn().equals(isbn)) {
+                return libro;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @brief Ricerca per sottostringa del titolo tramite l'indice a trigrammi.
+     * @return I libri trovati.
+     */
+    @Benchmark
+    public List<Libro> cercaSottostringaPerIndice() {
+        return catalogo.cercaLibri(titoliCercati[prossimo = (prossimo + 1) & (titoliCercati.length - 1)], "", "");
+    }
+
+    /**
+     * @brief Ricerca per sottostringa del titolo tramite scansione completa
+     * (comportamento precedente di GestioneLibriController.searchLibri).
+     * @return Il numero di libri trovati.
+     */
+    @Benchmark
+    public int cercaSottostringaPerScansione() {
+        String chiave = titoliCercati[prossimo = (prossimo + 1) & (titoliCercati.length - 1)];
+        int trovati = 0;
+        for (Libro libro : catalogo.getInventarioLibri()) {
+            if (libro.getTitolo().toLowerCase().contains(chiave)) {
+                trovati++;
+            }
+        }
+        return trovati;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * @file ElencoBenchmark.java
+ * @brief Benchmark JMH per la ricerca degli studenti nell'Elenco.
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=ElencoBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura il costo di una ricerca per matricola su elenchi da 1k a 1M studenti.
+ * Il tempo di cercaStudenteperMatricola deve restare costante al crescere dell'elenco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ElencoBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int dimensione; ///< Numero di studenti presenti nell'elenco.
+
+    private Elenco elenco; ///< Elenco popolato con studenti sintetici.
+    private String[] matricoleCercate; ///< Matricole estratte a caso tra quelle presenti.
+    private int prossimo; ///< Indice della prossima matricola da cercare.
+
+    /**
+     * @brief Popola l'elenco e prepara la sequenza di matricole da cercare.
+     */
+    @Setup(Level.Trial)
+    public void prepara() {
+        elenco = new Elenco();
+        for (int i = 0; i < dimensione; i++) {
+            elenco.aggiungiStudente(new Studente("Cognome" + i, "Nome" + i, String.valueOf(1000000 + i), "s" + i + "@studenti.unisa.it", "Nessuna", false));
+        }
+
+        Random random = new Random(42);
+        matricoleCercate = new String[1024];
+        for (int i = 0; i < matricoleCercate.length; i++) {
+            matricoleCercate[i] = String.valueOf(1000000 + random.nextInt(dimensione));
+        }
+    }
+
+    /**
+     * @brief Ricerca tramite l'indice per matricola dell'Elenco.
+     * @return Lo studente trovato (restituito per evitare la dead-code elimination).
+     */
+    @Benchmark
+    public Studente cercaStudenteperMatricola() {
+        prossimo = (prossimo + 1) & (matricoleCercate.length - 1);
+        return elenco.cercaStudenteperMatricola(matricoleCercate[prossimo]);
+    }
+}
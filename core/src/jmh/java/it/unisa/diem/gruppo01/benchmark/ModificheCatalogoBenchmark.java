@@ -0,0 +1,209 @@
+/**
+ * @file ModificheCatalogoBenchmark.java
+ * @brief Benchmark JMH per le modifiche del Catalogo (aggiunta, eliminazione, modifica di un libro).
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=ModificheCatalogoBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Libro;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura aggiungiLibro, eliminaLibro e modificaLibro su cataloghi da 1k a 1M libri.
+ * Le modifiche cambiano il catalogo: ogni iterazione esegue un lotto di LOTTO operazioni
+ * (tempo riportato per singola operazione) e il catalogo viene riportato allo stato iniziale
+ * fuori dalla misura, così che ogni iterazione parta dalla stessa dimensione.
+ * Journaling e salvataggio automatico non sono attivi: si misurano solo le strutture in memoria.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ModificheCatalogoBenchmark {
+
+    static final int LOTTO = 1000; ///< Operazioni eseguite in ogni iterazione.
+
+    /**
+     * @brief Catalogo popolato con libri sintetici, comune ai tre benchmark.
+     */
+    @State(Scope.Benchmark)
+    public abstract static class StatoCatalogo {
+
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int dimensione; ///< Numero di libri presenti nel catalogo.
+
+        Catalogo catalogo; ///< Catalogo sotto misura.
+        Libro[] nuovi; ///< LOTTO libri non presenti nel catalogo.
+        Libro[] esistenti; ///< LOTTO libri distinti presenti nel catalogo, scelti a caso.
+        private PrintStream output; ///< System.out originale.
+
+        /**
+         * @brief Popola il catalogo e sceglie i libri da modificare.
+         * I messaggi stampati dal Catalogo vengono scartati per non misurare la console.
+         */
+        @Setup(Level.Trial)
+        public void prepara() {
+            output = System.out;
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            }));
+
+            catalogo = new Catalogo();
+            LocalDate anno = LocalDate.of(2000, 1, 1);
+            List<Libro> libri = new ArrayList<>(dimensione);
+            for (int i = 0; i < dimensione; i++) {
+                Libro libro = new Libro("ISBN-" + i, "Titolo " + i, "Autore " + (i % 997), anno, 1);
+                catalogo.aggiungiLibro(libro);
+                libri.add(libro);
+            }
+
+            Collections.shuffle(libri, new Random(42));
+            esistenti = libri.subList(0, LOTTO).toArray(new Libro[LOTTO]);
+            nuovi = new Libro[LOTTO];
+            for (int i = 0; i < LOTTO; i++) {
+                nuovi[i] = new Libro("NUOVO-" + i, "Nuovo titolo " + i, "Autore " + i, anno, 1);
+            }
+        }
+
+        /**
+         * @brief Ripristina System.out.
+         */
+        @TearDown(Level.Trial)
+        public void pulisci() {
+            System.setOut(output);
+        }
+    }
+
+    /**
+     * @brief Stato di aggiungiLibro: dopo ogni iterazione i libri aggiunti vengono eliminati.
+     */
+    public static class StatoAggiunta extends StatoCatalogo {
+
+        /**
+         * @brief Elimina i libri aggiunti nell'iterazione.
+         */
+        @TearDown(Level.Iteration)
+        public void ripristina() {
+            for (Libro libro : nuovi) {
+                catalogo.eliminaLibro(libro.getIsbn());
+            }
+        }
+    }
+
+    /**
+     * @brief Stato di eliminaLibro: dopo ogni iterazione i libri eliminati vengono reinseriti.
+     */
+    public static class StatoEliminazione extends StatoCatalogo {
+
+        /**
+         * @brief Reinserisce i libri eliminati nell'iterazione.
+         */
+        @TearDown(Level.Iteration)
+        public void ripristina() {
+            for (Libro libro : esistenti) {
+                catalogo.aggiungiLibro(libro);
+            }
+        }
+    }
+
+    /**
+     * @brief Stato di modificaLibro: le iterazioni alternano il titolo originale e una seconda edizione,
+     * così che ogni modifica riposizioni il libro nel TreeSet.
+     */
+    public static class StatoModifica extends StatoCatalogo {
+
+        boolean riedizione = true; ///< true se la prossima iterazione deve aggiungere il suffisso al titolo.
+
+        /**
+         * @brief Alterna il titolo da impostare nell'iterazione successiva.
+         */
+        @TearDown(Level.Iteration)
+        public void alterna() {
+            riedizione = !riedizione;
+        }
+    }
+
+    /**
+     * @brief Aggiunta di LOTTO libri nuovi (Catalogo.aggiungiLibro).
+     * @param[in] stato Il catalogo.
+     * @return Il numero di libri inseriti.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOTTO)
+    public int aggiungiLibro(StatoAggiunta stato) {
+        int inseriti = 0;
+        for (Libro libro : stato.nuovi) {
+            if (stato.catalogo.aggiungiLibro(libro)) {
+                inseriti++;
+            }
+        }
+        return inseriti;
+    }
+
+    /**
+     * @brief Eliminazione di LOTTO libri presenti (Catalogo.eliminaLibro).
+     * @param[in] stato Il catalogo.
+     * @return Il numero di libri eliminati.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOTTO)
+    public int eliminaLibro(StatoEliminazione stato) {
+        int eliminati = 0;
+        for (Libro libro : stato.esistenti) {
+            if (stato.catalogo.eliminaLibro(libro.getIsbn())) {
+                eliminati++;
+            }
+        }
+        return eliminati;
+    }
+
+    /**
+     * @brief Modifica del titolo di LOTTO libri presenti (Catalogo.modificaLibro).
+     * @param[in] stato Il catalogo.
+     * @return Il numero di libri modificati.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOTTO)
+    public int modificaLibro(StatoModifica stato) {
+        int modificati = 0;
+        for (Libro libro : stato.esistenti) {
+            String titolo = libro.getTitolo();
+            String nuovoTitolo = stato.riedizione ? titolo + " II" : titolo.substring(0, titolo.length() - 3);
+            if (stato.catalogo.modificaLibro(libro.getIsbn(), nuovoTitolo, libro.getAutore(), libro.getAnnoPb(), 1)) {
+                modificati++;
+            }
+        }
+        return modificati;
+    }
+}
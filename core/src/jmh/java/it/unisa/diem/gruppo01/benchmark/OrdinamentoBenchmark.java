@@ -0,0 +1,225 @@
+/**
+ * @file OrdinamentoBenchmark.java
+ * @brief Benchmark JMH per i comparatori di Catalogo ed Elenco.
+ * Confronta i comparatori basati sulle chiavi di ordinamento precalcolate con il confronto
+ * compareToIgnoreCase() ripetuto a ogni confronto (il comportamento precedente).
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=OrdinamentoBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura la costruzione dei TreeSet di libri e studenti (caricamento) e il
+ * riposizionamento di un libro dopo la modifica del titolo (modificaLibro), con i
+ * comparatori attuali e con quelli basati su compareToIgnoreCase().
+ * Titoli e cognomi sono generati da parole italiane con lettere accentate e maiuscole miste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrdinamentoBenchmark {
+
+    private static final String[] PAROLE = {
+        "Il", "la", "Storia", "della", "Città", "perché", "Più", "virtù", "Caffè", "università",
+        "nome", "Rosa", "così", "Niccolò", "di", "una", "Ragazza", "Però", "Libertà", "del", "mare",
+        "Verità", "giù", "Età", "dell'oro", "Notte", "già", "Poesie", "Romanzo", "fine"
+    }; ///< Parole da cui vengono composti titoli e cognomi.
+
+    private static final Comparator<Libro> LIBRI_IGNORE_CASE = (l1, l2) -> {
+        int risultato = l1.getTitolo().compareToIgnoreCase(l2.getTitolo());
+        return risultato != 0 ? risultato : l1.getIsbn().compareTo(l2.getIsbn());
+    }; ///< Comparatore precedente di Catalogo.
+
+    private static final Comparator<Studente> STUDENTI_IGNORE_CASE = (s1, s2) -> {
+        int risultato = s1.getCognome().compareToIgnoreCase(s2.getCognome());
+        return risultato != 0 ? risultato : s1.getMatricola().compareTo(s2.getMatricola());
+    }; ///< Comparatore precedente di Elenco.
+
+    @Param({"10000", "100000", "1000000"})
+    private int dimensione; ///< Numero di libri e di studenti.
+
+    private Comparator<? super Libro> libriChiave; ///< Comparatore attuale di Catalogo.
+    private Comparator<? super Studente> studentiChiave; ///< Comparatore attuale di Elenco.
+    private Libro[] libri; ///< Libri in ordine casuale.
+    private Studente[] studenti; ///< Studenti in ordine casuale.
+
+    private TreeSet<Libro> catalogoChiave; ///< Catalogo già ordinato con il comparatore attuale.
+    private TreeSet<Libro> catalogoIgnoreCase; ///< Catalogo già ordinato con il comparatore precedente.
+    private Libro[] libriChiaveOrdinati; ///< Libri di catalogoChiave, nell'ordine di modifica.
+    private Libro[] libriIgnoreCaseOrdinati; ///< Libri di catalogoIgnoreCase, nell'ordine di modifica.
+    private int prossimo; ///< Indice del prossimo libro da modificare.
+
+    /**
+     * @brief Genera libri e studenti e costruisce i cataloghi usati dalla modifica.
+     */
+    @Setup(Level.Trial)
+    public void prepara() {
+        libriChiave = new Catalogo().getInventarioLibri().comparator();
+        studentiChiave = new Elenco().getElencoStudenti().comparator();
+
+        Random random = new Random(42);
+        LocalDate anno = LocalDate.of(2000, 1, 1);
+        libri = new Libro[dimensione];
+        studenti = new Studente[dimensione];
+        for (int i = 0; i < dimensione; i++) {
+            libri[i] = new Libro(String.valueOf(9788800000000L + i), frase(random, 3 + random.nextInt(4)), "Autore", anno, 1);
+            studenti[i] = new Studente(frase(random, 1 + random.nextInt(2)), "Nome", String.valueOf(100000 + i), "s" + i + "@studenti.unisa.it", "Nessuna", false);
+        }
+
+        catalogoChiave = new TreeSet<>(libriChiave);
+        catalogoIgnoreCase = new TreeSet<>(LIBRI_IGNORE_CASE);
+        libriChiaveOrdinati = new Libro[1024];
+        libriIgnoreCaseOrdinati = new Libro[1024];
+        for (int i = 0; i < dimensione; i++) {
+            Libro libro = libri[i];
+            Libro copia = new Libro(libro.getIsbn(), libro.getTitolo(), libro.getAutore(), libro.getAnnoPb(), 1);
+            catalogoChiave.add(libro);
+            catalogoIgnoreCase.add(copia);
+            if (i < libriChiaveOrdinati.length) {
+                libriChiaveOrdinati[i] = libro;
+                libriIgnoreCaseOrdinati[i] = copia;
+            }
+        }
+    }
+
+    /**
+     * @brief Compone un testo di parole scelte a caso.
+     * @param[in] random Il generatore.
+     * @param[in] parole Il numero di parole.
+     * @return Il testo.
+     */
+    private static String frase(Random random, int parole) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parole; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(PAROLE[random.nextInt(PAROLE.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @brief Inserisce i libri uno alla volta in un TreeSet.
+     * @param[in] ordine Il comparatore del TreeSet.
+     * @return Il TreeSet costruito.
+     */
+    private TreeSet<Libro> caricaLibri(Comparator<? super Libro> ordine) {
+        TreeSet<Libro> insieme = new TreeSet<>(ordine);
+        for (Libro libro : libri) {
+            insieme.add(libro);
+        }
+        return insieme;
+    }
+
+    /**
+     * @brief Inserisce gli studenti uno alla volta in un TreeSet.
+     * @param[in] ordine Il comparatore del TreeSet.
+     * @return Il TreeSet costruito.
+     */
+    private TreeSet<Studente> caricaStudenti(Comparator<? super Studente> ordine) {
+        TreeSet<Studente> insieme = new TreeSet<>(ordine);
+        for (Studente studente : studenti) {
+            insieme.add(studente);
+        }
+        return insieme;
+    }
+
+    /**
+     * @brief Modifica il titolo di un libro riposizionandolo nel TreeSet, come modificaLibro().
+     * Il titolo alterna tra l'originale e una seconda edizione.
+     * @param[in] catalogo Il TreeSet.
+     * @param[in] libro Il libro da modificare.
+     * @return true se il libro è stato reinserito.
+     */
+    private static boolean riposiziona(TreeSet<Libro> catalogo, Libro libro) {
+        catalogo.remove(libro);
+        String titolo = libro.getTitolo();
+        libro.setTitolo(titolo.endsWith(" II") ? titolo.substring(0, titolo.length() - 3) : titolo + " II");
+        return catalogo.add(libro);
+    }
+
+    /**
+     * @brief Caricamento dei libri con le chiavi precalcolate (Catalogo.LibroComparator).
+     * @return Il TreeSet costruito.
+     */
+    @Benchmark
+    public TreeSet<Libro> caricaLibriChiave() {
+        return caricaLibri(libriChiave);
+    }
+
+    /**
+     * @brief Caricamento dei libri con compareToIgnoreCase() a ogni confronto.
+     * @return Il TreeSet costruito.
+     */
+    @Benchmark
+    public TreeSet<Libro> caricaLibriIgnoreCase() {
+        return caricaLibri(LIBRI_IGNORE_CASE);
+    }
+
+    /**
+     * @brief Caricamento degli studenti con le chiavi precalcolate (Elenco.StudentComparator).
+     * @return Il TreeSet costruito.
+     */
+    @Benchmark
+    public TreeSet<Studente> caricaStudentiChiave() {
+        return caricaStudenti(studentiChiave);
+    }
+
+    /**
+     * @brief Caricamento degli studenti con compareToIgnoreCase() a ogni confronto.
+     * @return Il TreeSet costruito.
+     */
+    @Benchmark
+    public TreeSet<Studente> caricaStudentiIgnoreCase() {
+        return caricaStudenti(STUDENTI_IGNORE_CASE);
+    }
+
+    /**
+     * @brief Modifica del titolo con le chiavi precalcolate (include il ricalcolo della chiave).
+     * @return true se il libro è stato reinserito.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean modificaTitoloChiave() {
+        prossimo = (prossimo + 1) & (libriChiaveOrdinati.length - 1);
+        return riposiziona(catalogoChiave, libriChiaveOrdinati[prossimo]);
+    }
+
+    /**
+     * @brief Modifica del titolo con compareToIgnoreCase() a ogni confronto.
+     * @return true se il libro è stato reinserito.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean modificaTitoloIgnoreCase() {
+        prossimo = (prossimo + 1) & (libriIgnoreCaseOrdinati.length - 1);
+        return riposiziona(catalogoIgnoreCase, libriIgnoreCaseOrdinati[prossimo]);
+    }
+}
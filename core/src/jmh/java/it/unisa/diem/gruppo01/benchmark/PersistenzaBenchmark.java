@@ -0,0 +1,137 @@
+/**
+ * @file PersistenzaBenchmark.java
+ * @brief Benchmark JMH per il caricamento e il salvataggio di Catalogo ed Elenco.
+ * I file vengono scritti nella cartella target/jmh-dati (proprietà CartellaDati.PROPRIETA_CARTELLA),
+ * così che i dati dell'applicazione nella working directory non vengano modificati.
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=PersistenzaBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.CartellaDati;
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.GeneratoreDati;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura Catalogo.caricaCSV(), Catalogo.salvaCSV(), Elenco.caricaDati() ed Elenco.salvaDati()
+ * con archivi da 1k a 1M libri e studenti prodotti da GeneratoreDati (in media un prestito attivo
+ * per studente, il 10% dei quali scaduto).
+ * Il journaling è disattivato: salvaCSV() scrive lo snapshot completo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-D" + CartellaDati.PROPRIETA_CARTELLA + "=" + PersistenzaBenchmark.CARTELLA})
+public class PersistenzaBenchmark {
+
+    static final String CARTELLA = "target/jmh-dati"; ///< Cartella dei dati usata dal benchmark.
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int dimensione; ///< Numero di libri del catalogo e di studenti dell'elenco.
+
+    private Catalogo catalogo; ///< Catalogo da salvare.
+    private Elenco elenco; ///< Elenco da salvare.
+    private PrintStream output; ///< System.out originale.
+
+    /**
+     * @brief Genera i file di catalogo ed elenco nella cartella del benchmark e li carica.
+     * I messaggi stampati a ogni caricamento vengono scartati per non misurare la console.
+     * @throws IOException Se i file non possono essere generati.
+     */
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        output = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        new GeneratoreDati(42).setLibri(dimensione).setStudenti(dimensione).setPrestiti(dimensione)
+                .setOggi(LocalDate.of(2025, 1, 1)).scrivi(new File(CARTELLA));
+
+        catalogo = new Catalogo();
+        catalogo.caricaCSV();
+        elenco = new Elenco();
+        elenco.caricaCSV(CartellaDati.percorso("Lista_studenti.csv"));
+        elenco.salvaDati();
+    }
+
+    /**
+     * @brief Elimina i file generati e ripristina System.out.
+     */
+    @TearDown(Level.Trial)
+    public void pulisci() {
+        File[] file = new File(CARTELLA).listFiles();
+        if (file != null) {
+            for (File f : file) {
+                f.delete();
+            }
+        }
+        System.setOut(output);
+    }
+
+    /**
+     * @brief Caricamento del catalogo (Catalogo.caricaCSV).
+     * @return Il catalogo caricato.
+     */
+    @Benchmark
+    public Catalogo caricaCatalogo() {
+        Catalogo caricato = new Catalogo();
+        caricato.caricaCSV();
+        return caricato;
+    }
+
+    /**
+     * @brief Salvataggio del catalogo (Catalogo.salvaCSV).
+     */
+    @Benchmark
+    public void salvaCatalogo() {
+        catalogo.salvaCSV();
+    }
+
+    /**
+     * @brief Caricamento dell'elenco dall'archivio principale (Elenco.caricaDati).
+     * @return L'elenco caricato.
+     */
+    @Benchmark
+    public Elenco caricaElenco() {
+        Elenco caricato = new Elenco();
+        caricato.caricaDati();
+        return caricato;
+    }
+
+    /**
+     * @brief Salvataggio dell'elenco nell'archivio principale (Elenco.salvaDati).
+     */
+    @Benchmark
+    public void salvaElenco() {
+        elenco.salvaDati();
+    }
+}
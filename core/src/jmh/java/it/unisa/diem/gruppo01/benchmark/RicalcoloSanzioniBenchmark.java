@@ -0,0 +1,78 @@
+/**
+ * @file RicalcoloSanzioniBenchmark.java
+ * @brief Benchmark JMH per il ricalcolo notturno delle sanzioni dell'Elenco.
+ * Esecuzione: mvn -Pbenchmark -pl core test-compile exec:exec@jmh -Djmh.argomenti=RicalcoloSanzioniBenchmark
+ * @author Gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.benchmark;
+
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.RicalcoloSanzioni;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @brief Misura il ricalcolo delle sanzioni su elenchi da 100k a 1M studenti, ciascuno con 0-3
+ * prestiti attivi. Dopo la prima iterazione le sanzioni sono già aggiornate: viene misurato il
+ * costo della copia dell'elenco e del calcolo parallelo, che deve restare di pochi secondi con 1M studenti.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RicalcoloSanzioniBenchmark {
+
+    private static final LocalDate OGGI = LocalDate.of(2025, 3, 1); ///< Giorno del ricalcolo.
+
+    @Param({"100000", "1000000"})
+    private int dimensione; ///< Numero di studenti presenti nell'elenco.
+
+    private Elenco elenco; ///< Elenco popolato con studenti e prestiti sintetici.
+
+    /**
+     * @brief Popola l'elenco con prestiti dalle scadenze casuali attorno a OGGI.
+     */
+    @Setup(Level.Trial)
+    public void prepara() {
+        elenco = new Elenco();
+        Random random = new Random(42);
+        Libro libro = new Libro("9788845292613", "Titolo", "Autore", LocalDate.of(2000, 1, 1), 1);
+        for (int i = 0; i < dimensione; i++) {
+            Studente s = new Studente("Cognome" + i, "Nome" + i, String.valueOf(1000000 + i), "s" + i + "@studenti.unisa.it", "Nessuna", false);
+            for (int j = random.nextInt(4); j > 0; j--) {
+                LocalDate scadenza = OGGI.plusDays(random.nextInt(100) - 40);
+                s.aggiungiPrestito(new Prestito(libro, s, scadenza.minusDays(Prestito.DURATA_PRESTITO), scadenza, null));
+            }
+            elenco.aggiungiStudente(s);
+        }
+    }
+
+    /**
+     * @brief Ricalcolo sull'intero elenco con il pool comune.
+     * @return L'esito (restituito per evitare la dead-code elimination).
+     */
+    @Benchmark
+    public RicalcoloSanzioni.Esito ricalcolaSanzioni() {
+        return elenco.ricalcolaSanzioni(OGGI, ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,880 @@
+/**
+*@file AnalisiPrestiti.java
+*@brief Questo file contiene le analisi statistiche sui prestiti (storico e prestiti attivi),
+* calcolate in parallelo.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * @brief Analisi dei prestiti iniziati in un periodo: titoli più prestati per mese, durata media
+ * dei prestiti, quota di prestiti in ritardo per autore e giorni con più prestiti.
+ *
+ * I prestiti chiusi vengono letti dallo storico (StoricoPrestiti.scorri()) e, insieme ai prestiti
+ * attivi, copiati a porzioni di al più RIGHE_PORZIONE righe in colonne di int (codice dell'ISBN e
+ * giorni epoch), così che la memoria non dipenda dalla dimensione dello storico. Ogni porzione viene
+ * divisa tra i thread del pool (fork/join): ciascuna parte aggiorna un proprio accumulatore fatto
+ * solo di array di int e contatori long, indicizzati per codice dell'ISBN e per giorno del periodo,
+ * senza mappe né lock. Gli accumulatori vengono sommati alla fine; solo allora i codici sono
+ * tradotti in titoli e autori (con il catalogo) e le classifiche ordinate.
+ *
+ * Uso da riga di comando: vedi main().
+ */
+public final class AnalisiPrestiti {
+
+    public static final int RIGHE_PORZIONE = 1 << 20; ///< Righe copiate dallo storico prima di ogni calcolo parallelo.
+    public static final int CLASSIFICA_PREDEFINITA = 10; ///< Lunghezza predefinita delle classifiche.
+    static final int SOGLIA_PARALLELA = 1 << 14; ///< Righe al di sotto delle quali una porzione è elaborata su un solo thread.
+    private static final long LIMITE_CELLE = 1L << 24; ///< Celle (int) complessive massime degli accumulatori: limita il numero di accumulatori per periodi lunghi.
+    private static final int ATTIVO = Integer.MIN_VALUE; ///< Data di restituzione di un prestito attivo nelle colonne.
+    private static final String AUTORE_SCONOSCIUTO = "(sconosciuto)"; ///< Autore dei libri assenti dal catalogo.
+
+    /**
+     * @brief Titolo con il numero di prestiti in un mese.
+     */
+    public static final class TitoloPrestato {
+
+        private final String isbn; ///< ISBN del libro.
+        private final String titolo; ///< Titolo (l'ISBN se il libro non è nel catalogo).
+        private final String autore; ///< Autore.
+        private final int prestiti; ///< Prestiti iniziati nel mese.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] isbn ISBN del libro.
+         * @param[in] titolo Titolo.
+         * @param[in] autore Autore.
+         * @param[in] prestiti Prestiti iniziati nel mese.
+         */
+        TitoloPrestato(String isbn, String titolo, String autore, int prestiti) {
+            this.isbn = isbn;
+            this.titolo = titolo;
+            this.autore = autore;
+            this.prestiti = prestiti;
+        }
+
+        /**
+         * @brief Restituisce l'ISBN del libro.
+         * @return L'ISBN.
+         */
+        public String getIsbn() {
+            return isbn;
+        }
+
+        /**
+         * @brief Restituisce il titolo del libro.
+         * @return Il titolo, oppure l'ISBN se il libro non è nel catalogo.
+         */
+        public String getTitolo() {
+            return titolo;
+        }
+
+        /**
+         * @brief Restituisce l'autore del libro.
+         * @return L'autore.
+         */
+        public String getAutore() {
+            return autore;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti del titolo nel mese.
+         * @return I prestiti.
+         */
+        public int getPrestiti() {
+            return prestiti;
+        }
+
+        @Override
+        public String toString() {
+            return titolo + " (" + autore + ", " + isbn + "): " + prestiti;
+        }
+    }
+
+    /**
+     * @brief Prestiti e prestiti in ritardo dei libri di un autore.
+     */
+    public static final class RitardiAutore {
+
+        private final String autore; ///< Autore.
+        private final long prestiti; ///< Prestiti dei suoi libri.
+        private final long inRitardo; ///< Prestiti restituiti dopo la scadenza, o attivi e scaduti.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] autore Autore.
+         * @param[in] prestiti Prestiti dei suoi libri.
+         * @param[in] inRitardo Prestiti in ritardo.
+         */
+        RitardiAutore(String autore, long prestiti, long inRitardo) {
+            this.autore = autore;
+            this.prestiti = prestiti;
+            this.inRitardo = inRitardo;
+        }
+
+        /**
+         * @brief Restituisce l'autore.
+         * @return L'autore.
+         */
+        public String getAutore() {
+            return autore;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti dei libri dell'autore.
+         * @return I prestiti.
+         */
+        public long getPrestiti() {
+            return prestiti;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti in ritardo: restituiti dopo la scadenza,
+         * oppure ancora attivi e scaduti.
+         * @return I prestiti in ritardo.
+         */
+        public long getInRitardo() {
+            return inRitardo;
+        }
+
+        /**
+         * @brief Restituisce la quota di prestiti in ritardo.
+         * @return inRitardo / prestiti, tra 0 e 1.
+         */
+        public double getQuota() {
+            return (double) inRitardo / prestiti;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ITALY, "%s: %.1f%% (%d su %d)", autore, 100 * getQuota(), inRitardo, prestiti);
+        }
+    }
+
+    /**
+     * @brief Giorno con il numero di prestiti iniziati.
+     */
+    public static final class GiornoPicco {
+
+        private final LocalDate giorno; ///< Giorno.
+        private final int prestiti; ///< Prestiti iniziati nel giorno.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] giorno Giorno.
+         * @param[in] prestiti Prestiti iniziati nel giorno.
+         */
+        GiornoPicco(LocalDate giorno, int prestiti) {
+            this.giorno = giorno;
+            this.prestiti = prestiti;
+        }
+
+        /**
+         * @brief Restituisce il giorno.
+         * @return Il giorno.
+         */
+        public LocalDate getGiorno() {
+            return giorno;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti iniziati nel giorno.
+         * @return I prestiti.
+         */
+        public int getPrestiti() {
+            return prestiti;
+        }
+
+        @Override
+        public String toString() {
+            return giorno + ": " + prestiti;
+        }
+    }
+
+    /**
+     * @brief Risultato di un'analisi.
+     */
+    public static final class Rapporto {
+
+        private final LocalDate da; ///< Primo giorno del periodo.
+        private final LocalDate a; ///< Ultimo giorno del periodo.
+        private final long prestiti; ///< Prestiti iniziati nel periodo.
+        private final long chiusi; ///< Prestiti iniziati nel periodo e già restituiti.
+        private final long inRitardo; ///< Prestiti in ritardo.
+        private final double durataMedia; ///< Durata media dei prestiti chiusi, in giorni.
+        private final Map<YearMonth, List<TitoloPrestato>> titoliPerMese; ///< Titoli più prestati di ogni mese.
+        private final List<RitardiAutore> ritardiPerAutore; ///< Ritardi per autore.
+        private final List<GiornoPicco> giorniDiPicco; ///< Giorni con più prestiti.
+        private final long[] perGiornoSettimana; ///< Prestiti per giorno della settimana (0 = lunedì).
+        private final int classifica; ///< Voci di ogni classifica stampate da toString().
+        private final long nanoTotali; ///< Durata dell'analisi, in nanosecondi.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] da Primo giorno del periodo.
+         * @param[in] a Ultimo giorno del periodo.
+         * @param[in] prestiti Prestiti iniziati nel periodo.
+         * @param[in] chiusi Prestiti già restituiti.
+         * @param[in] inRitardo Prestiti in ritardo.
+         * @param[in] durataMedia Durata media dei prestiti chiusi.
+         * @param[in] titoliPerMese Titoli più prestati di ogni mese.
+         * @param[in] ritardiPerAutore Ritardi per autore.
+         * @param[in] giorniDiPicco Giorni con più prestiti.
+         * @param[in] perGiornoSettimana Prestiti per giorno della settimana.
+         * @param[in] classifica Voci di ogni classifica stampate da toString().
+         * @param[in] nanoTotali Durata dell'analisi.
+         */
+        Rapporto(LocalDate da, LocalDate a, long prestiti, long chiusi, long inRitardo, double durataMedia,
+                Map<YearMonth, List<TitoloPrestato>> titoliPerMese, List<RitardiAutore> ritardiPerAutore,
+                List<GiornoPicco> giorniDiPicco, long[] perGiornoSettimana, int classifica, long nanoTotali) {
+            this.da = da;
+            this.a = a;
+            this.prestiti = prestiti;
+            this.chiusi = chiusi;
+            this.inRitardo = inRitardo;
+            this.durataMedia = durataMedia;
+            this.titoliPerMese = Collections.unmodifiableMap(titoliPerMese);
+            this.ritardiPerAutore = Collections.unmodifiableList(ritardiPerAutore);
+            this.giorniDiPicco = Collections.unmodifiableList(giorniDiPicco);
+            this.perGiornoSettimana = perGiornoSettimana;
+            this.classifica = classifica;
+            this.nanoTotali = nanoTotali;
+        }
+
+        /**
+         * @brief Restituisce il primo giorno del periodo analizzato.
+         * @return Il giorno.
+         */
+        public LocalDate getDa() {
+            return da;
+        }
+
+        /**
+         * @brief Restituisce l'ultimo giorno (incluso) del periodo analizzato.
+         * @return Il giorno.
+         */
+        public LocalDate getA() {
+            return a;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti iniziati nel periodo (chiusi e attivi).
+         * @return I prestiti.
+         */
+        public long getPrestiti() {
+            return prestiti;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti iniziati nel periodo e già restituiti.
+         * @return I prestiti chiusi.
+         */
+        public long getPrestitiChiusi() {
+            return chiusi;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti in ritardo: restituiti dopo la scadenza,
+         * oppure ancora attivi e scaduti.
+         * @return I prestiti in ritardo.
+         */
+        public long getPrestitiInRitardo() {
+            return inRitardo;
+        }
+
+        /**
+         * @brief Restituisce la durata media dei prestiti chiusi (dalla data di inizio alla restituzione).
+         * @return La durata media in giorni, 0 se nessun prestito è stato restituito.
+         */
+        public double getDurataMedia() {
+            return durataMedia;
+        }
+
+        /**
+         * @brief Restituisce, per ogni mese del periodo, i titoli con più prestiti iniziati nel mese.
+         * @return I mesi in ordine cronologico, ciascuno con i titoli in ordine di prestiti decrescente.
+         */
+        public Map<YearMonth, List<TitoloPrestato>> getTitoliPerMese() {
+            return titoliPerMese;
+        }
+
+        /**
+         * @brief Restituisce la quota di prestiti in ritardo di ogni autore.
+         * @return Gli autori in ordine di quota decrescente (a parità, di prestiti decrescenti).
+         */
+        public List<RitardiAutore> getRitardiPerAutore() {
+            return ritardiPerAutore;
+        }
+
+        /**
+         * @brief Restituisce i giorni con più prestiti iniziati.
+         * @return I giorni in ordine di prestiti decrescente.
+         */
+        public List<GiornoPicco> getGiorniDiPicco() {
+            return giorniDiPicco;
+        }
+
+        /**
+         * @brief Restituisce il numero di prestiti iniziati in un giorno della settimana.
+         * @param[in] giorno Il giorno della settimana.
+         * @return I prestiti.
+         */
+        public long getPrestiti(DayOfWeek giorno) {
+            return perGiornoSettimana[giorno.getValue() - 1];
+        }
+
+        /**
+         * @brief Restituisce la durata dell'analisi (lettura dello storico inclusa).
+         * @return La durata in nanosecondi.
+         */
+        public long getNanoTotali() {
+            return nanoTotali;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder s = new StringBuilder();
+            s.append(String.format(Locale.ITALY, "Prestiti dal %s al %s: %d (%d restituiti, %d in ritardo)%n", da, a, prestiti, chiusi, inRitardo));
+            s.append(String.format(Locale.ITALY, "Durata media dei prestiti restituiti: %.1f giorni%n", durataMedia));
+            s.append(String.format("%nTitoli più prestati per mese:%n"));
+            for (Map.Entry<YearMonth, List<TitoloPrestato>> mese : titoliPerMese.entrySet()) {
+                s.append(String.format("  %s%n", mese.getKey()));
+                for (TitoloPrestato t : mese.getValue()) {
+                    s.append(String.format("    %s%n", t));
+                }
+            }
+            s.append(String.format("%nQuota di prestiti in ritardo per autore:%n"));
+            for (int i = 0; i < Math.min(ritardiPerAutore.size(), classifica); i++) {
+                s.append(String.format("  %s%n", ritardiPerAutore.get(i)));
+            }
+            s.append(String.format("%nGiorni con più prestiti:%n"));
+            for (GiornoPicco g : giorniDiPicco) {
+                s.append(String.format("  %s (%s)%n", g, g.getGiorno().getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ITALY)));
+            }
+            s.append(String.format("%nPrestiti per giorno della settimana:%n"));
+            for (DayOfWeek giorno : DayOfWeek.values()) {
+                s.append(String.format("  %s: %d%n", giorno.getDisplayName(TextStyle.FULL, Locale.ITALY), getPrestiti(giorno)));
+            }
+            s.append(String.format(Locale.ITALY, "%nAnalisi eseguita in %d ms%n", nanoTotali / 1_000_000));
+            return s.toString();
+        }
+    }
+
+    /**
+     * @brief Accumulatore di una parte del calcolo: solo array di int e contatori long.
+     */
+    private static final class Accumulatore {
+
+        private final int mesi; ///< Mesi del periodo.
+        private final int[] perGiorno; ///< Prestiti per giorno del periodo.
+        private int[] perLibroMese = new int[0]; ///< Prestiti per libro e mese (indice codice * mesi + mese).
+        private int[] ritardiLibro = new int[0]; ///< Prestiti in ritardo per libro.
+        private long prestiti; ///< Prestiti.
+        private long chiusi; ///< Prestiti restituiti.
+        private long sommaDurate; ///< Somma delle durate dei prestiti restituiti, in giorni.
+        private long inRitardo; ///< Prestiti in ritardo.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] giorni Giorni del periodo.
+         * @param[in] mesi Mesi del periodo.
+         */
+        Accumulatore(int giorni, int mesi) {
+            this.perGiorno = new int[giorni];
+            this.mesi = mesi;
+        }
+
+        /**
+         * @brief Ingrandisce gli array indicizzati per libro, se necessario.
+         * @param[in] libri Il numero di codici degli ISBN.
+         */
+        void adatta(int libri) {
+            if (ritardiLibro.length < libri) {
+                int dimensione = Math.max(libri, ritardiLibro.length + ritardiLibro.length / 2);
+                ritardiLibro = Arrays.copyOf(ritardiLibro, dimensione);
+                perLibroMese = Arrays.copyOf(perLibroMese, dimensione * mesi);
+            }
+        }
+
+        /**
+         * @brief Aggiunge le righe indicate della porzione.
+         * @param[in] c La porzione.
+         * @param[in] da La prima riga.
+         * @param[in] a La riga successiva all'ultima.
+         */
+        void aggiungi(Calcolo c, int da, int a) {
+            int[] libro = c.libro;
+            int[] inizio = c.inizio;
+            int[] scadenza = c.scadenza;
+            int[] restituzione = c.restituzione;
+            int[] meseDelGiorno = c.meseDelGiorno;
+            int primo = c.primo;
+            int oggi = c.oggi;
+            long chiusiParte = 0;
+            long durate = 0;
+            long ritardi = 0;
+            for (int i = da; i < a; i++) {
+                int giorno = inizio[i] - primo;
+                int l = libro[i];
+                perGiorno[giorno]++;
+                perLibroMese[l * mesi + meseDelGiorno[giorno]]++;
+                int fine = restituzione[i];
+                boolean ritardo;
+                if (fine == ATTIVO) {
+                    ritardo = oggi > scadenza[i];
+                } else {
+                    chiusiParte++;
+                    durate += fine - inizio[i];
+                    ritardo = fine > scadenza[i];
+                }
+                if (ritardo) {
+                    ritardiLibro[l]++;
+                    ritardi++;
+                }
+            }
+            prestiti += a - da;
+            chiusi += chiusiParte;
+            sommaDurate += durate;
+            inRitardo += ritardi;
+        }
+
+        /**
+         * @brief Somma a questo accumulatore un altro accumulatore dello stesso calcolo.
+         * @param[in] altro L'altro accumulatore.
+         */
+        void unisci(Accumulatore altro) {
+            adatta(altro.ritardiLibro.length);
+            for (int i = 0; i < altro.perGiorno.length; i++) {
+                perGiorno[i] += altro.perGiorno[i];
+            }
+            for (int i = 0; i < altro.perLibroMese.length; i++) {
+                perLibroMese[i] += altro.perLibroMese[i];
+            }
+            for (int i = 0; i < altro.ritardiLibro.length; i++) {
+                ritardiLibro[i] += altro.ritardiLibro[i];
+            }
+            prestiti += altro.prestiti;
+            chiusi += altro.chiusi;
+            sommaDurate += altro.sommaDurate;
+            inRitardo += altro.inRitardo;
+        }
+    }
+
+    /**
+     * @brief Stato di un'analisi: periodo, porzione corrente in colonne e accumulatori.
+     */
+    private final class Calcolo {
+
+        private final LocalDate da; ///< Primo giorno del periodo.
+        private final int primo; ///< Primo giorno del periodo (giorno epoch).
+        private final int giorni; ///< Giorni del periodo.
+        private final int mesi; ///< Mesi del periodo.
+        private final int oggi; ///< Giorno rispetto al quale valutare i prestiti attivi (giorno epoch).
+        private final int[] meseDelGiorno; ///< Mese (dall'inizio del periodo) di ogni giorno del periodo.
+        private final int[] libro = new int[RIGHE_PORZIONE]; ///< Colonna dei codici degli ISBN.
+        private final int[] inizio = new int[RIGHE_PORZIONE]; ///< Colonna delle date di inizio.
+        private final int[] scadenza = new int[RIGHE_PORZIONE]; ///< Colonna delle date di scadenza.
+        private final int[] restituzione = new int[RIGHE_PORZIONE]; ///< Colonna delle date di restituzione (ATTIVO per i prestiti attivi).
+        private int righe; ///< Righe della porzione corrente.
+        private final List<String> isbn = new ArrayList<>(); ///< ISBN per codice: dizionario dello storico, poi ISBN nuovi dei prestiti attivi.
+        private final HashMap<String, Libro> libriAttivi = new HashMap<>(); ///< Libri dei prestiti attivi, per i titoli assenti dal catalogo.
+        private Accumulatore[] parziali; ///< Accumulatori, uno per parte; creati alla prima porzione.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] da Primo giorno del periodo.
+         * @param[in] a Ultimo giorno del periodo.
+         * @param[in] oggi Giorno rispetto al quale valutare i prestiti attivi.
+         */
+        Calcolo(LocalDate da, LocalDate a, LocalDate oggi) {
+            this.da = da;
+            this.primo = Math.toIntExact(da.toEpochDay());
+            this.giorni = Math.toIntExact(a.toEpochDay() - primo + 1);
+            this.oggi = Math.toIntExact(oggi.toEpochDay());
+            this.meseDelGiorno = new int[giorni];
+            int mese = 0;
+            LocalDate giorno = da;
+            for (int g = 0; g < giorni; g++, giorno = giorno.plusDays(1)) {
+                if (g > 0 && giorno.getDayOfMonth() == 1) {
+                    mese++;
+                }
+                meseDelGiorno[g] = mese;
+            }
+            this.mesi = mese + 1;
+        }
+
+        /**
+         * @brief Copia nella porzione i prestiti di un blocco dello storico iniziati nel periodo.
+         * @param[in] b Il blocco.
+         */
+        void aggiungiBlocco(StoricoPrestiti.Blocco b) {
+            for (int i = isbn.size(); i < b.getNumeroIsbn(); i++) {
+                isbn.add(b.isbn(i));
+            }
+            int[] l = b.getLibri();
+            int[] in = b.getInizi();
+            int[] s = b.getScadenze();
+            int[] r = b.getRestituzioni();
+            for (int i = 0; i < b.getRighe(); i++) {
+                if (Integer.compareUnsigned(in[i] - primo, giorni) < 0) {
+                    if (righe == RIGHE_PORZIONE) {
+                        elabora();
+                    }
+                    libro[righe] = l[i];
+                    inizio[righe] = in[i];
+                    scadenza[righe] = s[i];
+                    restituzione[righe] = r[i];
+                    righe++;
+                }
+            }
+        }
+
+        /**
+         * @brief Copia nella porzione i prestiti attivi iniziati nel periodo, assegnando un codice
+         * agli ISBN assenti dallo storico.
+         * @param[in] attivi I prestiti attivi.
+         */
+        void aggiungiAttivi(Collection<Prestito> attivi) {
+            HashMap<String, Integer> codici = new HashMap<>();
+            for (int i = 0; i < isbn.size(); i++) {
+                codici.put(isbn.get(i), i);
+            }
+            for (Prestito p : attivi) {
+                if (p.getDataInizio() == null || p.getDataScadenza() == null) {
+                    continue;
+                }
+                long giorno = p.getDataInizio().toEpochDay() - primo;
+                if (giorno < 0 || giorno >= giorni) {
+                    continue;
+                }
+                String s = p.getLibro().getIsbn();
+                Integer codice = codici.get(s);
+                if (codice == null) {
+                    codice = isbn.size();
+                    codici.put(s, codice);
+                    isbn.add(s);
+                }
+                libriAttivi.putIfAbsent(s, p.getLibro());
+                if (righe == RIGHE_PORZIONE) {
+                    elabora();
+                }
+                libro[righe] = codice;
+                inizio[righe] = (int) p.getDataInizio().toEpochDay();
+                scadenza[righe] = (int) p.getDataScadenza().toEpochDay();
+                restituzione[righe] = p.getDataRestituzione() == null ? ATTIVO : (int) p.getDataRestituzione().toEpochDay();
+                righe++;
+            }
+        }
+
+        /**
+         * @brief Aggiunge la porzione corrente agli accumulatori, in parallelo se è abbastanza grande,
+         * e la svuota.
+         */
+        void elabora() {
+            if (righe == 0) {
+                return;
+            }
+            if (parziali == null) {
+                // Un accumulatore per thread, entro LIMITE_CELLE celle in tutto
+                long celle = (long) Math.max(isbn.size(), 1) * mesi + giorni;
+                int numero = (int) Math.max(1, Math.min(pool.getParallelism(), LIMITE_CELLE / celle));
+                parziali = new Accumulatore[numero];
+                for (int i = 0; i < numero; i++) {
+                    parziali[i] = new Accumulatore(giorni, mesi);
+                }
+            }
+            for (Accumulatore p : parziali) {
+                p.adatta(isbn.size());
+            }
+            if (righe < SOGLIA_PARALLELA || parziali.length == 1) {
+                parziali[0].aggiungi(this, 0, righe);
+            } else {
+                pool.invoke(new Parte(this, 0, parziali.length));
+            }
+            righe = 0;
+        }
+
+        /**
+         * @brief Somma gli accumulatori e compone il rapporto.
+         * @param[in] a Ultimo giorno del periodo.
+         * @param[in] catalogo Ricerca dei libri per ISBN (titolo e autore), oppure null.
+         * @param[in] classifica Lunghezza delle classifiche.
+         * @param[in] inizioAnalisi Istante di inizio dell'analisi (System.nanoTime()).
+         * @return Il rapporto.
+         */
+        Rapporto rapporto(LocalDate a, Function<String, Libro> catalogo, int classifica, long inizioAnalisi) {
+            Accumulatore totale = new Accumulatore(giorni, mesi);
+            totale.adatta(isbn.size());
+            if (parziali != null) {
+                for (Accumulatore p : parziali) {
+                    totale.unisci(p);
+                }
+            }
+            int libri = isbn.size();
+            Libro[] descrizioni = new Libro[libri];
+            int[] perLibro = new int[libri];
+            for (int l = 0; l < libri; l++) {
+                for (int m = 0; m < mesi; m++) {
+                    perLibro[l] += totale.perLibroMese[l * mesi + m];
+                }
+                if (perLibro[l] > 0) {
+                    Libro libro = catalogo == null ? null : catalogo.apply(isbn.get(l));
+                    descrizioni[l] = libro != null ? libro : libriAttivi.get(isbn.get(l));
+                }
+            }
+
+            Map<YearMonth, List<TitoloPrestato>> titoliPerMese = new LinkedHashMap<>();
+            YearMonth primoMese = YearMonth.from(da);
+            for (int m = 0; m < mesi; m++) {
+                List<TitoloPrestato> titoli = new ArrayList<>();
+                for (int l : migliori(totale.perLibroMese, m, mesi, libri, classifica)) {
+                    Libro libro = descrizioni[l];
+                    titoli.add(new TitoloPrestato(isbn.get(l), libro != null ? libro.getTitolo() : isbn.get(l),
+                            libro != null ? libro.getAutore() : AUTORE_SCONOSCIUTO, totale.perLibroMese[l * mesi + m]));
+                }
+                titoliPerMese.put(primoMese.plusMonths(m), titoli);
+            }
+
+            HashMap<String, long[]> perAutore = new HashMap<>();
+            for (int l = 0; l < libri; l++) {
+                if (perLibro[l] > 0) {
+                    String autore = descrizioni[l] != null ? descrizioni[l].getAutore() : AUTORE_SCONOSCIUTO;
+                    long[] conteggi = perAutore.computeIfAbsent(autore, k -> new long[2]);
+                    conteggi[0] += perLibro[l];
+                    conteggi[1] += totale.ritardiLibro[l];
+                }
+            }
+            List<RitardiAutore> ritardiPerAutore = new ArrayList<>(perAutore.size());
+            for (Map.Entry<String, long[]> e : perAutore.entrySet()) {
+                ritardiPerAutore.add(new RitardiAutore(e.getKey(), e.getValue()[0], e.getValue()[1]));
+            }
+            ritardiPerAutore.sort((x, y) -> {
+                int confronto = Long.compare(y.inRitardo * x.prestiti, x.inRitardo * y.prestiti);
+                if (confronto == 0) {
+                    confronto = Long.compare(y.prestiti, x.prestiti);
+                }
+                return confronto != 0 ? confronto : x.autore.compareTo(y.autore);
+            });
+
+            List<GiornoPicco> giorniDiPicco = new ArrayList<>();
+            for (int g : migliori(totale.perGiorno, 0, 1, giorni, classifica)) {
+                giorniDiPicco.add(new GiornoPicco(da.plusDays(g), totale.perGiorno[g]));
+            }
+            long[] perGiornoSettimana = new long[7];
+            int giornoSettimana = da.getDayOfWeek().getValue() - 1;
+            for (int g = 0; g < giorni; g++) {
+                perGiornoSettimana[(giornoSettimana + g) % 7] += totale.perGiorno[g];
+            }
+
+            double durataMedia = totale.chiusi == 0 ? 0 : (double) totale.sommaDurate / totale.chiusi;
+            return new Rapporto(da, a, totale.prestiti, totale.chiusi, totale.inRitardo, durataMedia, titoliPerMese,
+                    ritardiPerAutore, giorniDiPicco, perGiornoSettimana, classifica, System.nanoTime() - inizioAnalisi);
+        }
+    }
+
+    /**
+     * @brief Compito fork/join: divide la porzione corrente tra gli accumulatori da primo a ultimo
+     * (escluso), in parti contigue di uguale dimensione, una per accumulatore.
+     */
+    private static final class Parte extends RecursiveAction {
+
+        private final Calcolo calcolo; ///< Il calcolo con la porzione corrente.
+        private final int primo; ///< Primo accumulatore.
+        private final int ultimo; ///< Accumulatore successivo all'ultimo.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] calcolo Il calcolo.
+         * @param[in] primo Primo accumulatore.
+         * @param[in] ultimo Accumulatore successivo all'ultimo.
+         */
+        Parte(Calcolo calcolo, int primo, int ultimo) {
+            this.calcolo = calcolo;
+            this.primo = primo;
+            this.ultimo = ultimo;
+        }
+
+        @Override
+        protected void compute() {
+            if (ultimo - primo == 1) {
+                long righe = calcolo.righe;
+                int parti = calcolo.parziali.length;
+                calcolo.parziali[primo].aggiungi(calcolo, (int) (righe * primo / parti), (int) (righe * (primo + 1) / parti));
+            } else {
+                int mezzo = (primo + ultimo) >>> 1;
+                invokeAll(new Parte(calcolo, primo, mezzo), new Parte(calcolo, mezzo, ultimo));
+            }
+        }
+    }
+
+    private final ForkJoinPool pool; ///< Pool del calcolo parallelo.
+    private int classifica = CLASSIFICA_PREDEFINITA; ///< Lunghezza delle classifiche.
+
+    /**
+     * @brief Costruttore.
+     * @param[in] pool Il pool del calcolo parallelo (es. ForkJoinPool.commonPool()).
+     */
+    public AnalisiPrestiti(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @brief Imposta la lunghezza delle classifiche (titoli per mese e giorni di picco).
+     * @param[in] classifica Il numero di voci di ogni classifica.
+     * @throws IllegalArgumentException Se classifica non è positivo.
+     */
+    public void setClassifica(int classifica) {
+        if (classifica <= 0) {
+            throw new IllegalArgumentException("La classifica deve contenere almeno una voce.");
+        }
+        this.classifica = classifica;
+    }
+
+    /**
+     * @brief Analizza i prestiti dello storico dell'elenco (se attivo) e i suoi prestiti attivi.
+     * @param[in] elenco L'elenco (vedi Elenco.getStorico() ed Elenco.prestitiAttivi()).
+     * @param[in] catalogo Il catalogo, per titoli e autori.
+     * @param[in] da Primo giorno del periodo.
+     * @param[in] a Ultimo giorno del periodo (incluso).
+     * @param[in] oggi Giorno rispetto al quale i prestiti attivi sono in ritardo (es. LocalDate.now()).
+     * @return Il rapporto.
+     * @throws IOException Se lo storico non può essere letto.
+     */
+    public Rapporto analizza(Elenco elenco, Catalogo catalogo, LocalDate da, LocalDate a, LocalDate oggi) throws IOException {
+        return analizza(elenco.getStorico(), elenco.prestitiAttivi(), catalogo::cercaLibroPerISBN, da, a, oggi);
+    }
+
+    /**
+     * @brief Analizza i prestiti iniziati tra da e a: quelli chiusi dello storico e quelli attivi indicati.
+     * Un prestito è in ritardo se è stato restituito dopo la scadenza o se, ancora attivo, è scaduto prima di oggi.
+     * @param[in] storico Lo storico dei prestiti chiusi, oppure null.
+     * @param[in] attivi I prestiti attivi (es. Elenco.prestitiAttivi()).
+     * @param[in] catalogo Ricerca dei libri per ISBN, per titoli e autori (es. Catalogo::cercaLibroPerISBN), oppure null.
+     * @param[in] da Primo giorno del periodo.
+     * @param[in] a Ultimo giorno del periodo (incluso).
+     * @param[in] oggi Giorno rispetto al quale i prestiti attivi sono in ritardo.
+     * @return Il rapporto.
+     * @throws IOException Se lo storico non può essere letto.
+     * @throws IllegalArgumentException Se a precede da.
+     */
+    public Rapporto analizza(StoricoPrestiti storico, Collection<Prestito> attivi, Function<String, Libro> catalogo,
+            LocalDate da, LocalDate a, LocalDate oggi) throws IOException {
+        if (a.isBefore(da)) {
+            throw new IllegalArgumentException("Periodo non valido: " + da + " - " + a);
+        }
+        long inizio = System.nanoTime();
+        Calcolo calcolo = new Calcolo(da, a, oggi);
+        if (storico != null) {
+            storico.scorri(calcolo::aggiungiBlocco);
+        }
+        calcolo.aggiungiAttivi(attivi);
+        calcolo.elabora();
+        return calcolo.rapporto(a, catalogo, classifica, inizio);
+    }
+
+    /**
+     * @brief Restituisce le posizioni dei valori maggiori (e positivi) tra valori[base + i * passo], per i da 0 a numero.
+     * @param[in] valori I valori.
+     * @param[in] base La posizione del primo valore.
+     * @param[in] passo La distanza tra due valori consecutivi.
+     * @param[in] numero Il numero di valori.
+     * @param[in] n Il numero massimo di posizioni da restituire.
+     * @return Gli indici i dei valori, in ordine di valore decrescente (a parità, di indice crescente).
+     */
+    static int[] migliori(int[] valori, int base, int passo, int numero, int n) {
+        int[] indici = new int[n];
+        int[] massimi = new int[n];
+        int trovati = 0;
+        for (int i = 0; i < numero; i++) {
+            int v = valori[base + i * passo];
+            if (v <= 0 || (trovati == n && v <= massimi[n - 1])) {
+                continue;
+            }
+            int j = trovati < n ? trovati++ : n - 1;
+            while (j > 0 && massimi[j - 1] < v) {
+                massimi[j] = massimi[j - 1];
+                indici[j] = indici[j - 1];
+                j--;
+            }
+            massimi[j] = v;
+            indici[j] = i;
+        }
+        return Arrays.copyOf(indici, trovati);
+    }
+
+    /**
+     * @brief Analisi da riga di comando sui dati di una cartella (catalogo, elenco e storico dei prestiti).
+     * Opzioni: --da AAAA-MM-GG, --a AAAA-MM-GG (predefinito: l'anno che termina oggi), --oggi AAAA-MM-GG,
+     * --classifica N; l'ultimo argomento facoltativo è la cartella dei dati (predefinita: vedi CartellaDati).
+     * Esempio: java ... AnalisiPrestiti --da 2025-01-01 --a 2025-12-31 dati/
+     * @param[in] args Gli argomenti.
+     * @throws IOException Se lo storico non può essere letto.
+     */
+    public static void main(String[] args) throws IOException {
+        LocalDate oggi = LocalDate.now();
+        LocalDate da = null;
+        LocalDate a = null;
+        AnalisiPrestiti analisi = new AnalisiPrestiti(ForkJoinPool.commonPool());
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 < args.length) {
+                String valore = args[++i];
+                switch (args[i - 1]) {
+                    case "--da":
+                        da = LocalDate.parse(valore);
+                        break;
+                    case "--a":
+                        a = LocalDate.parse(valore);
+                        break;
+                    case "--oggi":
+                        oggi = LocalDate.parse(valore);
+                        break;
+                    case "--classifica":
+                        analisi.setClassifica(Integer.parseInt(valore));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opzione sconosciuta: " + args[i - 1]);
+                }
+            } else {
+                System.setProperty(CartellaDati.PROPRIETA_CARTELLA, args[i]);
+            }
+        }
+        if (a == null) {
+            a = oggi;
+        }
+        if (da == null) {
+            da = a.minusYears(1).plusDays(1);
+        }
+        Elenco elenco = Elenco.getIstanza();
+        File file = new File(CartellaDati.percorso(CaricamentoIniziale.NOME_FILE_STORICO));
+        if (file.exists()) {
+            elenco.setStorico(new StoricoPrestiti(file));
+        }
+        System.out.print(analisi.analizza(elenco, Catalogo.getIstanza(), da, a, oggi));
+    }
+}
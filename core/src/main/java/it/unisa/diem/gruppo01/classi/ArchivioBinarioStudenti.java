@@ -0,0 +1,248 @@
+/**
+*@file ArchivioBinarioStudenti.java
+*@brief Questo file contiene il formato binario versionato usato per salvare
+* e caricare l'elenco degli studenti con i relativi prestiti.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @brief Lettura e scrittura dell'elenco studenti in formato binario.
+ * Struttura del file (interi in big-endian, come DataOutputStream):
+ * - intestazione: MAGIA (int), VERSIONE (int), numero di studenti (int), numero totale di prestiti (int);
+ * - per ogni studente: cognome, nome, matricola, email, sanzione (stringhe), ritardo (byte),
+ *   fine del blocco di Categoria 2 (data, solo dalla versione 2), numero di prestiti (int);
+ * - per ogni prestito: isbn, titolo, autore (stringhe), anno di pubblicazione, data di inizio,
+ *   data di scadenza, data di restituzione (date).
+ *
+ * Le stringhe sono precedute dalla lunghezza in byte (int) e codificate in UTF-8; la lunghezza -1
+ * indica null. Le date sono scritte come giorno epoch (long), con DATA_ASSENTE per null.
+ * Gli studenti vengono scritti nell'ordine dell'elenco, così che il caricamento possa
+ * ricostruire il TreeSet in tempo lineare. Gli archivi della versione 1 (senza fine del blocco)
+ * vengono ancora letti, con gli studenti privi di blocco.
+ */
+final class ArchivioBinarioStudenti {
+
+    static final int MAGIA = 0x53545544; ///< Firma del file ("STUD").
+    static final int VERSIONE = 2; ///< Versione corrente del formato.
+    private static final long DATA_ASSENTE = Long.MIN_VALUE; ///< Valore scritto per una data nulla.
+    private static final int PASSO_AVANZAMENTO = 4096; ///< Studenti letti tra un aggiornamento dell'avanzamento e il successivo.
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private ArchivioBinarioStudenti() {
+    }
+
+    /**
+     * @brief Scrive gli studenti e i loro prestiti nel file.
+     * Il file viene scritto su un file temporaneo e poi sostituito all'originale,
+     * così che un'interruzione non lasci un archivio incompleto.
+     * @param[in] studenti Gli studenti da salvare, nell'ordine dell'elenco.
+     * @param[in] file Il file di destinazione.
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    static void scrivi(Collection<Studente> studenti, File file) throws IOException {
+        int numeroPrestiti = 0;
+        for (Studente s : studenti) {
+            numeroPrestiti += s.getPrestitiAttivi().size();
+        }
+
+        File temporaneo = new File(file.getPath() + ".tmp");
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaneo), 1 << 16))) {
+            dos.writeInt(MAGIA);
+            dos.writeInt(VERSIONE);
+            dos.writeInt(studenti.size());
+            dos.writeInt(numeroPrestiti);
+
+            for (Studente s : studenti) {
+                scriviStringa(dos, s.getCognome());
+                scriviStringa(dos, s.getNome());
+                scriviStringa(dos, s.getMatricola());
+                scriviStringa(dos, s.getEmail());
+                scriviStringa(dos, s.getSanzione());
+                dos.writeBoolean(s.isRitardo());
+                scriviData(dos, s.getFineBlocco());
+
+                List<Prestito> prestiti = s.getPrestitiAttivi();
+                dos.writeInt(prestiti.size());
+                for (Prestito p : prestiti) {
+                    Libro libro = p.getLibro();
+                    scriviStringa(dos, libro.getIsbn());
+                    scriviStringa(dos, libro.getTitolo());
+                    scriviStringa(dos, libro.getAutore());
+                    scriviData(dos, libro.getAnnoPb());
+                    scriviData(dos, p.getDataInizio());
+                    scriviData(dos, p.getDataScadenza());
+                    scriviData(dos, p.getDataRestituzione());
+                }
+            }
+        }
+
+        try {
+            Files.move(temporaneo.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporaneo.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @brief Legge gli studenti e i loro prestiti dal file.
+     * Il file viene letto per intero in memoria e decodificato direttamente dall'array di byte.
+     * @param[in] file Il file da leggere.
+     * @return Gli studenti, nell'ordine in cui sono stati scritti.
+     * @throws IOException Se il file non esiste, non è un archivio studenti, ha una versione
+     * non supportata oppure è troncato.
+     */
+    static List<Studente> leggi(File file) throws IOException {
+        return leggi(file, null);
+    }
+
+    /**
+     * @brief Legge gli studenti dal file, come leggi(File), aggiornando l'avanzamento
+     * (un record per studente) man mano che gli studenti vengono decodificati.
+     * @param[in] file Il file da leggere.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @return Gli studenti, nell'ordine in cui sono stati scritti.
+     * @throws IOException Se il file non esiste, non è un archivio studenti, ha una versione
+     * non supportata oppure è troncato.
+     */
+    static List<Studente> leggi(File file, AvanzamentoCaricamento avanzamento) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (avanzamento != null) {
+            avanzamento.aggiungiByteTotali(buffer.capacity());
+        }
+        int segnalati = 0; // byte già conteggiati nell'avanzamento
+        try {
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIA) {
+                throw new IOException("Il file " + file.getName() + " non è un archivio studenti.");
+            }
+            int versione = buffer.getInt();
+            if (versione != 1 && versione != VERSIONE) {
+                throw new IOException("Versione dell'archivio studenti non supportata: " + versione);
+            }
+            int numeroStudenti = buffer.getInt();
+            int numeroPrestiti = buffer.getInt();
+            if (numeroStudenti < 0 || numeroPrestiti < 0) {
+                throw new IOException("Intestazione dell'archivio studenti non valida.");
+            }
+
+            // Ogni studente occupa almeno 29 byte: la capacità iniziale non può superare quanto il file contiene
+            List<Studente> studenti = new ArrayList<>(Math.min(numeroStudenti, buffer.remaining() / 29));
+            for (int i = 0; i < numeroStudenti; i++) {
+                String cognome = leggiStringa(buffer);
+                String nome = leggiStringa(buffer);
+                String matricola = leggiStringa(buffer);
+                String email = leggiStringa(buffer);
+                String sanzione = leggiStringa(buffer);
+                boolean ritardo = buffer.get() != 0;
+                Studente studente = new Studente(cognome, nome, matricola, email, sanzione, ritardo);
+                if (versione >= 2) {
+                    studente.setFineBlocco(leggiData(buffer));
+                }
+
+                int prestiti = buffer.getInt();
+                for (int j = 0; j < prestiti; j++) {
+                    String isbn = leggiStringa(buffer);
+                    String titolo = leggiStringa(buffer);
+                    String autore = leggiStringa(buffer);
+                    LocalDate annoPb = leggiData(buffer);
+                    LocalDate dataInizio = leggiData(buffer);
+                    LocalDate dataScadenza = leggiData(buffer);
+                    LocalDate dataRestituzione = leggiData(buffer);
+
+                    Libro libro = new Libro(isbn, titolo, autore, annoPb, 0);
+                    studente.aggiungiPrestito(new Prestito(libro, studente, dataInizio, dataScadenza, dataRestituzione));
+                }
+                studenti.add(studente);
+                if (avanzamento != null && (i + 1) % PASSO_AVANZAMENTO == 0) {
+                    avanzamento.avanza(PASSO_AVANZAMENTO, buffer.position() - segnalati);
+                    segnalati = buffer.position();
+                }
+            }
+            if (avanzamento != null) {
+                avanzamento.avanza(numeroStudenti % PASSO_AVANZAMENTO, buffer.capacity() - segnalati);
+            }
+            return studenti;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | DateTimeException ex) {
+            throw new EOFException("Archivio studenti troncato o danneggiato: " + file.getName());
+        }
+    }
+
+    /**
+     * @brief Scrive una stringa preceduta dalla sua lunghezza in byte.
+     * @param[in] dos Lo stream di destinazione.
+     * @param[in] valore La stringa (può essere null).
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    private static void scriviStringa(DataOutputStream dos, String valore) throws IOException {
+        if (valore == null) {
+            dos.writeInt(-1);
+            return;
+        }
+        byte[] byteValore = valore.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(byteValore.length);
+        dos.write(byteValore);
+    }
+
+    /**
+     * @brief Legge una stringa preceduta dalla sua lunghezza in byte.
+     * @param[in] buffer Il buffer posizionato sulla lunghezza.
+     * @return La stringa letta, oppure null.
+     */
+    private static String leggiStringa(ByteBuffer buffer) {
+        int lunghezza = buffer.getInt();
+        if (lunghezza < 0) {
+            return null;
+        }
+        int posizione = buffer.position();
+        String valore = new String(buffer.array(), buffer.arrayOffset() + posizione, lunghezza, StandardCharsets.UTF_8);
+        buffer.position(posizione + lunghezza);
+        return valore;
+    }
+
+    /**
+     * @brief Scrive una data come giorno epoch.
+     * @param[in] dos Lo stream di destinazione.
+     * @param[in] data La data (può essere null).
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    private static void scriviData(DataOutputStream dos, LocalDate data) throws IOException {
+        dos.writeLong(data == null ? DATA_ASSENTE : data.toEpochDay());
+    }
+
+    /**
+     * @brief Legge una data scritta come giorno epoch.
+     * @param[in] buffer Il buffer posizionato sulla data.
+     * @return La data letta, oppure null.
+     */
+    private static LocalDate leggiData(ByteBuffer buffer) {
+        long giorno = buffer.getLong();
+        return giorno == DATA_ASSENTE ? null : LocalDate.ofEpochDay(giorno);
+    }
+}
@@ -0,0 +1,160 @@
+/**
+*@file ArchivioNormalizzatoStudenti.java
+*@brief Questo file contiene il formato normalizzato usato per salvare e caricare
+* l'elenco degli studenti, con gli studenti e i prestiti in due file CSV separati.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * @brief Lettura e scrittura dell'elenco studenti in formato normalizzato.
+ * Invece di ripetere i dati dello studente e del libro su ogni riga di prestito (come Lista_studenti.csv),
+ * l'archivio è composto da due file CSV, con le stesse due righe di intestazione degli altri file:
+ * - studenti: Cognome;Nome;Matricola;Email;Sanzione;Ritardo;FineBlocco (una riga per studente),
+ *   con la fine del blocco di Categoria 2 scritta come giorno epoch e vuota se assente;
+ * - prestiti: Matricola;ISBN;DataInizio;DataScadenza;DataRestituzione (una riga per prestito attivo),
+ *   con le date scritte come giorno epoch (LocalDate.toEpochDay()) e la restituzione vuota se assente.
+ *
+ * Titolo, autore e anno dei libri non vengono salvati: il caricamento collega ogni prestito allo
+ * studente con un hash join sulla matricola e crea un solo libro provvisorio (con il solo ISBN) per
+ * ogni ISBN, da collegare al catalogo con Elenco.riconciliaPrestiti(). I nuovi prestiti possono
+ * essere accodati al file dei prestiti senza riscrivere gli studenti (accodaPrestiti()).
+ */
+final class ArchivioNormalizzatoStudenti {
+
+    private static final String SEPARATORE = ";"; ///< Separatore dei campi.
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private ArchivioNormalizzatoStudenti() {
+    }
+
+    /**
+     * @brief Scrive gli studenti e i loro prestiti nei due file.
+     * Ciascun file viene scritto su un file temporaneo e poi sostituito all'originale,
+     * così che un'interruzione non lasci un file incompleto.
+     * @param[in] studenti Gli studenti da salvare, nell'ordine dell'elenco.
+     * @param[in] fileStudenti Il file degli studenti.
+     * @param[in] filePrestiti Il file dei prestiti.
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    static void scrivi(Collection<Studente> studenti, File fileStudenti, File filePrestiti) throws IOException {
+        File temporaneo = new File(fileStudenti.getPath() + ".tmp");
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(temporaneo), 1 << 16))) {
+            pw.println("Elenco Studenti");
+            pw.println("Cognome; Nome; Matricola; Email; Sanzione; Ritardo; FineBlocco");
+            for (Studente s : studenti) {
+                LocalDate fineBlocco = s.getFineBlocco();
+                pw.println(s.getCognome() + SEPARATORE + s.getNome() + SEPARATORE + s.getMatricola() + SEPARATORE
+                        + s.getEmail() + SEPARATORE + s.getSanzione() + SEPARATORE + s.isRitardo() + SEPARATORE
+                        + (fineBlocco != null ? fineBlocco.toEpochDay() : ""));
+            }
+            verifica(pw, temporaneo);
+        }
+        sostituisci(temporaneo, fileStudenti);
+
+        temporaneo = new File(filePrestiti.getPath() + ".tmp");
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(temporaneo), 1 << 16))) {
+            pw.println("Elenco Prestiti");
+            pw.println("Matricola; ISBN; DataInizio; DataScadenza; DataRestituzione");
+            for (Studente s : studenti) {
+                for (Prestito p : s.getPrestitiAttivi()) {
+                    scriviPrestito(pw, s.getMatricola(), p);
+                }
+            }
+            verifica(pw, temporaneo);
+        }
+        sostituisci(temporaneo, filePrestiti);
+    }
+
+    /**
+     * @brief Accoda dei prestiti al file dei prestiti, senza riscrivere nessuno dei due file.
+     * @pre Il file dei prestiti esiste ed è stato scritto da scrivi().
+     * @param[in] prestiti I prestiti da accodare.
+     * @param[in] filePrestiti Il file dei prestiti.
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    static void accodaPrestiti(Collection<Prestito> prestiti, File filePrestiti) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(filePrestiti, true)))) {
+            for (Prestito p : prestiti) {
+                scriviPrestito(pw, p.getStudente().getMatricola(), p);
+            }
+            verifica(pw, filePrestiti);
+        }
+    }
+
+    /**
+     * @brief Legge gli studenti e collega loro i prestiti (hash join sulla matricola).
+     * I prestiti di matricole assenti dal file degli studenti vengono segnalati e scartati.
+     * @param[in] fileStudenti Il file degli studenti.
+     * @param[in] filePrestiti Il file dei prestiti.
+     * @param[in] avanzamento L'avanzamento da aggiornare durante la lettura dei due file, oppure null.
+     * @return Gli studenti letti, con i loro prestiti, indicizzati per matricola.
+     * @throws IOException Se uno dei due file non esiste o non può essere letto.
+     */
+    static HashMap<String, Studente> leggi(File fileStudenti, File filePrestiti, AvanzamentoCaricamento avanzamento) throws IOException {
+        // Fase di costruzione: la tabella hash degli studenti per matricola
+        HashMap<String, Studente> studenti = LettoreCSVMappato.leggiAnagrafiche(fileStudenti, avanzamento);
+        // Fase di sondaggio: ogni prestito cerca il suo studente nella tabella
+        LettoreCSVMappato.leggiPrestiti(filePrestiti, studenti, avanzamento);
+        return studenti;
+    }
+
+    /**
+     * @brief Scrive la riga di un prestito.
+     * @param[in] pw Lo stream di destinazione.
+     * @param[in] matricola La matricola dello studente.
+     * @param[in] p Il prestito.
+     */
+    private static void scriviPrestito(PrintWriter pw, String matricola, Prestito p) {
+        LocalDate restituzione = p.getDataRestituzione();
+        pw.println(matricola + SEPARATORE + p.getLibro().getIsbn() + SEPARATORE + p.getDataInizio().toEpochDay() + SEPARATORE
+                + p.getDataScadenza().toEpochDay() + SEPARATORE + (restituzione != null ? restituzione.toEpochDay() : ""));
+    }
+
+    /**
+     * @brief Segnala gli errori di scrittura, che PrintWriter non solleva.
+     * @param[in] pw Lo stream da verificare.
+     * @param[in] file Il file scritto, per il messaggio di errore.
+     * @throws IOException Se una scrittura non è riuscita.
+     */
+    private static void verifica(PrintWriter pw, File file) throws IOException {
+        if (pw.checkError()) {
+            throw new IOException("scrittura non riuscita su " + file.getPath());
+        }
+    }
+
+    /**
+     * @brief Sostituisce il file con il file temporaneo appena scritto.
+     * @param[in] temporaneo Il file temporaneo.
+     * @param[in] file Il file da sostituire.
+     * @throws IOException Se la sostituzione non riesce.
+     */
+    private static void sostituisci(File temporaneo, File file) throws IOException {
+        try {
+            Files.move(temporaneo.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporaneo.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
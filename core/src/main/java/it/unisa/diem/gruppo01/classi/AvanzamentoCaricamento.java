@@ -0,0 +1,94 @@
+/**
+*@file AvanzamentoCaricamento.java
+*@brief Questo file contiene il contatore dell'avanzamento del caricamento dei file dati
+* (righe lette e byte letti).
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @brief Avanzamento di un caricamento: righe (o record) lette, byte letti e byte da leggere.
+ * Viene aggiornato dai thread che leggono il file (anche più thread contemporaneamente,
+ * nell'importazione parallela) a blocchi di righe, e può essere letto in qualsiasi momento
+ * da un altro thread (es. l'interfaccia che mostra una barra di avanzamento).
+ * I valori letti sono coerenti singolarmente, non tra loro.
+ */
+public final class AvanzamentoCaricamento {
+
+    private final AtomicLong righe = new AtomicLong(); ///< Righe (o record) di dati lette.
+    private final AtomicLong byteLetti = new AtomicLong(); ///< Byte letti.
+    private final AtomicLong byteTotali = new AtomicLong(); ///< Byte dei file da leggere, noti appena i file vengono aperti.
+
+    /**
+     * @brief Aggiunge ai byte da leggere la dimensione di un file appena aperto.
+     * @param[in] dimensione La dimensione del file, in byte.
+     */
+    public void aggiungiByteTotali(long dimensione) {
+        byteTotali.addAndGet(dimensione);
+    }
+
+    /**
+     * @brief Registra un blocco di righe lette.
+     * @param[in] righe Le righe lette dall'ultimo aggiornamento.
+     * @param[in] byteLetti I byte letti dall'ultimo aggiornamento.
+     */
+    public void avanza(long righe, long byteLetti) {
+        this.righe.addAndGet(righe);
+        this.byteLetti.addAndGet(byteLetti);
+    }
+
+    /**
+     * @brief Restituisce il numero di righe lette finora.
+     * @return Le righe lette.
+     */
+    public long getRighe() {
+        return righe.get();
+    }
+
+    /**
+     * @brief Restituisce il numero di byte letti finora.
+     * @return I byte letti.
+     */
+    public long getByteLetti() {
+        return byteLetti.get();
+    }
+
+    /**
+     * @brief Restituisce il numero di byte da leggere.
+     * @return I byte dei file aperti finora, 0 se nessun file è stato ancora aperto.
+     */
+    public long getByteTotali() {
+        return byteTotali.get();
+    }
+
+    /**
+     * @brief Restituisce la frazione del caricamento completata.
+     * @return Un valore tra 0 e 1, oppure -1 se la dimensione dei file non è ancora nota.
+     */
+    public double getFrazione() {
+        long totali = byteTotali.get();
+        if (totali == 0) {
+            return -1;
+        }
+        return Math.min(1.0, (double) byteLetti.get() / totali);
+    }
+
+    /**
+     * @brief Restituisce una descrizione dell'avanzamento (es. "12345 righe, 1,5 MB di 3,0 MB").
+     * @return La descrizione.
+     */
+    @Override
+    public String toString() {
+        double mega = 1024.0 * 1024.0;
+        return String.format("%d righe, %.1f MB di %.1f MB", righe.get(), byteLetti.get() / mega, byteTotali.get() / mega);
+    }
+}
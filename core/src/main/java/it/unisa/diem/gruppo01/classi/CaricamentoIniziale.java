@@ -0,0 +1,166 @@
+/**
+*@file CaricamentoIniziale.java
+*@brief Questo file contiene il caricamento in background, all'avvio, del catalogo
+* e dell'elenco studenti condivisi dall'applicazione.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @brief Carica in parallelo, ciascuno su un proprio thread in background, il Catalogo e
+ * l'Elenco condivisi (Catalogo.getIstanza(), Elenco.getIstanza()) e ne attiva la persistenza
+ * dell'applicazione: registro delle modifiche per il catalogo, salvataggio automatico per entrambi e
+ * storico dei prestiti chiusi per l'elenco (StoricoPrestiti).
+ * Terminati entrambi, i prestiti dell'elenco vengono collegati ai libri del catalogo
+ * (Elenco.riconciliaPrestiti()), gli ISBN orfani restano disponibili con getIsbnOrfani() e viene
+ * avviato il ricalcolo delle sanzioni (subito e poi ogni notte, vedi RicalcoloSanzioni).
+ *
+ * Il caricamento parte alla prima invocazione di avvia(), così che la prima finestra possa essere
+ * mostrata subito, indipendentemente dalla dimensione dei file; l'avanzamento di ciascun caricamento
+ * può essere letto in qualsiasi momento e getCompletamento() segnala la fine (o l'errore).
+ * Le istanze condivise vanno usate solo dopo il completamento: le invocazioni precedenti di
+ * getIstanza() attenderebbero la fine del caricamento.
+ */
+public final class CaricamentoIniziale {
+
+    static final String NOME_FILE_STORICO = "Storico_prestiti.dat"; ///< File dello storico dei prestiti chiusi, nella cartella dei dati.
+
+    private static CaricamentoIniziale istanza; ///< Caricamento avviato dall'applicazione, null se non ancora avviato.
+
+    private final AvanzamentoCaricamento avanzamentoCatalogo = new AvanzamentoCaricamento(); ///< Avanzamento della lettura del catalogo.
+    private final AvanzamentoCaricamento avanzamentoElenco = new AvanzamentoCaricamento(); ///< Avanzamento della lettura dell'elenco studenti.
+    private final CompletableFuture<Void> completamento; ///< Completato quando entrambi i caricamenti e la riconciliazione sono terminati.
+    private volatile SortedSet<String> isbnOrfani = Collections.emptySortedSet(); ///< ISBN dei prestiti assenti dal catalogo.
+    private volatile RicalcoloSanzioni ricalcoloSanzioni; ///< Ricalcolo notturno delle sanzioni, null finché il caricamento non è completato.
+
+    /**
+     * @brief Costruttore privato: avvia i due caricamenti (vedi avvia()).
+     */
+    private CaricamentoIniziale() {
+        CompletableFuture<Void> catalogo = CompletableFuture.runAsync(() -> {
+            Catalogo c = Catalogo.getIstanza(avanzamentoCatalogo);
+            c.setJournaling(true);
+            c.setSalvataggioAutomatico(SalvataggioAutomatico.getIstanza());
+        }, threadDedicato("caricamento-catalogo"));
+        CompletableFuture<Void> elenco = CompletableFuture.runAsync(() -> {
+            Elenco e = Elenco.getIstanza(avanzamentoElenco);
+            e.setStorico(apriStorico());
+            e.setSalvataggioAutomatico(SalvataggioAutomatico.getIstanza());
+        }, threadDedicato("caricamento-elenco"));
+        this.completamento = CompletableFuture.allOf(catalogo, elenco).thenRun(() -> {
+            isbnOrfani = Elenco.getIstanza().riconciliaPrestiti(Catalogo.getIstanza());
+            RicalcoloSanzioni ricalcolo = new RicalcoloSanzioni(Elenco.getIstanza(), ForkJoinPool.commonPool(), RicalcoloSanzioni.oraConfigurata());
+            ricalcolo.avvia();
+            ricalcoloSanzioni = ricalcolo;
+        });
+    }
+
+    /**
+     * @brief Avvia il caricamento dei dati condivisi, solo la prima volta che viene invocato.
+     * @return Il caricamento, già avviato.
+     */
+    public static synchronized CaricamentoIniziale avvia() {
+        if (istanza == null) {
+            istanza = new CaricamentoIniziale();
+        }
+        return istanza;
+    }
+
+    /**
+     * @brief Apre lo storico dei prestiti chiusi nella cartella dei dati, compattandolo se è
+     * frammentato in molti blocchi piccoli (vedi StoricoPrestiti.compattaSeFrammentato()).
+     * @return Lo storico, oppure null se non può essere aperto (i prestiti chiusi non vengono conservati).
+     */
+    private static StoricoPrestiti apriStorico() {
+        try {
+            StoricoPrestiti storico = new StoricoPrestiti(new File(CartellaDati.percorso(NOME_FILE_STORICO)));
+            storico.compattaSeFrammentato();
+            return storico;
+        } catch (IOException ex) {
+            Logger.getLogger(CaricamentoIniziale.class.getName()).log(Level.SEVERE, "Impossibile aprire lo storico dei prestiti.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * @brief Crea un esecutore che esegue il suo compito su un nuovo thread daemon,
+     * così che un caricamento ancora in corso non impedisca la chiusura dell'applicazione.
+     * @param[in] nome Il nome del thread.
+     * @return L'esecutore.
+     */
+    private static Executor threadDedicato(String nome) {
+        return compito -> {
+            Thread thread = new Thread(compito, nome);
+            thread.setDaemon(true);
+            thread.start();
+        };
+    }
+
+    /**
+     * @brief Restituisce l'avanzamento della lettura del catalogo.
+     * @return L'avanzamento (righe del file CSV dei libri).
+     */
+    public AvanzamentoCaricamento getAvanzamentoCatalogo() {
+        return avanzamentoCatalogo;
+    }
+
+    /**
+     * @brief Restituisce l'avanzamento della lettura dell'elenco studenti.
+     * @return L'avanzamento (righe del file CSV o studenti dell'archivio binario).
+     */
+    public AvanzamentoCaricamento getAvanzamentoElenco() {
+        return avanzamentoElenco;
+    }
+
+    /**
+     * @brief Restituisce il completamento dei caricamenti: termina normalmente quando catalogo
+     * ed elenco sono pronti e riconciliati, eccezionalmente se uno dei due caricamenti è fallito.
+     * Le azioni collegate vengono eseguite sul thread dell'ultimo caricamento che termina
+     * (o su quello che le collega, se i caricamenti sono già terminati).
+     * @return Il completamento.
+     */
+    public CompletableFuture<Void> getCompletamento() {
+        return completamento;
+    }
+
+    /**
+     * @brief Restituisce gli ISBN dei prestiti che non corrispondono a nessun libro del catalogo.
+     * @return Gli ISBN orfani, in ordine; vuoto finché il caricamento non è completato.
+     */
+    public SortedSet<String> getIsbnOrfani() {
+        return isbnOrfani;
+    }
+
+    /**
+     * @brief Restituisce il ricalcolo delle sanzioni avviato al termine del caricamento.
+     * @return Il ricalcolo (con l'esito dell'ultima esecuzione), null finché il caricamento non è completato.
+     */
+    public RicalcoloSanzioni getRicalcoloSanzioni() {
+        return ricalcoloSanzioni;
+    }
+
+    /**
+     * @brief Indica se entrambi i caricamenti sono terminati con successo.
+     * @return true se catalogo ed elenco sono pronti.
+     */
+    public boolean isCompletato() {
+        return completamento.isDone() && !completamento.isCompletedExceptionally();
+    }
+}
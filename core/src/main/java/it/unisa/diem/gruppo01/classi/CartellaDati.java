@@ -0,0 +1,48 @@
+/**
+*@file CartellaDati.java
+*@brief Questo file contiene la risoluzione dei percorsi dei file dati
+* (catalogo, registro delle modifiche, elenco studenti).
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.File;
+
+/**
+ * @brief Cartella in cui Catalogo ed Elenco leggono e scrivono i propri file.
+ * Per impostazione predefinita è la working directory; la proprietà di sistema
+ * PROPRIETA_CARTELLA permette di usarne un'altra (es. per i benchmark, che non devono
+ * sovrascrivere i dati dell'applicazione). La proprietà viene letta alla creazione
+ * di ciascun Catalogo o Elenco.
+ */
+public final class CartellaDati {
+
+    public static final String PROPRIETA_CARTELLA = "gestionebiblioteca.cartella"; ///< Proprietà di sistema con la cartella dei file dati.
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private CartellaDati() {
+    }
+
+    /**
+     * @brief Restituisce il percorso di un file dati.
+     * @param[in] nomeFile Il nome del file (es. "Lista_Libri.csv").
+     * @return Il nome del file, relativo alla working directory, oppure il percorso del file
+     * nella cartella indicata da PROPRIETA_CARTELLA.
+     */
+    public static String percorso(String nomeFile) {
+        String cartella = System.getProperty(PROPRIETA_CARTELLA);
+        if (cartella == null || cartella.isEmpty()) {
+            return nomeFile;
+        }
+        return new File(cartella, nomeFile).getPath();
+    }
+}
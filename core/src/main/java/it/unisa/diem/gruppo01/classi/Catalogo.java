@@ -0,0 +1,1107 @@
+/**
+*@file Catalogo.java
+*@brief Questo file gestisce l'inventario dei libri della biblioteca.
+* Contiene la logica per aggiungere, rimuovere, modificare e cercare libri.
+* 
+* @author Gruppo01
+*@version 1.0
+*/
+
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.TreeSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+ 
+
+/**
+ * @brief Classe Singleton che gestisce l'inventario dei libri della biblioteca.
+ * Utilizza un TreeSet con un comparatore personalizzato (LibroComparator) 
+ * per mantenere i libri ordinati alfabeticamente per titolo.
+ * Gestisce inoltre il caricamento e il salvataggio dei dati su file CSV e,
+ * in modalità journaling, l'accodamento delle singole modifiche su un registro.
+ *
+ * Il catalogo può essere usato da più thread (più postazioni, salvataggio automatico):
+ * - le modifiche sono serializzate dal lock di scrittura di uno StampedLock;
+ * - la ricerca per ISBN legge l'indice primario (ConcurrentHashMap) senza lock, così come la ricerca
+ *   esatta per titolo e autore legge l'indice composto (liste immutabili sostituite a ogni modifica);
+ * - ricerche testuali e copie dell'inventario (istantaneaInventario()) vengono eseguite sotto
+ *   lock di lettura, così che più letture procedano insieme senza mai osservare una modifica a metà;
+ * - le variazioni del numero di copie sono atomiche (vedi Libro.decrementaCopie()).
+ * Ogni modifica viene notificata agli osservatori registrati (vedi OsservatoreModifiche).
+ */
+
+public class Catalogo {
+
+   /**
+     * Struttura dati che contiene tutti gli oggetti Libro, ordinati
+     * per titolo grazie al LibroComparator.
+     */
+    private static volatile Catalogo istanza;
+    
+    
+    private TreeSet<Libro> inventarioLibri; ///< Collezione ordinata dei libri (ordinamento per Titolo, poi Isbn).
+    
+    private final ConcurrentHashMap<String, Libro> indiceIsbn; ///< Indice primario ISBN -> Libro, allineato a inventarioLibri per ricerche in tempo costante e senza lock.
+    
+    private final StampedLock lock = new StampedLock(); ///< Serializza le modifiche; ricerche testuali e copie usano il lock di lettura.
+    
+    private IndiceTrigrammi indiceTesto; ///< Indice a trigrammi su titolo, autore e ISBN per la ricerca per sottostringa.
+    
+    private final ConcurrentHashMap<String, List<Libro>> indiceTitoloAutore; ///< Indice composto (titolo, autore) in minuscolo -> libri (edizioni) ordinati per ISBN, in liste non modificabili.
+
+    private final static String NOME_FILE_CSV = "Lista_Libri.csv"; ///< Nome del file utilizzato per la persistenza dei dati.
+    
+    private final static String NOME_FILE_LOG = "Lista_Libri.log"; ///< Nome del registro delle modifiche successive all'ultimo snapshot CSV.
+    
+    public final static int SOGLIA_COMPATTAZIONE = 1000; ///< Numero di record dopo il quale il registro viene compattato in un nuovo snapshot.
+    
+    public final static long SOGLIA_IMPORTAZIONE_PARALLELA = 8L * 1024 * 1024; ///< Dimensione del CSV (in byte) oltre la quale caricaCSV() importa in parallelo.
+    
+    private RegistroModifiche registro; ///< Registro append-only delle modifiche (write-ahead log).
+    
+    private boolean journaling; ///< Se true ogni modifica viene accodata al registro invece di riscrivere il CSV.
+    
+    private final AtomicBoolean modificato = new AtomicBoolean(); ///< true se ci sono modifiche non ancora scritte su disco.
+    
+    private SalvataggioAutomatico salvataggioAutomatico; ///< Pianificatore delle scritture in background, null se non attivo.
+    
+    private final List<OsservatoreModifiche<Libro>> osservatori = new CopyOnWriteArrayList<>(); ///< Osservatori delle modifiche, notificati sotto lock di scrittura.
+    
+    private final static String DIR = NOME_FILE_CSV; 
+    
+    private final File fileCSV; ///< File dello snapshot CSV, nella cartella dei dati (vedi CartellaDati).
+    
+    
+    /**
+     * @brief Costruttore della classe Catalogo.
+     * Inizializza il TreeSet con un'istanza di LibroComparator per definire l'ordinamento
+     * e gli indici (primario per ISBN, composto per titolo e autore e a trigrammi per la ricerca testuale).
+     * 
+     */
+    
+    public Catalogo() 
+    {
+        this.inventarioLibri = new TreeSet<>(new LibroComparator());
+        this.indiceIsbn = new ConcurrentHashMap<>();
+        this.indiceTesto = new IndiceTrigrammi();
+        this.indiceTitoloAutore = new ConcurrentHashMap<>();
+        this.fileCSV = new File(CartellaDati.percorso(NOME_FILE_CSV));
+        this.registro = new RegistroModifiche(CartellaDati.percorso(NOME_FILE_LOG));
+    }
+    
+    /**
+     * @brief Attiva o disattiva la modalità journaling.
+     * Con il journaling attivo ogni modifica (aggiunta, modifica, eliminazione, variazione copie)
+     * viene accodata al registro come record compatto; il registro viene periodicamente
+     * compattato in uno snapshot CSV completo.
+     * @param[in] attivo true per attivare il journaling.
+     */
+    public void setJournaling(boolean attivo) {
+        this.journaling = attivo;
+        if (!attivo) {
+            registro.chiudi();
+        }
+    }
+    
+    /**
+     * @brief Indica se la modalità journaling è attiva.
+     * @return true se le modifiche vengono accodate al registro.
+     */
+    public boolean isJournaling() {
+        return journaling;
+    }
+    
+    /**
+     * @brief Attiva il salvataggio automatico: ogni modifica viene scritta su disco dal thread
+     * in background del pianificatore, dopo l'attesa di quiete, invece che dal thread chiamante.
+     * Con il journaling attivo il thread in background accoda al registro i record in sospeso
+     * e compatta il registro quando supera SOGLIA_COMPATTAZIONE.
+     * @pre Il metodo viene chiamato una sola volta per istanza.
+     * @param[in] salvataggioAutomatico Il pianificatore da usare.
+     */
+    public void setSalvataggioAutomatico(SalvataggioAutomatico salvataggioAutomatico) {
+        this.salvataggioAutomatico = salvataggioAutomatico;
+        registro.setDifferito(true);
+        salvataggioAutomatico.registra(this::salvaSeModificato);
+    }
+    
+    /**
+     * @brief Indica se ci sono modifiche non ancora scritte su disco.
+     * @return true se il catalogo è stato modificato dopo l'ultimo salvataggio.
+     */
+    public boolean isModificato() {
+        return modificato.get();
+    }
+    
+    /**
+     * @brief Registra un osservatore delle modifiche del catalogo.
+     * @param[in] osservatore L'osservatore, notificato sotto lock di scrittura (vedi OsservatoreModifiche).
+     */
+    public void aggiungiOsservatore(OsservatoreModifiche<Libro> osservatore) {
+        osservatori.add(osservatore);
+    }
+    
+    /**
+     * @brief Rimuove un osservatore registrato con aggiungiOsservatore().
+     * Può essere invocato anche dall'osservatore stesso durante una notifica.
+     * @param[in] osservatore L'osservatore da rimuovere.
+     */
+    public void rimuoviOsservatore(OsservatoreModifiche<Libro> osservatore) {
+        osservatori.remove(osservatore);
+    }
+    
+    /**
+     * @brief Notifica un evento a tutti gli osservatori.
+     * @pre Il chiamante possiede il lock di scrittura.
+     * @param[in] evento L'evento da notificare.
+     */
+    private void notifica(Consumer<OsservatoreModifiche<Libro>> evento) {
+        for (OsservatoreModifiche<Libro> osservatore : osservatori) {
+            evento.accept(osservatore);
+        }
+    }
+    
+    /**
+     * @brief Segna il catalogo come modificato e, se attivo, pianifica il salvataggio automatico.
+     */
+    private void marcaModificato() {
+        modificato.set(true);
+        if (salvataggioAutomatico != null) {
+            salvataggioAutomatico.segnalaModifica();
+        }
+    }
+    
+    /**
+     * @brief Scrive le modifiche non ancora salvate (invocato dal thread del salvataggio automatico).
+     * Con il journaling attivo accoda i record in sospeso e compatta il registro se necessario;
+     * altrimenti riscrive l'intero CSV. Se la scrittura non riesce il catalogo resta modificato.
+     */
+    public void salvaSeModificato() {
+        if (!modificato.getAndSet(false)) {
+            return;
+        }
+        boolean riuscito;
+        if (journaling) {
+            riuscito = registro.scriviInSospeso()
+                    && (registro.getNumeroRecord() < SOGLIA_COMPATTAZIONE || scriviSnapshot());
+        } else {
+            riuscito = scriviSnapshot();
+        }
+        if (!riuscito) {
+            modificato.set(true);
+        }
+    }
+    
+    /**
+     * @brief Restituisce la collezione di libri che costituisce l'inventario, in sola lettura.
+     * Le modifiche passano dai metodi del catalogo, che aggiornano anche gli indici.
+     * La vista non è sincronizzata: in presenza di altri thread che modificano il catalogo
+     * va letta tramite istantaneaInventario().
+     * @return Una vista non modificabile del TreeSet contenente gli oggetti Libro.
+     */
+    
+    public NavigableSet<Libro> getInventarioLibri()
+    {
+        return Collections.unmodifiableNavigableSet(inventarioLibri);
+    }
+    
+    /**
+     * @brief Rimuove tutti i libri dal catalogo in memoria, svuotando anche gli indici.
+     * Il file CSV e il registro delle modifiche non vengono toccati.
+     */
+    public void svuota() {
+        long timbro = lock.writeLock();
+        try {
+            inventarioLibri.clear();
+            indiceIsbn.clear();
+            indiceTitoloAutore.clear();
+            indiceTesto.svuota();
+            notifica(OsservatoreModifiche::ricaricato);
+        } finally {
+            lock.unlockWrite(timbro);
+        }
+    }
+    
+    /**
+     * @brief Restituisce una copia coerente dell'inventario, utilizzabile da qualsiasi thread.
+     * La copia avviene sotto lock di lettura: può procedere insieme ad altre letture,
+     * mentre attende le modifiche in corso.
+     * @return I libri del catalogo, nell'ordine del catalogo (per titolo).
+     */
+    public List<Libro> istantaneaInventario() {
+        return leggi(() -> new ArrayList<>(inventarioLibri));
+    }
+    
+    /**
+     * @brief Esegue una lettura delle strutture del catalogo sotto lock di lettura.
+     * TreeSet, indice a trigrammi e liste interne non sono thread-safe: una scansione concorrente a una
+     * modifica non avrebbe alcuna garanzia di terminare, per cui non si usa il lock ottimistico.
+     * @param[in] lettura La lettura da eseguire.
+     * @return Il risultato della lettura.
+     */
+    private <T> T leggi(Supplier<T> lettura) {
+        long timbro = lock.readLock();
+        try {
+            return lettura.get();
+        } finally {
+            lock.unlockRead(timbro);
+        }
+    }
+    
+    /**
+     * Metodo statico per accedere all'unica istanza del Catalogo (Singleton).
+     * Carica i dati dal disco la prima volta che viene chiamato se l'istanza non esiste.
+     * @return L'unica istanza esistente di Catalogo.
+     */
+    public static Catalogo getIstanza() {
+        return getIstanza(null);
+    }
+    
+    /**
+     * @brief Come getIstanza(), aggiornando l'avanzamento indicato durante il caricamento
+     * (usato per caricare il catalogo in background mostrando l'avanzamento, vedi CaricamentoIniziale).
+     * Se il catalogo è già caricato, o lo sta caricando un altro thread, l'avanzamento non viene aggiornato.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @return L'unica istanza esistente di Catalogo.
+     */
+    public static Catalogo getIstanza(AvanzamentoCaricamento avanzamento) {
+        Catalogo catalogo = istanza;
+        if (catalogo == null) {
+            // Doppio controllo: un solo thread crea e carica il catalogo, gli altri attendono
+            synchronized (Catalogo.class) {
+                catalogo = istanza;
+                if (catalogo == null) {
+                    catalogo = new Catalogo();
+                    // CHIAMATA AL CARICAMENTO AUTOMATICO ALLA PRIMA CREAZIONE
+                    catalogo.caricaCSV(catalogo.sceltaPool(), avanzamento); 
+                    istanza = catalogo;
+                }
+            }
+        }
+        return catalogo;
+    }
+        
+     /**
+     * @brief Metodo statico per forzare il salvataggio dei dati.
+     * Deve essere chiamato da Main.stop() alla chiusura dell'applicazione per persistere le modifiche.
+     * @post i dati attuali in memoria vengono scritti nel file CSV
+     */
+    
+    public static void salvaDati()
+    {
+        if (istanza != null)
+        {
+            istanza.salvaCSV();
+            System.out.println("Salvataggio automatico dei dati eseguito in: " + istanza.fileCSV.getAbsolutePath());
+        }
+    }
+    
+    
+   /**
+    * @brief Cerca un libro all'interno del catalogo utilizzando il suo codice ISBN.
+    * La ricerca avviene sull'indice primario (ConcurrentHashMap) in tempo costante,
+    * senza scorrere il TreeSet e senza lock.
+    * @param[in] isbn Il codice ISBN del libro da cercare.
+    * @return L'oggetto Libro trovato, oppure null se non presente.
+    */
+    public Libro cercaLibroPerISBN(String isbn) {
+        return indiceIsbn.get(isbn);
+    }
+    
+    /**
+     * @brief Inserisce un libro nel TreeSet e nell'indice primario.
+     * @pre Nel catalogo non è presente alcun libro con lo stesso ISBN.
+     * @param[in] libro Il libro da inserire.
+     * @return true se il libro è stato inserito.
+     */
+    private boolean inserisci(Libro libro) {
+        boolean inserito = inventarioLibri.add(libro);
+        if (inserito) {
+            indiceIsbn.put(libro.getIsbn(), libro);
+            indicizzaTitoloAutore(libro);
+            indiceTesto.aggiungi(libro);
+        }
+        return inserito;
+    }
+    
+    /**
+     * @brief Chiave dell'indice composto: titolo e autore in minuscolo, separati da un carattere
+     * che non può comparire nei campi.
+     * @param[in] titolo Il titolo.
+     * @param[in] autore L'autore.
+     * @return La chiave.
+     */
+    private static String chiaveTitoloAutore(String titolo, String autore) {
+        return titolo.toLowerCase() + '\u0000' + autore.toLowerCase();
+    }
+    
+    /**
+     * @brief Aggiunge un libro all'indice composto, tra le edizioni con lo stesso titolo e autore.
+     * La lista della chiave viene sostituita da una nuova lista non modificabile, così che
+     * le letture senza lock non vedano mai una lista in modifica.
+     * @pre Il chiamante possiede il lock di scrittura.
+     * @param[in] libro Il libro da indicizzare.
+     */
+    private void indicizzaTitoloAutore(Libro libro) {
+        indiceTitoloAutore.compute(chiaveTitoloAutore(libro.getTitolo(), libro.getAutore()), (chiave, edizioni) -> {
+            List<Libro> nuove = new ArrayList<>(edizioni == null ? 1 : edizioni.size() + 1);
+            if (edizioni != null) {
+                nuove.addAll(edizioni);
+            }
+            int posizione = 0;
+            while (posizione < nuove.size() && nuove.get(posizione).getIsbn().compareTo(libro.getIsbn()) < 0) {
+                posizione++;
+            }
+            nuove.add(posizione, libro);
+            return Collections.unmodifiableList(nuove);
+        });
+    }
+    
+    /**
+     * @brief Rimuove un libro dall'indice composto.
+     * @pre Il chiamante possiede il lock di scrittura.
+     * @param[in] libro Il libro da rimuovere.
+     * @param[in] titolo Il titolo con cui il libro è stato indicizzato.
+     * @param[in] autore L'autore con cui il libro è stato indicizzato.
+     */
+    private void rimuoviTitoloAutore(Libro libro, String titolo, String autore) {
+        indiceTitoloAutore.computeIfPresent(chiaveTitoloAutore(titolo, autore), (chiave, edizioni) -> {
+            List<Libro> nuove = new ArrayList<>(edizioni);
+            nuove.remove(libro);
+            return nuove.isEmpty() ? null : Collections.unmodifiableList(nuove);
+        });
+    }
+    
+    /**
+     * @brief Ricostruisce l'indice composto a partire dall'inventario.
+     * @pre Il chiamante possiede il lock di scrittura.
+     */
+    private void ricostruisciIndiceTitoloAutore() {
+        indiceTitoloAutore.clear();
+        for (Libro libro : inventarioLibri) {
+            indicizzaTitoloAutore(libro);
+        }
+    }
+    
+    /**
+     * @brief Cerca i libri con esattamente il titolo e l'autore indicati, senza distinzione tra
+     * maiuscole e minuscole (come String.equalsIgnoreCase()).
+     * La ricerca avviene sull'indice composto in tempo costante, senza scorrere l'inventario e senza lock.
+     * Più edizioni (ISBN diversi) con lo stesso titolo e autore vengono restituite tutte.
+     * @param[in] titolo Il titolo cercato.
+     * @param[in] autore L'autore cercato.
+     * @return I libri trovati ordinati per ISBN, in una lista non modificabile (vuota se non ce ne sono).
+     */
+    public List<Libro> cercaLibriPerTitoloAutore(String titolo, String autore) {
+        List<Libro> edizioni = indiceTitoloAutore.get(chiaveTitoloAutore(titolo, autore));
+        return edizioni == null ? Collections.<Libro>emptyList() : edizioni;
+    }
+    
+    /**
+     * @brief Cerca i libri che contengono le sottostringhe indicate (senza distinzione tra maiuscole e minuscole).
+     * Un criterio vuoto non filtra. I criteri di almeno tre caratteri vengono risolti sull'indice
+     * a trigrammi intersecando le posting list; solo i candidati vengono poi verificati sul testo.
+     * @param[in] titolo Sottostringa da cercare nel titolo.
+     * @param[in] autore Sottostringa da cercare nell'autore.
+     * @param[in] isbn Sottostringa da cercare nell'ISBN.
+     * @return I libri che soddisfano tutti i criteri, nell'ordine del catalogo (per titolo).
+     */
+    public List<Libro> cercaLibri(String titolo, String autore, String isbn) {
+        return leggi(() -> cerca(titolo, autore, isbn));
+    }
+    
+    /**
+     * @brief Corpo di cercaLibri(), eseguito sotto lock di lettura.
+     * @param[in] titolo Sottostringa da cercare nel titolo.
+     * @param[in] autore Sottostringa da cercare nell'autore.
+     * @param[in] isbn Sottostringa da cercare nell'ISBN.
+     * @return I libri che soddisfano tutti i criteri, nell'ordine del catalogo (per titolo).
+     */
+    private List<Libro> cerca(String titolo, String autore, String isbn) {
+        String titoloCercato = titolo == null ? "" : titolo.toLowerCase();
+        String autoreCercato = autore == null ? "" : autore.toLowerCase();
+        String isbnCercato = isbn == null ? "" : isbn.toLowerCase();
+        
+        // Intersezione dei candidati dei campi abbastanza lunghi da essere indicizzati
+        int[] candidati = null;
+        candidati = restringi(candidati, indiceTesto.candidati(IndiceTrigrammi.CAMPO_TITOLO, titoloCercato));
+        candidati = restringi(candidati, indiceTesto.candidati(IndiceTrigrammi.CAMPO_AUTORE, autoreCercato));
+        candidati = restringi(candidati, indiceTesto.candidati(IndiceTrigrammi.CAMPO_ISBN, isbnCercato));
+        
+        List<Libro> risultati = new ArrayList<>();
+        if (candidati == null) {
+            // Nessun criterio indicizzabile (tutti più corti di tre caratteri): scansione ordinata
+            for (Libro libro : inventarioLibri) {
+                if (corrisponde(libro, titoloCercato, autoreCercato, isbnCercato)) {
+                    risultati.add(libro);
+                }
+            }
+            return risultati;
+        }
+        
+        for (int id : candidati) {
+            Libro libro = indiceTesto.libro(id);
+            if (libro != null && corrisponde(libro, titoloCercato, autoreCercato, isbnCercato)) {
+                risultati.add(libro);
+            }
+        }
+        risultati.sort(inventarioLibri.comparator());
+        return risultati;
+    }
+    
+    /**
+     * @brief Interseca l'insieme di candidati corrente con quello di un ulteriore criterio.
+     * @param[in] correnti I candidati attuali (null se nessun criterio ha ancora ristretto la ricerca).
+     * @param[in] nuovi I candidati del nuovo criterio (null se il criterio non è indicizzabile).
+     * @return L'intersezione dei due insiemi, o quello non nullo tra i due.
+     */
+    private static int[] restringi(int[] correnti, int[] nuovi) {
+        if (nuovi == null) {
+            return correnti;
+        }
+        if (correnti == null) {
+            return nuovi;
+        }
+        return IndiceTrigrammi.interseca(correnti, correnti.length, nuovi, nuovi.length);
+    }
+    
+    /**
+     * @brief Verifica che un libro contenga effettivamente tutte le sottostringhe cercate.
+     * @param[in] libro Il libro candidato.
+     * @param[in] titolo Sottostringa del titolo, in minuscolo (vuota = nessun filtro).
+     * @param[in] autore Sottostringa dell'autore, in minuscolo (vuota = nessun filtro).
+     * @param[in] isbn Sottostringa dell'ISBN, in minuscolo (vuota = nessun filtro).
+     * @return true se il libro soddisfa tutti i criteri.
+     */
+    private static boolean corrisponde(Libro libro, String titolo, String autore, String isbn) {
+        return (titolo.isEmpty() || libro.getTitolo().toLowerCase().contains(titolo))
+                && (autore.isEmpty() || libro.getAutore().toLowerCase().contains(autore))
+                && (isbn.isEmpty() || libro.getIsbn().toLowerCase().contains(isbn));
+    }
+    
+    /**
+     * @brief Implementa l'interfaccia Comparator per definire l'ordinamento dei libri.
+     * L'ordinamento è alfabetico per titolo, senza distinzione tra maiuscole, minuscole e lettere accentate:
+     * vengono confrontate le chiavi di ordinamento precalcolate (Libro.getChiaveOrdinamento()).
+     * In caso di titoli identici, utilizza l'ISBN per garantire l'unicità nel TreeSet.
+     */
+    
+    public class LibroComparator implements Comparator<Libro> {
+        @Override
+        public int compare(Libro l1, Libro l2) {
+            // Confronta i titoli
+            int risultato = l1.getChiaveOrdinamento().compareTo(l2.getChiaveOrdinamento());
+
+            // Se i titoli sono identici, ordina per ISBN per garantire l'unicità
+            if (risultato == 0) {
+                risultato = l1.getIsbn().compareTo(l2.getIsbn());
+            }
+            return risultato;
+        }
+    }
+
+    /**
+     * @brief Aggiunge un nuovo libro al catalogo. Se il libro (stesso ISBN) esiste già,
+     * aggiorna il numero di copie e restituisce false.
+     * @param[in] nuovoLibro L'oggetto Libro da aggiungere o usare per incrementare le copie.
+     * @return true  se il libro è stato aggiunto come nuovo elemento, false se è stato aggiornato un libro esistente.
+     */
+    
+    public boolean aggiungiLibro(Libro nuovoLibro) {
+        
+        boolean inserito;
+        long timbro = lock.writeLock();
+        try {
+            Libro libroEsistente = indiceIsbn.get(nuovoLibro.getIsbn());
+            
+            if (libroEsistente != null) {
+                
+                libroEsistente.incrementaCopie(nuovoLibro.getNumCopie());
+                registraCopie(libroEsistente);
+                notifica(o -> o.aggiornato(libroEsistente));
+                
+                System.out.println("Libro con ISBN " + nuovoLibro.getIsbn() + " già presente. Incrementate le copie.");
+                inserito = false; 
+            } else {
+                //  aggiungiamo il nuovo libro, se non esiste già.
+                inserito = inserisci(nuovoLibro);
+                if (inserito && journaling) {
+                    registro.registraLibro(RegistroModifiche.AGGIUNTA, nuovoLibro);
+                }
+                if (inserito) {
+                    notifica(o -> o.aggiunto(nuovoLibro));
+                }
+            }
+        } finally {
+            lock.unlockWrite(timbro);
+        }
+        dopoModifica();
+        return inserito;
+    }
+    
+    /**
+     * @brief Incrementa di una unità le copie di un libro dato il suo ISBN.
+     * @param[in] isbn Il codice ISBN del libro.
+     * @return true se il libro esiste ed è stato incrementato, false altrimenti.
+     */
+    
+ public boolean incrementaCopie(String isbn) {
+    long timbro = lock.writeLock();
+    try {
+        Libro libro = indiceIsbn.get(isbn);
+        if (libro == null) {
+            return false;
+        }
+        libro.incrementaCopie(1);            // metodo esistente in Libro
+        registraCopie(libro);
+        notifica(o -> o.aggiornato(libro));
+    } finally {
+        lock.unlockWrite(timbro);
+    }
+    dopoModifica();
+    return true;
+}
+
+    /**
+     * @brief Decrementa di una unità le copie di un libro dato il suo ISBN (prestito).
+     * Il controllo della disponibilità e il decremento sono un'unica operazione atomica:
+     * con più postazioni concorrenti l'ultima copia viene assegnata una sola volta.
+     * @param[in] isbn Il codice ISBN del libro.
+     * @return true se il libro esiste e aveva almeno una copia disponibile, false altrimenti.
+     */
+    
+    public boolean decrementaCopie(String isbn) {
+        long timbro = lock.writeLock();
+        try {
+            Libro libro = indiceIsbn.get(isbn);
+            if (libro == null || !libro.decrementaCopie()) {
+                return false;
+            }
+            registraCopie(libro);
+            notifica(o -> o.aggiornato(libro));
+        } finally {
+            lock.unlockWrite(timbro);
+        }
+        dopoModifica();
+        return true;
+    }
+    
+    /**
+     * @brief Rimette nel catalogo la copia di un libro restituito, con un'unica operazione atomica:
+     * se il libro è presente ne incrementa le copie, altrimenti (es. è stato eliminato durante
+     * il prestito) lo reinserisce con una copia.
+     * @param[in] libro Il libro restituito.
+     * @return true se il libro è stato reinserito, false se sono state incrementate le copie del libro presente.
+     */
+    public boolean restituisciCopia(Libro libro) {
+        boolean reinserito;
+        long timbro = lock.writeLock();
+        try {
+            Libro presente = indiceIsbn.get(libro.getIsbn());
+            if (presente != null) {
+                presente.incrementaCopie(1);
+                registraCopie(presente);
+                notifica(o -> o.aggiornato(presente));
+                reinserito = false;
+            } else {
+                Libro copia = new Libro(libro.getIsbn(), libro.getTitolo(), libro.getAutore(), libro.getAnnoPb(), 1);
+                inserisci(copia);
+                if (journaling) {
+                    registro.registraLibro(RegistroModifiche.AGGIUNTA, copia);
+                }
+                notifica(o -> o.aggiunto(copia));
+                reinserito = true;
+            }
+        } finally {
+            lock.unlockWrite(timbro);
+        }
+        dopoModifica();
+        return reinserito;
+    }
+    
+    /**
+     * @brief Accoda al registro il nuovo numero di copie di un libro, se il journaling è attivo.
+     * Viene chiamato sotto lock di scrittura, così che i record di uno stesso libro
+     * siano accodati nell'ordine in cui le copie sono cambiate.
+     * @param[in] libro Il libro con il numero di copie aggiornato.
+     */
+    private void registraCopie(Libro libro) {
+        if (journaling) {
+            registro.registraCopie(libro);
+        }
+    }
+    
+    /**
+     * @brief Operazioni successive a una modifica, eseguite dopo aver rilasciato il lock di scrittura:
+     * segna il catalogo come modificato e, se necessario, compatta il registro.
+     */
+    private void dopoModifica() {
+        marcaModificato();
+        compattaSeNecessario();
+    }
+    
+    /**
+     * @brief Compatta il registro in un nuovo snapshot CSV quando supera la soglia.
+     * Con il salvataggio automatico la compattazione avviene nel thread in background.
+     */
+    private void compattaSeNecessario() {
+        if (salvataggioAutomatico == null && registro.getNumeroRecord() >= SOGLIA_COMPATTAZIONE) {
+            salvaCSV();
+        }
+    }
+    
+    /**
+     * @brief Rende persistenti le modifiche effettuate.
+     * Con il salvataggio automatico la scrittura è già pianificata in background; con il
+     * journaling attivo le modifiche sono già state accodate al registro e non serve
+     * riscrivere il file; altrimenti viene salvato l'intero catalogo.
+     */
+    public void salvaModifiche() {
+        if (salvataggioAutomatico == null && !journaling) {
+            salvaCSV();
+        }
+    }
+
+    /**
+    *@brief Rimuove un libro dal catalogo utilizzando il suo ISBN.
+    * @param[in] isbn Il codice ISBN del libro da rimuovere.
+    * @return true se il libro è stato trovato e rimosso, false altrimenti.
+    */
+ 
+    public boolean eliminaLibro(String isbn) {
+        
+        long timbro = lock.writeLock();
+        try {
+            Libro libroDaRimuovere = indiceIsbn.get(isbn);
+            
+            if (libroDaRimuovere == null) {
+                System.out.println("Libro con ISBN " + isbn + " non trovato per l'eliminazione.");
+                return false;
+            }
+            eliminaDalleStrutture(libroDaRimuovere);
+            if (journaling) {
+                registro.registraEliminazione(isbn);
+            }
+            notifica(o -> o.rimosso(libroDaRimuovere));
+        } finally {
+            lock.unlockWrite(timbro);
+        }
+        dopoModifica();
+        System.out.println("Libro con ISBN " + isbn + " rimosso dal catalogo.");
+        return true;
+    }
+    
+    /**
+     * @brief Modifica i dettagli di un libro esistente.
+     * Gestisce la rimozione e il reinserimento nel TreeSet se i campi che influenzano
+     * l'ordinamento (Titolo o Autore) vengono modificati.
+     * @pre nuoveCopie >= 0
+     * @param[in] isbn L'ISBN del libro da modificare (chiave di ricerca).
+     * @param[in] nuovoTitolo Il nuovo titolo.
+     * @param[in] nuovoAutore Il nuovo autore.
+     * @param[in] nuovoAnnoPb La nuova data di pubblicazione.
+     * @param[in] nuoveCopie Il nuovo numero totale di copie.
+     * @return true se la modifica è avvenuta con successo, false se il libro non è stato trovato.
+     * @throws IllegalArgumentException Se nuoveCopie è negativo.
+     */
+    
+    public boolean modificaLibro(String isbn, String nuovoTitolo, String nuovoAutore, LocalDate nuovoAnnoPb, int nuoveCopie) 
+    {
+        // Controllo base
+    if (nuoveCopie < 0) {
+        throw new IllegalArgumentException("Il numero di copie non può essere negativo.");
+    }
+
+    long timbro = lock.writeLock();
+    try {
+        //  Trova il libro da modificare
+        Libro libroDaModificare = indiceIsbn.get(isbn);
+
+        if (libroDaModificare == null) {
+            return false; // Libro non trovato
+        }
+
+        //  Gestione del TreeSet per il riordinamento: 
+        // Se il Titolo cambia, la posizione nel TreeSet deve essere aggiornata.
+        
+        // Per un'efficienza ottimale con TreeSet: rimuovi l'oggetto, aggiorna i campi, e riaggiungilo.
+        // Verifichiamo se il titolo o l'autore cambiano: il titolo influenza l'ordinamento, entrambi la ricerca testuale.
+        boolean titoloCambiato = !libroDaModificare.getTitolo().equals(nuovoTitolo);
+        boolean autoreCambiato = !libroDaModificare.getAutore().equals(nuovoAutore);
+        
+        // Solo il titolo (tramite la chiave di ordinamento) definisce la posizione nel TreeSet
+        // Copia con i valori precedenti, per gli osservatori che devono ritrovare la vecchia posizione
+        Libro precedente = titoloCambiato ? new Libro(libroDaModificare.getIsbn(), libroDaModificare.getTitolo(),
+                libroDaModificare.getAutore(), libroDaModificare.getAnnoPb(), libroDaModificare.getNumCopie()) : null;
+        if (titoloCambiato) {
+            // Rimuoviamo il vecchio oggetto per permettere al TreeSet di riorganizzarsi
+            inventarioLibri.remove(libroDaModificare);
+        }
+        if (titoloCambiato || autoreCambiato) {
+            // La chiave dell'indice composto dipende da titolo e autore
+            rimuoviTitoloAutore(libroDaModificare, libroDaModificare.getTitolo(), libroDaModificare.getAutore());
+        }
+        
+        // Aggiorna i dettagli (Titolo, Autore, AnnoPb, Copie)
+        libroDaModificare.setTitolo(nuovoTitolo);
+        libroDaModificare.setAutore(nuovoAutore);
+        libroDaModificare.setAnnoPb(nuovoAnnoPb); // L'anno non influenza l'ordinamento, ma è un dettaglio
+        libroDaModificare.setNumCopia(nuoveCopie);
+        
+        // Riaggiungi l'oggetto se è stato rimosso
+        if (titoloCambiato) {
+            // Aggiungiamo nuovamente il libro, forzando il TreeSet a ricalcolare la posizione corretta
+            inventarioLibri.add(libroDaModificare);
+        }
+        if (titoloCambiato || autoreCambiato) {
+            // Reindicizza i nuovi titolo e autore per la ricerca esatta e per quella testuale
+            indicizzaTitoloAutore(libroDaModificare);
+            indiceTesto.aggiungi(libroDaModificare);
+            compattaIndiceTesto();
+        }
+        
+        // Se il titolo non è cambiato, l'oggetto è rimasto nello stesso posto nel TreeSet,
+        // e la modifica delle sole copie è riflessa immediatamente.
+
+        if (journaling) {
+            registro.registraLibro(RegistroModifiche.MODIFICA, libroDaModificare);
+        }
+        if (titoloCambiato) {
+            notifica(o -> o.spostato(libroDaModificare, precedente));
+        } else {
+            notifica(o -> o.aggiornato(libroDaModificare));
+        }
+    } finally {
+        lock.unlockWrite(timbro);
+    }
+    dopoModifica();
+
+    return true; // Modifica riuscita
+    
+    }
+   
+    
+    /**
+     * @brief Salva l'intero inventario su file CSV (snapshot).
+     * Scrive i dati nel formato: Titolo;Autore;ISBN;Anno pb;Num_Copie.
+     * Il file viene scritto su un file temporaneo e poi sostituito all'originale; a scrittura
+     * completata il registro delle modifiche, ormai incluso nello snapshot, viene svuotato.
+     * Gestisce le eccezioni di I/O loggando l'errore.
+     */
+    
+    public void salvaCSV()
+    { 
+        scriviSnapshot();
+    }
+    
+    /**
+     * @brief Scrive lo snapshot CSV a partire da una copia dell'inventario.
+     * La copia (e il progressivo del registro) viene presa sotto lock di lettura,
+     * la scrittura avviene fuori dal lock: le modifiche concorrenti non attendono il disco
+     * e i record accodati dopo la copia restano nel registro.
+     * @return true se lo snapshot è stato scritto.
+     */
+    private boolean scriviSnapshot()
+    {
+    List<Libro> copia;
+    long inclusi;
+    long timbro = lock.readLock();
+    try {
+        copia = new ArrayList<>(inventarioLibri.size());
+        for (Libro l : this.inventarioLibri) {
+            copia.add(new Libro(l.getIsbn(), l.getTitolo(), l.getAutore(), l.getAnnoPb(), l.getNumCopie()));
+        }
+        inclusi = registro.getProgressivo();
+    } finally {
+        lock.unlockRead(timbro);
+    }
+    
+    File temporaneo = new File(fileCSV.getPath() + ".tmp");
+    
+    try( PrintWriter pw = new PrintWriter(new FileWriter(temporaneo)) ){
+        
+        pw.println("Elenco Libri");
+        pw.println("Titolo;Autore;ISBN;Anno pb;Num_Copie"); 
+        
+        for( Libro l : copia ){
+            
+            pw.append(l.getTitolo()).append(";");
+            pw.append(l.getAutore()).append(";");
+            pw.append(l.getIsbn()).append(";");
+            pw.append(String.valueOf(l.getAnnoPb().getYear())).append(";");
+            pw.println(l.getNumCopie()); 
+            
+        }
+        if (pw.checkError()) {
+            throw new IOException("scrittura non riuscita su " + temporaneo.getName());
+        }
+    } catch (IOException ex) {
+        Logger.getLogger(Catalogo.class.getName()).log(Level.SEVERE, "Errore durante il salvataggio CSV", ex);
+        return false;
+    }
+    
+    try {
+        try {
+            Files.move(temporaneo.toPath(), fileCSV.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporaneo.toPath(), fileCSV.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Lo snapshot contiene le modifiche fino a "inclusi": quei record del registro non servono più
+        registro.compatta(inclusi);
+        return true;
+    } catch (IOException ex) {
+        Logger.getLogger(Catalogo.class.getName()).log(Level.SEVERE, "Errore durante il salvataggio CSV", ex);
+        return false;
+    }
+}
+    
+    
+    /**
+     * @brief Carica i dati del catalogo dal file CSV specificato.
+     * In caso di errore (file non trovato), il catalogo viene inizializzato vuoto.
+     * Per ogni ISBN vale la prima riga del file: le righe successive con lo stesso ISBN
+     * vengono ignorate e segnalate su System.err.
+     * Il file viene cercato nella cartella dei dati (la working directory, salvo diversa indicazione: vedi CartellaDati).
+     * I file di almeno SOGLIA_IMPORTAZIONE_PARALLELA byte vengono importati in parallelo
+     * sul pool comune (vedi caricaCSVParallelo()).
+     */
+    
+    public void caricaCSV() {
+        caricaCSV(sceltaPool(), null);
+    }
+    
+    /**
+     * @brief Sceglie come importare il file CSV in base alla sua dimensione.
+     * @return Il pool comune se il file ha almeno SOGLIA_IMPORTAZIONE_PARALLELA byte, altrimenti null (lettura sequenziale).
+     */
+    private ForkJoinPool sceltaPool() {
+        return fileCSV.length() >= SOGLIA_IMPORTAZIONE_PARALLELA ? ForkJoinPool.commonPool() : null;
+    }
+    
+    /**
+     * @brief Carica i dati del catalogo dal file CSV importandolo in parallelo.
+     * Il file viene suddiviso in blocchi a confini di riga, letti e ordinati sul pool indicato,
+     * e i blocchi ordinati vengono fusi e inseriti nel TreeSet in un'unica costruzione.
+     * Righe scartate, gestione degli ISBN duplicati e contenuto finale coincidono con il
+     * caricamento sequenziale, indipendentemente dal numero di thread del pool.
+     * @param[in] pool Il pool su cui eseguire l'importazione.
+     */
+    
+    public void caricaCSVParallelo(ForkJoinPool pool) {
+        caricaCSV(pool, null);
+    }
+    
+    /**
+     * @brief Carica i dati del catalogo dal file CSV e riapplica il registro delle modifiche.
+     * L'intero caricamento avviene sotto lock di scrittura: le letture concorrenti vedono
+     * il catalogo precedente oppure quello caricato, mai uno stato intermedio.
+     * @param[in] pool Il pool per l'importazione parallela, oppure null per la lettura sequenziale.
+     * @param[in] avanzamento L'avanzamento da aggiornare durante la lettura, oppure null.
+     */
+    
+    private void caricaCSV(ForkJoinPool pool, AvanzamentoCaricamento avanzamento) {
+        long timbro = lock.writeLock();
+        try {
+            carica(pool, avanzamento);
+            notifica(OsservatoreModifiche::ricaricato);
+        } finally {
+            lock.unlockWrite(timbro);
+        }
+    }
+    
+    /**
+     * @brief Corpo di caricaCSV(ForkJoinPool, AvanzamentoCaricamento).
+     * @pre Il chiamante possiede il lock di scrittura.
+     * @param[in] pool Il pool per l'importazione parallela, oppure null per la lettura sequenziale.
+     * @param[in] avanzamento L'avanzamento da aggiornare durante la lettura, oppure null.
+     */
+    private void carica(ForkJoinPool pool, AvanzamentoCaricamento avanzamento) {
+        
+        // 1. Pulisce la struttura dati (e l'indice) prima del caricamento
+        this.inventarioLibri.clear(); 
+        this.indiceIsbn.clear();
+        this.indiceTitoloAutore.clear();
+        this.indiceTesto.svuota();
+        
+         
+        
+        File file = fileCSV;
+
+        // Controlla se il file esiste
+        if (!file.exists()) {
+             // Se il file non esiste, stampiamo dove lo cercava (utile per il debug)
+             System.err.println("CARICAMENTO INIZIALE FALLITO: File dati NON trovato in: " + file.getAbsolutePath()); 
+             System.err.println("Inizio con catalogo vuoto.");
+             riapplicaRegistro();
+             return;
+        }
+        
+        // Tenta la lettura del file (mappato in memoria, formato: Titolo;Autore;ISBN;Anno pb;Num_Copie)
+        try {
+            if (pool != null) {
+                ImportazioneParallela.Risultato risultato = ImportazioneParallela.importa(file, inventarioLibri.comparator(), pool, avanzamento);
+                // Il TreeSet è vuoto e la vista ha lo stesso comparatore: costruzione in tempo lineare
+                this.inventarioLibri.addAll(new VistaOrdinata<>(risultato.libri, inventarioLibri.comparator()));
+                // L'indice viene riempito sul posto: le letture senza lock usano sempre lo stesso oggetto
+                this.indiceIsbn.putAll(risultato.indice);
+                ricostruisciIndiceTitoloAutore();
+                this.indiceTesto.ricostruisci(inventarioLibri);
+            } else {
+                LettoreCSVMappato.leggiLibri(file, libro -> {
+                    // L'ISBN è la chiave primaria: vale la prima riga, le successive vengono ignorate
+                    if (this.indiceIsbn.containsKey(libro.getIsbn())) {
+                        System.err.println(avvisoIsbnDuplicato(libro));
+                    } else {
+                        inserisci(libro);
+                    }
+                }, avanzamento);
+            }
+            System.out.println("CARICAMENTO: Dati letti con successo da: " + file.getAbsolutePath());
+
+        } catch (IOException e) {
+            System.err.println("Errore I/O durante la lettura del file: " + e.getMessage());
+        }
+        
+        // 2. Riapplica le modifiche registrate dopo l'ultimo snapshot
+        riapplicaRegistro();
+    }
+    
+    /**
+     * @brief Restituisce il messaggio per una riga del file CSV con un ISBN già letto, che viene ignorata.
+     * @param[in] libro Il libro della riga ignorata.
+     * @return Il messaggio.
+     */
+    static String avvisoIsbnDuplicato(Libro libro) {
+        return "AVVISO: Riga CSV ignorata (ISBN " + libro.getIsbn() + " già presente): " + libro.getTitolo() + ";"
+                + libro.getAutore() + ";" + libro.getIsbn() + ";" + libro.getAnnoPb().getYear() + ";" + libro.getNumCopie();
+    }
+    
+    /**
+     * @brief Riapplica sopra lo snapshot appena caricato i record del registro delle modifiche.
+     * I record vengono applicati direttamente sulle strutture dati, senza essere riaccodati.
+     * I record che fanno riferimento a libri assenti o con valori non validi vengono saltati.
+     */
+    private void riapplicaRegistro() {
+        List<String[]> records = registro.leggi();
+        
+        for (String[] campi : records) {
+            try {
+                String isbn = campi[1];
+                Libro libro = this.indiceIsbn.get(isbn);
+                
+                switch (campi[0]) {
+                    case RegistroModifiche.AGGIUNTA:
+                    case RegistroModifiche.MODIFICA:
+                        LocalDate annoPb = LocalDate.of(Integer.parseInt(campi[4]), 1, 1);
+                        int numCopie = Integer.parseInt(campi[5]);
+                        if (libro != null) {
+                            eliminaDalleStrutture(libro);
+                        }
+                        inserisci(new Libro(isbn, campi[2], campi[3], annoPb, numCopie));
+                        break;
+                    case RegistroModifiche.ELIMINAZIONE:
+                        if (libro != null) {
+                            eliminaDalleStrutture(libro);
+                        }
+                        break;
+                    case RegistroModifiche.COPIE:
+                        if (libro != null) {
+                            libro.setNumCopia(Integer.parseInt(campi[2]));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                System.err.println("Attenzione: record di registro non applicabile e saltato: " + String.join(";", campi));
+            }
+        }
+        
+        if (!records.isEmpty()) {
+            System.out.println("CARICAMENTO: Riapplicate " + records.size() + " modifiche dal registro.");
+        }
+    }
+    
+    /**
+     * @brief Rimuove un libro dall'inventario e da tutti gli indici.
+     * @param[in] libro Il libro da rimuovere.
+     */
+    private void eliminaDalleStrutture(Libro libro) {
+        inventarioLibri.remove(libro);
+        indiceIsbn.remove(libro.getIsbn());
+        rimuoviTitoloAutore(libro, libro.getTitolo(), libro.getAutore());
+        indiceTesto.rimuovi(libro);
+        compattaIndiceTesto();
+    }
+    
+    /**
+     * @brief Ricostruisce l'indice a trigrammi quando gli identificativi ritirati
+     * (da eliminazioni e modifiche di titolo o autore) superano quelli attivi.
+     * @pre Il chiamante possiede il lock di scrittura.
+     */
+    private void compattaIndiceTesto() {
+        if (indiceTesto.daRicostruire()) {
+            indiceTesto.ricostruisci(inventarioLibri);
+        }
+    }
+    
+    /**
+    * @brief Restituisce una rappresentazione in formato stringa dell'intero catalogo.
+    * I libri vengono elencati in ordine alfabetico per titolo, grazie all'uso del Treeset.
+    * @return Una stringa che elenca tutti i libri nel catalogo o un messaggio se il catalogo è vuoto.
+    */
+    
+    @Override
+    public String toString() {
+        List<Libro> libri = istantaneaInventario();
+        if (libri.isEmpty()) {
+            return "Il catalogo è vuoto.";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("===== CATALOGO LIBRI (Ordinato per Titolo) =====\n");
+        
+        for (Libro libro : libri) {
+            sb.append(libro.toString()).append("\n");
+        }
+        sb.append("================================================");
+        return sb.toString();
+    }
+
+
+    
+   
+    
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+/**
+*@file ChiaveOrdinamento.java
+*@brief Questo file contiene il calcolo della chiave di ordinamento normalizzata
+* usata dai comparatori di Catalogo ed Elenco.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * @brief Calcolo della chiave di ordinamento di titoli e cognomi.
+ * La chiave è il testo senza accenti e in minuscolo ("Éric" -> "eric", "Perché" -> "perche"),
+ * così che i nomi italiani accentati vengano ordinati insieme alle lettere base.
+ * Libro e Studente la calcolano una sola volta, alla creazione e quando titolo o cognome cambiano:
+ * i comparatori confrontano le chiavi con String.compareTo() senza ripetere
+ * la conversione delle maiuscole a ogni confronto.
+ */
+final class ChiaveOrdinamento {
+
+    private static final Pattern DIACRITICI = Pattern.compile("\\p{InCombiningDiacriticalMarks}+"); ///< Segni diacritici separati dalla decomposizione NFD.
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private ChiaveOrdinamento() {
+    }
+
+    /**
+     * @brief Calcola la chiave di ordinamento di un testo.
+     * I testi ASCII (il caso comune) vengono solo convertiti in minuscolo; gli altri vengono
+     * prima decomposti (NFD) e privati dei segni diacritici.
+     * @param[in] testo Il testo da normalizzare (può essere null).
+     * @return La chiave di ordinamento; la stringa vuota se il testo è null.
+     */
+    static String calcola(String testo) {
+        if (testo == null) {
+            return "";
+        }
+        for (int i = 0; i < testo.length(); i++) {
+            if (testo.charAt(i) >= 0x80) {
+                testo = DIACRITICI.matcher(Normalizer.normalize(testo, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+        return testo.toLowerCase(Locale.ROOT);
+    }
+}
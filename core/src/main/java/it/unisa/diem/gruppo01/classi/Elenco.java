@@ -0,0 +1,1058 @@
+/**
+* @file Elenco.java
+* @brief Questo file gestisce l'elenco di tutti gli studenti registrati nel sistema.
+* Include le operazioni di gestione della collezione (aggiunta, rimozione, ricerca, modifica)
+* e la persistenza dei dati su file (CSV).
+* @author Gruppo01
+* @version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.time.format.DateTimeFormatter;
+ 
+
+/**
+ * @brief Classe che gestisce il registro degli studenti.
+ * Utilizza una collezione ordinata per mantenere gli studenti
+ * organizzati in base al cognome in ordine alfabetico. 
+ * Con il salvataggio automatico le scritture su disco avvengono su un thread in background,
+ * a partire da una copia dell'elenco presa sotto il lock degli stessi metodi che lo modificano.
+ * Ogni modifica viene notificata agli osservatori registrati (vedi OsservatoreModifiche).
+ */
+
+public class Elenco {
+    
+    private static volatile Elenco istanza; ///< Elenco condiviso dall'applicazione (vedi getIstanza()).
+
+    private String NOME_FILE_CSV = CartellaDati.percorso("Lista_studenti.csv"); ///< Nome del file CSV per il salvataggio (nella cartella dei dati, vedi CartellaDati).
+    private final String NOME_FILE_BINARIO = CartellaDati.percorso("Lista_studenti.dat"); ///< Nome del file dell'archivio binario.
+    private final String NOME_FILE_ANAGRAFICA = CartellaDati.percorso("Lista_studenti_anagrafica.csv"); ///< File degli studenti dell'archivio normalizzato.
+    private final String NOME_FILE_PRESTITI = CartellaDati.percorso("Lista_prestiti.csv"); ///< File dei prestiti dell'archivio normalizzato.
+    public static final String PROPRIETA_ARCHIVIO = "gestionebiblioteca.archivio"; ///< Proprietà di sistema che seleziona l'archivio principale ("binario", "normalizzato" oppure "csv").
+    private boolean archivioBinario; ///< Se true l'archivio principale è il file binario.
+    private boolean archivioNormalizzato; ///< Se true l'archivio principale è quello normalizzato (studenti e prestiti in file separati).
+    private boolean riscritturaCompleta = true; ///< true se il prossimo salvataggio deve riscrivere l'intero archivio; false se basta accodare prestitiDaAccodare.
+    private final List<Prestito> prestitiDaAccodare = new ArrayList<>(); ///< Prestiti aggiunti dopo l'ultimo salvataggio, da accodare al file dei prestiti.
+    private TreeSet<Studente> elencoStudenti; ///< Insieme ordinato (TreeSet) degli studenti (ordinamento per Cognome, poi Matricola).
+    private HashMap<String, Studente> indiceMatricole; ///< Indice Matricola -> Studente, allineato a elencoStudenti per ricerche in tempo costante.
+    private final ScadenzarioPrestiti scadenzario = new ScadenzarioPrestiti(); ///< Prestiti attivi indicizzati per data di scadenza (vedi prestitiScaduti()).
+    private final AtomicBoolean modificato = new AtomicBoolean(); ///< true se ci sono modifiche non ancora scritte su disco.
+    private volatile StoricoPrestiti storico; ///< Storico dei prestiti chiusi, null se non attivo (vedi setStorico()).
+    private volatile SalvataggioAutomatico salvataggioAutomatico; ///< Pianificatore delle scritture in background, null se non attivo (può essere impostato da un altro thread, vedi getIstanza()).
+    private final List<OsservatoreModifiche<Studente>> osservatori = new CopyOnWriteArrayList<>(); ///< Osservatori delle modifiche, notificati sotto il lock dell'elenco.
+
+   
+    
+    /**
+     * @brief Costruttore della classe.
+     * Inizializza l'elenco vuoto degli studenti utilizzando un comparatore personalizzato
+     * e l'indice per matricola.
+     */
+    public Elenco() 
+    {
+        this.elencoStudenti = new TreeSet<>(new StudentComparator());
+        this.indiceMatricole = new HashMap<>();
+        this.archivioBinario = "binario".equalsIgnoreCase(System.getProperty(PROPRIETA_ARCHIVIO));
+        this.archivioNormalizzato = "normalizzato".equalsIgnoreCase(System.getProperty(PROPRIETA_ARCHIVIO));
+    }
+    
+    /**
+     * @brief Restituisce l'elenco condiviso da tutta l'applicazione, caricandolo dall'archivio
+     * principale (caricaDati()) solo la prima volta.
+     * Tutte le schermate lavorano sulla stessa istanza, così che le modifiche fatte in una siano
+     * visibili nelle altre e che cambiare schermata non rilegga il file. Se più thread la richiedono
+     * contemporaneamente (es. caricamento in background all'avvio e prima schermata) il caricamento
+     * avviene una sola volta e gli altri thread ne attendono la fine.
+     * @return L'unica istanza condivisa di Elenco.
+     */
+    public static Elenco getIstanza() {
+        return getIstanza(null);
+    }
+    
+    /**
+     * @brief Come getIstanza(), aggiornando l'avanzamento indicato durante il caricamento
+     * (usato per caricare l'elenco in background mostrando l'avanzamento, vedi CaricamentoIniziale).
+     * Se l'elenco è già caricato, o lo sta caricando un altro thread, l'avanzamento non viene aggiornato.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @return L'unica istanza condivisa di Elenco.
+     */
+    public static Elenco getIstanza(AvanzamentoCaricamento avanzamento) {
+        Elenco elenco = istanza;
+        if (elenco == null) {
+            // Doppio controllo: un solo thread crea e carica l'elenco, gli altri attendono
+            synchronized (Elenco.class) {
+                elenco = istanza;
+                if (elenco == null) {
+                    elenco = new Elenco();
+                    elenco.caricaDati(avanzamento);
+                    istanza = elenco;
+                }
+            }
+        }
+        return elenco;
+    }
+    
+    /**
+     * @brief Seleziona l'archivio principale usato da caricaDati() e salvaDati().
+     * Il valore iniziale è letto dalla proprietà di sistema PROPRIETA_ARCHIVIO.
+     * @param[in] binario true per usare l'archivio binario, false per il file CSV.
+     */
+    public synchronized void setArchivioBinario(boolean binario) {
+        this.archivioBinario = binario;
+        if (binario) {
+            this.archivioNormalizzato = false;
+        }
+        this.riscritturaCompleta = true;
+    }
+    
+    /**
+     * @brief Indica se l'archivio principale è il file binario.
+     * @return true se l'archivio principale è il file binario.
+     */
+    public boolean isArchivioBinario() {
+        return archivioBinario;
+    }
+    
+    /**
+     * @brief Seleziona come archivio principale quello normalizzato (vedi ArchivioNormalizzatoStudenti):
+     * studenti e prestiti in due file separati, con i prestiti che fanno riferimento a matricola e ISBN.
+     * I prestiti aggiunti con aggiungiPrestito() vengono accodati al file dei prestiti, senza
+     * riscrivere gli studenti; le altre modifiche riscrivono entrambi i file.
+     * Il valore iniziale è letto dalla proprietà di sistema PROPRIETA_ARCHIVIO.
+     * @param[in] normalizzato true per usare l'archivio normalizzato, false per il file CSV.
+     */
+    public synchronized void setArchivioNormalizzato(boolean normalizzato) {
+        this.archivioNormalizzato = normalizzato;
+        if (normalizzato) {
+            this.archivioBinario = false;
+        }
+        this.riscritturaCompleta = true;
+    }
+    
+    /**
+     * @brief Indica se l'archivio principale è quello normalizzato.
+     * @return true se studenti e prestiti vengono salvati in file separati.
+     */
+    public boolean isArchivioNormalizzato() {
+        return archivioNormalizzato;
+    }
+    
+    /**
+     * @brief Attiva il salvataggio automatico: le modifiche vengono scritte nell'archivio
+     * principale dal thread in background del pianificatore, dopo l'attesa di quiete.
+     * @pre Il metodo viene chiamato una sola volta per istanza.
+     * @param[in] salvataggioAutomatico Il pianificatore da usare.
+     */
+    public void setSalvataggioAutomatico(SalvataggioAutomatico salvataggioAutomatico) {
+        this.salvataggioAutomatico = salvataggioAutomatico;
+        salvataggioAutomatico.registra(this::salvaSeModificato);
+    }
+    
+    /**
+     * @brief Indica se ci sono modifiche non ancora scritte su disco.
+     * @return true se l'elenco è stato modificato dopo l'ultimo salvataggio.
+     */
+    public boolean isModificato() {
+        return modificato.get();
+    }
+    
+    /**
+     * @brief Registra un osservatore delle modifiche dell'elenco.
+     * @param[in] osservatore L'osservatore, notificato sotto il lock dell'elenco (vedi OsservatoreModifiche).
+     */
+    public void aggiungiOsservatore(OsservatoreModifiche<Studente> osservatore) {
+        osservatori.add(osservatore);
+    }
+    
+    /**
+     * @brief Rimuove un osservatore registrato con aggiungiOsservatore().
+     * Può essere invocato anche dall'osservatore stesso durante una notifica.
+     * @param[in] osservatore L'osservatore da rimuovere.
+     */
+    public void rimuoviOsservatore(OsservatoreModifiche<Studente> osservatore) {
+        osservatori.remove(osservatore);
+    }
+    
+    /**
+     * @brief Notifica un evento a tutti gli osservatori.
+     * @pre Il chiamante possiede il lock dell'elenco.
+     * @param[in] evento L'evento da notificare.
+     */
+    private void notifica(Consumer<OsservatoreModifiche<Studente>> evento) {
+        for (OsservatoreModifiche<Studente> osservatore : osservatori) {
+            evento.accept(osservatore);
+        }
+    }
+    
+    /**
+     * @brief Segna l'elenco come modificato (il prossimo salvataggio riscrive l'intero archivio)
+     * e, se attivo, pianifica il salvataggio automatico.
+     * @pre Il chiamante possiede il lock dell'elenco.
+     */
+    private void marcaModificato() {
+        riscritturaCompleta = true;
+        segnalaModifica();
+    }
+    
+    /**
+     * @brief Segnala che ci sono modifiche da salvare e, se attivo, pianifica il salvataggio automatico.
+     */
+    private void segnalaModifica() {
+        modificato.set(true);
+        if (salvataggioAutomatico != null) {
+            salvataggioAutomatico.segnalaModifica();
+        }
+    }
+    
+    /**
+     * @brief Rende persistenti le modifiche effettuate.
+     * Con il salvataggio automatico la scrittura viene pianificata in background,
+     * altrimenti le modifiche vengono scritte subito (vedi scriviModifiche()).
+     */
+    public void salvaModifiche() {
+        if (salvataggioAutomatico != null) {
+            segnalaModifica();
+        } else {
+            modificato.set(false);
+            if (!scriviModifiche()) {
+                modificato.set(true);
+            }
+        }
+    }
+    
+    /**
+     * @brief Scrive l'elenco nell'archivio principale se ci sono modifiche non salvate
+     * (invocato dal thread del salvataggio automatico).
+     * Se la scrittura non riesce l'elenco resta modificato.
+     */
+    public void salvaSeModificato() {
+        if (modificato.getAndSet(false) && !scriviModifiche()) {
+            modificato.set(true);
+        }
+    }
+    
+    /**
+     * @brief Scrive le modifiche non ancora salvate. Con l'archivio normalizzato, se dall'ultimo
+     * salvataggio sono stati solo aggiunti prestiti, questi vengono accodati al file dei prestiti;
+     * altrimenti l'intero archivio viene riscritto da una copia dell'elenco.
+     * @return true se la scrittura è riuscita (se non riesce, il salvataggio successivo riscrive tutto).
+     */
+    private boolean scriviModifiche() {
+        List<Prestito> daAccodare = null;
+        List<Studente> studenti = null;
+        synchronized (this) {
+            if (archivioNormalizzato && !riscritturaCompleta
+                    && new File(NOME_FILE_ANAGRAFICA).exists() && new File(NOME_FILE_PRESTITI).exists()) {
+                daAccodare = new ArrayList<>(prestitiDaAccodare);
+            } else {
+                studenti = istantanea();
+                riscritturaCompleta = false;
+            }
+            prestitiDaAccodare.clear();
+        }
+        
+        boolean riuscito;
+        if (studenti != null) {
+            riuscito = scrivi(studenti);
+        } else if (daAccodare.isEmpty()) {
+            riuscito = true;
+        } else {
+            try {
+                ArchivioNormalizzatoStudenti.accodaPrestiti(daAccodare, new File(NOME_FILE_PRESTITI));
+                riuscito = true;
+            } catch (IOException ex) {
+                Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Errore durante l'accodamento dei prestiti.", ex);
+                riuscito = false;
+            }
+        }
+        if (!riuscito) {
+            synchronized (this) {
+                riscritturaCompleta = true;
+            }
+        }
+        return scaricaStorico() && riuscito;
+    }
+    
+    /**
+     * @brief Scrive su disco i prestiti chiusi accodati allo storico, se attivo.
+     * Se la scrittura non riesce i prestiti restano in attesa per il salvataggio successivo.
+     * @return true se la scrittura è riuscita o lo storico non è attivo.
+     */
+    private boolean scaricaStorico() {
+        StoricoPrestiti s = storico;
+        if (s == null) {
+            return true;
+        }
+        try {
+            s.scarica();
+            return true;
+        } catch (IOException ex) {
+            Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Errore durante la scrittura dello storico dei prestiti.", ex);
+            return false;
+        }
+    }
+    
+    /**
+     * @brief Attiva lo storico dei prestiti chiusi: da questo momento ogni prestito chiuso con
+     * chiudiPrestito() vi viene accodato e scritto insieme alle altre modifiche dell'elenco.
+     * @param[in] storico Lo storico, oppure null per disattivarlo.
+     */
+    public void setStorico(StoricoPrestiti storico) {
+        this.storico = storico;
+    }
+    
+    /**
+     * @brief Restituisce lo storico dei prestiti chiusi.
+     * @return Lo storico, oppure null se non attivo.
+     */
+    public StoricoPrestiti getStorico() {
+        return storico;
+    }
+    
+    /**
+     * @brief Copia gli studenti e i loro prestiti, nell'ordine dell'elenco.
+     * I libri dei prestiti sono condivisi con l'elenco.
+     * @return La copia dell'elenco.
+     */
+    private synchronized List<Studente> istantanea() {
+        List<Studente> copia = new ArrayList<>(elencoStudenti.size());
+        for (Studente s : elencoStudenti) {
+            Studente c = new Studente(s.getCognome(), s.getNome(), s.getMatricola(), s.getEmail(), s.getSanzione(), s.isRitardo());
+            c.setFineBlocco(s.getFineBlocco());
+            for (Prestito p : s.getPrestitiAttivi()) {
+                c.aggiungiPrestito(new Prestito(p.getLibro(), c, p.getDataInizio(), p.getDataScadenza(), p.getDataRestituzione()));
+            }
+            copia.add(c);
+        }
+        return copia;
+    }
+    
+    /**
+     * @brief Restituisce una copia dell'elenco (gli stessi oggetti Studente), utilizzabile
+     * mentre altri thread modificano l'elenco.
+     * @return Gli studenti, nell'ordine dell'elenco (per cognome).
+     */
+    public synchronized List<Studente> istantaneaElenco() {
+        return new ArrayList<>(elencoStudenti);
+    }
+    
+    /**
+     * @brief Restituisce l'intera collezione degli studenti, in sola lettura.
+     * Le modifiche passano dai metodi dell'elenco, che aggiornano anche l'indice per matricola.
+     * @return Una vista non modificabile del TreeSet contenente gli oggetti Studente.
+     */
+    public NavigableSet<Studente> getElencoStudenti()
+    {
+        return Collections.unmodifiableNavigableSet(elencoStudenti);
+    }
+    
+    /**
+     * @brief Cerca uno studente all'interno dell'elenco tramite la matricola.
+     * La ricerca avviene sull'indice per matricola (HashMap) in tempo costante.
+     * @param[in] matricola La matricola univoca dello studente da cercare.
+     * @return L'oggetto Studente se trovato, altrimenti null.
+     */
+    
+  
+    public synchronized Studente cercaStudenteperMatricola(String matricola) {
+        return indiceMatricole.get(matricola);
+    }
+    
+    /**
+     * @brief Comparatore interno per la classe Studente.
+     * Stabilisce la logica di ordinamento degli studenti all'interno del TreeSet:
+     * 1. Per Cognome (senza distinzione tra maiuscole, minuscole e lettere accentate),
+     *    confrontando le chiavi precalcolate (Studente.getChiaveOrdinamento()).
+     * 2. Per Matricola (in caso di stesso cognom).
+     */
+   
+    public class StudentComparator implements Comparator<Studente> {
+        
+        /**
+         * @brief Confronta due studenti
+         * @param[in] s1 Il primo studente.
+         * @param[in] s2 Is secondo studente.
+         * @return Un intero negativo, zero o positivo se s1 è rispettivamente minore, uguale o maggiore di s2.
+         */
+        
+        @Override
+        public int compare(Studente s1, Studente s2) {
+            // Confronta i cognome
+            int risultato = s1.getChiaveOrdinamento().compareTo(s2.getChiaveOrdinamento());
+
+            // Se i cognomi sono identici, ordina per matricola per garantire l'unicità
+            if (risultato == 0) {
+                risultato = s1.getMatricola().compareTo(s2.getMatricola());
+            }
+            return risultato;
+        }
+    }
+
+    /**
+     * @brief Aggiunge un nuovo studente all'elenco.
+     * Verifica se esiste un altro studente con la stessa matricola.
+     * @param[in] nuovoStudente L'oggetto Studente da aggiungere.
+     * @return true se l'inserimento è riuscito, false se la matricola è già presente.
+     */
+    
+    public synchronized boolean aggiungiStudente(Studente nuovoStudente) {
+        
+        Studente studenteEsistente = cercaStudenteperMatricola(nuovoStudente.getMatricola());
+        
+        if (studenteEsistente != null) {
+            
+            System.out.println("Studente con Matricola " + nuovoStudente.getMatricola() + " già presente");
+            return false; 
+        } else {
+            //  aggiungiamo il nuovo Studente, se non esiste già.
+            boolean inserito = elencoStudenti.add(nuovoStudente);
+            if (inserito) {
+                indiceMatricole.put(nuovoStudente.getMatricola(), nuovoStudente);
+                scadenzario.aggiungiPrestiti(nuovoStudente);
+                marcaModificato();
+                notifica(o -> o.aggiunto(nuovoStudente));
+            }
+            return inserito;
+        }
+    }
+    
+    
+/**
+ * @brief Modifica i dati anagrafici di uno studente già presente nell'elenco.
+ * @param[in] matricola La matricola dello studente.
+ * @param[in] nuovoNome Il nuovo nome da assegnare.
+ * @param[in] nuovoCognome Il nuovo cognome da assegnare.
+ * @param[in] nuovaEmail La nuova email da assegnare.
+ * @return true se la modifica è riuscita, false se la matricola non esiste.
+ */
+
+    
+    public synchronized boolean modificaStudente(String matricola, String nuovoNome, String nuovoCognome, String nuovaEmail) {
+       
+        Studente studente = cercaStudenteperMatricola(matricola);
+        
+            if (studente != null) {
+              
+                // La posizione nel TreeSet dipende solo dal cognome
+                boolean cognomeCambiato = !studente.getCognome().equals(nuovoCognome);
+                // Copia con i valori precedenti, per gli osservatori che devono ritrovare la vecchia posizione
+                Studente precedente = cognomeCambiato ? new Studente(studente.getCognome(), studente.getNome(),
+                        studente.getMatricola(), studente.getEmail(), studente.getSanzione(), studente.isRitardo()) : null;
+                if (cognomeCambiato) {
+                    elencoStudenti.remove(studente);
+                }
+             
+                 //Modifichiamo i dati
+                studente.setNome(nuovoNome);
+                studente.setCognome(nuovoCognome);
+                studente.setEmail(nuovaEmail);
+                
+              
+               if (cognomeCambiato) {
+                   elencoStudenti.add(studente);
+                   notifica(o -> o.spostato(studente, precedente));
+               } else {
+                   notifica(o -> o.aggiornato(studente));
+               }
+               marcaModificato();
+                
+                return true;
+            }
+        
+    
+        return false;
+    }
+    
+    /**
+     * @brief Rimuove uno studente dall'elenco.
+     * @param[in] matricola La matricola dello studente da eliminare.
+     * @return true se lo studente è stato trovato e rimosso, false altrimenti.
+     */ 
+    
+
+    public synchronized boolean eliminaStudente(String matricola) {
+       
+        Studente studente = cercaStudenteperMatricola(matricola);
+        
+        if (studente != null) {
+            
+            // Rimozione in O(log n) dal TreeSet e in O(1) dall'indice
+            elencoStudenti.remove(studente);
+            indiceMatricole.remove(matricola);
+            scadenzario.rimuoviPrestiti(studente);
+            marcaModificato();
+            notifica(o -> o.rimosso(studente));
+            
+            return true;
+        }
+      
+        return false;
+    }
+    
+    /**
+     * @brief Registra un nuovo prestito di uno studente dell'elenco.
+     * @param[in] studente Lo studente.
+     * @param[in] prestito Il prestito da aggiungere.
+     */
+    public synchronized void aggiungiPrestito(Studente studente, Prestito prestito) {
+        studente.aggiungiPrestito(prestito);
+        scadenzario.aggiungi(prestito);
+        // Un nuovo prestito non modifica gli studenti: nell'archivio normalizzato basta accodarlo
+        prestitiDaAccodare.add(new Prestito(prestito.getLibro(), studente, prestito.getDataInizio(), prestito.getDataScadenza(), prestito.getDataRestituzione()));
+        segnalaModifica();
+        notifica(o -> o.aggiornato(studente));
+    }
+    
+    /**
+     * @brief Registra un prestito se lo studente è abilitato e il libro ha una copia disponibile.
+     * Verifica dell'abilitazione, decremento delle copie nel catalogo e aggiunta del prestito
+     * avvengono sotto il lock dell'elenco, come un'unica operazione: due prestiti concorrenti
+     * allo stesso studente non superano Prestito.LIMITE_PRESTITI.
+     * @param[in] prestito Il prestito da registrare; lo studente deve appartenere all'elenco.
+     * @param[in] catalogo Il catalogo da cui prendere la copia del libro.
+     * @return ESEGUITO, STUDENTE_NON_ABILITATO oppure COPIE_ESAURITE (anche se il libro non è più nel catalogo).
+     */
+    public synchronized ServizioPrestiti.Esito registraPrestito(Prestito prestito, Catalogo catalogo) {
+        Studente studente = prestito.getStudente();
+        if (!studente.isAbilitato(prestito.getDataInizio().toEpochDay())) {
+            return ServizioPrestiti.Esito.STUDENTE_NON_ABILITATO;
+        }
+        if (!catalogo.decrementaCopie(prestito.getLibro().getIsbn())) {
+            return ServizioPrestiti.Esito.COPIE_ESAURITE;
+        }
+        aggiungiPrestito(studente, prestito);
+        return ServizioPrestiti.Esito.ESEGUITO;
+    }
+    
+    /**
+     * @brief Chiude il prestito attivo di uno studente per il libro indicato (vedi chiudiPrestito()).
+     * Ricerca e chiusura avvengono sotto il lock dell'elenco: uno stesso prestito viene chiuso una sola volta.
+     * @param[in] studente Lo studente.
+     * @param[in] isbn L'ISBN del libro restituito.
+     * @param[in] dataRestituzione La data di restituzione.
+     * @return Il prestito chiuso, oppure null se lo studente non ha in prestito il libro.
+     */
+    public synchronized Prestito chiudiPrestito(Studente studente, String isbn, LocalDate dataRestituzione) {
+        for (Prestito prestito : studente.getPrestitiAttivi()) {
+            if (prestito.getLibro().getIsbn().equals(isbn)) {
+                chiudiPrestito(studente, prestito, dataRestituzione);
+                return prestito;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * @brief Copia i prestiti attivi di uno studente dell'elenco, coerente con prestiti e restituzioni concorrenti.
+     * @param[in] studente Lo studente.
+     * @return I prestiti attivi dello studente al momento della chiamata.
+     */
+    public synchronized Prestito[] prestitiAttivi(Studente studente) {
+        return studente.getPrestitiAttivi().toArray(new Prestito[0]);
+    }
+    
+    /**
+     * @brief Chiude un prestito di uno studente dell'elenco: imposta la data di restituzione,
+     * aggiorna la sanzione dello studente e rimuove il prestito da quelli attivi, accodandolo
+     * allo storico dei prestiti chiusi se attivo (vedi setStorico()).
+     * @param[in] studente Lo studente.
+     * @param[in] prestito Il prestito da chiudere.
+     * @param[in] dataRestituzione La data di restituzione.
+     * @return L'esito della verifica delle sanzioni (Prestito.gestioneSanzioni()).
+     */
+    public synchronized String chiudiPrestito(Studente studente, Prestito prestito, LocalDate dataRestituzione) {
+        prestito.setDatarestituzione(dataRestituzione);
+        String esito = prestito.gestioneSanzioni();
+        studente.applicaSanzione(esito, dataRestituzione);
+        studente.rimuoviPrestito(prestito);
+        scadenzario.rimuovi(prestito);
+        if (storico != null) {
+            storico.accoda(prestito);
+        }
+        marcaModificato();
+        notifica(o -> o.aggiornato(studente));
+        return esito;
+    }
+    
+    /**
+     * @brief Ricalcola le sanzioni degli studenti con prestiti attivi scaduti (vedi RicalcoloSanzioni).
+     * Sotto il lock dell'elenco vengono copiati, per ogni studente, la sanzione, i prestiti attivi e il
+     * numero di modifiche (Studente.getModifiche()); il calcolo avviene in parallelo sul pool indicato,
+     * senza il lock, così che prestiti e restituzioni non restino in attesa; il risultato viene applicato
+     * riprendendo il lock. Gli studenti modificati o eliminati durante il calcolo vengono saltati: la loro
+     * sanzione è già stata aggiornata da chi li ha modificati, oppure lo sarà al ricalcolo successivo.
+     * L'elenco viene segnato da salvare, e gli osservatori notificati, solo per gli studenti la cui sanzione è cambiata.
+     * @param[in] oggi Il giorno rispetto al quale calcolare i ritardi.
+     * @param[in] pool Il pool del calcolo parallelo.
+     * @return L'esito, con il numero di studenti modificati e la durata delle fasi.
+     */
+    public RicalcoloSanzioni.Esito ricalcolaSanzioni(LocalDate oggi, ForkJoinPool pool) {
+        long inizio = System.nanoTime();
+        Studente[] studenti;
+        String[] sanzioni;
+        Prestito[][] prestiti;
+        int[] modifiche;
+        synchronized (this) {
+            studenti = elencoStudenti.toArray(new Studente[0]);
+            sanzioni = new String[studenti.length];
+            prestiti = new Prestito[studenti.length][];
+            modifiche = new int[studenti.length];
+            for (int i = 0; i < studenti.length; i++) {
+                sanzioni[i] = studenti[i].getSanzione();
+                prestiti[i] = studenti[i].getPrestitiAttivi().toArray(new Prestito[0]);
+                modifiche[i] = studenti[i].getModifiche();
+            }
+        }
+        String[] nuove = new String[studenti.length];
+        long copia = System.nanoTime();
+        long[] conteggi = RicalcoloSanzioni.calcola(sanzioni, prestiti, nuove, oggi, pool);
+        long calcolo = System.nanoTime();
+        
+        int modificati = 0;
+        synchronized (this) {
+            for (int i = 0; i < studenti.length; i++) {
+                Studente studente = studenti[i];
+                if (nuove[i] != null && studente.getModifiche() == modifiche[i]
+                        && indiceMatricole.get(studente.getMatricola()) == studente) {
+                    studente.applicaSanzione(nuove[i], oggi);
+                    studente.setRitardo(true);
+                    notifica(o -> o.aggiornato(studente));
+                    modificati++;
+                }
+            }
+            if (modificati > 0) {
+                marcaModificato();
+            }
+        }
+        return new RicalcoloSanzioni.Esito(studenti.length, conteggi[0], conteggi[1], modificati,
+                copia - inizio, calcolo - copia, System.nanoTime() - calcolo);
+    }
+    
+    /**
+     * @brief Restituisce i prestiti attivi scaduti al giorno indicato (scadenza precedente al giorno).
+     * La ricerca usa lo scadenzario dei prestiti e costa in proporzione ai prestiti restituiti,
+     * non al numero totale di prestiti. Lo scadenzario è aggiornato da aggiungiPrestito(),
+     * chiudiPrestito(), aggiungiStudente(), eliminaStudente() e dai caricamenti: i prestiti
+     * modificati direttamente (Studente.aggiungiPrestito(), Prestito.setDataScadenza()) non vi sono riflessi.
+     * @param[in] giorno Il giorno di riferimento (es. LocalDate.now()).
+     * @return I prestiti scaduti, in ordine di scadenza (dal più vecchio).
+     */
+    public synchronized List<Prestito> prestitiScaduti(LocalDate giorno) {
+        return scadenzario.scadutiAl(giorno);
+    }
+    
+    /**
+     * @brief Restituisce i prestiti attivi che scadono dal giorno indicato ai giorni successivi
+     * (vedi prestitiScaduti() per il costo e l'aggiornamento dello scadenzario).
+     * @param[in] giorno Il primo giorno dell'intervallo.
+     * @param[in] giorni Il numero di giorni successivi da includere (0 per il solo giorno indicato).
+     * @return I prestiti in scadenza, in ordine di scadenza.
+     * @throws IllegalArgumentException Se giorni è negativo.
+     */
+    public synchronized List<Prestito> prestitiInScadenza(LocalDate giorno, int giorni) {
+        return scadenzario.inScadenza(giorno, giorni);
+    }
+
+    /**
+     * @brief Copia i prestiti attivi di tutti gli studenti, nell'ordine dell'elenco
+     * (usato dalle analisi, vedi AnalisiPrestiti). Studenti e libri sono condivisi con l'elenco.
+     * @return La copia dei prestiti attivi.
+     */
+    public synchronized List<Prestito> prestitiAttivi() {
+        List<Prestito> copia = new ArrayList<>();
+        for (Studente s : elencoStudenti) {
+            for (Prestito p : s.getPrestitiAttivi()) {
+                copia.add(new Prestito(p.getLibro(), s, p.getDataInizio(), p.getDataScadenza(), p.getDataRestituzione()));
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * @brief Riconcilia i prestiti con il catalogo: ogni prestito letto dal file, che ha una propria
+     * copia del libro, viene collegato all'istanza del catalogo con lo stesso ISBN (cercaLibroPerISBN()).
+     * Così i prestiti condividono i libri del catalogo (una sola istanza per ISBN, invece di una per
+     * prestito) e ne riflettono le modifiche (titolo, autore, copie). I prestiti il cui ISBN non è
+     * presente nel catalogo (orfani) conservano i dati letti dal file, con un solo libro per ISBN,
+     * e vengono segnalati.
+     * Da invocare dopo aver caricato sia l'elenco che il catalogo (vedi CaricamentoIniziale).
+     * @param[in] catalogo Il catalogo con i libri di riferimento.
+     * @return Gli ISBN orfani, in ordine; vuoto se tutti i prestiti sono stati collegati al catalogo.
+     * @post Prestito.getLibro() di ogni prestito con ISBN presente nel catalogo è l'istanza del catalogo.
+     */
+    public synchronized SortedSet<String> riconciliaPrestiti(Catalogo catalogo) {
+        HashMap<String, Libro> orfani = new HashMap<>();
+        int prestitiOrfani = 0;
+        
+        for (Studente s : elencoStudenti) {
+            for (Prestito p : s.getPrestitiAttivi()) {
+                String isbn = p.getLibro().getIsbn();
+                Libro libro = catalogo.cercaLibroPerISBN(isbn);
+                if (libro == null) {
+                    // Libro assente dal catalogo: i prestiti dello stesso ISBN condividono la prima copia letta
+                    libro = orfani.computeIfAbsent(isbn, k -> p.getLibro());
+                    prestitiOrfani++;
+                }
+                p.setLibro(libro);
+            }
+        }
+        
+        TreeSet<String> isbnOrfani = new TreeSet<>(orfani.keySet());
+        if (!isbnOrfani.isEmpty()) {
+            System.err.println("RICONCILIAZIONE: " + prestitiOrfani + " prestiti fanno riferimento a "
+                    + isbnOrfani.size() + " ISBN assenti dal catalogo: " + isbnOrfani);
+        }
+        return isbnOrfani;
+    }
+    
+    /**
+     * @brief Salva l'elenco degli studenti su file binario (DOS).
+     * Il file contiene un'intestazione (firma, versione, numero di record) seguita dai dati
+     * completi di ogni studente e dei suoi prestiti, con campi preceduti dalla lunghezza
+     * (vedi ArchivioBinarioStudenti). Il file può essere ricaricato con caricaDOS().
+     * Viene scritta una copia dell'elenco (istantanea()), così altri thread possono modificarlo
+     * durante la scrittura.
+     * @param[in] nomeFile Il percorso del file di destinazione.
+     * @throws FileNotFoundException Se il file non può essere creato.
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    
+    public void salvaDOS(String nomeFile) throws FileNotFoundException, IOException {
+        ArchivioBinarioStudenti.scrivi(istantanea(), new File(nomeFile));
+    }
+    
+    /**
+     * @brief Carica gli studenti e i prestiti da un file binario scritto da salvaDOS().
+     * @param[in] nomeFile Il percorso del file da leggere.
+     * @throws IOException Se il file non esiste, non è un archivio valido o è danneggiato;
+     * in tal caso l'elenco non viene modificato.
+     * @post elencoStudenti e l'indice per matricola contengono gli studenti letti.
+     */
+    
+    public void caricaDOS(String nomeFile) throws IOException {
+        caricaDOS(nomeFile, null);
+    }
+    
+    /**
+     * @brief Corpo di caricaDOS(String), con l'avanzamento da aggiornare durante la lettura.
+     * @param[in] nomeFile Il percorso del file da leggere.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @throws IOException Se il file non esiste, non è un archivio valido o è danneggiato.
+     */
+    private synchronized void caricaDOS(String nomeFile, AvanzamentoCaricamento avanzamento) throws IOException {
+        List<Studente> studenti = ArchivioBinarioStudenti.leggi(new File(nomeFile), avanzamento);
+        
+        HashMap<String, Studente> studentiMappa = new HashMap<>(Math.max(16, (int) (studenti.size() / 0.75f) + 1));
+        for (Studente s : studenti) {
+            studentiMappa.put(s.getMatricola(), s);
+        }
+        
+        this.elencoStudenti.clear();
+        if (VistaOrdinata.ordinata(studenti, elencoStudenti.comparator())) {
+            // Il file è scritto nell'ordine dell'elenco: costruzione del TreeSet in tempo lineare
+            this.elencoStudenti.addAll(new VistaOrdinata<>(studenti, elencoStudenti.comparator()));
+        } else {
+            this.elencoStudenti.addAll(studenti);
+        }
+        this.indiceMatricole = studentiMappa;
+        this.scadenzario.ricostruisci(studenti);
+        this.riscritturaCompleta = true; // i file dell'archivio normalizzato (se selezionato) non coincidono più con l'elenco
+        this.prestitiDaAccodare.clear();
+        notifica(OsservatoreModifiche::ricaricato);
+    }
+    
+    /**
+     * @brief Salva l'intero elenco nell'archivio principale (binario, normalizzato o CSV,
+     * vedi setArchivioBinario() e setArchivioNormalizzato()).
+     * @post Viene aggiornato il file "Lista_studenti.dat", i file "Lista_studenti_anagrafica.csv"
+     * e "Lista_prestiti.csv" oppure il file "Lista_studenti.csv".
+     */
+    
+    public void salvaDati() {
+        modificato.set(false);
+        List<Studente> studenti;
+        synchronized (this) {
+            studenti = istantanea();
+            riscritturaCompleta = false;
+            prestitiDaAccodare.clear();
+        }
+        boolean riuscito = scrivi(studenti);
+        if (!riuscito) {
+            synchronized (this) {
+                riscritturaCompleta = true;
+            }
+        }
+        if (!scaricaStorico() || !riuscito) {
+            modificato.set(true);
+        }
+    }
+    
+    /**
+     * @brief Scrive gli studenti nell'archivio principale.
+     * @param[in] studenti Gli studenti da scrivere, nell'ordine dell'elenco.
+     * @return true se la scrittura è riuscita.
+     */
+    private boolean scrivi(Collection<Studente> studenti) {
+        if (!archivioBinario && !archivioNormalizzato) {
+            return scriviCSV(studenti, NOME_FILE_CSV);
+        }
+        try {
+            if (archivioNormalizzato) {
+                ArchivioNormalizzatoStudenti.scrivi(studenti, new File(NOME_FILE_ANAGRAFICA), new File(NOME_FILE_PRESTITI));
+            } else {
+                ArchivioBinarioStudenti.scrivi(studenti, new File(NOME_FILE_BINARIO));
+            }
+            return true;
+        } catch (IOException ex) {
+            Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Errore durante il salvataggio dell'archivio " + (archivioNormalizzato ? "normalizzato." : "binario."), ex);
+            return false;
+        }
+    }
+    
+     /**
+     * @brief Salva l'elenco degli studenti e i relativi prestiti su file CSV.
+     * Il formato appiattisce la relazione: se uno studente ha prestiti, 
+     * vengono scritti i dettagli del prestito nella stessa riga.
+     * @post Viene generato il file "Lista_studenti.csv".
+     */ 
+        
+   public void salvaCSV() {
+    salvaCSV(NOME_FILE_CSV);
+}
+
+/**
+ * @brief Salva l'elenco degli studenti e i relativi prestiti sul file CSV indicato.
+ * Come salvaDati(), scrive una copia dell'elenco (istantanea()).
+ * @param[in] nomeFile Il percorso del file di destinazione.
+ */
+
+public void salvaCSV(String nomeFile) {
+    scriviCSV(istantanea(), nomeFile);
+}
+
+/**
+ * @brief Scrive gli studenti e i relativi prestiti sul file CSV indicato.
+ * @param[in] studenti Gli studenti da scrivere, nell'ordine dell'elenco.
+ * @param[in] nomeFile Il percorso del file di destinazione.
+ * @return true se la scrittura è riuscita.
+ */
+
+private boolean scriviCSV(Collection<Studente> studenti, String nomeFile) {
+    final String SEPARATORE = ";";
+
+    try (PrintWriter pw = new PrintWriter(new FileWriter(nomeFile))) {
+        
+        pw.println("Elenco Studenti"); 
+        
+        // Intestazione con 15 campi
+        pw.println("Cognome; Nome; Matricola; Email; Sanzione; Ritardo; PrestitoAttivo; ISBN; Titolo; Autore; AnnoPubblicazione; DataInizio; DataScadenza; DataRestituzione; FineBlocco");
+
+        for (Studente s : studenti) {
+            
+            // Dati base dello Studente
+            String cognome = s.getCognome();
+            String nome = s.getNome();
+            String matricola = s.getMatricola();
+            String email = s.getEmail();
+            String sanzione = s.getSanzione();
+            String ritardo = String.valueOf(s.isRitardo()); 
+            // Fine del blocco di Categoria 2, ultimo campo di ogni riga (vuoto se non c'è blocco)
+            String fineBlocco = s.getFineBlocco() != null ? s.getFineBlocco().toString() : "";
+            
+            List<Prestito> prestitiAttivi = s.getPrestitiAttivi(); 
+
+            // Costruiamo la parte iniziale della riga
+            String rigaBase = cognome + SEPARATORE + nome + SEPARATORE + matricola + SEPARATORE + 
+                              email + SEPARATORE + sanzione + SEPARATORE + ritardo + SEPARATORE;
+
+            if (prestitiAttivi.isEmpty()) {
+                pw.println(rigaBase + 
+                           "0" + SEPARATORE + 
+                           SEPARATORE + SEPARATORE + SEPARATORE + 
+                           SEPARATORE + SEPARATORE + SEPARATORE + SEPARATORE + fineBlocco);
+            } else {
+                DateTimeFormatter formatterAnno = DateTimeFormatter.ofPattern("yyyy");
+                
+                for (Prestito p : prestitiAttivi) {
+                    
+                    // Dati del Libro
+                    String isbn = p.getLibro().getIsbn(); 
+                    String titolo = p.getLibro().getTitolo();
+                    String autore = p.getLibro().getAutore();
+                    // SOLO ANNO! (assente per i libri provvisori dell'archivio normalizzato non presenti nel catalogo)
+                    String annoPb = p.getLibro().getAnnoPb() != null ? p.getLibro().getAnnoPb().format(formatterAnno) : "";
+                    
+                    // Dati del Prestito
+                    String dataInizio = p.getDataInizio().toString();
+                    String dataScadenza = p.getDataScadenza().toString();
+                    String dataRestituzione = (p.getDataRestituzione() != null) ? p.getDataRestituzione().toString() : "";
+                    
+                    String riga = rigaBase + 
+                                  prestitiAttivi.size() + SEPARATORE + 
+                                  isbn + SEPARATORE + titolo + SEPARATORE + autore + SEPARATORE + 
+                                  annoPb + SEPARATORE + dataInizio + SEPARATORE + dataScadenza + SEPARATORE + dataRestituzione + SEPARATORE + fineBlocco;
+                                  
+                    pw.println(riga);
+                }
+            }
+        }
+        if (pw.checkError()) {
+            throw new IOException("scrittura non riuscita su " + nomeFile);
+        }
+        
+    } catch (IOException ex) {
+        Logger.getLogger(this.getClass().getName()).log(Level.SEVERE, "Errore durante il salvataggio CSV.", ex);
+        return false;
+    }
+    return true;
+}
+        
+/**
+ * @brief Carica gli studenti e i prestiti dall'archivio principale.
+ * Se l'archivio binario è selezionato ed esiste viene letto con caricaDOS(); se è selezionato
+ * l'archivio normalizzato ed esistono entrambi i suoi file vengono letti con un hash join sulla
+ * matricola (vedi ArchivioNormalizzatoStudenti). Altrimenti (o se i file sono danneggiati)
+ * vengono letti i dati dal file CSV, che al primo salvataggio verranno riscritti nell'archivio selezionato.
+ * @post elencoStudenti viene popolato con i dati letti.
+ */
+
+public void caricaDati() {
+    caricaDati(null);
+}
+
+/**
+ * @brief Corpo di caricaDati(), con l'avanzamento da aggiornare durante la lettura.
+ * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+ */
+private void caricaDati(AvanzamentoCaricamento avanzamento) {
+    if (archivioNormalizzato && new File(NOME_FILE_ANAGRAFICA).exists() && new File(NOME_FILE_PRESTITI).exists()) {
+        try {
+            caricaNormalizzato(avanzamento);
+            return;
+        } catch (IOException e) {
+            System.err.println("Archivio normalizzato non leggibile (" + e.getMessage() + "): caricamento dal file CSV.");
+        }
+    }
+    if (archivioBinario && new File(NOME_FILE_BINARIO).exists()) {
+        try {
+            caricaDOS(NOME_FILE_BINARIO, avanzamento);
+            return;
+        } catch (IOException e) {
+            System.err.println("Archivio binario non leggibile (" + e.getMessage() + "): caricamento dal file CSV.");
+        }
+    }
+    caricaCSV(NOME_FILE_CSV, avanzamento);
+}
+
+/**
+ * @brief Carica gli studenti e i prestiti dall'archivio normalizzato.
+ * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+ * @throws IOException Se uno dei due file non può essere letto; in tal caso l'elenco non viene modificato.
+ */
+private synchronized void caricaNormalizzato(AvanzamentoCaricamento avanzamento) throws IOException {
+    HashMap<String, Studente> studentiMappa = ArchivioNormalizzatoStudenti.leggi(new File(NOME_FILE_ANAGRAFICA), new File(NOME_FILE_PRESTITI), avanzamento);
+    
+    this.elencoStudenti.clear();
+    this.elencoStudenti.addAll(studentiMappa.values());
+    this.indiceMatricole = studentiMappa;
+    this.scadenzario.ricostruisci(studentiMappa.values());
+    // I file letti coincidono con l'elenco: i prossimi prestiti possono essere accodati
+    this.riscritturaCompleta = false;
+    this.prestitiDaAccodare.clear();
+    notifica(OsservatoreModifiche::ricaricato);
+}
+
+/**
+ * @brief Carica gli studenti e i prestiti dal file CSV.
+ * Gestisce la logica "uno-a-molti" raggruppando le righe CSV tramite matricola (HashMap)
+ * prima di popolare il TreeSet finale. La lettura è delegata a LettoreCSVMappato,
+ * che mappa il file in memoria.
+ * @post elencoStudenti viene popolato con i dati letti.
+ */
+   
+public void caricaCSV(String nomeFile) {
+    caricaCSV(nomeFile, null);
+}
+
+/**
+ * @brief Corpo di caricaCSV(String), con l'avanzamento da aggiornare durante la lettura.
+ * @param[in] nomeFile Il percorso del file CSV.
+ * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+ */
+private synchronized void caricaCSV(String nomeFile, AvanzamentoCaricamento avanzamento) {
+    
+    HashMap<String, Studente> studentiMappa = new HashMap<>(); 
+
+    try {
+        // Il file viene mappato in memoria: le righe della stessa matricola sono raggruppate nello stesso studente
+        studentiMappa = LettoreCSVMappato.leggiStudenti(new File(nomeFile), avanzamento);
+    } catch (IOException e) {
+        System.err.println("File dati non trovato o errore di lettura I/O. La collezione sarà vuota.");
+    }
+    
+    // Aggiungi tutti gli studenti unici dalla Mappa al TreeSet finale
+    this.elencoStudenti.clear(); 
+    this.elencoStudenti.addAll(studentiMappa.values()); 
+    
+    // La mappa usata per il raggruppamento diventa l'indice per matricola
+    this.indiceMatricole = studentiMappa;
+    this.scadenzario.ricostruisci(studentiMappa.values());
+    this.riscritturaCompleta = true; // i file dell'archivio normalizzato (se selezionato) non coincidono più con l'elenco
+    this.prestitiDaAccodare.clear();
+    notifica(OsservatoreModifiche::ricaricato);
+}
+    /**
+     * @brief Restituisce una rappresentazione in formato stringa dell'intero elenco.
+     * @return Una stringa con l'elenco degli studenti o un messaggio, se l'elenco è vuoto.
+     * 
+     */
+  
+    @Override
+    public String toString() {
+        if (elencoStudenti.isEmpty()) {
+            return "L'elenco è vuoto.";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("===== ELENCO STUDENTI (Ordinato per Cognome) =====\n");
+        
+        for (Studente studente : elencoStudenti) {
+            sb.append(studente.toString()).append("\n");
+        }
+        sb.append("================================================");
+        return sb.toString();
+    }
+    
+   
+    
+}
\ No newline at end of file
@@ -0,0 +1,529 @@
+/**
+*@file GeneratoreDati.java
+*@brief Questo file contiene il generatore di archivi sintetici (libri, studenti e prestiti)
+* per test di carico e benchmark.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * @brief Generatore deterministico dei file Lista_Libri.csv e Lista_studenti.csv.
+ * I file hanno esattamente il formato scritto da Catalogo.salvaCSV() ed Elenco.salvaCSV()
+ * e vengono scritti in streaming: la memoria usata non dipende dal numero di righe.
+ *
+ * - Ogni libro è generato a partire dal seme e dal proprio indice, così che i prestiti possano
+ *   riportarne i dati senza tenere in memoria il catalogo.
+ * - La popolarità dei libri prestati segue una distribuzione di Zipf (esponente configurabile):
+ *   pochi titoli ricevono la maggior parte dei prestiti.
+ * - Il numero di prestiti attivi e di prestiti scaduti è esattamente quello richiesto; ogni
+ *   studente ha al più Prestito.LIMITE_PRESTITI prestiti.
+ * - Nomi, cognomi e titoli sono composti da parole italiane, anche accentate.
+ *
+ * A parità di seme, parametri e data di riferimento i file generati sono identici byte per byte.
+ * Uso da riga di comando: vedi main().
+ */
+public class GeneratoreDati {
+
+    private static final String[] NOMI = {
+        "Marco", "Giulia", "Francesco", "Chiara", "Alessandro", "Sara", "Lorenzo", "Martina", "Niccolò", "Aurora",
+        "Matteo", "Sofia", "Andrea", "Giorgia", "Gabriele", "Alice", "Riccardo", "Federica", "Tommaso", "Elena",
+        "Davide", "Beatrice", "Luca", "Noemi", "Giuseppe", "Ilaria", "Antonio", "Valentina", "Salvatore", "Rosaria"
+    }; ///< Nomi propri.
+
+    private static final String[] COGNOMI = {
+        "Rossi", "Russo", "Ferrari", "Esposito", "Bianchi", "Romano", "Colombo", "Ricci", "Marino", "Greco",
+        "Bruno", "Gallo", "Conti", "De Luca", "Mancini", "Costa", "Giordano", "Rizzo", "Lombardi", "Moretti",
+        "D'Angelo", "Barbieri", "Fontana", "Santoro", "Mariani", "Rinaldi", "Caruso", "Ferrara", "Galli", "Martini",
+        "Leone", "Longo", "Gentile", "Martinelli", "Vitale", "Lombardo", "Serra", "Coppola", "De Santis", "Cucciniello",
+        "Azzato", "Dianò", "Nicolò", "Fabbri", "Cantù", "Parisi", "Sanna", "Farina", "Palumbo", "Amato"
+    }; ///< Cognomi, con frequenze realistiche nell'elenco tramite ripetizione.
+
+    private static final String[] ARTICOLI = {"Il", "La", "Lo", "I", "Le", "Gli", "Un", "Una", "L'"}; ///< Inizi dei titoli.
+
+    private static final String[] SOSTANTIVI = {
+        "nome", "rosa", "città", "libertà", "verità", "mare", "notte", "giardino", "viaggio", "memoria",
+        "età", "virtù", "silenzio", "vento", "casa", "guerra", "pace", "università", "isola", "montagna",
+        "storia", "segreto", "ritorno", "attesa", "luce", "ombra", "fiume", "caffè", "tempo", "strada"
+    }; ///< Sostantivi dei titoli.
+
+    private static final String[] COMPLEMENTI = {
+        "della sera", "del mattino", "perduto", "infinita", "di Napoli", "di Salerno", "senza fine", "dell'anima",
+        "più lontana", "così vicino", "e altri racconti", "dei ricordi", "del sud", "d'inverno", "già scritto"
+    }; ///< Complementi dei titoli.
+
+    private static final String[] INIZIALI_EMAIL = new String[NOMI.length]; ///< Iniziali dei nomi per gli indirizzi email.
+
+    private static final String[] COGNOMI_EMAIL = new String[COGNOMI.length]; ///< Cognomi senza accenti, spazi e apostrofi per gli indirizzi email.
+
+    static {
+        for (int i = 0; i < NOMI.length; i++) {
+            INIZIALI_EMAIL[i] = ChiaveOrdinamento.calcola(NOMI[i]).substring(0, 1) + ".";
+        }
+        for (int i = 0; i < COGNOMI.length; i++) {
+            COGNOMI_EMAIL[i] = ChiaveOrdinamento.calcola(COGNOMI[i]).replaceAll("[^a-z]", "");
+        }
+    }
+
+    private final long seme; ///< Seme della generazione.
+    private int libri = 10_000; ///< Numero di libri del catalogo.
+    private int copieMassime = 5; ///< Numero massimo di copie per libro (minimo 1).
+    private int studenti = 5_000; ///< Numero di studenti.
+    private long prestiti = 4_000; ///< Numero totale di prestiti attivi.
+    private double quotaScaduti = 0.1; ///< Frazione dei prestiti attivi già scaduti.
+    private double esponenteZipf = 1.0; ///< Esponente della distribuzione di popolarità dei libri.
+    private LocalDate oggi = LocalDate.now(); ///< Data di riferimento per le date dei prestiti.
+
+    /**
+     * @brief Costruttore.
+     * @param[in] seme Il seme della generazione.
+     */
+    public GeneratoreDati(long seme) {
+        this.seme = seme;
+    }
+
+    /**
+     * @brief Imposta il numero di libri.
+     * @pre 0 < libri <= 10.000.000 (gli ISBN generati hanno 7 cifre di numero di titolo)
+     * @param[in] libri Il numero di libri del catalogo.
+     * @return Questo generatore.
+     */
+    public GeneratoreDati setLibri(int libri) {
+        if (libri <= 0 || libri > 10_000_000) {
+            throw new IllegalArgumentException("Il numero di libri deve essere compreso tra 1 e 10.000.000.");
+        }
+        this.libri = libri;
+        return this;
+    }
+
+    /**
+     * @brief Imposta il numero massimo di copie di ciascun libro.
+     * @pre copieMassime > 0
+     * @param[in] copieMassime Le copie di ogni libro sono scelte in [1, copieMassime].
+     * @return Questo generatore.
+     */
+    public GeneratoreDati setCopieMassime(int copieMassime) {
+        if (copieMassime <= 0) {
+            throw new IllegalArgumentException("Il numero di copie deve essere positivo.");
+        }
+        this.copieMassime = copieMassime;
+        return this;
+    }
+
+    /**
+     * @brief Imposta il numero di studenti.
+     * @pre 0 <= studenti <= 100.000.000 (le matricole generate hanno 10 cifre)
+     * @param[in] studenti Il numero di studenti.
+     * @return Questo generatore.
+     */
+    public GeneratoreDati setStudenti(int studenti) {
+        if (studenti < 0 || studenti > 100_000_000) {
+            throw new IllegalArgumentException("Il numero di studenti deve essere compreso tra 0 e 100.000.000.");
+        }
+        this.studenti = studenti;
+        return this;
+    }
+
+    /**
+     * @brief Imposta il numero totale di prestiti attivi.
+     * @pre 0 <= prestiti <= studenti * Prestito.LIMITE_PRESTITI (verificato alla generazione)
+     * @param[in] prestiti Il numero di prestiti attivi.
+     * @return Questo generatore.
+     */
+    public GeneratoreDati setPrestiti(long prestiti) {
+        if (prestiti < 0) {
+            throw new IllegalArgumentException("Il numero di prestiti non può essere negativo.");
+        }
+        this.prestiti = prestiti;
+        return this;
+    }
+
+    /**
+     * @brief Imposta la frazione dei prestiti attivi già scaduti (non restituiti dopo la scadenza).
+     * @pre 0 <= quotaScaduti <= 1
+     * @param[in] quotaScaduti La frazione dei prestiti scaduti.
+     * @return Questo generatore.
+     */
+    public GeneratoreDati setQuotaScaduti(double quotaScaduti) {
+        if (!(quotaScaduti >= 0 && quotaScaduti <= 1)) {
+            throw new IllegalArgumentException("La quota di prestiti scaduti deve essere compresa tra 0 e 1.");
+        }
+        this.quotaScaduti = quotaScaduti;
+        return this;
+    }
+
+    /**
+     * @brief Imposta l'esponente della distribuzione di Zipf della popolarità dei libri.
+     * @pre esponenteZipf > 0
+     * @param[in] esponenteZipf L'esponente (1 = Zipf classica; valori maggiori concentrano di più i prestiti).
+     * @return Questo generatore.
+     */
+    public GeneratoreDati setEsponenteZipf(double esponenteZipf) {
+        if (!(esponenteZipf > 0)) {
+            throw new IllegalArgumentException("L'esponente di Zipf deve essere positivo.");
+        }
+        this.esponenteZipf = esponenteZipf;
+        return this;
+    }
+
+    /**
+     * @brief Imposta la data di riferimento: i prestiti in corso scadono dopo questa data,
+     * quelli scaduti prima.
+     * @param[in] oggi La data di riferimento.
+     * @return Questo generatore.
+     */
+    public GeneratoreDati setOggi(LocalDate oggi) {
+        this.oggi = oggi;
+        return this;
+    }
+
+    /**
+     * @brief Scrive Lista_Libri.csv e Lista_studenti.csv nella cartella indicata.
+     * @param[in] cartella La cartella di destinazione (viene creata se non esiste).
+     * @throws IOException Se i file non possono essere scritti.
+     */
+    public void scrivi(File cartella) throws IOException {
+        if (!cartella.isDirectory() && !cartella.mkdirs()) {
+            throw new IOException("Impossibile creare la cartella " + cartella);
+        }
+        scriviLibri(new File(cartella, "Lista_Libri.csv"));
+        scriviStudenti(new File(cartella, "Lista_studenti.csv"));
+    }
+
+    /**
+     * @brief Scrive il catalogo nel formato di Catalogo.salvaCSV().
+     * @param[in] file Il file di destinazione.
+     * @throws IOException Se il file non può essere scritto.
+     */
+    public void scriviLibri(File file) throws IOException {
+        String aCapo = System.lineSeparator();
+        try (Writer w = apri(file)) {
+            w.append("Elenco Libri").append(aCapo);
+            w.append("Titolo;Autore;ISBN;Anno pb;Num_Copie").append(aCapo);
+            for (int i = 0; i < libri; i++) {
+                Libro libro = libro(i);
+                w.append(libro.getTitolo()).append(';')
+                        .append(libro.getAutore()).append(';')
+                        .append(libro.getIsbn()).append(';')
+                        .append(String.valueOf(libro.getAnnoPb().getYear())).append(';')
+                        .append(String.valueOf(libro.getNumCopie())).append(aCapo);
+            }
+        }
+    }
+
+    /**
+     * @brief Scrive gli studenti e i loro prestiti nel formato di Elenco.salvaCSV().
+     * I prestiti vengono assegnati agli studenti con un campionamento sequenziale (selezione
+     * di Knuth) sui posti disponibili, così che il totale sia esatto senza memorizzare l'assegnazione.
+     * @throws IOException Se il file non può essere scritto.
+     * @throws IllegalStateException Se i prestiti superano studenti * Prestito.LIMITE_PRESTITI.
+     * @param[in] file Il file di destinazione.
+     */
+    public void scriviStudenti(File file) throws IOException {
+        long posti = (long) studenti * Prestito.LIMITE_PRESTITI;
+        if (prestiti > posti) {
+            throw new IllegalStateException("Troppi prestiti: al massimo " + posti + " per " + studenti + " studenti.");
+        }
+        SplittableRandom random = new SplittableRandom(seme);
+        CampionatoreZipf zipf = new CampionatoreZipf(libri, esponenteZipf);
+        long passo = passoCoprimo(libri);
+        long prestitiRestanti = prestiti;
+        long scadutiRestanti = Math.round(prestiti * quotaScaduti);
+        long postiRestanti = posti;
+
+        String aCapo = System.lineSeparator();
+        StringBuilder riga = new StringBuilder(256);
+        int[] libriPrestati = new int[Prestito.LIMITE_PRESTITI];
+        try (Writer w = apri(file)) {
+            w.append("Elenco Studenti").append(aCapo);
+            w.append("Cognome; Nome; Matricola; Email; Sanzione; Ritardo; PrestitoAttivo; ISBN; Titolo; Autore; AnnoPubblicazione; DataInizio; DataScadenza; DataRestituzione; FineBlocco").append(aCapo);
+
+            for (int j = 0; j < studenti; j++) {
+                SplittableRandom anagrafica = new SplittableRandom(mescola(seme, -1L - j));
+                int cognome = anagrafica.nextInt(COGNOMI.length);
+                int nome = anagrafica.nextInt(NOMI.length);
+
+                // Selezione sequenziale: ognuno dei posti dello studente riceve un prestito con probabilità prestitiRestanti / postiRestanti
+                int numeroPrestiti = 0;
+                for (int posto = 0; posto < Prestito.LIMITE_PRESTITI; posto++) {
+                    if (random.nextDouble() * postiRestanti < prestitiRestanti) {
+                        // Il rango di popolarità viene sparso sugli ISBN con una permutazione (passo coprimo con il numero di libri)
+                        libriPrestati[numeroPrestiti++] = (int) (((zipf.campiona(random) - 1) * passo) % libri);
+                        prestitiRestanti--;
+                    }
+                    postiRestanti--;
+                }
+
+                riga.setLength(0);
+                riga.append(COGNOMI[cognome]).append(';').append(NOMI[nome]).append(';').append('0').append(612_000_000L + j).append(';')
+                        .append(INIZIALI_EMAIL[nome]).append(COGNOMI_EMAIL[cognome]).append(j).append("@studenti.unisa.it;")
+                        .append("Nessuna").append(';').append(false).append(';');
+                if (numeroPrestiti == 0) {
+                    w.append(riga).append("0;;;;;;;;").append(aCapo);
+                    continue;
+                }
+                int lunghezzaBase = riga.length();
+                for (int p = 0; p < numeroPrestiti; p++) {
+                    // Selezione sequenziale anche per i prestiti scaduti: il totale è esatto
+                    boolean scaduto = random.nextDouble() * (prestitiRestanti + numeroPrestiti - p) < scadutiRestanti;
+                    if (scaduto) {
+                        scadutiRestanti--;
+                    }
+                    int giorni = scaduto
+                            ? Prestito.DURATA_PRESTITO + 1 + random.nextInt(60)
+                            : random.nextInt(Prestito.DURATA_PRESTITO);
+                    LocalDate inizio = oggi.minusDays(giorni);
+                    Libro libro = libro(libriPrestati[p]);
+
+                    riga.setLength(lunghezzaBase);
+                    riga.append(numeroPrestiti).append(';')
+                            .append(libro.getIsbn()).append(';').append(libro.getTitolo()).append(';').append(libro.getAutore()).append(';')
+                            .append(libro.getAnnoPb().getYear()).append(';')
+                            .append(inizio).append(';').append(inizio.plusDays(Prestito.DURATA_PRESTITO)).append(";;");
+                    w.append(riga).append(aCapo);
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Genera il libro di indice dato; lo stesso indice produce sempre lo stesso libro.
+     * @pre 0 <= indice < numero di libri
+     * @param[in] indice L'indice del libro.
+     * @return Il libro generato.
+     */
+    public Libro libro(int indice) {
+        SplittableRandom random = new SplittableRandom(mescola(seme, indice));
+        StringBuilder titolo = new StringBuilder(48);
+        String articolo = ARTICOLI[random.nextInt(ARTICOLI.length)];
+        titolo.append(articolo);
+        if (!articolo.endsWith("'")) {
+            titolo.append(' ');
+        }
+        titolo.append(SOSTANTIVI[random.nextInt(SOSTANTIVI.length)]).append(' ').append(COMPLEMENTI[random.nextInt(COMPLEMENTI.length)]);
+        if (random.nextInt(4) == 0) {
+            titolo.append(" vol. ").append(1 + random.nextInt(5));
+        }
+        String autore = NOMI[random.nextInt(NOMI.length)] + " " + COGNOMI[random.nextInt(COGNOMI.length)];
+        LocalDate annoPb = LocalDate.of(1850 + random.nextInt(176), 1, 1);
+        return new Libro(isbn(indice), titolo.toString(), autore, annoPb, 1 + random.nextInt(copieMassime));
+    }
+
+    /**
+     * @brief Restituisce l'ISBN-13 (prefisso 978-88, editoria italiana) del libro di indice dato.
+     * @param[in] indice L'indice del libro (al più 7 cifre).
+     * @return L'ISBN con la cifra di controllo.
+     */
+    static String isbn(int indice) {
+        char[] cifre = {'9', '7', '8', '8', '8', '0', '0', '0', '0', '0', '0', '0', '0'};
+        for (int i = 11; i >= 5 && indice > 0; i--, indice /= 10) {
+            cifre[i] = (char) ('0' + indice % 10);
+        }
+        int somma = 0;
+        for (int i = 0; i < 12; i++) {
+            somma += (cifre[i] - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        cifre[12] = (char) ('0' + (10 - somma % 10) % 10);
+        return new String(cifre);
+    }
+
+    /**
+     * @brief Deriva il seme di un singolo elemento (libro o studente) dal seme della generazione,
+     * con la funzione di mescolamento di SplitMix64: indici vicini producono semi scorrelati.
+     * @param[in] seme Il seme della generazione.
+     * @param[in] indice L'indice dell'elemento (negativo per gli studenti, non negativo per i libri).
+     * @return Il seme dell'elemento.
+     */
+    private static long mescola(long seme, long indice) {
+        long z = seme ^ (indice * 0xD1B54A32D192ED03L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @brief Restituisce un passo coprimo con n, usato per permutare i ranghi di popolarità.
+     * @param[in] n Il numero di libri.
+     * @return Un intero positivo coprimo con n.
+     */
+    private static long passoCoprimo(int n) {
+        long passo = 2_654_435_761L % Math.max(n, 2);
+        while (passo == 0 || mcd(passo, n) != 1) {
+            passo++;
+        }
+        return passo;
+    }
+
+    /**
+     * @brief Massimo comun divisore.
+     * @param[in] a Primo intero.
+     * @param[in] b Secondo intero.
+     * @return Il massimo comun divisore di a e b.
+     */
+    private static long mcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    /**
+     * @brief Apre un file in scrittura con la codifica predefinita, come il FileWriter di salvaCSV().
+     * @param[in] file Il file.
+     * @return Lo stream bufferizzato.
+     * @throws IOException Se il file non può essere aperto.
+     */
+    private static Writer apri(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), Charset.defaultCharset()), 1 << 16);
+    }
+
+    /**
+     * @brief Campionatore della distribuzione di Zipf su {1, ..., n} con il metodo di rejection-inversion
+     * (Hörmann e Derflinger): tempo costante per campione e nessuna tabella, anche per milioni di elementi.
+     */
+    static final class CampionatoreZipf {
+
+        private final int n; ///< Numero di elementi.
+        private final double esponente; ///< Esponente della distribuzione.
+        private final double hIntegraleX1; ///< H(1.5) - 1.
+        private final double hIntegraleN; ///< H(n + 0.5).
+        private final double s; ///< Soglia di accettazione immediata.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] n Numero di elementi.
+         * @param[in] esponente Esponente della distribuzione.
+         */
+        CampionatoreZipf(int n, double esponente) {
+            this.n = n;
+            this.esponente = esponente;
+            this.hIntegraleX1 = hIntegrale(1.5) - 1;
+            this.hIntegraleN = hIntegrale(n + 0.5);
+            this.s = 2 - hIntegraleInversa(hIntegrale(2.5) - h(2));
+        }
+
+        /**
+         * @brief Estrae un rango: 1 è il più probabile, con probabilità proporzionale a 1 / k^esponente.
+         * @param[in] random Il generatore.
+         * @return Un rango in [1, n].
+         */
+        int campiona(SplittableRandom random) {
+            while (true) {
+                double u = hIntegraleN + random.nextDouble() * (hIntegraleX1 - hIntegraleN);
+                double x = hIntegraleInversa(u);
+                int k = (int) (x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                } else if (k > n) {
+                    k = n;
+                }
+                if (k - x <= s || u >= hIntegrale(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double hIntegrale(double x) {
+            double logX = Math.log(x);
+            return ausiliaria2((1 - esponente) * logX) * logX;
+        }
+
+        private double h(double x) {
+            return Math.exp(-esponente * Math.log(x));
+        }
+
+        private double hIntegraleInversa(double x) {
+            double t = x * (1 - esponente);
+            if (t < -1) {
+                t = -1;
+            }
+            return Math.exp(ausiliaria1(t) * x);
+        }
+
+        /** @brief log(1 + x) / x, stabile per x vicino a 0. */
+        private static double ausiliaria1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+        }
+
+        /** @brief (exp(x) - 1) / x, stabile per x vicino a 0. */
+        private static double ausiliaria2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+        }
+    }
+
+    /**
+     * @brief Generazione da riga di comando.
+     * Opzioni: --seme N, --libri N, --copie N, --studenti N, --prestiti N, --scaduti Q (0..1),
+     * --zipf S, --oggi AAAA-MM-GG; l'ultimo argomento facoltativo è la cartella di destinazione
+     * (predefinita: la cartella dei dati, vedi CartellaDati).
+     * Esempio: java ... GeneratoreDati --libri 10000000 --studenti 4000000 --prestiti 10000000 dati/
+     * @param[in] args Gli argomenti.
+     * @throws IOException Se i file non possono essere scritti.
+     */
+    public static void main(String[] args) throws IOException {
+        long seme = 42;
+        String cartella = System.getProperty(CartellaDati.PROPRIETA_CARTELLA, ".");
+        List<String[]> opzioni = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 < args.length) {
+                if (args[i].equals("--seme")) {
+                    seme = Long.parseLong(args[++i]);
+                } else {
+                    opzioni.add(new String[]{args[i], args[++i]});
+                }
+            } else {
+                cartella = args[i];
+            }
+        }
+        GeneratoreDati generatore = new GeneratoreDati(seme);
+        for (String[] opzione : opzioni) {
+            switch (opzione[0]) {
+                case "--libri":
+                    generatore.setLibri(Integer.parseInt(opzione[1]));
+                    break;
+                case "--copie":
+                    generatore.setCopieMassime(Integer.parseInt(opzione[1]));
+                    break;
+                case "--studenti":
+                    generatore.setStudenti(Integer.parseInt(opzione[1]));
+                    break;
+                case "--prestiti":
+                    generatore.setPrestiti(Long.parseLong(opzione[1]));
+                    break;
+                case "--scaduti":
+                    generatore.setQuotaScaduti(Double.parseDouble(opzione[1]));
+                    break;
+                case "--zipf":
+                    generatore.setEsponenteZipf(Double.parseDouble(opzione[1]));
+                    break;
+                case "--oggi":
+                    generatore.setOggi(LocalDate.parse(opzione[1]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opzione sconosciuta: " + opzione[0]);
+            }
+        }
+        generatore.scrivi(new File(cartella));
+        System.out.println("Dati generati in: " + new File(cartella).getAbsolutePath());
+    }
+}
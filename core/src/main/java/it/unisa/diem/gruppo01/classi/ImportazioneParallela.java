@@ -0,0 +1,266 @@
+/**
+*@file ImportazioneParallela.java
+*@brief Questo file contiene l'importazione parallela del file CSV dei libri,
+* usata dal Catalogo per i file di grandi dimensioni.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * @brief Importazione parallela del file Lista_Libri.csv.
+ * Il file viene suddiviso in blocchi a confini di riga; ogni blocco viene letto
+ * (tramite LettoreCSVMappato) in parallelo su un ForkJoinPool. I duplicati di ISBN vengono
+ * poi risolti nell'ordine del file e i blocchi vengono ordinati e fusi a coppie, sempre in
+ * parallelo, in un'unica lista ordinata.
+ *
+ * Il risultato coincide con quello del caricamento sequenziale ed è indipendente dal
+ * numero di thread: per ogni ISBN vale la prima riga del file, le righe successive vengono
+ * ignorate, e i messaggi sulle righe scartate sono stampati nell'ordine del file.
+ */
+final class ImportazioneParallela {
+
+    private static final long BLOCCO_MINIMO = 64 * 1024; ///< Dimensione minima (in byte) di un blocco.
+    private static final int BLOCCHI_PER_THREAD = 4; ///< Blocchi per thread, per bilanciare il carico.
+
+    /**
+     * @brief Esito dell'importazione.
+     */
+    static final class Risultato {
+        final List<Libro> libri; ///< Libri senza duplicati di ISBN, ordinati secondo il comparatore.
+        final ConcurrentHashMap<String, Libro> indice; ///< Indice ISBN -> Libro degli stessi libri.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] libri I libri ordinati.
+         * @param[in] indice L'indice per ISBN.
+         */
+        Risultato(List<Libro> libri, ConcurrentHashMap<String, Libro> indice) {
+            this.libri = libri;
+            this.indice = indice;
+        }
+    }
+
+    /**
+     * @brief Libri letti da un blocco del file.
+     */
+    private static final class Blocco {
+        private final long inizio; ///< Primo byte del blocco.
+        private final long fine; ///< Byte successivo all'ultimo del blocco.
+        private final List<Libro> libri = new ArrayList<>(); ///< Libri del blocco nell'ordine del file (null per gli ISBN duplicati).
+        private final List<String> avvisi = new ArrayList<>(); ///< Messaggi sulle righe scartate, nell'ordine del file.
+        private final List<Integer> posizioniAvvisi = new ArrayList<>(); ///< Per ogni messaggio, il numero di libri del blocco letti prima.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] inizio Primo byte del blocco.
+         * @param[in] fine Byte successivo all'ultimo del blocco.
+         */
+        Blocco(long inizio, long fine) {
+            this.inizio = inizio;
+            this.fine = fine;
+        }
+    }
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private ImportazioneParallela() {
+    }
+
+    /**
+     * @brief Importa i libri dal file CSV.
+     * @param[in] file Il file CSV (formato: Titolo;Autore;ISBN;Anno pb;Num_Copie).
+     * @param[in] ordine Il comparatore del catalogo.
+     * @param[in] pool Il pool su cui eseguire lettura, ordinamento e fusione.
+     * @param[in] avanzamento L'avanzamento da aggiornare durante la lettura dei blocchi, oppure null.
+     * @return I libri ordinati e il relativo indice per ISBN.
+     * @throws IOException Se il file non esiste o non può essere letto.
+     */
+    static Risultato importa(File file, Comparator<? super Libro> ordine, ForkJoinPool pool, AvanzamentoCaricamento avanzamento) throws IOException {
+        Blocco[] blocchi;
+
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long dimensioneBlocco = Math.max(BLOCCO_MINIMO, canale.size() / ((long) pool.getParallelism() * BLOCCHI_PER_THREAD));
+            long[] confini = LettoreCSVMappato.confiniBlocchi(canale, dimensioneBlocco);
+            if (avanzamento != null) {
+                // L'intestazione precede il primo blocco: viene conteggiata subito come letta
+                avanzamento.aggiungiByteTotali(canale.size());
+                avanzamento.avanza(0, confini[0]);
+            }
+
+            blocchi = new Blocco[confini.length - 1];
+            for (int i = 0; i < blocchi.length; i++) {
+                blocchi[i] = new Blocco(confini[i], confini[i + 1]);
+            }
+
+            // 1. Lettura dei blocchi in parallelo
+            try {
+                pool.invoke(new Lettura(canale, blocchi, 0, blocchi.length, avanzamento));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        // 2. Messaggi e duplicati, nell'ordine del file: vale la prima riga di ogni ISBN
+        int totale = 0;
+        for (Blocco blocco : blocchi) {
+            totale += blocco.libri.size();
+        }
+        ConcurrentHashMap<String, Libro> indice = new ConcurrentHashMap<>(Math.max(16, (int) (totale / 0.75f) + 1));
+        for (Blocco blocco : blocchi) {
+            List<Libro> libri = blocco.libri;
+            int avviso = 0;
+            for (int j = 0; j <= libri.size(); j++) {
+                while (avviso < blocco.avvisi.size() && blocco.posizioniAvvisi.get(avviso) == j) {
+                    System.err.println(blocco.avvisi.get(avviso++));
+                }
+                if (j < libri.size() && indice.putIfAbsent(libri.get(j).getIsbn(), libri.get(j)) != null) {
+                    System.err.println(Catalogo.avvisoIsbnDuplicato(libri.get(j)));
+                    libri.set(j, null);
+                }
+            }
+        }
+
+        // 3. Ordinamento dei blocchi e fusione a coppie
+        List<Libro> ordinati = blocchi.length == 0
+                ? new ArrayList<>()
+                : pool.invoke(new Fusione(blocchi, 0, blocchi.length, ordine));
+        return new Risultato(ordinati, indice);
+    }
+
+    /**
+     * @brief Legge un intervallo di blocchi, dividendolo a metà finché contiene più di un blocco.
+     */
+    private static final class Lettura extends RecursiveAction {
+        private final FileChannel canale; ///< Canale condiviso sul file.
+        private final Blocco[] blocchi; ///< Tutti i blocchi del file.
+        private final int da; ///< Primo blocco dell'intervallo.
+        private final int a; ///< Blocco successivo all'ultimo dell'intervallo.
+        private final AvanzamentoCaricamento avanzamento; ///< Avanzamento condiviso da tutti i blocchi, oppure null.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] canale Canale condiviso sul file.
+         * @param[in] blocchi Tutti i blocchi del file.
+         * @param[in] da Primo blocco dell'intervallo.
+         * @param[in] a Blocco successivo all'ultimo dell'intervallo.
+         * @param[in] avanzamento Avanzamento condiviso da tutti i blocchi, oppure null.
+         */
+        Lettura(FileChannel canale, Blocco[] blocchi, int da, int a, AvanzamentoCaricamento avanzamento) {
+            this.canale = canale;
+            this.blocchi = blocchi;
+            this.da = da;
+            this.a = a;
+            this.avanzamento = avanzamento;
+        }
+
+        @Override
+        protected void compute() {
+            if (a - da > 1) {
+                int meta = (da + a) >>> 1;
+                invokeAll(new Lettura(canale, blocchi, da, meta, avanzamento), new Lettura(canale, blocchi, meta, a, avanzamento));
+                return;
+            }
+            if (a == da) {
+                return;
+            }
+
+            Blocco blocco = blocchi[da];
+            try {
+                LettoreCSVMappato.leggiLibri(canale, blocco.inizio, blocco.fine, blocco.libri::add, avviso -> {
+                    blocco.posizioniAvvisi.add(blocco.libri.size());
+                    blocco.avvisi.add(avviso);
+                }, avanzamento);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * @brief Ordina e fonde un intervallo di blocchi, dividendolo a metà finché contiene più di un blocco.
+     */
+    private static final class Fusione extends RecursiveTask<List<Libro>> {
+        private final Blocco[] blocchi; ///< Tutti i blocchi del file.
+        private final int da; ///< Primo blocco dell'intervallo.
+        private final int a; ///< Blocco successivo all'ultimo dell'intervallo.
+        private final Comparator<? super Libro> ordine; ///< Comparatore del catalogo.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] blocchi Tutti i blocchi del file.
+         * @param[in] da Primo blocco dell'intervallo.
+         * @param[in] a Blocco successivo all'ultimo dell'intervallo.
+         * @param[in] ordine Comparatore del catalogo.
+         */
+        Fusione(Blocco[] blocchi, int da, int a, Comparator<? super Libro> ordine) {
+            this.blocchi = blocchi;
+            this.da = da;
+            this.a = a;
+            this.ordine = ordine;
+        }
+
+        @Override
+        protected List<Libro> compute() {
+            if (a - da == 1) {
+                // Foglia: si scartano i duplicati e si ordina il blocco
+                List<Libro> libri = new ArrayList<>(blocchi[da].libri.size());
+                for (Libro libro : blocchi[da].libri) {
+                    if (libro != null) {
+                        libri.add(libro);
+                    }
+                }
+                libri.sort(ordine);
+                return libri;
+            }
+
+            int meta = (da + a) >>> 1;
+            Fusione destra = new Fusione(blocchi, meta, a, ordine);
+            destra.fork();
+            List<Libro> sinistra = new Fusione(blocchi, da, meta, ordine).compute();
+            return fondi(sinistra, destra.join());
+        }
+
+        /**
+         * @brief Fonde due liste ordinate.
+         * @param[in] x Prima lista ordinata.
+         * @param[in] y Seconda lista ordinata.
+         * @return La lista ordinata con gli elementi di entrambe.
+         */
+        private List<Libro> fondi(List<Libro> x, List<Libro> y) {
+            List<Libro> risultato = new ArrayList<>(x.size() + y.size());
+            int i = 0;
+            int j = 0;
+            while (i < x.size() && j < y.size()) {
+                if (ordine.compare(x.get(i), y.get(j)) <= 0) {
+                    risultato.add(x.get(i++));
+                } else {
+                    risultato.add(y.get(j++));
+                }
+            }
+            risultato.addAll(x.subList(i, x.size()));
+            risultato.addAll(y.subList(j, y.size()));
+            return risultato;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/**
+*@file IndiceTrigrammi.java
+*@brief Questo file contiene l'indice invertito a trigrammi usato dal Catalogo
+* per la ricerca per sottostringa su titolo, autore e ISBN dei libri.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * @brief Indice invertito a trigrammi (n-gram con n = 3) sui campi testuali dei libri.
+ * Ogni libro riceve un identificativo intero crescente; per ogni trigramma di ciascun campo
+ * viene mantenuta una lista ordinata degli identificativi (posting list).
+ * Una ricerca per sottostringa interseca le liste dei trigrammi della chiave e restituisce
+ * i candidati, che il chiamante deve poi verificare sul testo reale.
+ *
+ * Le rimozioni sono logiche: l'identificativo viene ritirato e le sue occorrenze restano
+ * nelle liste fino alla successiva ricostruzione, che avviene quando gli identificativi
+ * ritirati superano quelli attivi.
+ *
+ * L'indice non è thread-safe: il Catalogo lo modifica sotto il proprio lock di scrittura
+ * e lo interroga (candidati(), libro()) sotto il lock di lettura.
+ */
+class IndiceTrigrammi {
+
+    public static final int CAMPO_TITOLO = 0; ///< Campo titolo del libro.
+    public static final int CAMPO_AUTORE = 1; ///< Campo autore del libro.
+    public static final int CAMPO_ISBN = 2; ///< Campo ISBN del libro.
+
+    private static final int N = 3; ///< Lunghezza dei gram indicizzati.
+
+    private HashMap<Long, ListaId> liste; ///< Posting list per (campo, trigramma).
+    private ArrayList<Libro> libri; ///< Libro associato a ciascun identificativo (null se ritirato).
+    private HashMap<Libro, Integer> idLibri; ///< Identificativo attivo di ciascun libro indicizzato.
+    private int ritirati; ///< Numero di identificativi ritirati ancora presenti nelle liste.
+
+    /**
+     * @brief Lista crescente di identificativi interi, senza boxing.
+     */
+    private static class ListaId {
+        private int[] id = new int[4]; ///< Identificativi (ordinati in modo crescente).
+        private int dimensione; ///< Numero di elementi validi in id.
+
+        /**
+         * @brief Accoda un identificativo, ignorandolo se è già l'ultimo inserito.
+         * @param[in] valore L'identificativo da accodare (maggiore o uguale all'ultimo).
+         */
+        void accoda(int valore) {
+            if (dimensione > 0 && id[dimensione - 1] == valore) {
+                return;
+            }
+            if (dimensione == id.length) {
+                id = Arrays.copyOf(id, dimensione * 2);
+            }
+            id[dimensione++] = valore;
+        }
+    }
+
+    /**
+     * @brief Costruttore: crea un indice vuoto.
+     */
+    IndiceTrigrammi() {
+        this.liste = new HashMap<>();
+        this.libri = new ArrayList<>();
+        this.idLibri = new HashMap<>();
+    }
+
+    /**
+     * @brief Svuota completamente l'indice.
+     */
+    void svuota() {
+        liste.clear();
+        libri.clear();
+        idLibri.clear();
+        ritirati = 0;
+    }
+
+    /**
+     * @brief Indicizza titolo, autore e ISBN di un libro.
+     * Se il libro era già indicizzato, il vecchio identificativo viene ritirato.
+     * @param[in] libro Il libro da indicizzare.
+     */
+    void aggiungi(Libro libro) {
+        rimuovi(libro);
+
+        int id = libri.size();
+        libri.add(libro);
+        idLibri.put(libro, id);
+
+        indicizza(CAMPO_TITOLO, libro.getTitolo(), id);
+        indicizza(CAMPO_AUTORE, libro.getAutore(), id);
+        indicizza(CAMPO_ISBN, libro.getIsbn(), id);
+    }
+
+    /**
+     * @brief Rimuove (logicamente) un libro dall'indice.
+     * @param[in] libro Il libro da rimuovere.
+     */
+    void rimuovi(Libro libro) {
+        Integer id = idLibri.remove(libro);
+        if (id != null) {
+            libri.set(id, null);
+            ritirati++;
+        }
+    }
+
+    /**
+     * @brief Indica se conviene ricostruire l'indice per eliminare gli identificativi ritirati.
+     * @return true se gli identificativi ritirati superano quelli attivi.
+     */
+    boolean daRicostruire() {
+        return ritirati > 1024 && ritirati > idLibri.size();
+    }
+
+    /**
+     * @brief Ricostruisce l'indice a partire dalla collezione di libri fornita.
+     * @param[in] inventario I libri da indicizzare.
+     */
+    void ricostruisci(Iterable<Libro> inventario) {
+        svuota();
+        for (Libro libro : inventario) {
+            aggiungi(libro);
+        }
+    }
+
+    /**
+     * @brief Restituisce i libri candidati a contenere la sottostringa nel campo indicato.
+     * I candidati vanno verificati dal chiamante: la presenza di tutti i trigrammi
+     * è condizione necessaria ma non sufficiente.
+     * @param[in] campo Il campo su cui cercare (CAMPO_TITOLO, CAMPO_AUTORE, CAMPO_ISBN).
+     * @param[in] chiave La sottostringa cercata, già convertita in minuscolo.
+     * @return Gli identificativi candidati in ordine crescente, oppure null se la chiave
+     * è più corta di un trigramma (nessuna restrizione possibile).
+     */
+    int[] candidati(int campo, String chiave) {
+        if (chiave.length() < N) {
+            return null;
+        }
+
+        // Raccoglie le posting list di tutti i trigrammi della chiave
+        List<ListaId> daIntersecare = new ArrayList<>();
+        for (int i = 0; i + N <= chiave.length(); i++) {
+            ListaId lista = liste.get(codifica(campo, chiave, i));
+            if (lista == null) {
+                return new int[0]; // un trigramma assente esclude ogni libro
+            }
+            daIntersecare.add(lista);
+        }
+
+        // Si parte dalla lista più corta per ridurre il lavoro delle intersezioni
+        daIntersecare.sort((a, b) -> Integer.compare(a.dimensione, b.dimensione));
+        ListaId prima = daIntersecare.get(0);
+        int[] risultato = Arrays.copyOf(prima.id, prima.dimensione);
+        for (int k = 1; k < daIntersecare.size() && risultato.length > 0; k++) {
+            ListaId altra = daIntersecare.get(k);
+            risultato = interseca(risultato, risultato.length, altra.id, altra.dimensione);
+        }
+        return risultato;
+    }
+
+    /**
+     * @brief Restituisce il libro associato a un identificativo.
+     * @param[in] id L'identificativo.
+     * @return Il libro, oppure null se l'identificativo è stato ritirato.
+     */
+    Libro libro(int id) {
+        return libri.get(id);
+    }
+
+    /**
+     * @brief Interseca due sequenze crescenti di identificativi.
+     * @param[in] a Prima sequenza.
+     * @param[in] na Numero di elementi validi di a.
+     * @param[in] b Seconda sequenza.
+     * @param[in] nb Numero di elementi validi di b.
+     * @return Gli identificativi presenti in entrambe, in ordine crescente.
+     */
+    static int[] interseca(int[] a, int na, int[] b, int nb) {
+        int[] risultato = new int[Math.min(na, nb)];
+        int i = 0, j = 0, k = 0;
+        while (i < na && j < nb) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                risultato[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(risultato, k);
+    }
+
+    /**
+     * @brief Aggiunge l'identificativo alle posting list di tutti i trigrammi del testo.
+     * @param[in] campo Il campo di provenienza del testo.
+     * @param[in] testo Il testo da indicizzare.
+     * @param[in] id L'identificativo del libro.
+     */
+    private void indicizza(int campo, String testo, int id) {
+        if (testo == null) {
+            return;
+        }
+        String minuscolo = testo.toLowerCase();
+        for (int i = 0; i + N <= minuscolo.length(); i++) {
+            Long chiave = codifica(campo, minuscolo, i);
+            ListaId lista = liste.get(chiave);
+            if (lista == null) {
+                lista = new ListaId();
+                liste.put(chiave, lista);
+            }
+            lista.accoda(id);
+        }
+    }
+
+    /**
+     * @brief Codifica in un long il campo e i tre caratteri a partire dalla posizione data.
+     * @param[in] campo Il campo (occupa i bit dal 48 in su).
+     * @param[in] testo Il testo, già in minuscolo.
+     * @param[in] inizio Posizione del primo carattere del trigramma.
+     * @return La chiave del trigramma.
+     */
+    private static long codifica(int campo, String testo, int inizio) {
+        return ((long) campo << 48)
+                | ((long) testo.charAt(inizio) << 32)
+                | ((long) testo.charAt(inizio + 1) << 16)
+                | (long) testo.charAt(inizio + 2);
+    }
+}
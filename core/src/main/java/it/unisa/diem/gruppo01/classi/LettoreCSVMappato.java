@@ -0,0 +1,709 @@
+/**
+*@file LettoreCSVMappato.java
+*@brief Questo file contiene il lettore dei file CSV del catalogo e dell'elenco studenti
+* basato sulla mappatura in memoria (NIO) del file.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @brief Lettore dei file Lista_Libri.csv e Lista_studenti.csv tramite mappatura in memoria.
+ * Il file viene mappato con FileChannel.map e suddiviso in righe e campi lavorando
+ * direttamente sui byte della mappatura: i confini dei campi sono memorizzati in array di interi
+ * riutilizzati, interi e date ISO (aaaa-mm-gg) vengono convertiti senza creare String intermedie
+ * e solo i campi testuali effettivamente conservati negli oggetti vengono decodificati.
+ *
+ * Il comportamento riproduce quello dei precedenti lettori basati su BufferedReader:
+ * - le righe terminano con \n, \r oppure \r\n e le prime due righe (intestazione) sono ignorate;
+ * - i campi sono separati da ';' e ripuliti come String.trim();
+ * - il file è decodificato con la codifica predefinita della piattaforma, come FileReader
+ *   (si assume una codifica compatibile con ASCII, come UTF-8 o windows-1252);
+ * - i valori non riconosciuti dal percorso veloce sono delegati a Integer.parseInt e
+ *   LocalDate.parse, così che anche gli errori coincidano.
+ *
+ * File più grandi di FINESTRA byte vengono mappati a finestre successive, allineate all'inizio di una riga.
+ */
+public final class LettoreCSVMappato {
+
+    private static final int FINESTRA = 1 << 30; ///< Dimensione massima (in byte) di una singola mappatura.
+    private static final int RIGHE_INTESTAZIONE = 2; ///< Righe di intestazione da ignorare all'inizio del file.
+    private static final byte SEPARATORE = ';'; ///< Separatore dei campi.
+    private static final int PASSO_AVANZAMENTO = 4096; ///< Righe lette tra un aggiornamento dell'avanzamento e il successivo.
+
+    private final Charset codifica; ///< Codifica usata per decodificare i campi testuali.
+    private MappedByteBuffer mappa; ///< Finestra del file attualmente mappata.
+    private int[] inizi = new int[16]; ///< Posizione iniziale di ciascun campo della riga corrente.
+    private int[] fini = new int[16]; ///< Posizione finale (esclusa) di ciascun campo della riga corrente.
+    private int numeroCampi; ///< Numero di campi della riga corrente.
+    private int inizioRiga; ///< Posizione iniziale della riga corrente.
+    private int fineRiga; ///< Posizione finale (esclusa) della riga corrente.
+    private byte[] appoggio = new byte[128]; ///< Buffer riutilizzato per la decodifica dei campi testuali.
+    private Consumer<String> avvisi = System.err::println; ///< Destinazione dei messaggi sulle righe scartate e sui valori non validi.
+    private AvanzamentoCaricamento avanzamento; ///< Avanzamento da aggiornare durante la lettura, null se non richiesto.
+
+    /**
+     * @brief Azione eseguita su ogni riga di dati del file.
+     */
+    private interface GestoreRiga {
+        /**
+         * @brief Elabora la riga corrente, già suddivisa nei suoi campi.
+         */
+        void riga();
+    }
+
+    /**
+     * @brief Costruttore privato: il lettore si usa tramite i metodi statici.
+     */
+    private LettoreCSVMappato() {
+        this.codifica = Charset.defaultCharset();
+    }
+
+    /**
+     * @brief Legge i libri dal file nel formato scritto da Catalogo.salvaCSV():
+     * Titolo;Autore;ISBN;Anno pb;Num_Copie.
+     * Come con String.split(";"), i campi vuoti finali non vengono contati e sono accettate
+     * solo le righe con esattamente 5 campi; le righe con valori non validi vengono saltate.
+     * @param[in] file Il file CSV da leggere.
+     * @param[in] destinazione Riceve ogni libro letto, nell'ordine del file.
+     * @throws IOException Se il file non esiste o non può essere letto.
+     */
+    public static void leggiLibri(File file, Consumer<Libro> destinazione) throws IOException {
+        leggiLibri(file, destinazione, null);
+    }
+
+    /**
+     * @brief Legge i libri dal file, come leggiLibri(File, Consumer), aggiornando l'avanzamento
+     * man mano che le righe vengono lette.
+     * @param[in] file Il file CSV da leggere.
+     * @param[in] destinazione Riceve ogni libro letto, nell'ordine del file.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @throws IOException Se il file non esiste o non può essere letto.
+     */
+    public static void leggiLibri(File file, Consumer<Libro> destinazione, AvanzamentoCaricamento avanzamento) throws IOException {
+        LettoreCSVMappato lettore = new LettoreCSVMappato();
+        lettore.avanzamento = avanzamento;
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (avanzamento != null) {
+                avanzamento.aggiungiByteTotali(canale.size());
+            }
+            lettore.scorri(canale, 0, canale.size(), RIGHE_INTESTAZIONE, () -> lettore.rigaLibro(destinazione));
+        }
+    }
+
+    /**
+     * @brief Legge i libri di una porzione del file, con le stesse regole di leggiLibri(File, Consumer).
+     * Usato dall'importazione parallela: porzioni diverse possono essere lette contemporaneamente
+     * dallo stesso canale da thread diversi.
+     * @pre inizio e fine sono confini di riga restituiti da confiniBlocchi().
+     * @param[in] canale Il canale aperto in lettura sul file.
+     * @param[in] inizio Posizione del primo byte della porzione.
+     * @param[in] fine Posizione successiva all'ultimo byte della porzione.
+     * @param[in] destinazione Riceve ogni libro letto, nell'ordine del file.
+     * @param[in] avvisi Riceve i messaggi relativi alle righe scartate e ai valori non validi.
+     * @param[in] avanzamento L'avanzamento da aggiornare (condivisibile tra le porzioni), oppure null.
+     * @throws IOException Se il file non può essere letto.
+     */
+    static void leggiLibri(FileChannel canale, long inizio, long fine, Consumer<Libro> destinazione, Consumer<String> avvisi,
+            AvanzamentoCaricamento avanzamento) throws IOException {
+        LettoreCSVMappato lettore = new LettoreCSVMappato();
+        lettore.avvisi = avvisi;
+        lettore.avanzamento = avanzamento;
+        lettore.scorri(canale, inizio, fine, 0, () -> lettore.rigaLibro(destinazione));
+    }
+
+    /**
+     * @brief Suddivide la parte dati del file (intestazione esclusa) in porzioni che iniziano a inizio riga.
+     * @param[in] canale Il canale aperto in lettura sul file.
+     * @param[in] dimensioneBlocco Dimensione indicativa (in byte) di ciascuna porzione.
+     * @return I confini delle porzioni: la porzione i va da confini[i] (incluso) a confini[i + 1] (escluso).
+     * @throws IOException Se il file non può essere letto.
+     */
+    static long[] confiniBlocchi(FileChannel canale, long dimensioneBlocco) throws IOException {
+        long dimensione = canale.size();
+        long blocco = Math.max(1, Math.min(dimensioneBlocco, FINESTRA));
+        List<Long> confini = new ArrayList<>();
+
+        long posizione = 0;
+        for (int i = 0; i < RIGHE_INTESTAZIONE; i++) {
+            posizione = inizioRigaSuccessiva(canale, posizione, dimensione);
+        }
+        confini.add(posizione);
+
+        while (posizione < dimensione) {
+            posizione = inizioRigaSuccessiva(canale, Math.min(posizione + blocco, dimensione), dimensione);
+            confini.add(posizione);
+        }
+
+        long[] risultato = new long[confini.size()];
+        for (int i = 0; i < risultato.length; i++) {
+            risultato[i] = confini.get(i);
+        }
+        return risultato;
+    }
+
+    /**
+     * @brief Trova l'inizio della riga successiva al primo terminatore presente da una posizione in poi.
+     * @param[in] canale Il canale aperto in lettura sul file.
+     * @param[in] da Posizione da cui iniziare la ricerca.
+     * @param[in] dimensione Dimensione del file.
+     * @return La posizione successiva al terminatore (\n, \r o \r\n), oppure la dimensione del file.
+     * @throws IOException Se il file non può essere letto.
+     */
+    private static long inizioRigaSuccessiva(FileChannel canale, long da, long dimensione) throws IOException {
+        ByteBuffer letti = ByteBuffer.allocate(8192);
+        long posizione = da;
+        boolean dopoCR = false;
+        while (posizione < dimensione) {
+            letti.clear();
+            int n = canale.read(letti, posizione);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                byte b = letti.get(i);
+                if (dopoCR) {
+                    return b == '\n' ? posizione + i + 1 : posizione + i;
+                }
+                if (b == '\n') {
+                    return posizione + i + 1;
+                }
+                dopoCR = b == '\r';
+            }
+            posizione += n;
+        }
+        return dimensione;
+    }
+
+    /**
+     * @brief Legge gli studenti, con i relativi prestiti, dal file nel formato scritto da Elenco.salvaCSV().
+     * Ogni riga contiene i dati dello studente (almeno 6 campi) e, se i campi sono almeno 14
+     * e il campo PrestitoAttivo è positivo, un prestito; il quindicesimo campo, se presente, è la
+     * fine del blocco di Categoria 2 (assente nei file di versioni precedenti). Le righe della stessa
+     * matricola vengono raggruppate nello stesso studente.
+     * @param[in] file Il file CSV da leggere.
+     * @return Gli studenti letti, indicizzati per matricola.
+     * @throws IOException Se il file non esiste o non può essere letto.
+     */
+    public static HashMap<String, Studente> leggiStudenti(File file) throws IOException {
+        return leggiStudenti(file, null);
+    }
+
+    /**
+     * @brief Legge gli studenti dal file, come leggiStudenti(File), aggiornando l'avanzamento
+     * man mano che le righe vengono lette.
+     * @param[in] file Il file CSV da leggere.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @return Gli studenti letti, indicizzati per matricola.
+     * @throws IOException Se il file non esiste o non può essere letto.
+     */
+    public static HashMap<String, Studente> leggiStudenti(File file, AvanzamentoCaricamento avanzamento) throws IOException {
+        HashMap<String, Studente> studenti = new HashMap<>();
+        LettoreCSVMappato lettore = new LettoreCSVMappato();
+        lettore.avanzamento = avanzamento;
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (avanzamento != null) {
+                avanzamento.aggiungiByteTotali(canale.size());
+            }
+            lettore.scorri(canale, 0, canale.size(), RIGHE_INTESTAZIONE, () -> lettore.rigaStudente(studenti, false));
+        }
+        return studenti;
+    }
+
+    /**
+     * @brief Legge gli studenti dal file degli studenti dell'archivio normalizzato
+     * (Cognome;Nome;Matricola;Email;Sanzione;Ritardo;FineBlocco, fine del blocco come giorno epoch,
+     * assente nei file di versioni precedenti), senza prestiti.
+     * @param[in] file Il file CSV degli studenti.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @return Gli studenti letti, indicizzati per matricola.
+     * @throws IOException Se il file non esiste o non può essere letto.
+     */
+    static HashMap<String, Studente> leggiAnagrafiche(File file, AvanzamentoCaricamento avanzamento) throws IOException {
+        HashMap<String, Studente> studenti = new HashMap<>();
+        LettoreCSVMappato lettore = new LettoreCSVMappato();
+        lettore.avanzamento = avanzamento;
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (avanzamento != null) {
+                avanzamento.aggiungiByteTotali(canale.size());
+            }
+            lettore.scorri(canale, 0, canale.size(), RIGHE_INTESTAZIONE, () -> lettore.rigaStudente(studenti, true));
+        }
+        return studenti;
+    }
+
+    /**
+     * @brief Legge i prestiti dal file dei prestiti dell'archivio normalizzato
+     * (Matricola;ISBN;DataInizio;DataScadenza;DataRestituzione, date come giorno epoch) e li collega
+     * agli studenti cercandoli per matricola. I prestiti dello stesso ISBN condividono un solo libro
+     * provvisorio, con il solo ISBN (vedi ArchivioNormalizzatoStudenti).
+     * Le righe con meno di 4 campi, con valori non validi o con una matricola sconosciuta vengono segnalate e saltate.
+     * @param[in] file Il file CSV dei prestiti.
+     * @param[in] studenti Gli studenti già letti, indicizzati per matricola.
+     * @param[in] avanzamento L'avanzamento da aggiornare, oppure null.
+     * @throws IOException Se il file non esiste o non può essere letto.
+     */
+    static void leggiPrestiti(File file, HashMap<String, Studente> studenti, AvanzamentoCaricamento avanzamento) throws IOException {
+        HashMap<String, Libro> libri = new HashMap<>();
+        LettoreCSVMappato lettore = new LettoreCSVMappato();
+        lettore.avanzamento = avanzamento;
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (avanzamento != null) {
+                avanzamento.aggiungiByteTotali(canale.size());
+            }
+            lettore.scorri(canale, 0, canale.size(), RIGHE_INTESTAZIONE, () -> lettore.rigaPrestito(studenti, libri));
+        }
+    }
+
+    /**
+     * @brief Converte la riga corrente in un Prestito e lo aggiunge allo studente con la stessa matricola.
+     * @param[in] studenti Gli studenti, indicizzati per matricola.
+     * @param[in] libri I libri provvisori già creati, indicizzati per ISBN.
+     */
+    private void rigaPrestito(HashMap<String, Studente> studenti, HashMap<String, Libro> libri) {
+        if (numeroCampi < 4) {
+            avvisi.accept("AVVISO: Riga dei prestiti ignorata (campi insufficienti): " + rigaCorrente());
+            return;
+        }
+        Studente studente = studenti.get(testo(0));
+        if (studente == null) {
+            avvisi.accept("AVVISO: Prestito di una matricola sconosciuta ignorato: " + rigaCorrente());
+            return;
+        }
+        try {
+            Libro libro = libri.computeIfAbsent(testo(1), isbn -> new Libro(isbn, "", "", null, 0));
+            LocalDate dataInizio = LocalDate.ofEpochDay(intero(2));
+            LocalDate dataScadenza = LocalDate.ofEpochDay(intero(3));
+            LocalDate dataRestituzione = numeroCampi < 5 || vuoto(4) ? null : LocalDate.ofEpochDay(intero(4));
+            studente.aggiungiPrestito(new Prestito(libro, studente, dataInizio, dataScadenza, dataRestituzione));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            avvisi.accept("ERRORE: Riga dei prestiti non valida: " + rigaCorrente());
+        }
+    }
+
+    /**
+     * @brief Converte la riga corrente in un Libro (stessa logica di Catalogo.caricaCSV()).
+     * @param[in] destinazione Riceve il libro, se la riga è valida.
+     */
+    private void rigaLibro(Consumer<Libro> destinazione) {
+        // String.split(";") scarta i campi vuoti finali
+        while (numeroCampi > 0 && inizi[numeroCampi - 1] == fini[numeroCampi - 1]) {
+            numeroCampi--;
+        }
+        if (numeroCampi != 5) {
+            return;
+        }
+        try {
+            String titolo = testo(0);
+            String autore = testo(1);
+            String isbn = testo(2);
+            LocalDate annoPb = LocalDate.of(intero(3), 1, 1);
+            int numCopie = intero(4);
+
+            destinazione.accept(new Libro(isbn, titolo, autore, annoPb, numCopie));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            avvisi.accept("Attenzione: Riga CSV non valida e saltata: " + rigaCorrente());
+        }
+    }
+
+    /**
+     * @brief Converte la riga corrente in uno Studente e nel suo eventuale prestito
+     * (stessa logica di Elenco.caricaDati()).
+     * @param[in] studenti La mappa degli studenti già letti, indicizzata per matricola.
+     * @param[in] normalizzato true per una riga dell'archivio normalizzato (fine del blocco nel settimo
+     * campo, come giorno epoch), false per una riga di Elenco.salvaCSV() (fine del blocco nel quindicesimo campo).
+     */
+    private void rigaStudente(HashMap<String, Studente> studenti, boolean normalizzato) {
+        try {
+            // Richiede almeno 6 campi per i dati base dello Studente
+            if (numeroCampi < 6) {
+                avvisi.accept("AVVISO: Riga CSV ignorata (campi insufficienti): " + rigaCorrente());
+                return;
+            }
+
+            String matricola = testo(2);
+            Studente studenteCorrente = studenti.get(matricola);
+
+            if (studenteCorrente == null) {
+                studenteCorrente = new Studente(testo(0), testo(1), matricola, testo(3), testo(4), booleano(5));
+                int campoFineBlocco = normalizzato ? 6 : 14;
+                if (numeroCampi > campoFineBlocco && !vuoto(campoFineBlocco)) {
+                    studenteCorrente.setFineBlocco(normalizzato ? LocalDate.ofEpochDay(intero(campoFineBlocco)) : data(campoFineBlocco));
+                }
+                studenti.put(matricola, studenteCorrente);
+            }
+
+            // GESTIONE PRESTITI (Richiede 14 campi in totale)
+            if (!normalizzato && numeroCampi >= 14 && !vuoto(6) && intero(6) > 0) {
+
+                String isbn = testo(7);
+                String titolo = testo(8);
+                String autore = testo(9);
+                LocalDate dataInizio = data(11);
+                LocalDate dataScadenza = data(12);
+                LocalDate annoPb = annoPubblicazione(10);
+                LocalDate dataRestituzione = vuoto(13) ? null : data(13);
+
+                Libro libro = new Libro(isbn, titolo, autore, annoPb, 0);
+                studenteCorrente.aggiungiPrestito(new Prestito(libro, studenteCorrente, dataInizio, dataScadenza, dataRestituzione));
+            }
+        } catch (DateTimeParseException e) {
+            avvisi.accept("ERRORE: Formato data non valido nella riga: " + rigaCorrente());
+        } catch (Exception parsingEx) {
+            avvisi.accept("ERRORE CRITICO DI PARSING NELLA RIGA: " + rigaCorrente());
+            Logger.getLogger(Elenco.class.getName()).log(Level.SEVERE, null, parsingEx);
+        }
+    }
+
+    /**
+     * @brief Mappa la porzione del file indicata e invoca il gestore su ogni riga di dati,
+     * dopo averla suddivisa in campi. Se è richiesto, l'avanzamento viene aggiornato ogni
+     * PASSO_AVANZAMENTO righe di dati e alla fine della porzione (che conta per intero, intestazione compresa).
+     * @param[in] canale Il canale aperto in lettura sul file.
+     * @param[in] da Posizione del primo byte da leggere (inizio di una riga).
+     * @param[in] a Posizione successiva all'ultimo byte da leggere (fine del file o inizio di una riga).
+     * @param[in] righeDaSaltare Numero di righe iniziali (intestazione) da ignorare.
+     * @param[in] gestore L'azione da eseguire su ogni riga.
+     * @throws IOException Se il file non può essere letto.
+     */
+    private void scorri(FileChannel canale, long da, long a, int righeDaSaltare, GestoreRiga gestore) throws IOException {
+        long base = da;
+        int righeLette = 0;
+        long segnalati = da; // byte già conteggiati nell'avanzamento
+        int righeDaSegnalare = 0;
+
+        while (base < a) {
+            int lunghezza = (int) Math.min(FINESTRA, a - base);
+            boolean ultimaFinestra = base + lunghezza == a;
+            mappa = canale.map(FileChannel.MapMode.READ_ONLY, base, lunghezza);
+            int inizio = 0;
+
+            try {
+                while (inizio < lunghezza) {
+                    int fine = inizio;
+                    byte b = 0;
+                    while (fine < lunghezza && (b = mappa.get(fine)) != '\n' && b != '\r') {
+                        fine++;
+                    }
+
+                    int prossima;
+                    if (fine == lunghezza) {
+                        if (!ultimaFinestra) {
+                            break; // riga a cavallo di due finestre: si rimappa dal suo inizio
+                        }
+                        prossima = lunghezza;
+                    } else if (b == '\r') {
+                        if (fine + 1 < lunghezza) {
+                            prossima = mappa.get(fine + 1) == '\n' ? fine + 2 : fine + 1;
+                        } else if (ultimaFinestra) {
+                            prossima = fine + 1;
+                        } else {
+                            break; // il \n di un eventuale \r\n è nella finestra successiva
+                        }
+                    } else {
+                        prossima = fine + 1;
+                    }
+
+                    if (righeLette++ >= righeDaSaltare) {
+                        dividi(inizio, fine);
+                        gestore.riga();
+                        if (avanzamento != null && ++righeDaSegnalare == PASSO_AVANZAMENTO) {
+                            avanzamento.avanza(righeDaSegnalare, base + prossima - segnalati);
+                            segnalati = base + prossima;
+                            righeDaSegnalare = 0;
+                        }
+                    }
+                    inizio = prossima;
+                }
+            } finally {
+                rilascia(mappa);
+                mappa = null;
+            }
+
+            if (inizio == 0) {
+                throw new IOException("Riga più lunga di " + FINESTRA + " byte");
+            }
+            base += inizio;
+        }
+
+        if (avanzamento != null) {
+            avanzamento.avanza(righeDaSegnalare, a - segnalati);
+        }
+    }
+
+    /**
+     * @brief Individua i confini dei campi della riga compresa tra inizio e fine.
+     * @param[in] inizio Posizione del primo byte della riga.
+     * @param[in] fine Posizione successiva all'ultimo byte della riga (terminatore escluso).
+     */
+    private void dividi(int inizio, int fine) {
+        inizioRiga = inizio;
+        fineRiga = fine;
+        numeroCampi = 0;
+        int campo = inizio;
+        for (int i = inizio; i < fine; i++) {
+            if (mappa.get(i) == SEPARATORE) {
+                aggiungiCampo(campo, i);
+                campo = i + 1;
+            }
+        }
+        aggiungiCampo(campo, fine);
+    }
+
+    /**
+     * @brief Registra i confini di un campo, ingrandendo gli array se necessario.
+     * @param[in] inizio Posizione del primo byte del campo.
+     * @param[in] fine Posizione successiva all'ultimo byte del campo.
+     */
+    private void aggiungiCampo(int inizio, int fine) {
+        if (numeroCampi == inizi.length) {
+            inizi = Arrays.copyOf(inizi, numeroCampi * 2);
+            fini = Arrays.copyOf(fini, numeroCampi * 2);
+        }
+        inizi[numeroCampi] = inizio;
+        fini[numeroCampi] = fine;
+        numeroCampi++;
+    }
+
+    /**
+     * @brief Posizione iniziale del campo dopo aver saltato gli spazi (come String.trim()).
+     * @param[in] campo Indice del campo.
+     * @return La posizione del primo byte significativo.
+     */
+    private int inizioPulito(int campo) {
+        int a = inizi[campo];
+        int b = fini[campo];
+        while (a < b && (mappa.get(a) & 0xFF) <= ' ') {
+            a++;
+        }
+        return a;
+    }
+
+    /**
+     * @brief Posizione finale del campo dopo aver scartato gli spazi (come String.trim()).
+     * @param[in] campo Indice del campo.
+     * @param[in] inizio La posizione restituita da inizioPulito.
+     * @return La posizione successiva all'ultimo byte significativo.
+     */
+    private int finePulita(int campo, int inizio) {
+        int b = fini[campo];
+        while (b > inizio && (mappa.get(b - 1) & 0xFF) <= ' ') {
+            b--;
+        }
+        return b;
+    }
+
+    /**
+     * @brief Indica se il campo, ripulito dagli spazi, è vuoto.
+     * @param[in] campo Indice del campo.
+     * @return true se il campo non contiene caratteri significativi.
+     */
+    private boolean vuoto(int campo) {
+        return inizioPulito(campo) == fini[campo];
+    }
+
+    /**
+     * @brief Decodifica il campo ripulito dagli spazi.
+     * @param[in] campo Indice del campo.
+     * @return Il valore testuale del campo.
+     */
+    private String testo(int campo) {
+        int a = inizioPulito(campo);
+        return decodifica(a, finePulita(campo, a));
+    }
+
+    /**
+     * @brief Converte il campo in un intero senza creare String intermedie.
+     * I valori non composti da sole cifre ASCII (o troppo lunghi) sono delegati a Integer.parseInt.
+     * @param[in] campo Indice del campo.
+     * @return Il valore intero.
+     * @throws NumberFormatException Se il campo non è un intero valido.
+     */
+    private int intero(int campo) {
+        int a = inizioPulito(campo);
+        int b = finePulita(campo, a);
+        int i = a;
+        boolean negativo = false;
+        if (i < b && (mappa.get(i) == '-' || mappa.get(i) == '+')) {
+            negativo = mappa.get(i) == '-';
+            i++;
+        }
+        if (i == b || b - i > 9) {
+            return Integer.parseInt(decodifica(a, b));
+        }
+        int valore = 0;
+        for (; i < b; i++) {
+            int cifra = mappa.get(i) - '0';
+            if (cifra < 0 || cifra > 9) {
+                return Integer.parseInt(decodifica(a, b));
+            }
+            valore = valore * 10 + cifra;
+        }
+        return negativo ? -valore : valore;
+    }
+
+    /**
+     * @brief Converte il campo (aaaa-mm-gg) in una data senza creare String intermedie.
+     * I formati diversi sono delegati a LocalDate.parse.
+     * @param[in] campo Indice del campo.
+     * @return La data letta.
+     * @throws DateTimeParseException Se il campo non è una data ISO valida.
+     */
+    private LocalDate data(int campo) {
+        int a = inizioPulito(campo);
+        int b = finePulita(campo, a);
+        if (b - a == 10 && mappa.get(a + 4) == '-' && mappa.get(a + 7) == '-') {
+            int anno = cifre(a, a + 4);
+            int mese = cifre(a + 5, a + 7);
+            int giorno = cifre(a + 8, a + 10);
+            if (anno >= 0 && mese >= 0 && giorno >= 0) {
+                try {
+                    return LocalDate.of(anno, mese, giorno);
+                } catch (DateTimeException ex) {
+                    throw new DateTimeParseException(ex.getMessage(), decodifica(a, b), 0, ex);
+                }
+            }
+        }
+        return LocalDate.parse(decodifica(a, b));
+    }
+
+    /**
+     * @brief Converte l'anno di pubblicazione, scritto come solo anno (aaaa) o come data completa.
+     * Un valore non valido viene segnalato e sostituito con la data odierna.
+     * @param[in] campo Indice del campo.
+     * @return La data di pubblicazione.
+     */
+    private LocalDate annoPubblicazione(int campo) {
+        int a = inizioPulito(campo);
+        int b = finePulita(campo, a);
+        if (b - a == 4) {
+            int anno = cifre(a, b);
+            if (anno >= 0) {
+                return LocalDate.of(anno, 1, 1);
+            }
+        }
+        try {
+            return data(campo);
+        } catch (DateTimeParseException e) {
+            avvisi.accept("Errore parsing anno pubblicazione: " + decodifica(a, b));
+            return LocalDate.now();
+        }
+    }
+
+    /**
+     * @brief Converte il campo in un booleano, come Boolean.parseBoolean().
+     * @param[in] campo Indice del campo.
+     * @return true se il campo vale "true" (senza distinzione tra maiuscole e minuscole).
+     */
+    private boolean booleano(int campo) {
+        int a = inizioPulito(campo);
+        int b = finePulita(campo, a);
+        if (b - a != 4) {
+            return false;
+        }
+        for (int i = a; i < b; i++) {
+            if (mappa.get(i) < 0) {
+                return Boolean.parseBoolean(decodifica(a, b)); // caratteri non ASCII
+            }
+        }
+        return (mappa.get(a) | 0x20) == 't' && (mappa.get(a + 1) | 0x20) == 'r'
+                && (mappa.get(a + 2) | 0x20) == 'u' && (mappa.get(a + 3) | 0x20) == 'e';
+    }
+
+    /**
+     * @brief Converte una sequenza di sole cifre ASCII.
+     * @param[in] a Posizione della prima cifra.
+     * @param[in] b Posizione successiva all'ultima cifra.
+     * @return Il valore letto, oppure -1 se la sequenza contiene caratteri diversi da cifre.
+     */
+    private int cifre(int a, int b) {
+        int valore = 0;
+        for (int i = a; i < b; i++) {
+            int cifra = mappa.get(i) - '0';
+            if (cifra < 0 || cifra > 9) {
+                return -1;
+            }
+            valore = valore * 10 + cifra;
+        }
+        return valore;
+    }
+
+    /**
+     * @brief Decodifica i byte compresi tra a e b con la codifica della piattaforma.
+     * @param[in] a Posizione del primo byte.
+     * @param[in] b Posizione successiva all'ultimo byte.
+     * @return La stringa decodificata.
+     */
+    private String decodifica(int a, int b) {
+        int lunghezza = b - a;
+        if (lunghezza == 0) {
+            return "";
+        }
+        if (appoggio.length < lunghezza) {
+            appoggio = new byte[Math.max(lunghezza, appoggio.length * 2)];
+        }
+        for (int i = 0; i < lunghezza; i++) {
+            appoggio[i] = mappa.get(a + i);
+        }
+        return new String(appoggio, 0, lunghezza, codifica);
+    }
+
+    /**
+     * @brief Restituisce il testo della riga corrente, usato nei messaggi di errore.
+     * @return La riga corrente decodificata.
+     */
+    private String rigaCorrente() {
+        return decodifica(inizioRiga, fineRiga);
+    }
+
+    /**
+     * @brief Tenta di rilasciare subito la mappatura, senza attendere il garbage collector.
+     * Su alcuni sistemi (es. Windows) un file mappato non può essere sostituito,
+     * e Catalogo.salvaCSV() sostituisce il file appena letto.
+     *
+     * Il rilascio è solo un tentativo: l'API standard non permette di rimuovere una mappatura, per cui
+     * si usa sun.misc.Unsafe.invokeCleaner() (modulo jdk.unsupported) tramite riflessione. Se il metodo
+     * non è disponibile o l'accesso è negato, la mappatura viene rilasciata dal garbage collector e la
+     * sostituzione del file può non riuscire finché non avviene la raccolta. Dopo la chiamata il buffer
+     * non deve più essere letto: l'accesso a una mappatura rilasciata termina la JVM.
+     * @param[in] buffer La mappatura da rilasciare, che non deve più essere usata.
+     */
+    private static void rilascia(MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            Class<?> classeUnsafe = Class.forName("sun.misc.Unsafe");
+            Field campo = classeUnsafe.getDeclaredField("theUnsafe");
+            campo.setAccessible(true);
+            classeUnsafe.getMethod("invokeCleaner", ByteBuffer.class).invoke(campo.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException ignorata) {
+            // Il rilascio avverrà alla raccolta del buffer
+        }
+    }
+}
@@ -15,20 +15,27 @@
 
 package it.unisa.diem.gruppo01.classi;
 import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * @brief Rappresenta un'entità libro in un sistema bibliotecario.
  * La classe gestisce i dettagli anagrafici del libro e il numero di copie fisiche disponibili.
  * @invariant numCopie >= 0 Il numero di copie non deve mai essere negativo.
+ * Le variazioni del numero di copie sono atomiche: due prestiti concorrenti
+ * non possono assegnare due volte l'ultima copia.
  * 
  *
  */
 public class Libro {
     private String isbn; ///< Codice identificativo univoco del libro.
     private String titolo; ///< Titolo del libro.
+    private String chiaveOrdinamento; ///< Titolo normalizzato (minuscolo, senza accenti) usato per l'ordinamento nel catalogo.
     private String autore; ///< Autore del libro.
     private LocalDate annoPb; ///< Anno di pubblicazione del libro.
-    private int numCopie; ///< Numero di copie disponibili del libro.
+    private volatile int numCopie; ///< Numero di copie disponibili del libro (modificato solo tramite COPIE o assegnazione).
+    
+    private static final AtomicIntegerFieldUpdater<Libro> COPIE = AtomicIntegerFieldUpdater.newUpdater(Libro.class, "numCopie"); ///< Operazioni atomiche su numCopie.
     
     
     
@@ -54,6 +61,7 @@ public class Libro {
         }
         this.isbn=isbn;
         this.titolo=titolo;
+        this.chiaveOrdinamento=ChiaveOrdinamento.calcola(titolo);
         this.autore=autore;
         this.annoPb=annoPb;
         this.numCopie=numCopie;
@@ -80,12 +88,24 @@ public class Libro {
     
     /**
      * @brief Imposta un nuovo titolo per il libro.
+     * La chiave di ordinamento viene ricalcolata solo se il titolo cambia.
      * @param[in] titolo Il nuovo titolo da impostare.
      */
 
     public void setTitolo(String titolo) {
+        if (!Objects.equals(this.titolo, titolo)) {
+            this.chiaveOrdinamento = ChiaveOrdinamento.calcola(titolo);
+        }
         this.titolo = titolo;
     }
+    
+    /**
+     * @brief Restituisce la chiave di ordinamento del libro: il titolo in minuscolo e senza accenti.
+     * @return La chiave usata da Catalogo.LibroComparator.
+     */
+    public String getChiaveOrdinamento() {
+        return chiaveOrdinamento;
+    }
 
    
 
@@ -169,7 +189,7 @@ public class Libro {
      //controllo se la quantità da aggiungere è positiva
     if (quantita > 0) {
        
-        this.numCopie = this.numCopie + quantita;
+        COPIE.addAndGet(this, quantita);
     } else {
         //se la quantità non è positiva lancio un'eccezione
       throw new IllegalArgumentException(("La quantità da incrementare deve essere positiva."));
@@ -188,11 +208,15 @@ public class Libro {
     
     public boolean decrementaCopie()
     {
-        if (this.numCopie > 0) {
-            this.numCopie--;
-            return true; // Operazione riuscita
-        }
-        return false; // Operazione fallita (libro non disponibile)
+        // Confronto e scambio: il decremento avviene solo se nessun altro thread ha modificato le copie nel frattempo
+        int copie;
+        do {
+            copie = this.numCopie;
+            if (copie <= 0) {
+                return false; // Operazione fallita (libro non disponibile)
+            }
+        } while (!COPIE.compareAndSet(this, copie, copie - 1));
+        return true; // Operazione riuscita
     }
     
    /**
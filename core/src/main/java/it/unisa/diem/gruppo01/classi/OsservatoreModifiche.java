@@ -0,0 +1,60 @@
+/**
+*@file OsservatoreModifiche.java
+*@brief Questo file contiene l'interfaccia per ricevere le singole modifiche
+* di una collezione ordinata del dominio (Catalogo, Elenco).
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+/**
+ * @brief Riceve le modifiche di una collezione ordinata, una per elemento, così che chi ne mostra
+ * una copia (es. una tabella) possa aggiornarla senza ricopiare l'intera collezione.
+ *
+ * Gli eventi vengono notificati dal thread che ha eseguito la modifica, mentre la collezione è
+ * ancora bloccata (lock di scrittura del Catalogo, monitor dell'Elenco), nell'ordine in cui le
+ * modifiche sono avvenute. Un osservatore deve quindi limitarsi a registrare l'evento (ad esempio
+ * accodarlo per il thread dell'interfaccia) senza invocare metodi della collezione osservata.
+ *
+ * @param <T> Il tipo degli elementi (Libro, Studente).
+ */
+public interface OsservatoreModifiche<T> {
+
+    /**
+     * @brief Un nuovo elemento è stato inserito nella collezione.
+     * @param[in] elemento L'elemento inserito.
+     */
+    void aggiunto(T elemento);
+
+    /**
+     * @brief Un elemento è stato rimosso dalla collezione.
+     * @param[in] elemento L'elemento rimosso.
+     */
+    void rimosso(T elemento);
+
+    /**
+     * @brief Un elemento è stato modificato senza cambiare posizione nell'ordinamento
+     * (es. numero di copie, prestiti, campi che non fanno parte della chiave di ordinamento).
+     * @param[in] elemento L'elemento modificato.
+     */
+    void aggiornato(T elemento);
+
+    /**
+     * @brief Un elemento è stato modificato e la sua posizione nell'ordinamento è cambiata
+     * (es. nuovo titolo di un libro, nuovo cognome di uno studente).
+     * @param[in] elemento L'elemento modificato, già con i nuovi valori.
+     * @param[in] precedente Una copia dell'elemento con i valori precedenti la modifica, per ritrovarne la vecchia posizione.
+     */
+    void spostato(T elemento, T precedente);
+
+    /**
+     * @brief L'intera collezione è stata ricaricata (es. dal file): le copie vanno ricostruite.
+     */
+    void ricaricato();
+}
@@ -151,8 +151,19 @@ public boolean isPrestitoAttivo(){
     *  @return Il numero di giorni di ritardo (intero positivo). Restituisce 0 se non c'è ritardo.
     */
     public int calcolaGiorniRitardo(){
-        // Se dataRestituzione è null (libro ancora in mano allo studente), usiamo OGGI
-        LocalDate dataFine = (this.dataRestituzione != null) ? this.dataRestituzione : LocalDate.now();
+        return calcolaGiorniRitardo(LocalDate.now());
+    }
+    
+    /**
+    * @brief Calcola i giorni di ritardo rispetto alla scadenza, con il prestito attivo confrontato
+    * con il giorno indicato invece che con la data odierna (es. per confrontare molti prestiti
+    * con lo stesso giorno senza invocare LocalDate.now() per ciascuno).
+    * @param[in] oggi Il giorno di riferimento per i prestiti attivi.
+    * @return Il numero di giorni di ritardo (intero positivo). Restituisce 0 se non c'è ritardo.
+    */
+    public int calcolaGiorniRitardo(LocalDate oggi){
+        // Se dataRestituzione è null (libro ancora in mano allo studente), usiamo il giorno indicato
+        LocalDate dataFine = (this.dataRestituzione != null) ? this.dataRestituzione : oggi;
         
         long giorni = ChronoUnit.DAYS.between(this.getDataScadenza(), dataFine);
         
@@ -170,8 +181,16 @@ public boolean isPrestitoAttivo(){
      *  @return Una stringa descrittiva della sanzione applicabile.
      */
     public String gestioneSanzioni() {
-        int giorniRitardo = this.calcolaGiorniRitardo();
-
+        return sanzionePerRitardo(this.calcolaGiorniRitardo());
+    }
+    
+    /**
+     * @brief Restituisce la sanzione corrispondente a un numero di giorni di ritardo
+     * (le stesse categorie di gestioneSanzioni()).
+     * @param[in] giorniRitardo I giorni di ritardo.
+     * @return Una stringa descrittiva della sanzione applicabile.
+     */
+    public static String sanzionePerRitardo(int giorniRitardo) {
         if (giorniRitardo <= 0) {
             return NESSUN_RITARDO;
         }
@@ -184,6 +203,19 @@ public boolean isPrestitoAttivo(){
             return "Categoria 3 (" + giorniRitardo + " gg ritardo): Blocco PERMANENTE.";
         }
     }
+    
+    /**
+     * @brief Restituisce la categoria di una sanzione prodotta da sanzionePerRitardo().
+     * @param[in] sanzione La descrizione della sanzione (es. Studente.getSanzione()).
+     * @return La categoria (1, 2 o 3), oppure 0 se la sanzione è assente o non è di nessuna categoria.
+     */
+    public static int categoriaSanzione(String sanzione) {
+        if (sanzione == null || !sanzione.startsWith("Categoria ") || sanzione.length() <= 10) {
+            return 0;
+        }
+        char categoria = sanzione.charAt(10);
+        return categoria >= '1' && categoria <= '3' ? categoria - '0' : 0;
+    }
       
     
     
@@ -0,0 +1,262 @@
+/**
+*@file RegistroModifiche.java
+*@brief Questo file contiene il registro delle modifiche (write-ahead log) del catalogo.
+* Ogni modifica all'inventario viene accodata come record compatto su file,
+* evitando di riscrivere l'intero CSV a ogni operazione.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @brief Registro append-only delle modifiche al catalogo.
+ * Ogni record occupa una riga, con i campi separati da punto e virgola:
+ * - A;isbn;titolo;autore;anno;copie  (aggiunta di un nuovo libro)
+ * - M;isbn;titolo;autore;anno;copie  (modifica dei dati di un libro)
+ * - E;isbn                           (eliminazione di un libro)
+ * - C;isbn;copie                     (nuovo numero di copie di un libro)
+ *
+ * Il registro va riapplicato sopra l'ultimo snapshot CSV e viene svuotato
+ * ogni volta che uno snapshot completo viene scritto (compattazione).
+ *
+ * I record successivi all'ultima compattazione sono mantenuti anche in memoria: con la
+ * scrittura differita (salvataggio automatico) vengono accodati al file solo da
+ * scriviInSospeso(), invocato dal thread in background. I metodi sono sincronizzati perché
+ * i record vengono prodotti e scritti da thread diversi.
+ */
+public class RegistroModifiche {
+
+    public static final String AGGIUNTA = "A"; ///< Tipo di record: aggiunta di un libro.
+    public static final String MODIFICA = "M"; ///< Tipo di record: modifica di un libro.
+    public static final String ELIMINAZIONE = "E"; ///< Tipo di record: eliminazione di un libro.
+    public static final String COPIE = "C"; ///< Tipo di record: variazione del numero di copie.
+
+    private static final String SEPARATORE = ";"; ///< Separatore dei campi di un record.
+
+    private final File file; ///< File su cui vengono accodati i record.
+    private PrintWriter scrittore; ///< Stream in append, aperto alla prima scrittura.
+    private final List<String> records = new ArrayList<>(); ///< Record successivi all'ultima compattazione, nell'ordine di accodamento.
+    private int scritti; ///< Quanti dei record sono già presenti nel file.
+    private long progressivo; ///< Numero di record accodati dalla creazione del registro.
+    private long base; ///< Progressivo del primo elemento di records.
+    private boolean differito; ///< Se true i record vengono scritti solo da scriviInSospeso().
+
+    /**
+     * @brief Costruttore della classe.
+     * @param[in] nomeFile Il percorso del file di registro.
+     */
+    public RegistroModifiche(String nomeFile) {
+        this.file = new File(nomeFile);
+    }
+
+    /**
+     * @brief Restituisce il numero di record accodati dall'ultima compattazione.
+     * @return Il numero di record nel registro.
+     */
+    public synchronized int getNumeroRecord() {
+        return records.size();
+    }
+
+    /**
+     * @brief Restituisce il numero di record accodati dalla creazione del registro.
+     * Il valore letto insieme a uno snapshot va passato a compatta().
+     * @return Il progressivo dell'ultimo record accodato.
+     */
+    public synchronized long getProgressivo() {
+        return progressivo;
+    }
+
+    /**
+     * @brief Attiva o disattiva la scrittura differita.
+     * Disattivandola, i record in sospeso vengono scritti subito.
+     * @param[in] differito true per scrivere i record solo con scriviInSospeso().
+     */
+    public synchronized void setDifferito(boolean differito) {
+        this.differito = differito;
+        if (!differito) {
+            scriviInSospeso();
+        }
+    }
+
+    /**
+     * @brief Indica se il file di registro è presente su disco.
+     * @return true se il file esiste.
+     */
+    public boolean esiste() {
+        return file.exists();
+    }
+
+    /**
+     * @brief Accoda il record di aggiunta o modifica di un libro.
+     * @param[in] tipo AGGIUNTA oppure MODIFICA.
+     * @param[in] libro Il libro, con i dati già aggiornati.
+     */
+    public void registraLibro(String tipo, Libro libro) {
+        accoda(tipo + SEPARATORE + libro.getIsbn() + SEPARATORE + libro.getTitolo() + SEPARATORE
+                + libro.getAutore() + SEPARATORE + libro.getAnnoPb().getYear() + SEPARATORE + libro.getNumCopie());
+    }
+
+    /**
+     * @brief Accoda il record di eliminazione di un libro.
+     * @param[in] isbn L'ISBN del libro eliminato.
+     */
+    public void registraEliminazione(String isbn) {
+        accoda(ELIMINAZIONE + SEPARATORE + isbn);
+    }
+
+    /**
+     * @brief Accoda il record con il nuovo numero di copie di un libro.
+     * Il valore è assoluto, quindi il record può essere riapplicato più volte.
+     * @param[in] libro Il libro con il numero di copie già aggiornato.
+     */
+    public void registraCopie(Libro libro) {
+        accoda(COPIE + SEPARATORE + libro.getIsbn() + SEPARATORE + libro.getNumCopie());
+    }
+
+    /**
+     * @brief Accoda un record; senza scrittura differita lo scrive subito in coda al file.
+     * Il costo della scrittura dipende solo dalla dimensione del record.
+     * @param[in] record La riga da accodare.
+     */
+    private synchronized void accoda(String record) {
+        records.add(record);
+        progressivo++;
+        if (!differito) {
+            scriviInSospeso();
+        }
+    }
+
+    /**
+     * @brief Scrive in coda al file, con un'unica operazione, i record non ancora scritti.
+     * In caso di errore i record restano in sospeso e verranno riscritti alla chiamata successiva.
+     * @return true se tutti i record sono stati scritti, false se la scrittura non è riuscita.
+     */
+    public synchronized boolean scriviInSospeso() {
+        if (scritti == records.size()) {
+            return true;
+        }
+        try {
+            if (scrittore == null) {
+                scrittore = new PrintWriter(new FileWriter(file, true));
+            }
+            for (int i = scritti; i < records.size(); i++) {
+                scrittore.println(records.get(i));
+            }
+            scrittore.flush();
+            if (scrittore.checkError()) {
+                chiudi();
+                throw new IOException("scrittura non riuscita su " + file.getName());
+            }
+            scritti = records.size();
+            return true;
+        } catch (IOException ex) {
+            System.err.println("Errore I/O durante la scrittura del registro: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @brief Legge tutti i record presenti nel file di registro.
+     * Le righe incomplete (es. l'ultima riga di una scrittura interrotta) vengono scartate.
+     * @return La lista dei record, ciascuno suddiviso nei suoi campi.
+     */
+    public synchronized List<String[]> leggi() {
+        List<String[]> letti = new ArrayList<>();
+        records.clear();
+        if (!file.exists()) {
+            scritti = 0;
+            return letti;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String riga;
+            while ((riga = br.readLine()) != null) {
+                String[] campi = riga.split(SEPARATORE, -1);
+                if (valido(campi)) {
+                    letti.add(campi);
+                    records.add(riga);
+                } else {
+                    System.err.println("Attenzione: record di registro non valido e saltato: " + riga);
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Errore I/O durante la lettura del registro: " + ex.getMessage());
+        }
+        // I record letti sono già nel file: vanno solo contati ai fini della compattazione
+        scritti = records.size();
+        progressivo += records.size();
+        base = progressivo - records.size();
+        return letti;
+    }
+
+    /**
+     * @brief Verifica che un record abbia il numero di campi previsto dal suo tipo.
+     * @param[in] campi I campi del record.
+     * @return true se il record è ben formato.
+     */
+    private static boolean valido(String[] campi) {
+        switch (campi[0]) {
+            case AGGIUNTA:
+            case MODIFICA:
+                return campi.length == 6;
+            case ELIMINAZIONE:
+                return campi.length == 2;
+            case COPIE:
+                return campi.length == 3;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @brief Chiude il file e lo elimina: da chiamare dopo aver scritto uno snapshot completo.
+     * @post getNumeroRecord() == 0
+     */
+    public synchronized void svuota() {
+        compatta(progressivo);
+    }
+
+    /**
+     * @brief Scarta i record inclusi in uno snapshot completo ed elimina il file.
+     * I record accodati dopo lo snapshot vengono mantenuti e riscritti in un nuovo file
+     * (subito, oppure alla prossima scriviInSospeso() con la scrittura differita).
+     * @param[in] inclusi Il valore di getProgressivo() letto insieme allo snapshot.
+     */
+    public synchronized void compatta(long inclusi) {
+        chiudi();
+        if (file.exists() && !file.delete()) {
+            System.err.println("Impossibile eliminare il registro: " + file.getAbsolutePath());
+        }
+        int daScartare = (int) Math.max(0, Math.min(records.size(), inclusi - base));
+        records.subList(0, daScartare).clear();
+        base += daScartare;
+        scritti = 0;
+        if (!differito) {
+            scriviInSospeso();
+        }
+    }
+
+    /**
+     * @brief Chiude lo stream di scrittura, se aperto.
+     */
+    public synchronized void chiudi() {
+        if (scrittore != null) {
+            scrittore.close();
+            scrittore = null;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/**
+*@file RicalcoloSanzioni.java
+*@brief Questo file contiene il ricalcolo notturno delle sanzioni degli studenti
+* che hanno prestiti attivi scaduti.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @brief Ricalcolo periodico delle sanzioni degli studenti con prestiti attivi.
+ * La sanzione di uno studente cambia solo alla restituzione di un libro (Elenco.chiudiPrestito()):
+ * uno studente che tiene un libro per mesi oltre la scadenza non verrebbe mai sanzionato.
+ * Il ricalcolo assegna a ogni studente con un prestito attivo scaduto la sanzione corrispondente
+ * al prestito più in ritardo (Prestito.sanzionePerRitardo()) e lo segna in ritardo, solo se la categoria
+ * della sanzione sale: uno studente che resta nella stessa categoria non viene modificato (né salvato
+ * né notificato) anche se i giorni di ritardo crescono. Il blocco di una sanzione di Categoria 2
+ * decorre dal giorno del ricalcolo che la assegna (vedi Studente.applicaSanzione()). La categoria di
+ * una sanzione già presente non viene mai ridotta (es. un Blocco PERMANENTE resta tale).
+ *
+ * Il calcolo è diviso in porzioni dell'elenco eseguite su un ForkJoinPool, su una copia delle sanzioni
+ * e dei prestiti presa da Elenco.ricalcolaSanzioni() sotto il lock dell'elenco; il risultato viene
+ * applicato dallo stesso metodo, di nuovo sotto il lock (vedi il metodo), che segna da salvare solo
+ * se almeno uno studente è cambiato e notifica solo gli studenti cambiati.
+ * avvia() esegue il ricalcolo subito (l'applicazione potrebbe non essere aperta di notte) e poi
+ * ogni giorno all'ora indicata, su un thread in background; ogni esecuzione registra nel log
+ * i tempi delle sue fasi (vedi Esito).
+ */
+public final class RicalcoloSanzioni {
+
+    public static final String PROPRIETA_ORA = "gestionebiblioteca.sanzioni.ora"; ///< Proprietà di sistema con l'ora del ricalcolo (HH:mm).
+    public static final LocalTime ORA_PREDEFINITA = LocalTime.of(2, 0); ///< Ora predefinita del ricalcolo notturno.
+    private static final int SOGLIA_PORZIONE = 4096; ///< Studenti sotto i quali una porzione viene calcolata senza suddividerla.
+
+    private static final Logger LOGGER = Logger.getLogger(RicalcoloSanzioni.class.getName()); ///< Log degli esiti e degli errori.
+
+    /**
+     * @brief Esito di un ricalcolo: studenti esaminati e modificati e durata delle fasi.
+     */
+    public static final class Esito {
+
+        private final int studenti; ///< Studenti dell'elenco.
+        private final long conPrestiti; ///< Studenti con almeno un prestito attivo.
+        private final long inRitardo; ///< Studenti con almeno un prestito attivo scaduto.
+        private final int modificati; ///< Studenti la cui sanzione è cambiata.
+        private final long nanoCopia; ///< Durata della copia dell'elenco, in nanosecondi.
+        private final long nanoCalcolo; ///< Durata del calcolo parallelo, in nanosecondi.
+        private final long nanoApplicazione; ///< Durata dell'applicazione delle sanzioni, in nanosecondi.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] studenti Studenti dell'elenco.
+         * @param[in] conPrestiti Studenti con almeno un prestito attivo.
+         * @param[in] inRitardo Studenti con almeno un prestito attivo scaduto.
+         * @param[in] modificati Studenti la cui sanzione è cambiata.
+         * @param[in] nanoCopia Durata della copia dell'elenco.
+         * @param[in] nanoCalcolo Durata del calcolo.
+         * @param[in] nanoApplicazione Durata dell'applicazione.
+         */
+        Esito(int studenti, long conPrestiti, long inRitardo, int modificati, long nanoCopia, long nanoCalcolo, long nanoApplicazione) {
+            this.studenti = studenti;
+            this.conPrestiti = conPrestiti;
+            this.inRitardo = inRitardo;
+            this.modificati = modificati;
+            this.nanoCopia = nanoCopia;
+            this.nanoCalcolo = nanoCalcolo;
+            this.nanoApplicazione = nanoApplicazione;
+        }
+
+        /**
+         * @brief Restituisce il numero di studenti dell'elenco.
+         * @return Gli studenti esaminati.
+         */
+        public int getStudenti() {
+            return studenti;
+        }
+
+        /**
+         * @brief Restituisce il numero di studenti con almeno un prestito attivo.
+         * @return Gli studenti con prestiti.
+         */
+        public long getConPrestiti() {
+            return conPrestiti;
+        }
+
+        /**
+         * @brief Restituisce il numero di studenti con almeno un prestito attivo scaduto.
+         * @return Gli studenti in ritardo.
+         */
+        public long getInRitardo() {
+            return inRitardo;
+        }
+
+        /**
+         * @brief Restituisce il numero di studenti la cui sanzione è cambiata.
+         * @return Gli studenti modificati.
+         */
+        public int getModificati() {
+            return modificati;
+        }
+
+        /**
+         * @brief Restituisce la durata complessiva del ricalcolo (copia, calcolo e applicazione).
+         * @return La durata, in nanosecondi.
+         */
+        public long getNanoTotali() {
+            return nanoCopia + nanoCalcolo + nanoApplicazione;
+        }
+
+        /**
+         * @brief Restituisce la durata del calcolo parallelo.
+         * @return La durata, in nanosecondi.
+         */
+        public long getNanoCalcolo() {
+            return nanoCalcolo;
+        }
+
+        /**
+         * @brief Restituisce una descrizione dell'esito con i tempi delle fasi, in millisecondi.
+         * @return La descrizione.
+         */
+        @Override
+        public String toString() {
+            return String.format("%d studenti, %d con prestiti, %d in ritardo, %d modificati; "
+                    + "copia %.1f ms, calcolo %.1f ms, applicazione %.1f ms, totale %.1f ms",
+                    studenti, conPrestiti, inRitardo, modificati, nanoCopia / 1e6, nanoCalcolo / 1e6,
+                    nanoApplicazione / 1e6, getNanoTotali() / 1e6);
+        }
+    }
+
+    /**
+     * @brief Calcolo delle nuove sanzioni di una porzione dell'elenco.
+     * Il risultato è il numero di studenti con prestiti e in ritardo della porzione.
+     */
+    private static final class Porzione extends RecursiveTask<long[]> {
+
+        private final String[] sanzioni; ///< Sanzioni degli studenti, nell'ordine della copia dell'elenco.
+        private final Prestito[][] prestiti; ///< Prestiti attivi degli studenti, nella stessa posizione.
+        private final String[] nuove; ///< Nuove sanzioni (null se invariata), nella stessa posizione dello studente.
+        private final long giorno; ///< Giorno del ricalcolo (giorno epoch).
+        private final int da; ///< Primo studente della porzione.
+        private final int a; ///< Studente successivo all'ultimo della porzione.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] sanzioni Sanzioni degli studenti.
+         * @param[in] prestiti Prestiti attivi degli studenti.
+         * @param[in] nuove Array delle nuove sanzioni da riempire.
+         * @param[in] giorno Giorno del ricalcolo (giorno epoch).
+         * @param[in] da Primo studente della porzione.
+         * @param[in] a Studente successivo all'ultimo della porzione.
+         */
+        Porzione(String[] sanzioni, Prestito[][] prestiti, String[] nuove, long giorno, int da, int a) {
+            this.sanzioni = sanzioni;
+            this.prestiti = prestiti;
+            this.nuove = nuove;
+            this.giorno = giorno;
+            this.da = da;
+            this.a = a;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (a - da > SOGLIA_PORZIONE) {
+                int meta = (da + a) >>> 1;
+                Porzione sinistra = new Porzione(sanzioni, prestiti, nuove, giorno, da, meta);
+                sinistra.fork();
+                long[] destra = new Porzione(sanzioni, prestiti, nuove, giorno, meta, a).compute();
+                long[] conteggi = sinistra.join();
+                conteggi[0] += destra[0];
+                conteggi[1] += destra[1];
+                return conteggi;
+            }
+            long conPrestiti = 0;
+            long inRitardo = 0;
+            for (int i = da; i < a; i++) {
+                Prestito[] attivi = prestiti[i];
+                if (attivi.length == 0) {
+                    continue;
+                }
+                conPrestiti++;
+                long ritardo = 0;
+                for (Prestito prestito : attivi) {
+                    LocalDate scadenza = prestito.getDataScadenza();
+                    if (scadenza != null) {
+                        ritardo = Math.max(ritardo, giorno - scadenza.toEpochDay());
+                    }
+                }
+                if (ritardo > 0) {
+                    inRitardo++;
+                    nuove[i] = nuovaSanzione(sanzioni[i], (int) Math.min(ritardo, Integer.MAX_VALUE));
+                }
+            }
+            return new long[]{conPrestiti, inRitardo};
+        }
+    }
+
+    private final Elenco elenco; ///< Elenco su cui eseguire il ricalcolo.
+    private final ForkJoinPool pool; ///< Pool del calcolo parallelo.
+    private final LocalTime ora; ///< Ora del ricalcolo giornaliero.
+    private final ScheduledThreadPoolExecutor esecutore; ///< Thread su cui avvengono i ricalcoli pianificati.
+    private volatile Esito ultimoEsito; ///< Esito dell'ultimo ricalcolo, null se non ancora eseguito.
+    private boolean avviato; ///< true dopo avvia().
+
+    /**
+     * @brief Costruttore: il ricalcolo non viene pianificato finché non viene invocato avvia().
+     * @param[in] elenco L'elenco degli studenti.
+     * @param[in] pool Il pool del calcolo parallelo (es. ForkJoinPool.commonPool()).
+     * @param[in] ora L'ora del ricalcolo giornaliero.
+     */
+    public RicalcoloSanzioni(Elenco elenco, ForkJoinPool pool, LocalTime ora) {
+        this.elenco = elenco;
+        this.pool = pool;
+        this.ora = ora;
+        this.esecutore = new ScheduledThreadPoolExecutor(1, compito -> {
+            Thread thread = new Thread(compito, "ricalcolo-sanzioni");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.esecutore.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * @brief Restituisce l'ora del ricalcolo letta dalla proprietà di sistema PROPRIETA_ORA.
+     * @return L'ora indicata, oppure ORA_PREDEFINITA se la proprietà è assente o non valida.
+     */
+    public static LocalTime oraConfigurata() {
+        String valore = System.getProperty(PROPRIETA_ORA);
+        if (valore == null) {
+            return ORA_PREDEFINITA;
+        }
+        try {
+            return LocalTime.parse(valore);
+        } catch (DateTimeParseException ex) {
+            LOGGER.log(Level.WARNING, "Ora del ricalcolo delle sanzioni non valida: {0}", valore);
+            return ORA_PREDEFINITA;
+        }
+    }
+
+    /**
+     * @brief Esegue subito il ricalcolo e lo pianifica ogni giorno all'ora indicata nel costruttore.
+     * Le invocazioni successive alla prima non hanno effetto.
+     */
+    public synchronized void avvia() {
+        if (avviato || esecutore.isShutdown()) {
+            return;
+        }
+        avviato = true;
+        esecutore.execute(this::eseguiPianificato);
+        pianificaProssimo();
+    }
+
+    /**
+     * @brief Arresta il ricalcolo pianificato. Un ricalcolo già in corso viene completato.
+     */
+    public synchronized void chiudi() {
+        esecutore.shutdown();
+    }
+
+    /**
+     * @brief Esegue il ricalcolo sul thread chiamante e ne registra l'esito nel log.
+     * @param[in] oggi Il giorno rispetto al quale calcolare i ritardi.
+     * @return L'esito del ricalcolo.
+     */
+    public Esito esegui(LocalDate oggi) {
+        Esito esito = elenco.ricalcolaSanzioni(oggi, pool);
+        ultimoEsito = esito;
+        LOGGER.log(Level.INFO, "Ricalcolo sanzioni del {0}: {1}", new Object[]{oggi, esito});
+        return esito;
+    }
+
+    /**
+     * @brief Restituisce l'esito dell'ultimo ricalcolo.
+     * @return L'esito, oppure null se nessun ricalcolo è stato ancora eseguito.
+     */
+    public Esito getUltimoEsito() {
+        return ultimoEsito;
+    }
+
+    /**
+     * @brief Pianifica il prossimo ricalcolo giornaliero, che a sua volta pianifica il successivo
+     * (così che ogni esecuzione avvenga all'ora indicata anche con i cambi dell'ora legale).
+     */
+    private synchronized void pianificaProssimo() {
+        if (esecutore.isShutdown()) {
+            return;
+        }
+        esecutore.schedule(() -> {
+            eseguiPianificato();
+            pianificaProssimo();
+        }, millisAllaProssima(ZonedDateTime.now(), ora), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @brief Esegue un ricalcolo pianificato, registrando nel log gli errori così che non
+     * interrompano le esecuzioni successive.
+     */
+    private void eseguiPianificato() {
+        try {
+            esegui(LocalDate.now());
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.SEVERE, "Errore durante il ricalcolo delle sanzioni", ex);
+        }
+    }
+
+    /**
+     * @brief Calcola il tempo che manca alla prossima occorrenza di un'ora del giorno.
+     * @param[in] adesso L'istante corrente, con il suo fuso orario.
+     * @param[in] ora L'ora del giorno.
+     * @return I millisecondi che mancano all'ora indicata di oggi, o di domani se è già passata.
+     */
+    static long millisAllaProssima(ZonedDateTime adesso, LocalTime ora) {
+        ZonedDateTime prossima = adesso.with(ora);
+        if (!prossima.isAfter(adesso)) {
+            prossima = adesso.toLocalDate().plusDays(1).atTime(ora).atZone(adesso.getZone());
+        }
+        return Duration.between(adesso, prossima).toMillis();
+    }
+
+    /**
+     * @brief Calcola in parallelo le nuove sanzioni degli studenti, a partire da una copia delle loro
+     * sanzioni e dei loro prestiti attivi (non serve il lock dell'elenco).
+     * @param[in] sanzioni Le sanzioni degli studenti.
+     * @param[in] prestiti I prestiti attivi degli studenti, nella stessa posizione.
+     * @param[in] nuove Array, della stessa lunghezza, in cui scrivere le nuove sanzioni (null se invariata).
+     * @param[in] oggi Il giorno rispetto al quale calcolare i ritardi.
+     * @param[in] pool Il pool del calcolo.
+     * @return Il numero di studenti con prestiti attivi e con prestiti attivi scaduti.
+     */
+    static long[] calcola(String[] sanzioni, Prestito[][] prestiti, String[] nuove, LocalDate oggi, ForkJoinPool pool) {
+        return pool.invoke(new Porzione(sanzioni, prestiti, nuove, oggi.toEpochDay(), 0, sanzioni.length));
+    }
+
+    /**
+     * @brief Restituisce la nuova sanzione di uno studente in ritardo.
+     * @param[in] attuale La sanzione attuale dello studente.
+     * @param[in] giorniRitardo I giorni di ritardo del suo prestito più in ritardo.
+     * @return La sanzione corrispondente al ritardo se è di una categoria più grave di quella attuale,
+     * altrimenti null: la descrizione contiene i giorni di ritardo, che cambiano ogni giorno, e non
+     * basta da sola a modificare lo studente.
+     */
+    private static String nuovaSanzione(String attuale, int giorniRitardo) {
+        String nuova = Prestito.sanzionePerRitardo(giorniRitardo);
+        return Prestito.categoriaSanzione(nuova) > Prestito.categoriaSanzione(attuale) ? nuova : null;
+    }
+}
@@ -0,0 +1,233 @@
+/**
+*@file SalvataggioAutomatico.java
+*@brief Questo file contiene il pianificatore del salvataggio automatico,
+* che scrive su disco le modifiche di Catalogo ed Elenco da un thread in background.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @brief Pianificatore del salvataggio automatico con attesa di quiete (debounce).
+ * Catalogo ed Elenco si registrano con il proprio metodo salvaSeModificato() e, a ogni
+ * modifica, chiamano segnalaModifica(). La scrittura avviene su un unico thread in background
+ * dopo attesa millisecondi senza nuove segnalazioni: una raffica di modifiche produce una sola
+ * scrittura per archivio. Se le segnalazioni non si interrompono, la scrittura avviene comunque
+ * entro attesaMassima millisecondi dalla prima modifica non salvata.
+ *
+ * Nessuna scrittura avviene sul thread chiamante, tranne dopo chiudi().
+ */
+public class SalvataggioAutomatico {
+
+    public static final String PROPRIETA_ATTESA = "gestionebiblioteca.salvataggio.attesa"; ///< Proprietà di sistema con l'attesa (in millisecondi) dell'istanza condivisa.
+    public static final long ATTESA_PREDEFINITA = 500; ///< Attesa predefinita (in millisecondi) dopo l'ultima modifica.
+    public static final int FATTORE_ATTESA_MASSIMA = 10; ///< Attesa massima predefinita, in multipli dell'attesa.
+
+    private static SalvataggioAutomatico istanza; ///< Istanza condivisa dall'applicazione.
+
+    private final ScheduledThreadPoolExecutor esecutore; ///< Thread unico su cui avvengono le scritture.
+    private final long attesa; ///< Millisecondi di quiete dopo l'ultima modifica prima di scrivere.
+    private final long attesaMassima; ///< Millisecondi massimi tra la prima modifica non salvata e la scrittura.
+    private final List<Runnable> salvataggi = new CopyOnWriteArrayList<>(); ///< Salvataggi registrati (uno per archivio).
+
+    private ScheduledFuture<?> pianificato; ///< Scrittura pianificata, null se non ce ne sono.
+    private long generazione; ///< Incrementata a ogni ripianificazione, per riconoscere le scritture superate.
+    private long primaSegnalazione; ///< Istante (System.nanoTime) della prima modifica non ancora pianificata.
+    private boolean chiuso; ///< true dopo chiudi().
+
+    /**
+     * @brief Costruttore con attesa massima pari a FATTORE_ATTESA_MASSIMA volte l'attesa.
+     * @param[in] attesa Millisecondi di quiete dopo l'ultima modifica prima di scrivere.
+     */
+    public SalvataggioAutomatico(long attesa) {
+        this(attesa, attesa * FATTORE_ATTESA_MASSIMA);
+    }
+
+    /**
+     * @brief Costruttore.
+     * @pre attesa >= 0 && attesaMassima >= attesa
+     * @param[in] attesa Millisecondi di quiete dopo l'ultima modifica prima di scrivere.
+     * @param[in] attesaMassima Millisecondi massimi tra la prima modifica non salvata e la scrittura.
+     * @throws IllegalArgumentException Se i tempi non rispettano la precondizione.
+     */
+    public SalvataggioAutomatico(long attesa, long attesaMassima) {
+        if (attesa < 0 || attesaMassima < attesa) {
+            throw new IllegalArgumentException("Tempi di attesa non validi: " + attesa + ", " + attesaMassima);
+        }
+        this.attesa = attesa;
+        this.attesaMassima = attesaMassima;
+        this.esecutore = new ScheduledThreadPoolExecutor(1, compito -> {
+            Thread thread = new Thread(compito, "salvataggio-automatico");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.esecutore.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @brief Restituisce l'istanza condivisa dall'applicazione, creandola alla prima chiamata.
+     * L'attesa è letta dalla proprietà di sistema PROPRIETA_ATTESA (predefinita ATTESA_PREDEFINITA).
+     * @return L'istanza condivisa.
+     */
+    public static synchronized SalvataggioAutomatico getIstanza() {
+        if (istanza == null) {
+            istanza = new SalvataggioAutomatico(Long.getLong(PROPRIETA_ATTESA, ATTESA_PREDEFINITA));
+        }
+        return istanza;
+    }
+
+    /**
+     * @brief Restituisce l'attesa dopo l'ultima modifica.
+     * @return L'attesa in millisecondi.
+     */
+    public long getAttesa() {
+        return attesa;
+    }
+
+    /**
+     * @brief Registra il salvataggio di un archivio.
+     * Il salvataggio viene eseguito sul thread in background e deve scrivere solo se
+     * l'archivio ha modifiche non salvate.
+     * @param[in] salvataggio Il salvataggio da eseguire (es. catalogo::salvaSeModificato).
+     */
+    public void registra(Runnable salvataggio) {
+        salvataggi.add(salvataggio);
+    }
+
+    /**
+     * @brief Rimuove un salvataggio registrato in precedenza.
+     * @param[in] salvataggio Il salvataggio da rimuovere.
+     */
+    public void rimuovi(Runnable salvataggio) {
+        salvataggi.remove(salvataggio);
+    }
+
+    /**
+     * @brief Segnala una modifica: la scrittura viene (ri)pianificata dopo l'attesa.
+     * Dopo chiudi() i salvataggi vengono eseguiti subito sul thread chiamante.
+     */
+    public void segnalaModifica() {
+        synchronized (this) {
+            if (!chiuso) {
+                long ora = System.nanoTime();
+                if (pianificato == null) {
+                    primaSegnalazione = ora;
+                } else {
+                    pianificato.cancel(false);
+                }
+                long trascorso = TimeUnit.NANOSECONDS.toMillis(ora - primaSegnalazione);
+                long ritardo = Math.max(0, Math.min(attesa, attesaMassima - trascorso));
+                long questa = ++generazione;
+                pianificato = esecutore.schedule(() -> esegui(questa), ritardo, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+        eseguiSalvataggi();
+    }
+
+    /**
+     * @brief Scrive subito tutte le modifiche in sospeso e attende che la scrittura sia completata.
+     * Al ritorno ogni modifica segnalata prima della chiamata è su disco.
+     * @throws InterruptedException Se il thread viene interrotto durante l'attesa.
+     */
+    public void attendiSalvataggio() throws InterruptedException {
+        Future<?> scrittura;
+        synchronized (this) {
+            if (chiuso) {
+                return;
+            }
+            annullaPianificato();
+            scrittura = esecutore.submit(this::eseguiSalvataggi);
+        }
+        try {
+            scrittura.get();
+        } catch (ExecutionException ex) {
+            Logger.getLogger(SalvataggioAutomatico.class.getName()).log(Level.SEVERE, "Errore durante il salvataggio automatico", ex.getCause());
+        }
+    }
+
+    /**
+     * @brief Arresta il salvataggio automatico scrivendo in modo sincrono le modifiche in sospeso.
+     * Da chiamare alla chiusura dell'applicazione (Main.stop()): ritorna dopo che il thread
+     * in background ha completato l'ultima scrittura.
+     * @post Il thread in background è terminato.
+     */
+    public void chiudi() {
+        synchronized (this) {
+            if (chiuso) {
+                return;
+            }
+            chiuso = true;
+            annullaPianificato();
+            esecutore.submit(this::eseguiSalvataggi);
+            esecutore.shutdown();
+        }
+        boolean interrotto = false;
+        while (true) {
+            try {
+                if (esecutore.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException ex) {
+                interrotto = true;
+            }
+        }
+        if (interrotto) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @brief Annulla la scrittura pianificata, se presente.
+     */
+    private void annullaPianificato() {
+        if (pianificato != null) {
+            pianificato.cancel(false);
+            pianificato = null;
+            generazione++;
+        }
+    }
+
+    /**
+     * @brief Scrittura pianificata: se non è stata superata da una ripianificazione,
+     * riapre la finestra di attesa per le modifiche successive.
+     * @param[in] questa La generazione della pianificazione.
+     */
+    private void esegui(long questa) {
+        synchronized (this) {
+            if (questa == generazione) {
+                pianificato = null;
+            }
+        }
+        eseguiSalvataggi();
+    }
+
+    /**
+     * @brief Esegue tutti i salvataggi registrati; un errore in un archivio non blocca gli altri.
+     */
+    private void eseguiSalvataggi() {
+        for (Runnable salvataggio : salvataggi) {
+            try {
+                salvataggio.run();
+            } catch (RuntimeException ex) {
+                Logger.getLogger(SalvataggioAutomatico.class.getName()).log(Level.SEVERE, "Errore durante il salvataggio automatico", ex);
+            }
+        }
+    }
+}
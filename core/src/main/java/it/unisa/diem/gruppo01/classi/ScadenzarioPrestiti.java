@@ -0,0 +1,151 @@
+/**
+*@file ScadenzarioPrestiti.java
+*@brief Questo file contiene l'indice dei prestiti attivi per data di scadenza,
+* usato per trovare i prestiti scaduti o in scadenza senza scorrere tutti gli studenti.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * @brief Scadenzario dei prestiti attivi: una mappa ordinata giorno di scadenza (giorno epoch,
+ * LocalDate.toEpochDay()) -> prestiti che scadono quel giorno.
+ *
+ * Le ricerche "scaduti al giorno D" e "in scadenza nei prossimi N giorni" visitano solo i giorni
+ * dell'intervallo richiesto che hanno almeno un prestito: costano O(log g + k), con g giorni
+ * distinti nello scadenzario e k prestiti restituiti, invece di O(n) su tutti i prestiti.
+ * I prestiti sono confrontati per identità (Prestito non ridefinisce equals()), quindi aggiunta
+ * e rimozione costano O(log g).
+ *
+ * La classe non è sincronizzata: viene usata da Elenco sotto il proprio lock.
+ */
+final class ScadenzarioPrestiti {
+
+    private final TreeMap<Long, LinkedHashSet<Prestito>> perScadenza = new TreeMap<>(); ///< Prestiti raggruppati per giorno di scadenza.
+    private int dimensione; ///< Numero di prestiti nello scadenzario.
+
+    /**
+     * @brief Aggiunge un prestito attivo allo scadenzario.
+     * I prestiti senza data di scadenza non vengono indicizzati.
+     * @param[in] prestito Il prestito.
+     */
+    void aggiungi(Prestito prestito) {
+        LocalDate scadenza = prestito.getDataScadenza();
+        if (scadenza != null && perScadenza.computeIfAbsent(scadenza.toEpochDay(), g -> new LinkedHashSet<>()).add(prestito)) {
+            dimensione++;
+        }
+    }
+
+    /**
+     * @brief Rimuove un prestito dallo scadenzario (es. perché è stato chiuso).
+     * @pre La data di scadenza del prestito non è cambiata dopo aggiungi().
+     * @param[in] prestito Il prestito.
+     */
+    void rimuovi(Prestito prestito) {
+        LocalDate scadenza = prestito.getDataScadenza();
+        if (scadenza == null) {
+            return;
+        }
+        Long giorno = scadenza.toEpochDay();
+        LinkedHashSet<Prestito> prestiti = perScadenza.get(giorno);
+        if (prestiti != null && prestiti.remove(prestito)) {
+            dimensione--;
+            if (prestiti.isEmpty()) {
+                perScadenza.remove(giorno);
+            }
+        }
+    }
+
+    /**
+     * @brief Aggiunge tutti i prestiti attivi di uno studente.
+     * @param[in] studente Lo studente.
+     */
+    void aggiungiPrestiti(Studente studente) {
+        for (Prestito p : studente.getPrestitiAttivi()) {
+            aggiungi(p);
+        }
+    }
+
+    /**
+     * @brief Rimuove tutti i prestiti attivi di uno studente.
+     * @param[in] studente Lo studente.
+     */
+    void rimuoviPrestiti(Studente studente) {
+        for (Prestito p : studente.getPrestitiAttivi()) {
+            rimuovi(p);
+        }
+    }
+
+    /**
+     * @brief Ricostruisce lo scadenzario dai prestiti attivi degli studenti (es. dopo un caricamento).
+     * @param[in] studenti Gli studenti.
+     * @post dimensione() è il numero di prestiti attivi (con scadenza) degli studenti.
+     */
+    void ricostruisci(Collection<Studente> studenti) {
+        perScadenza.clear();
+        dimensione = 0;
+        for (Studente s : studenti) {
+            aggiungiPrestiti(s);
+        }
+    }
+
+    /**
+     * @brief Restituisce i prestiti scaduti al giorno indicato, cioè con scadenza precedente al giorno.
+     * @param[in] giorno Il giorno di riferimento.
+     * @return I prestiti scaduti, in ordine di scadenza (dal più vecchio).
+     */
+    List<Prestito> scadutiAl(LocalDate giorno) {
+        return raccogli(perScadenza.headMap(giorno.toEpochDay(), false));
+    }
+
+    /**
+     * @brief Restituisce i prestiti che scadono tra il giorno indicato e i giorni successivi.
+     * @param[in] giorno Il primo giorno dell'intervallo.
+     * @param[in] giorni Il numero di giorni successivi da includere (0 per il solo giorno indicato).
+     * @return I prestiti in scadenza nell'intervallo, in ordine di scadenza.
+     * @throws IllegalArgumentException Se giorni è negativo.
+     */
+    List<Prestito> inScadenza(LocalDate giorno, int giorni) {
+        if (giorni < 0) {
+            throw new IllegalArgumentException("Numero di giorni negativo: " + giorni);
+        }
+        long primo = giorno.toEpochDay();
+        return raccogli(perScadenza.subMap(primo, true, primo + giorni, true));
+    }
+
+    /**
+     * @brief Restituisce il numero di prestiti nello scadenzario.
+     * @return Il numero di prestiti.
+     */
+    int dimensione() {
+        return dimensione;
+    }
+
+    /**
+     * @brief Copia in una lista i prestiti di un intervallo di giorni.
+     * @param[in] intervallo La vista della mappa sui giorni richiesti.
+     * @return I prestiti, in ordine di scadenza.
+     */
+    private static List<Prestito> raccogli(NavigableMap<Long, LinkedHashSet<Prestito>> intervallo) {
+        List<Prestito> risultato = new ArrayList<>();
+        for (Map.Entry<Long, LinkedHashSet<Prestito>> e : intervallo.entrySet()) {
+            risultato.addAll(e.getValue());
+        }
+        return risultato;
+    }
+}
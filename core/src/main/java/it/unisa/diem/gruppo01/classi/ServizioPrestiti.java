@@ -0,0 +1,159 @@
+/**
+*@file ServizioPrestiti.java
+*@brief Questo file contiene le operazioni di prestito e restituzione eseguibili
+* da più postazioni (o richieste) concorrenti sullo stesso Catalogo ed Elenco.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.time.LocalDate;
+
+/**
+ * @brief Prestito e restituzione di un libro, usati dall'interfaccia grafica e dal server.
+ * Le operazioni possono essere invocate da più thread:
+ * - verifica dell'abilitazione, decremento delle copie e aggiunta del prestito sono un'unica operazione
+ *   sotto il lock dell'elenco (Elenco.registraPrestito()), così che due richieste contemporanee non
+ *   superino Prestito.LIMITE_PRESTITI e l'ultima copia venga assegnata una sola volta;
+ * - ricerca e chiusura del prestito da restituire avvengono anch'esse sotto il lock dell'elenco
+ *   (Elenco.chiudiPrestito(Studente, String, LocalDate)), così che un prestito non venga restituito due volte;
+ * - la copia restituita viene rimessa con Catalogo.restituisciCopia(), che reinserisce il libro se è stato eliminato.
+ * Chi legge i prestiti di uno studente mentre altri thread li modificano deve usare prestitiAttivi().
+ */
+public class ServizioPrestiti {
+
+    /**
+     * @brief Esito di un'operazione di prestito o restituzione.
+     */
+    public enum Esito {
+        ESEGUITO,               ///< Operazione completata.
+        STUDENTE_NON_TROVATO,   ///< Nessuno studente con la matricola indicata.
+        LIBRO_NON_TROVATO,      ///< Nessun libro con l'ISBN indicato.
+        COPIE_ESAURITE,         ///< Tutte le copie del libro sono in prestito.
+        STUDENTE_NON_ABILITATO, ///< Lo studente ha raggiunto il limite di prestiti o ha una sanzione bloccante.
+        PRESTITO_NON_TROVATO    ///< Lo studente non ha in prestito il libro indicato.
+    }
+
+    /**
+     * @brief Risultato di un'operazione: l'esito, il prestito coinvolto e, per le restituzioni, la sanzione.
+     */
+    public static final class Risultato {
+
+        private final Esito esito; ///< Esito dell'operazione.
+        private final Prestito prestito; ///< Prestito creato o chiuso, null se l'operazione non è stata eseguita.
+        private final String sanzione; ///< Esito della verifica delle sanzioni (solo restituzioni), altrimenti null.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] esito Esito dell'operazione.
+         * @param[in] prestito Prestito creato o chiuso.
+         * @param[in] sanzione Esito della verifica delle sanzioni.
+         */
+        private Risultato(Esito esito, Prestito prestito, String sanzione) {
+            this.esito = esito;
+            this.prestito = prestito;
+            this.sanzione = sanzione;
+        }
+
+        /**
+         * @brief Restituisce l'esito dell'operazione.
+         * @return L'esito.
+         */
+        public Esito getEsito() {
+            return esito;
+        }
+
+        /**
+         * @brief Restituisce il prestito creato o chiuso.
+         * @return Il prestito, null se l'operazione non è stata eseguita.
+         */
+        public Prestito getPrestito() {
+            return prestito;
+        }
+
+        /**
+         * @brief Restituisce l'esito della verifica delle sanzioni di una restituzione.
+         * @return La sanzione (Prestito.gestioneSanzioni()), null per i prestiti o le operazioni non eseguite.
+         */
+        public String getSanzione() {
+            return sanzione;
+        }
+    }
+
+    private final Catalogo catalogo; ///< Catalogo dei libri.
+    private final Elenco elenco; ///< Elenco degli studenti.
+
+    /**
+     * @brief Costruttore.
+     * @param[in] catalogo Il catalogo dei libri.
+     * @param[in] elenco L'elenco degli studenti.
+     */
+    public ServizioPrestiti(Catalogo catalogo, Elenco elenco) {
+        this.catalogo = catalogo;
+        this.elenco = elenco;
+    }
+
+    /**
+     * @brief Registra il prestito di un libro a uno studente, con scadenza dopo Prestito.DURATA_PRESTITO giorni.
+     * @param[in] matricola La matricola dello studente.
+     * @param[in] isbn L'ISBN del libro.
+     * @param[in] oggi La data di inizio del prestito.
+     * @return Il risultato; se l'esito è ESEGUITO contiene il nuovo prestito.
+     */
+    public Risultato presta(String matricola, String isbn, LocalDate oggi) {
+        Studente studente = elenco.cercaStudenteperMatricola(matricola);
+        if (studente == null) {
+            return new Risultato(Esito.STUDENTE_NON_TROVATO, null, null);
+        }
+        Libro libro = catalogo.cercaLibroPerISBN(isbn);
+        if (libro == null) {
+            return new Risultato(Esito.LIBRO_NON_TROVATO, null, null);
+        }
+        Prestito prestito = new Prestito(libro, studente, oggi, oggi.plusDays(Prestito.DURATA_PRESTITO), null);
+        Esito esito = elenco.registraPrestito(prestito, catalogo);
+        if (esito != Esito.ESEGUITO) {
+            return new Risultato(esito, null, null);
+        }
+        elenco.salvaModifiche();
+        catalogo.salvaModifiche();
+        return new Risultato(Esito.ESEGUITO, prestito, null);
+    }
+
+    /**
+     * @brief Registra la restituzione di un libro: chiude il prestito, aggiorna la sanzione dello
+     * studente e rimette la copia nel catalogo (reinserendo il libro se nel frattempo è stato eliminato).
+     * @param[in] matricola La matricola dello studente.
+     * @param[in] isbn L'ISBN del libro restituito.
+     * @param[in] oggi La data di restituzione.
+     * @return Il risultato; se l'esito è ESEGUITO contiene il prestito chiuso e la sanzione.
+     */
+    public Risultato restituisci(String matricola, String isbn, LocalDate oggi) {
+        Studente studente = elenco.cercaStudenteperMatricola(matricola);
+        if (studente == null) {
+            return new Risultato(Esito.STUDENTE_NON_TROVATO, null, null);
+        }
+        Prestito prestito = elenco.chiudiPrestito(studente, isbn, oggi);
+        if (prestito == null) {
+            return new Risultato(Esito.PRESTITO_NON_TROVATO, null, null);
+        }
+        catalogo.restituisciCopia(prestito.getLibro());
+        elenco.salvaModifiche();
+        catalogo.salvaModifiche();
+        return new Risultato(Esito.ESEGUITO, prestito, prestito.gestioneSanzioni());
+    }
+
+    /**
+     * @brief Restituisce una copia dei prestiti attivi di uno studente, coerente con le operazioni concorrenti.
+     * @param[in] studente Lo studente.
+     * @return I prestiti attivi dello studente al momento della chiamata (vedi Elenco.prestitiAttivi(Studente)).
+     */
+    public Prestito[] prestitiAttivi(Studente studente) {
+        return elenco.prestitiAttivi(studente);
+    }
+}
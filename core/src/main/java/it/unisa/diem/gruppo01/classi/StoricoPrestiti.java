@@ -0,0 +1,691 @@
+/**
+*@file StoricoPrestiti.java
+*@brief Questo file contiene lo storico dei prestiti chiusi, un archivio a sola aggiunta
+* in formato binario a colonne.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * @brief Storico dei prestiti chiusi (restituiti), separato dall'elenco in memoria: l'Elenco vi accoda
+ * ogni prestito chiuso (Elenco.chiudiPrestito()) e lo scrive su disco insieme alle proprie modifiche.
+ *
+ * Il file inizia con firma e versione (due int) ed è seguito da blocchi, ciascuno scritto con una sola
+ * operazione e mai modificato:
+ * - int lunghezza del contenuto;
+ * - contenuto: le voci nuove dei due dizionari (int numero, poi per ogni ISBN o matricola la lunghezza
+ *   in byte come short e i byte UTF-8), int righe, e le cinque colonne di righe int ciascuna:
+ *   studente (codice della matricola), libro (codice dell'ISBN), inizio, scadenza e restituzione
+ *   (giorni epoch, LocalDate.toEpochDay());
+ * - int CRC32 del contenuto.
+ * ISBN e matricole sono codificati con dizionari: il codice è la posizione della stringa nell'ordine in
+ * cui compare per la prima volta nel file, e ogni blocco contiene solo le voci introdotte dalle sue righe.
+ * Un prestito occupa così 20 byte. Un blocco incompleto o danneggiato in fondo al file (es. scrittura
+ * interrotta) viene ignorato dalla lettura e rimosso all'apertura.
+ *
+ * scorri() legge il file a blocchi con un buffer di dimensione limitata e presenta le colonne di ogni
+ * blocco come array di int (vedi Blocco): la memoria usata non dipende dal numero di prestiti, ma solo
+ * dalla dimensione dei blocchi e dei dizionari. I prestiti accodati restano in memoria finché
+ * scarica() non li scrive in un nuovo blocco.
+ */
+public final class StoricoPrestiti {
+
+    static final int MAGIA = 0x53544f52; ///< Firma del file ("STOR").
+    static final int VERSIONE = 1; ///< Versione corrente del formato.
+    public static final int RIGHE_BLOCCO = 16384; ///< Numero massimo di prestiti di un blocco.
+    private static final int COLONNE = 5; ///< Colonne di ogni blocco.
+    private static final int INTESTAZIONE = 8; ///< Byte dell'intestazione del file (firma e versione).
+    private static final int BUFFER_LETTURA = 1 << 20; ///< Dimensione iniziale del buffer di lettura.
+
+    /**
+     * @brief Blocco di prestiti letto da scorri(), con le colonne come array di int.
+     * Gli array e il blocco vengono riusati per il blocco successivo: sono validi solo durante
+     * l'invocazione del visitatore, che deve copiare ciò che vuole conservare.
+     */
+    public static final class Blocco {
+
+        private final List<String> matricole = new ArrayList<>(); ///< Dizionario delle matricole letto finora (codice -> matricola).
+        private final List<String> isbn = new ArrayList<>(); ///< Dizionario degli ISBN letto finora (codice -> ISBN).
+        private int[] studente = new int[0]; ///< Colonna dei codici delle matricole.
+        private int[] libro = new int[0]; ///< Colonna dei codici degli ISBN.
+        private int[] inizio = new int[0]; ///< Colonna delle date di inizio (giorni epoch).
+        private int[] scadenza = new int[0]; ///< Colonna delle date di scadenza (giorni epoch).
+        private int[] restituzione = new int[0]; ///< Colonna delle date di restituzione (giorni epoch).
+        private int righe; ///< Prestiti del blocco.
+        private long primo; ///< Posizione nel file del primo prestito del blocco (identificativo del prestito).
+
+        /**
+         * @brief Restituisce il numero di prestiti del blocco.
+         * @return Le righe del blocco.
+         */
+        public int getRighe() {
+            return righe;
+        }
+
+        /**
+         * @brief Restituisce la posizione nello storico del primo prestito del blocco:
+         * il prestito i del blocco è il prestito getPrimo() + i dello storico.
+         * @return La posizione del primo prestito.
+         */
+        public long getPrimo() {
+            return primo;
+        }
+
+        /**
+         * @brief Restituisce la colonna dei codici delle matricole (vedi matricola()).
+         * @return L'array, valido per le prime getRighe() posizioni.
+         */
+        public int[] getStudenti() {
+            return studente;
+        }
+
+        /**
+         * @brief Restituisce la colonna dei codici degli ISBN (vedi isbn()).
+         * @return L'array, valido per le prime getRighe() posizioni.
+         */
+        public int[] getLibri() {
+            return libro;
+        }
+
+        /**
+         * @brief Restituisce la colonna delle date di inizio.
+         * @return L'array dei giorni epoch, valido per le prime getRighe() posizioni.
+         */
+        public int[] getInizi() {
+            return inizio;
+        }
+
+        /**
+         * @brief Restituisce la colonna delle date di scadenza.
+         * @return L'array dei giorni epoch, valido per le prime getRighe() posizioni.
+         */
+        public int[] getScadenze() {
+            return scadenza;
+        }
+
+        /**
+         * @brief Restituisce la colonna delle date di restituzione.
+         * @return L'array dei giorni epoch, valido per le prime getRighe() posizioni.
+         */
+        public int[] getRestituzioni() {
+            return restituzione;
+        }
+
+        /**
+         * @brief Restituisce la matricola corrispondente a un codice della colonna degli studenti.
+         * @param[in] codice Il codice.
+         * @return La matricola.
+         */
+        public String matricola(int codice) {
+            return matricole.get(codice);
+        }
+
+        /**
+         * @brief Restituisce l'ISBN corrispondente a un codice della colonna dei libri.
+         * @param[in] codice Il codice.
+         * @return L'ISBN.
+         */
+        public String isbn(int codice) {
+            return isbn.get(codice);
+        }
+
+        /**
+         * @brief Restituisce il numero di matricole distinte lette finora (i codici vanno da 0 a questo valore escluso).
+         * @return La dimensione del dizionario delle matricole.
+         */
+        public int getNumeroMatricole() {
+            return matricole.size();
+        }
+
+        /**
+         * @brief Restituisce il numero di ISBN distinti letti finora (i codici vanno da 0 a questo valore escluso).
+         * @return La dimensione del dizionario degli ISBN.
+         */
+        public int getNumeroIsbn() {
+            return isbn.size();
+        }
+
+        /**
+         * @brief Legge il contenuto di un blocco.
+         * @param[in] b Il buffer, posizionato all'inizio del contenuto.
+         */
+        private void leggi(ByteBuffer b) {
+            leggiVoci(b, isbn);
+            leggiVoci(b, matricole);
+            righe = b.getInt();
+            if (studente.length < righe) {
+                studente = new int[righe];
+                libro = new int[righe];
+                inizio = new int[righe];
+                scadenza = new int[righe];
+                restituzione = new int[righe];
+            }
+            IntBuffer colonne = b.asIntBuffer();
+            colonne.get(studente, 0, righe);
+            colonne.get(libro, 0, righe);
+            colonne.get(inizio, 0, righe);
+            colonne.get(scadenza, 0, righe);
+            colonne.get(restituzione, 0, righe);
+            b.position(b.position() + righe * COLONNE * Integer.BYTES);
+        }
+    }
+
+    private final File file; ///< File dello storico.
+    private final HashMap<String, Integer> codiciMatricole = new HashMap<>(); ///< Dizionario delle matricole (matricola -> codice).
+    private final HashMap<String, Integer> codiciIsbn = new HashMap<>(); ///< Dizionario degli ISBN (ISBN -> codice).
+    private final List<String> nuoveMatricole = new ArrayList<>(); ///< Matricole introdotte dai prestiti in attesa.
+    private final List<String> nuoviIsbn = new ArrayList<>(); ///< ISBN introdotti dai prestiti in attesa.
+    private int[] inAttesa = new int[COLONNE * 64]; ///< Prestiti accodati e non ancora scritti, COLONNE int ciascuno.
+    private int numeroInAttesa; ///< Numero di prestiti in attesa.
+    private long numeroScritti; ///< Numero di prestiti nel file.
+    private long numeroBlocchi; ///< Numero di blocchi nel file.
+
+    /**
+     * @brief Apre lo storico, creando il file se non esiste.
+     * I dizionari vengono ricostruiti leggendo solo le voci dei blocchi (le colonne vengono saltate);
+     * un blocco incompleto o danneggiato in fondo al file viene rimosso.
+     * @param[in] file Il file dello storico.
+     * @throws IOException Se il file non può essere letto o creato, o non è uno storico valido.
+     */
+    public StoricoPrestiti(File file) throws IOException {
+        this.file = file;
+        if (!file.exists() || file.length() == 0) {
+            try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                scriviTutto(canale, intestazione());
+            }
+            return;
+        }
+        List<String> isbn = new ArrayList<>();
+        List<String> matricole = new ArrayList<>();
+        long fine;
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            verificaIntestazione(canale);
+            ByteBuffer testa = ByteBuffer.allocate(Integer.BYTES);
+            ByteBuffer contenuto = ByteBuffer.allocate(BUFFER_LETTURA);
+            long posizione = INTESTAZIONE;
+            long dimensione = canale.size();
+            while (true) {
+                ByteBuffer blocco = leggiBlocco(canale, posizione, dimensione, testa, contenuto);
+                if (blocco == null) {
+                    break;
+                }
+                contenuto = blocco;
+                leggiVoci(blocco, isbn);
+                leggiVoci(blocco, matricole);
+                numeroScritti += blocco.getInt();
+                numeroBlocchi++;
+                posizione += Integer.BYTES + blocco.limit() + Integer.BYTES;
+            }
+            fine = posizione;
+        }
+        for (int i = 0; i < isbn.size(); i++) {
+            codiciIsbn.put(isbn.get(i), i);
+        }
+        for (int i = 0; i < matricole.size(); i++) {
+            codiciMatricole.put(matricole.get(i), i);
+        }
+        if (fine < file.length()) {
+            Logger.getLogger(StoricoPrestiti.class.getName()).log(Level.WARNING,
+                    "Storico dei prestiti: rimossi {0} byte non validi in fondo al file.", file.length() - fine);
+            try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                canale.truncate(fine);
+            }
+        }
+    }
+
+    /**
+     * @brief Restituisce il file dello storico.
+     * @return Il file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @brief Accoda un prestito chiuso, che verrà scritto dal prossimo scarica().
+     * Del prestito vengono copiati solo i codici di matricola e ISBN e le date.
+     * @pre prestito.getDataRestituzione() != null
+     * @param[in] prestito Il prestito chiuso.
+     * @throws IllegalArgumentException Se il prestito non è chiuso.
+     */
+    public synchronized void accoda(Prestito prestito) {
+        if (prestito.isPrestitoAttivo()) {
+            throw new IllegalArgumentException("Il prestito non è stato restituito.");
+        }
+        if (inAttesa.length < (numeroInAttesa + 1) * COLONNE) {
+            inAttesa = Arrays.copyOf(inAttesa, inAttesa.length * 2);
+        }
+        int i = numeroInAttesa * COLONNE;
+        inAttesa[i] = codice(prestito.getStudente().getMatricola(), codiciMatricole, nuoveMatricole);
+        inAttesa[i + 1] = codice(prestito.getLibro().getIsbn(), codiciIsbn, nuoviIsbn);
+        inAttesa[i + 2] = giorno(prestito.getDataInizio());
+        inAttesa[i + 3] = giorno(prestito.getDataScadenza());
+        inAttesa[i + 4] = giorno(prestito.getDataRestituzione());
+        numeroInAttesa++;
+    }
+
+    /**
+     * @brief Scrive i prestiti in attesa in fondo al file, in blocchi di al più RIGHE_BLOCCO prestiti.
+     * Se la scrittura non riesce il file torna com'era e i prestiti restano in attesa.
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    public synchronized void scarica() throws IOException {
+        if (numeroInAttesa == 0) {
+            return;
+        }
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            long dimensione = canale.size();
+            try {
+                canale.position(dimensione);
+                for (int da = 0; da < numeroInAttesa; da += RIGHE_BLOCCO) {
+                    // Le voci nuove dei dizionari vanno tutte nel primo blocco, che precede i prestiti che le usano
+                    scriviTutto(canale, blocco(da == 0 ? nuoviIsbn : List.of(), da == 0 ? nuoveMatricole : List.of(),
+                            inAttesa, da, Math.min(numeroInAttesa, da + RIGHE_BLOCCO) - da));
+                }
+            } catch (IOException ex) {
+                canale.truncate(dimensione);
+                throw ex;
+            }
+        }
+        numeroScritti += numeroInAttesa;
+        numeroBlocchi += (numeroInAttesa + RIGHE_BLOCCO - 1) / RIGHE_BLOCCO;
+        numeroInAttesa = 0;
+        nuoveMatricole.clear();
+        nuoviIsbn.clear();
+    }
+
+    /**
+     * @brief Restituisce il numero di prestiti accodati e non ancora scritti.
+     * @return I prestiti in attesa.
+     */
+    public synchronized int getNumeroInAttesa() {
+        return numeroInAttesa;
+    }
+
+    /**
+     * @brief Restituisce il numero di prestiti scritti nel file.
+     * @return I prestiti dello storico su disco.
+     */
+    public synchronized long getNumeroPrestiti() {
+        return numeroScritti;
+    }
+
+    /**
+     * @brief Restituisce il numero di blocchi del file.
+     * @return I blocchi.
+     */
+    public synchronized long getNumeroBlocchi() {
+        return numeroBlocchi;
+    }
+
+    /**
+     * @brief Legge in ordine i blocchi scritti nel file fino a questo momento.
+     * Può essere invocato mentre un altro thread accoda e scrive prestiti: i blocchi scritti
+     * dopo l'inizio della lettura vengono ignorati.
+     * @param[in] visitatore Invocato per ogni blocco (lo stesso oggetto Blocco, riusato).
+     * @throws IOException Se il file non può essere letto o non è uno storico valido.
+     */
+    public void scorri(Consumer<Blocco> visitatore) throws IOException {
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            verificaIntestazione(canale);
+            long dimensione = canale.size();
+            Blocco blocco = new Blocco();
+            ByteBuffer lettura = ByteBuffer.allocate(BUFFER_LETTURA);
+            lettura.flip();
+            long posizione = INTESTAZIONE;
+            canale.position(posizione);
+            while (true) {
+                // Il buffer contiene sempre i byte del file da posizione in poi: si rilegge solo se il blocco non è completo
+                if (lettura.remaining() < Integer.BYTES && !riempi(canale, lettura, Integer.BYTES, dimensione - posizione)) {
+                    break;
+                }
+                int lunghezza = lettura.getInt(lettura.position());
+                long totale = Integer.BYTES + (long) lunghezza + Integer.BYTES;
+                if (lunghezza < 0 || posizione + totale > dimensione) {
+                    break;
+                }
+                if (lettura.remaining() < totale) {
+                    if (lettura.capacity() < totale) {
+                        ByteBuffer maggiore = ByteBuffer.allocate((int) totale);
+                        maggiore.put(lettura);
+                        maggiore.flip();
+                        lettura = maggiore;
+                    }
+                    riempi(canale, lettura, (int) totale, dimensione - posizione);
+                }
+                int inizio = lettura.position() + Integer.BYTES;
+                if (!crcValido(lettura.array(), inizio, lunghezza, lettura.getInt(inizio + lunghezza))) {
+                    break;
+                }
+                ByteBuffer contenuto = lettura.duplicate();
+                contenuto.position(inizio).limit(inizio + lunghezza);
+                blocco.primo += blocco.righe;
+                blocco.leggi(contenuto.slice());
+                visitatore.accept(blocco);
+                lettura.position((int) (lettura.position() + totale));
+                posizione += totale;
+            }
+        }
+    }
+
+    /**
+     * @brief Riscrive lo storico in blocchi di RIGHE_BLOCCO prestiti, se è frammentato in molti blocchi
+     * piccoli (es. uno per salvataggio), così che scorri() legga più prestiti per blocco.
+     * I codici dei dizionari e l'ordine dei prestiti non cambiano. Il nuovo file viene scritto su
+     * un file temporaneo e poi sostituito all'originale.
+     * @return true se lo storico è stato riscritto.
+     * @throws IOException Se si verifica un errore di lettura o scrittura; in tal caso lo storico non cambia.
+     */
+    public synchronized boolean compattaSeFrammentato() throws IOException {
+        if (numeroBlocchi <= 64 || numeroScritti / numeroBlocchi >= RIGHE_BLOCCO / 16) {
+            return false;
+        }
+        File temporaneo = new File(file.getPath() + ".tmp");
+        try (FileChannel canale = FileChannel.open(temporaneo.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            scriviTutto(canale, intestazione());
+            int[] righe = new int[RIGHE_BLOCCO * COLONNE];
+            int[] numero = {0};
+            int[] vociScritte = {0, 0}; // ISBN e matricole già scritti nel nuovo file
+            long[] blocchi = {0};
+            IOException[] errore = {null};
+            Consumer<Blocco> scrivi = b -> {
+                try {
+                    scriviTutto(canale, blocco(b.isbn.subList(vociScritte[0], b.isbn.size()),
+                            b.matricole.subList(vociScritte[1], b.matricole.size()), righe, 0, numero[0]));
+                } catch (IOException ex) {
+                    errore[0] = ex;
+                }
+                vociScritte[0] = b.isbn.size();
+                vociScritte[1] = b.matricole.size();
+                numero[0] = 0;
+                blocchi[0]++;
+            };
+            Blocco[] ultimo = {null};
+            scorri(b -> {
+                ultimo[0] = b;
+                for (int i = 0; i < b.righe; i++) {
+                    if (numero[0] == RIGHE_BLOCCO) {
+                        scrivi.accept(b);
+                    }
+                    int j = numero[0]++ * COLONNE;
+                    righe[j] = b.studente[i];
+                    righe[j + 1] = b.libro[i];
+                    righe[j + 2] = b.inizio[i];
+                    righe[j + 3] = b.scadenza[i];
+                    righe[j + 4] = b.restituzione[i];
+                }
+            });
+            if (numero[0] > 0) {
+                scrivi.accept(ultimo[0]);
+            }
+            if (errore[0] != null) {
+                throw errore[0];
+            }
+            numeroBlocchi = blocchi[0];
+        }
+        try {
+            Files.move(temporaneo.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporaneo.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    /**
+     * @brief Restituisce il codice di una stringa nel dizionario, aggiungendola se è nuova.
+     * @param[in] valore La stringa.
+     * @param[in] codici Il dizionario.
+     * @param[in] nuove Le voci nuove da scrivere nel prossimo blocco.
+     * @return Il codice.
+     */
+    private static int codice(String valore, HashMap<String, Integer> codici, List<String> nuove) {
+        Integer codice = codici.get(valore);
+        if (codice == null) {
+            codice = codici.size();
+            codici.put(valore, codice);
+            nuove.add(valore);
+        }
+        return codice;
+    }
+
+    /**
+     * @brief Converte una data in giorno epoch.
+     * @param[in] data La data.
+     * @return Il giorno epoch.
+     * @throws IllegalArgumentException Se la data è nulla o fuori dall'intervallo rappresentabile.
+     */
+    private static int giorno(LocalDate data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data del prestito assente.");
+        }
+        return Math.toIntExact(data.toEpochDay());
+    }
+
+    /**
+     * @brief Codifica un blocco: lunghezza, contenuto e CRC32.
+     * @param[in] isbn Le voci nuove del dizionario degli ISBN.
+     * @param[in] matricole Le voci nuove del dizionario delle matricole.
+     * @param[in] righe I prestiti, COLONNE int ciascuno.
+     * @param[in] da Il primo prestito del blocco.
+     * @param[in] numero Il numero di prestiti del blocco.
+     * @return Il buffer da scrivere, pronto per la lettura.
+     */
+    private static ByteBuffer blocco(List<String> isbn, List<String> matricole, int[] righe, int da, int numero) {
+        List<byte[]> voci = new ArrayList<>(isbn.size() + matricole.size());
+        int lunghezza = 2 * Integer.BYTES + Integer.BYTES + numero * COLONNE * Integer.BYTES;
+        for (String s : isbn) {
+            lunghezza += aggiungiVoce(voci, s);
+        }
+        for (String s : matricole) {
+            lunghezza += aggiungiVoce(voci, s);
+        }
+        ByteBuffer b = ByteBuffer.allocate(Integer.BYTES + lunghezza + Integer.BYTES);
+        b.putInt(lunghezza);
+        int v = 0;
+        b.putInt(isbn.size());
+        for (int i = 0; i < isbn.size(); i++, v++) {
+            b.putShort((short) voci.get(v).length).put(voci.get(v));
+        }
+        b.putInt(matricole.size());
+        for (int i = 0; i < matricole.size(); i++, v++) {
+            b.putShort((short) voci.get(v).length).put(voci.get(v));
+        }
+        b.putInt(numero);
+        for (int c = 0; c < COLONNE; c++) {
+            for (int r = da; r < da + numero; r++) {
+                b.putInt(righe[r * COLONNE + c]);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(b.array(), Integer.BYTES, lunghezza);
+        b.putInt((int) crc.getValue());
+        b.flip();
+        return b;
+    }
+
+    /**
+     * @brief Codifica una voce di dizionario in UTF-8.
+     * @param[in] voci Le voci codificate, a cui aggiungere questa.
+     * @param[in] voce La voce.
+     * @return I byte occupati dalla voce nel blocco.
+     * @throws IllegalArgumentException Se la voce supera 65535 byte.
+     */
+    private static int aggiungiVoce(List<byte[]> voci, String voce) {
+        byte[] byteVoce = voce.getBytes(StandardCharsets.UTF_8);
+        if (byteVoce.length > 0xFFFF) {
+            throw new IllegalArgumentException("Voce del dizionario troppo lunga: " + voce.length() + " caratteri.");
+        }
+        voci.add(byteVoce);
+        return Short.BYTES + byteVoce.length;
+    }
+
+    /**
+     * @brief Legge le voci di un dizionario contenute in un blocco e le aggiunge in fondo al dizionario.
+     * @param[in] b Il contenuto del blocco, posizionato sulle voci.
+     * @param[in] dizionario Il dizionario.
+     */
+    private static void leggiVoci(ByteBuffer b, List<String> dizionario) {
+        int numero = b.getInt();
+        for (int i = 0; i < numero; i++) {
+            int lunghezza = Short.toUnsignedInt(b.getShort());
+            dizionario.add(new String(b.array(), b.arrayOffset() + b.position(), lunghezza, StandardCharsets.UTF_8));
+            b.position(b.position() + lunghezza);
+        }
+    }
+
+    /**
+     * @brief Legge con accesso posizionale un blocco completo e valido.
+     * @param[in] canale Il file.
+     * @param[in] posizione La posizione del blocco.
+     * @param[in] dimensione La dimensione del file.
+     * @param[in] testa Buffer per la lunghezza del blocco.
+     * @param[in] contenuto Buffer per il contenuto (sostituito da uno più grande se necessario).
+     * @return Il contenuto del blocco (limit = lunghezza), oppure null se il blocco manca, è incompleto o danneggiato.
+     * @throws IOException Se si verifica un errore di lettura.
+     */
+    private static ByteBuffer leggiBlocco(FileChannel canale, long posizione, long dimensione, ByteBuffer testa, ByteBuffer contenuto) throws IOException {
+        if (posizione + Integer.BYTES > dimensione) {
+            return null;
+        }
+        testa.clear();
+        leggiTutto(canale, testa, posizione);
+        int lunghezza = testa.getInt(0);
+        if (lunghezza < 0 || posizione + Integer.BYTES + (long) lunghezza + Integer.BYTES > dimensione) {
+            return null;
+        }
+        if (contenuto.capacity() < lunghezza + Integer.BYTES) {
+            contenuto = ByteBuffer.allocate(lunghezza + Integer.BYTES);
+        }
+        contenuto.clear().limit(lunghezza + Integer.BYTES);
+        leggiTutto(canale, contenuto, posizione + Integer.BYTES);
+        if (!crcValido(contenuto.array(), 0, lunghezza, contenuto.getInt(lunghezza))) {
+            return null;
+        }
+        contenuto.position(0).limit(lunghezza);
+        return contenuto;
+    }
+
+    /**
+     * @brief Verifica il CRC32 del contenuto di un blocco.
+     * @param[in] dati L'array con il contenuto.
+     * @param[in] inizio La posizione del contenuto.
+     * @param[in] lunghezza La lunghezza del contenuto.
+     * @param[in] atteso Il CRC32 scritto dopo il contenuto.
+     * @return true se il CRC32 coincide.
+     */
+    private static boolean crcValido(byte[] dati, int inizio, int lunghezza, int atteso) {
+        CRC32 crc = new CRC32();
+        crc.update(dati, inizio, lunghezza);
+        return (int) crc.getValue() == atteso;
+    }
+
+    /**
+     * @brief Aggiunge al buffer di lettura i byte successivi del file, finché contiene almeno quelli richiesti.
+     * @param[in] canale Il file, posizionato dopo l'ultimo byte letto.
+     * @param[in] b Il buffer, in modalità lettura.
+     * @param[in] richiesti I byte che il buffer deve contenere.
+     * @param[in] restanti I byte del file non ancora consumati (inclusi quelli già nel buffer).
+     * @return true se il buffer contiene i byte richiesti; false se il file termina prima.
+     * @throws IOException Se si verifica un errore di lettura.
+     */
+    private static boolean riempi(FileChannel canale, ByteBuffer b, int richiesti, long restanti) throws IOException {
+        if (restanti < richiesti) {
+            return false;
+        }
+        b.compact();
+        // Non si legge oltre la dimensione del file all'inizio della lettura
+        b.limit((int) Math.min(b.capacity(), restanti));
+        while (b.position() < richiesti) {
+            if (canale.read(b) < 0) {
+                b.flip();
+                return false;
+            }
+        }
+        b.flip();
+        return true;
+    }
+
+    /**
+     * @brief Legge con accesso posizionale fino a riempire il buffer.
+     * @param[in] canale Il file.
+     * @param[in] b Il buffer da riempire.
+     * @param[in] posizione La posizione da cui leggere.
+     * @throws IOException Se il file termina prima o si verifica un errore di lettura.
+     */
+    private static void leggiTutto(FileChannel canale, ByteBuffer b, long posizione) throws IOException {
+        while (b.hasRemaining()) {
+            int letti = canale.read(b, posizione);
+            if (letti < 0) {
+                throw new IOException("Fine inattesa dello storico dei prestiti.");
+            }
+            posizione += letti;
+        }
+    }
+
+    /**
+     * @brief Scrive tutto il contenuto del buffer.
+     * @param[in] canale Il file.
+     * @param[in] b Il buffer.
+     * @throws IOException Se si verifica un errore di scrittura.
+     */
+    private static void scriviTutto(FileChannel canale, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) {
+            canale.write(b);
+        }
+    }
+
+    /**
+     * @brief Restituisce l'intestazione del file.
+     * @return Il buffer con firma e versione, pronto per la lettura.
+     */
+    private static ByteBuffer intestazione() {
+        return ByteBuffer.allocate(INTESTAZIONE).putInt(MAGIA).putInt(VERSIONE).flip();
+    }
+
+    /**
+     * @brief Verifica firma e versione e posiziona il canale dopo l'intestazione.
+     * @param[in] canale Il file.
+     * @throws IOException Se il file non è uno storico dei prestiti di una versione supportata.
+     */
+    private static void verificaIntestazione(FileChannel canale) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(INTESTAZIONE);
+        if (canale.size() < INTESTAZIONE) {
+            throw new IOException("Storico dei prestiti non valido: intestazione assente.");
+        }
+        leggiTutto(canale, b, 0);
+        if (b.getInt(0) != MAGIA) {
+            throw new IOException("Il file non è uno storico dei prestiti.");
+        }
+        if (b.getInt(Integer.BYTES) != VERSIONE) {
+            throw new IOException("Versione dello storico dei prestiti non supportata: " + b.getInt(Integer.BYTES));
+        }
+        canale.position(INTESTAZIONE);
+    }
+}
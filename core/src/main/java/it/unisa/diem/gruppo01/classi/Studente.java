@@ -17,29 +17,78 @@
  */
 package it.unisa.diem.gruppo01.classi;
 
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * @brief Rappresenta un'entità studente nel sistema bibliotecario.
  * La classe mantiene le informazioni personali dello studente, la lista 
  * dei suoi prestiti attivi e il suo stato (sanzioni, ritardi, abilitazione).
+ * La categoria della sanzione viene ricavata dalla descrizione solo quando questa cambia e il giorno
+ * di fine del blocco di Categoria 2 è conservato come campo a sé (salvato da tutti gli archivi),
+ * così che isAbilitato() sia un confronto di interi, senza analizzare stringhe né creare oggetti.
  * @invariant matricola != null La matricola identifica univocamente lo studente.
  * 
  *
  */
 public class Studente {
     
+    public static final int GIORNI_BLOCCO = 30; ///< Durata del blocco di una sanzione di Categoria 2, in giorni.
+    
     private String nome; ///< Nome dello studente.
     private String cognome; ///< Cognome dello studente.
+    private String chiaveOrdinamento; ///< Cognome normalizzato (minuscolo, senza accenti) usato per l'ordinamento nell'elenco.
     private String matricola; ///< Numero di matricola dello studente (identficativo univoco).
     private String email; ///< Indirizzo email dello studente.
     private String sanzione; ///< Descrizione della sanzione eventualmente applicata allo studente.
     private boolean ritardo; ///< Indica se lo studente è in ritardo con la restituzione di un prestito.
     private List<Prestito> prestitiAttivi; ///< Lista contenente i prestiti attivi dello studente.
-    private Prestito prestito;  ///< Variabile di supporto per verifiche sui prestiti.
+    private int categoriaSanzione; ///< Categoria della sanzione (Prestito.categoriaSanzione()), aggiornata da setSanzione().
+    private long bloccatoFinoA = Long.MIN_VALUE; ///< Giorno epoch dal quale termina il blocco di una sanzione di Categoria 2 (Long.MIN_VALUE se non c'è blocco).
+    private int modifiche; ///< Numero di modifiche ai prestiti attivi e alla sanzione (vedi getModifiche()).
+    
+    /**
+     * @brief Giorno corrente e intervallo di istanti che gli appartengono, per ottenere il giorno
+     * corrente senza creare oggetti (un nuovo Oggi viene creato solo al cambio di giorno).
+     */
+    private static final class Oggi {
+        
+        private static volatile Oggi corrente; ///< Giorno corrente, null finché non viene richiesto.
+        
+        private final long giorno; ///< Il giorno (giorno epoch) nel fuso orario di sistema.
+        private final long inizio; ///< Primo istante del giorno (millisecondi epoch).
+        private final long fine; ///< Primo istante del giorno successivo (millisecondi epoch).
+        
+        /**
+         * @brief Costruttore.
+         * @param[in] adesso L'istante corrente (millisecondi epoch).
+         */
+        private Oggi(long adesso) {
+            ZoneId zona = ZoneId.systemDefault();
+            LocalDate data = Instant.ofEpochMilli(adesso).atZone(zona).toLocalDate();
+            this.giorno = data.toEpochDay();
+            this.inizio = data.atStartOfDay(zona).toInstant().toEpochMilli();
+            this.fine = data.plusDays(1).atStartOfDay(zona).toInstant().toEpochMilli();
+        }
+        
+        /**
+         * @brief Restituisce il giorno corrente.
+         * @return Il giorno corrente (giorno epoch), come LocalDate.now().toEpochDay().
+         */
+        static long giorno() {
+            long adesso = System.currentTimeMillis();
+            Oggi oggi = corrente;
+            if (oggi == null || adesso < oggi.inizio || adesso >= oggi.fine) {
+                oggi = new Oggi(adesso);
+                corrente = oggi;
+            }
+            return oggi.giorno;
+        }
+    }
     
     /**
      * @brief Costruttore della classe
@@ -56,10 +105,11 @@ public class Studente {
     public Studente(String cognome, String nome, String matricola, String email, String sanzione, boolean ritardo){
         
         this.cognome = cognome;
+        this.chiaveOrdinamento = ChiaveOrdinamento.calcola(cognome);
         this.nome = nome;
         this.matricola = matricola;
         this.email = email;
-        this.sanzione = sanzione;
+        setSanzione(sanzione);
         this.ritardo = ritardo;
         prestitiAttivi = new ArrayList<>();
      
@@ -92,12 +142,24 @@ public class Studente {
     
     /**
      * @brief Imposta il cognome dello studente.
+     * La chiave di ordinamento viene ricalcolata solo se il cognome cambia.
      * @param[in] cognome Il nuovo cognome da impostare.
      */
     public void setCognome(String cognome){
+        if (!Objects.equals(this.cognome, cognome)) {
+            this.chiaveOrdinamento = ChiaveOrdinamento.calcola(cognome);
+        }
         this.cognome = cognome;
     }
     
+    /**
+     * @brief Restituisce la chiave di ordinamento dello studente: il cognome in minuscolo e senza accenti.
+     * @return La chiave usata da Elenco.StudentComparator.
+     */
+    public String getChiaveOrdinamento(){
+        return chiaveOrdinamento;
+    }
+    
     /**
      * @brief Restituisce la matricola dello studente.
      * @return La matricola dello studente come stringa.
@@ -144,6 +206,7 @@ public class Studente {
      */
       public void aggiungiPrestito(Prestito p){
         prestitiAttivi.add(p);
+        modifiche++;
     }
     
      /**
@@ -162,11 +225,49 @@ public class Studente {
 public String getSanzione(){ return sanzione; }
     
     /**
-     * @brief Imposta lo stato della sanzione.
+     * @brief Imposta lo stato della sanzione, aggiornando la categoria usata da isAbilitato().
+     * La fine del blocco viene conservata solo se la nuova sanzione è di Categoria 2; altrimenti viene rimossa.
      * @param[in] sanzione La descrizione della sanzione da applicare.
      */
     public void setSanzione(String sanzione){
         this.sanzione = sanzione;
+        this.categoriaSanzione = Prestito.categoriaSanzione(sanzione);
+        if (categoriaSanzione != 2) {
+            this.bloccatoFinoA = Long.MIN_VALUE;
+        }
+        modifiche++;
+    }
+    
+    /**
+     * @brief Applica una sanzione decisa nel giorno indicato (restituzione o ricalcolo delle sanzioni).
+     * Una sanzione di Categoria 2 blocca i prestiti per GIORNI_BLOCCO giorni dal giorno indicato;
+     * la descrizione della sanzione non viene modificata.
+     * @param[in] sanzione La descrizione della sanzione (Prestito.gestioneSanzioni()).
+     * @param[in] giorno Il giorno in cui la sanzione viene decisa.
+     */
+    public void applicaSanzione(String sanzione, LocalDate giorno){
+        setSanzione(sanzione);
+        if (categoriaSanzione == 2) {
+            this.bloccatoFinoA = giorno.plusDays(GIORNI_BLOCCO).toEpochDay();
+        }
+    }
+    
+    /**
+     * @brief Restituisce il giorno dal quale termina il blocco di una sanzione di Categoria 2.
+     * @return Il giorno di fine del blocco, oppure null se la sanzione non blocca per un periodo limitato.
+     */
+    public LocalDate getFineBlocco(){
+        return bloccatoFinoA == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(bloccatoFinoA);
+    }
+    
+    /**
+     * @brief Imposta il giorno dal quale termina il blocco, come letto da un archivio o copiato da un altro studente.
+     * @pre La sanzione è già stata impostata: il blocco viene ignorato se non è di Categoria 2.
+     * @param[in] fineBlocco Il giorno di fine del blocco, oppure null se non c'è blocco.
+     */
+    public void setFineBlocco(LocalDate fineBlocco){
+        this.bloccatoFinoA = fineBlocco == null || categoriaSanzione != 2 ? Long.MIN_VALUE : fineBlocco.toEpochDay();
+        modifiche++;
     }
     
     /**
@@ -195,21 +296,22 @@ public String getSanzione(){ return sanzione; }
      * Uno studente NON è abilitato se:
      * - Ha 3 o più prestiti attivi.
      * - Ha una sanzione di "Categoria 3".
-     * - Ha una sanzione di "Categoria 2" legata a un prestito scaduto da meno di 30 giorni.
+     * - Ha una sanzione di "Categoria 2" il cui blocco di GIORNI_BLOCCO giorni non è ancora terminato.
      * @return true se lo studente può effettuare prestiti, false altrimenti.
      */
     
     public boolean isAbilitato(){
-        if(this.prestitiAttivi.size()>=3)
-            return false;
-        if(this.sanzione.startsWith("Categoria 3")){
-            return false;
-        }
-        else if(this.sanzione.startsWith("Categoria 2")){
-            if(ChronoUnit.DAYS.between(prestito.getDataRestituzione(), LocalDate.now())<30)
-                return false;
-        }
-            return true;
+        return isAbilitato(Oggi.giorno());
+    }
+    
+    /**
+     * @brief Verifica se lo studente è abilitato a richiedere nuovi prestiti nel giorno indicato
+     * (vedi isAbilitato()). Costo costante: il numero di prestiti e lo stato della sanzione sono già noti.
+     * @param[in] giorno Il giorno (giorno epoch, LocalDate.toEpochDay()).
+     * @return true se lo studente può effettuare prestiti, false altrimenti.
+     */
+    public boolean isAbilitato(long giorno){
+        return prestitiAttivi.size() < Prestito.LIMITE_PRESTITI && categoriaSanzione != 3 && giorno >= bloccatoFinoA;
     }
     
     /**
@@ -219,7 +321,20 @@ public String getSanzione(){ return sanzione; }
      */
     
     public void rimuoviPrestito(Prestito p){
-        prestitiAttivi.remove(p);
+        if (prestitiAttivi.remove(p)) {
+            modifiche++;
+        }
+    }
+    
+    /**
+     * @brief Restituisce il numero di modifiche ai prestiti attivi e alla sanzione dello studente
+     * (aggiungiPrestito(), rimuoviPrestito(), setSanzione(), applicaSanzione(), setFineBlocco()).
+     * Elenco.ricalcolaSanzioni() lo usa per riconoscere gli studenti modificati durante il calcolo;
+     * le modifiche fatte direttamente sulla lista di getPrestitiAttivi() non vengono contate.
+     * @return Il numero di modifiche.
+     */
+    int getModifiche(){
+        return modifiche;
     }
     
     /**
@@ -0,0 +1,171 @@
+/**
+*@file VistaOrdinata.java
+*@brief Questo file contiene una vista SortedSet su una lista già ordinata,
+* usata per costruire in tempo lineare i TreeSet di Catalogo ed Elenco.
+*
+* @author Gruppo01
+*@version 1.0
+*/
+
+/**
+ * @brief Questo package contiene le classi relative alla gestione degli strumenti,
+ * contesto: Gestione di una biblioteca.
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * @brief Vista SortedSet in sola lettura su una lista già ordinata, senza copiarla.
+ * TreeSet.addAll() su un insieme vuoto, quando riceve un SortedSet con lo stesso comparatore,
+ * costruisce l'albero in tempo lineare invece di inserire un elemento alla volta.
+ * Le ricerche (contains, subSet, headSet, tailSet) usano la ricerca binaria sulla lista e
+ * le viste restituite sono a loro volta viste sulla stessa lista. Come per TreeSet, una vista
+ * ricorda il proprio intervallo [minimo, massimo) e rifiuta con IllegalArgumentException gli
+ * estremi che ne escono.
+ * @pre La lista è ordinata secondo il comparatore e non contiene elementi equivalenti.
+ * @param <E> Il tipo degli elementi.
+ */
+class VistaOrdinata<E> extends AbstractSet<E> implements SortedSet<E> {
+
+    private final List<E> ordinati; ///< Lista ordinata sottostante.
+    private final Comparator<? super E> ordine; ///< Comparatore secondo cui la lista è ordinata.
+    private final E minimo; ///< Estremo inferiore (incluso) della vista, null se assente.
+    private final E massimo; ///< Estremo superiore (escluso) della vista, null se assente.
+
+    /**
+     * @brief Costruttore.
+     * @param[in] ordinati Lista ordinata sottostante.
+     * @param[in] ordine Comparatore secondo cui la lista è ordinata (lo stesso del TreeSet di destinazione).
+     */
+    VistaOrdinata(List<E> ordinati, Comparator<? super E> ordine) {
+        this(Collections.unmodifiableList(ordinati), ordine, null, null);
+    }
+
+    /**
+     * @brief Costruttore delle viste su un intervallo.
+     * @param[in] ordinati Porzione della lista compresa nell'intervallo.
+     * @param[in] ordine Comparatore secondo cui la lista è ordinata.
+     * @param[in] minimo Estremo inferiore (incluso), null se assente.
+     * @param[in] massimo Estremo superiore (escluso), null se assente.
+     */
+    private VistaOrdinata(List<E> ordinati, Comparator<? super E> ordine, E minimo, E massimo) {
+        this.ordinati = ordinati;
+        this.ordine = ordine;
+        this.minimo = minimo;
+        this.massimo = massimo;
+    }
+
+    /**
+     * @brief Verifica che una lista sia ordinata in senso stretto secondo il comparatore.
+     * @param[in] lista La lista da verificare.
+     * @param[in] ordine Il comparatore.
+     * @return true se ogni elemento precede strettamente il successivo.
+     */
+    static <E> boolean ordinata(List<E> lista, Comparator<? super E> ordine) {
+        for (int i = 1; i < lista.size(); i++) {
+            if (ordine.compare(lista.get(i - 1), lista.get(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @brief Restituisce la posizione del primo elemento non precedente a quello indicato.
+     * @param[in] elemento L'elemento da cercare.
+     * @return La posizione dell'elemento, oppure quella in cui andrebbe inserito.
+     */
+    private int posizione(E elemento) {
+        int i = Collections.binarySearch(ordinati, elemento, ordine);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * @brief Verifica che un estremo richiesto cada nell'intervallo della vista.
+     * @param[in] estremo L'estremo richiesto.
+     * @param[in] ammettiMassimo true se l'estremo può coincidere con il massimo (estremo superiore
+     * di subSet e headSet), false se deve precederlo (estremo inferiore di subSet e tailSet).
+     * @throws IllegalArgumentException Se l'estremo è fuori dall'intervallo.
+     */
+    private void verificaEstremo(E estremo, boolean ammettiMassimo) {
+        if (minimo != null && ordine.compare(estremo, minimo) < 0) {
+            throw new IllegalArgumentException("Estremo precedente all'intervallo della vista.");
+        }
+        if (massimo != null) {
+            int confronto = ordine.compare(estremo, massimo);
+            if (confronto > 0 || (confronto == 0 && !ammettiMassimo)) {
+                throw new IllegalArgumentException("Estremo successivo all'intervallo della vista.");
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        try {
+            return Collections.binarySearch(ordinati, (E) o, ordine) >= 0;
+        } catch (ClassCastException | NullPointerException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return ordinati.iterator();
+    }
+
+    @Override
+    public int size() {
+        return ordinati.size();
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return ordine;
+    }
+
+    @Override
+    public E first() {
+        if (ordinati.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return ordinati.get(0);
+    }
+
+    @Override
+    public E last() {
+        if (ordinati.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return ordinati.get(ordinati.size() - 1);
+    }
+
+    @Override
+    public SortedSet<E> subSet(E da, E a) {
+        if (ordine.compare(da, a) > 0) {
+            throw new IllegalArgumentException("da > a");
+        }
+        verificaEstremo(da, false);
+        verificaEstremo(a, true);
+        return new VistaOrdinata<>(ordinati.subList(posizione(da), posizione(a)), ordine, da, a);
+    }
+
+    @Override
+    public SortedSet<E> headSet(E a) {
+        verificaEstremo(a, true);
+        return new VistaOrdinata<>(ordinati.subList(0, posizione(a)), ordine, minimo, a);
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E da) {
+        verificaEstremo(da, false);
+        return new VistaOrdinata<>(ordinati.subList(posizione(da), ordinati.size()), ordine, da, massimo);
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * @file VistaOrdinataTest.java
+ * @brief Testi unitari per la classe VistaOrdinata.
+ * * La classe è visibile solo nel package it.unisa.diem.gruppo01.classi, per questo il test
+ * risiede nello stesso package invece che in it.unisa.diem.gruppo01.test.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.classi;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * @class VistaOrdinataTest
+ * @brief Confronta VistaOrdinata con un TreeSet costruito sulla stessa lista: ogni operazione
+ * deve restituire gli stessi elementi o lanciare la stessa eccezione, anche sulle viste di viste.
+ */
+public class VistaOrdinataTest {
+
+    private static final int CHIAVE_MINIMA = -1; ///< Prima chiave provata (precede tutti gli elementi).
+    private static final int CHIAVE_MASSIMA = 11; ///< Ultima chiave provata (segue tutti gli elementi).
+
+    /**
+     * @brief Test su una lista con elementi alterni, provando chiavi presenti, assenti e fuori intervallo.
+     */
+    @Test
+    public void testConfrontoConTreeSet() {
+        System.out.println("testConfrontoConTreeSet");
+        List<Integer> lista = Arrays.asList(0, 2, 4, 6, 8, 10);
+        confronta(new TreeSet<>(lista), new VistaOrdinata<>(lista, Comparator.naturalOrder()), 2);
+    }
+
+    /**
+     * @brief Test su una lista vuota: first e last lanciano NoSuchElementException, le viste sono vuote.
+     */
+    @Test
+    public void testListaVuota() {
+        System.out.println("testListaVuota");
+        List<Integer> lista = Collections.emptyList();
+        confronta(new TreeSet<>(lista), new VistaOrdinata<>(lista, Comparator.naturalOrder()), 2);
+    }
+
+    /**
+     * @brief Test degli estremi fuori dall'intervallo di una vista.
+     */
+    @Test
+    public void testEstremiFuoriIntervallo() {
+        System.out.println("testEstremiFuoriIntervallo");
+        SortedSet<Integer> vista = new VistaOrdinata<>(Arrays.asList(0, 2, 4, 6, 8, 10), Comparator.<Integer>naturalOrder()).subSet(2, 8);
+
+        assertThrows(IllegalArgumentException.class, () -> vista.headSet(9), "headSet oltre il massimo della vista deve essere rifiutato.");
+        assertThrows(IllegalArgumentException.class, () -> vista.tailSet(1), "tailSet prima del minimo della vista deve essere rifiutato.");
+        assertThrows(IllegalArgumentException.class, () -> vista.tailSet(8), "Il massimo della vista è escluso: tailSet(8) deve essere rifiutato.");
+        assertThrows(IllegalArgumentException.class, () -> vista.subSet(4, 10));
+        assertThrows(IllegalArgumentException.class, () -> vista.subSet(6, 4), "da > a deve essere rifiutato.");
+        assertEquals(Arrays.asList(2, 4, 6), new ArrayList<>(vista.headSet(8)), "Il massimo della vista è ammesso come estremo superiore.");
+        assertFalse(vista.contains(8));
+        assertFalse(vista.contains(0));
+    }
+
+    /**
+     * @brief Test della costruzione di un TreeSet a partire dalla vista, come in Catalogo ed Elenco.
+     */
+    @Test
+    public void testCostruzioneTreeSet() {
+        System.out.println("testCostruzioneTreeSet");
+        List<Integer> lista = Arrays.asList(1, 3, 5, 7);
+        assertTrue(VistaOrdinata.ordinata(lista, Comparator.naturalOrder()));
+        assertFalse(VistaOrdinata.ordinata(Arrays.asList(1, 3, 3), Comparator.<Integer>naturalOrder()), "Elementi equivalenti non sono ammessi.");
+
+        TreeSet<Integer> albero = new TreeSet<>(Comparator.naturalOrder());
+        albero.addAll(new VistaOrdinata<>(lista, Comparator.naturalOrder()));
+        assertEquals(lista, new ArrayList<>(albero));
+    }
+
+    /**
+     * @brief Confronta un TreeSet (o una sua vista) con la vista corrispondente.
+     * @param[in] atteso Il TreeSet di riferimento.
+     * @param[in] vista La VistaOrdinata sotto test.
+     * @param[in] profondita Quanti livelli di viste di viste confrontare ancora.
+     */
+    private static void confronta(SortedSet<Integer> atteso, SortedSet<Integer> vista, int profondita) {
+        assertEquals(new ArrayList<>(atteso), new ArrayList<>(vista), "Gli elementi devono coincidere.");
+        assertEquals(atteso.size(), vista.size());
+        assertEquals(esito(atteso, SortedSet::first), esito(vista, SortedSet::first), "first() deve comportarsi come TreeSet.");
+        assertEquals(esito(atteso, SortedSet::last), esito(vista, SortedSet::last), "last() deve comportarsi come TreeSet.");
+
+        for (int da = CHIAVE_MINIMA; da <= CHIAVE_MASSIMA; da++) {
+            final int chiaveDa = da;
+            assertEquals(atteso.contains(da), vista.contains(da), "contains(" + da + ")");
+            confrontaVista(atteso, vista, s -> s.headSet(chiaveDa), "headSet(" + da + ")", profondita);
+            confrontaVista(atteso, vista, s -> s.tailSet(chiaveDa), "tailSet(" + da + ")", profondita);
+            for (int a = CHIAVE_MINIMA; a <= CHIAVE_MASSIMA; a++) {
+                final int chiaveA = a;
+                confrontaVista(atteso, vista, s -> s.subSet(chiaveDa, chiaveA), "subSet(" + da + ", " + a + ")", profondita);
+            }
+        }
+    }
+
+    /**
+     * @brief Applica la stessa operazione al TreeSet e alla vista e confronta i risultati.
+     * @param[in] atteso Il TreeSet di riferimento.
+     * @param[in] vista La VistaOrdinata sotto test.
+     * @param[in] operazione L'operazione che restituisce una vista.
+     * @param[in] descrizione Descrizione dell'operazione per i messaggi di errore.
+     * @param[in] profondita Quanti livelli di viste di viste confrontare ancora.
+     */
+    private static void confrontaVista(SortedSet<Integer> atteso, SortedSet<Integer> vista,
+            Function<SortedSet<Integer>, SortedSet<Integer>> operazione, String descrizione, int profondita) {
+        SortedSet<Integer> vistaAttesa;
+        try {
+            vistaAttesa = operazione.apply(atteso);
+        } catch (RuntimeException e) {
+            assertThrows(e.getClass(), () -> operazione.apply(vista), descrizione + " deve lanciare " + e.getClass().getSimpleName() + ".");
+            return;
+        }
+        SortedSet<Integer> ottenuta = operazione.apply(vista);
+        if (profondita > 1) {
+            confronta(vistaAttesa, ottenuta, profondita - 1);
+        } else {
+            assertEquals(new ArrayList<>(vistaAttesa), new ArrayList<>(ottenuta), descrizione);
+        }
+    }
+
+    /**
+     * @brief Restituisce il risultato di un'operazione, oppure la classe dell'eccezione lanciata.
+     * @param[in] insieme L'insieme su cui eseguire l'operazione.
+     * @param[in] operazione L'operazione.
+     * @return Il risultato o la classe dell'eccezione.
+     */
+    private static Object esito(SortedSet<Integer> insieme, Function<SortedSet<Integer>, Object> operazione) {
+        try {
+            return operazione.apply(insieme);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+}
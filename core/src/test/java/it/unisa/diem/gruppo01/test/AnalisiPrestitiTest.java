@@ -0,0 +1,212 @@
+/**
+ * @file AnalisiPrestitiTest.java
+ * @brief Classe di test per l'implementazione della classe AnalisiPrestiti.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.AnalisiPrestiti;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.StoricoPrestiti;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Classe di test per la classe AnalisiPrestiti. Lo storico è scritto in una cartella temporanea.
+ */
+public class AnalisiPrestitiTest {
+
+    private static final LocalDate DA = LocalDate.of(2025, 1, 1); ///< Primo giorno del periodo analizzato.
+    private static final LocalDate A = LocalDate.of(2025, 12, 31); ///< Ultimo giorno del periodo analizzato.
+    private static final LocalDate OGGI = LocalDate.of(2026, 1, 15); ///< Giorno dell'analisi.
+
+    private File cartella; ///< Cartella temporanea.
+    private StoricoPrestiti storico; ///< Storico dei prestiti chiusi.
+    private ForkJoinPool pool; ///< Pool del calcolo parallelo.
+    private Map<String, Libro> catalogo; ///< Libri per ISBN.
+    private Studente studente; ///< Studente dei prestiti di prova.
+
+    /**
+     * @brief Configurazione eseguita prima di ogni metodo di test.
+     * @throws IOException Se lo storico non può essere creato.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        cartella = Files.createTempDirectory("analisi").toFile();
+        storico = new StoricoPrestiti(new File(cartella, "Storico_prestiti.dat"));
+        pool = new ForkJoinPool(4);
+        catalogo = new HashMap<>();
+        studente = new Studente("Rossi", "Mario", "0612700001", "m.rossi@studenti.unisa.it", "Nessuna", false);
+    }
+
+    /**
+     * @brief Pulizia eseguita dopo ogni metodo di test.
+     */
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+        for (File f : cartella.listFiles()) {
+            f.delete();
+        }
+        cartella.delete();
+    }
+
+    /**
+     * @brief Restituisce il libro del catalogo di prova con l'ISBN indicato, creandolo se necessario.
+     * @param[in] isbn L'ISBN.
+     * @param[in] autore L'autore.
+     * @return Il libro.
+     */
+    private Libro libro(String isbn, String autore) {
+        return catalogo.computeIfAbsent(isbn, k -> new Libro(isbn, "Titolo " + isbn, autore, LocalDate.of(2000, 1, 1), 1));
+    }
+
+    /**
+     * @brief Crea un prestito.
+     * @param[in] libro Il libro.
+     * @param[in] inizio La data di inizio.
+     * @param[in] durata I giorni fino alla restituzione, oppure -1 per un prestito attivo.
+     * @return Il prestito, con scadenza dopo trenta giorni.
+     */
+    private Prestito prestito(Libro libro, LocalDate inizio, int durata) {
+        return new Prestito(libro, studente, inizio, inizio.plusDays(30), durata < 0 ? null : inizio.plusDays(durata));
+    }
+
+    /**
+     * @brief Test delle singole analisi su pochi prestiti, tra storico e prestiti attivi.
+     * @throws IOException Se lo storico non può essere letto o scritto.
+     */
+    @Test
+    public void testAnalizza() throws IOException {
+        System.out.println("testAnalizza");
+
+        Libro a = libro("1111", "Calvino");
+        Libro b = libro("2222", "Calvino");
+        Libro c = libro("3333", "Eco");
+        LocalDate lunedi = LocalDate.of(2025, 3, 3);
+        storico.accoda(prestito(a, lunedi, 10));
+        storico.accoda(prestito(a, lunedi, 40)); // in ritardo
+        storico.accoda(prestito(b, lunedi.plusDays(1), 20));
+        storico.accoda(prestito(c, LocalDate.of(2025, 4, 10), 30));
+        storico.accoda(prestito(c, LocalDate.of(2024, 12, 31), 5)); // fuori dal periodo
+        storico.scarica();
+        List<Prestito> attivi = new ArrayList<>();
+        attivi.add(prestito(c, LocalDate.of(2025, 12, 1), -1)); // attivo e scaduto al 15 gennaio
+        attivi.add(prestito(c, LocalDate.of(2025, 12, 20), -1)); // attivo e non scaduto
+        Libro nuovo = new Libro("4444", "Titolo 4444", "Levi", LocalDate.of(2000, 1, 1), 1);
+        attivi.add(prestito(nuovo, LocalDate.of(2025, 12, 20), -1)); // libro assente dallo storico e dal catalogo
+
+        AnalisiPrestiti analisi = new AnalisiPrestiti(pool);
+        AnalisiPrestiti.Rapporto r = analisi.analizza(storico, attivi, catalogo::get, DA, A, OGGI);
+        System.out.println(r);
+
+        assertEquals(7, r.getPrestiti(), "Devono essere contati solo i prestiti iniziati nel periodo.");
+        assertEquals(4, r.getPrestitiChiusi());
+        assertEquals((10 + 40 + 20 + 30) / 4.0, r.getDurataMedia(), 1e-9);
+        assertEquals(2, r.getPrestitiInRitardo());
+
+        assertEquals(12, r.getTitoliPerMese().size());
+        List<AnalisiPrestiti.TitoloPrestato> marzo = r.getTitoliPerMese().get(YearMonth.of(2025, 3));
+        assertEquals(2, marzo.size());
+        assertEquals("1111", marzo.get(0).getIsbn(), "Il titolo più prestato deve essere il primo.");
+        assertEquals(2, marzo.get(0).getPrestiti());
+        assertEquals("Titolo 1111", marzo.get(0).getTitolo());
+        assertEquals("2222", marzo.get(1).getIsbn());
+        assertTrue(r.getTitoliPerMese().get(YearMonth.of(2025, 1)).isEmpty());
+        List<AnalisiPrestiti.TitoloPrestato> dicembre = r.getTitoliPerMese().get(YearMonth.of(2025, 12));
+        assertEquals("3333", dicembre.get(0).getIsbn());
+        assertEquals("Levi", dicembre.get(1).getAutore(), "Il libro di un prestito attivo assente dal catalogo deve usare i dati del prestito.");
+
+        List<AnalisiPrestiti.RitardiAutore> autori = r.getRitardiPerAutore();
+        assertEquals(3, autori.size());
+        assertEquals("Calvino", autori.get(0).getAutore());
+        assertEquals(3, autori.get(0).getPrestiti());
+        assertEquals(1, autori.get(0).getInRitardo());
+        assertEquals("Eco", autori.get(1).getAutore());
+        assertEquals(1.0 / 3, autori.get(1).getQuota(), 1e-9);
+        assertEquals("Levi", autori.get(2).getAutore());
+        assertEquals(0, autori.get(2).getInRitardo());
+
+        assertEquals(lunedi, r.getGiorniDiPicco().get(0).getGiorno());
+        assertEquals(2, r.getGiorniDiPicco().get(0).getPrestiti());
+        assertEquals(LocalDate.of(2025, 12, 20), r.getGiorniDiPicco().get(1).getGiorno());
+        assertEquals(3, r.getPrestiti(DayOfWeek.MONDAY), "Anche il 1° dicembre 2025 è un lunedì.");
+        assertEquals(1, r.getPrestiti(DayOfWeek.TUESDAY));
+    }
+
+    /**
+     * @brief Test su un anno di prestiti di una grande università: il calcolo parallelo coincide
+     * con il calcolo sequenziale sui prestiti generati.
+     * @throws IOException Se lo storico non può essere letto o scritto.
+     */
+    @Test
+    public void testAnalisiParallela() throws IOException {
+        System.out.println("testAnalisiParallela");
+
+        Random random = new Random(25);
+        int numeroLibri = 20_000;
+        Libro[] libri = new Libro[numeroLibri];
+        for (int i = 0; i < numeroLibri; i++) {
+            libri[i] = libro(String.valueOf(978_000_000 + i), "Autore " + (i % 500));
+        }
+        int numero = 2_000_000;
+        long[] perMeseTitolo0 = new long[12];
+        long sommaDurate = 0;
+        long ritardi = 0;
+        long[] perGiornoSettimana = new long[7];
+        for (int i = 0; i < numero; i++) {
+            Libro libro = libri[(int) (numeroLibri * Math.pow(random.nextDouble(), 3))];
+            LocalDate inizio = DA.plusDays(random.nextInt(365));
+            int durata = 1 + random.nextInt(45);
+            storico.accoda(prestito(libro, inizio, durata));
+            if (libro == libri[0]) {
+                perMeseTitolo0[inizio.getMonthValue() - 1]++;
+            }
+            sommaDurate += durata;
+            if (durata > 30) {
+                ritardi++;
+            }
+            perGiornoSettimana[inizio.getDayOfWeek().getValue() - 1]++;
+        }
+        storico.scarica();
+
+        AnalisiPrestiti analisi = new AnalisiPrestiti(pool);
+        AnalisiPrestiti.Rapporto r = analisi.analizza(storico, List.of(), catalogo::get, DA, A, OGGI);
+        System.out.println("Analizzati " + r.getPrestiti() + " prestiti in " + r.getNanoTotali() / 1_000_000 + " ms");
+
+        assertEquals(numero, r.getPrestiti());
+        assertEquals(numero, r.getPrestitiChiusi());
+        assertEquals(ritardi, r.getPrestitiInRitardo());
+        assertEquals((double) sommaDurate / numero, r.getDurataMedia(), 1e-9);
+        for (DayOfWeek giorno : DayOfWeek.values()) {
+            assertEquals(perGiornoSettimana[giorno.getValue() - 1], r.getPrestiti(giorno));
+        }
+        for (int m = 0; m < 12; m++) {
+            AnalisiPrestiti.TitoloPrestato primo = r.getTitoliPerMese().get(YearMonth.of(2025, m + 1)).get(0);
+            assertEquals(libri[0].getIsbn(), primo.getIsbn(), "Il titolo più popolare deve essere primo in ogni mese.");
+            assertEquals(perMeseTitolo0[m], primo.getPrestiti());
+        }
+        long prestitiAutori = 0;
+        for (AnalisiPrestiti.RitardiAutore autore : r.getRitardiPerAutore()) {
+            prestitiAutori += autore.getPrestiti();
+        }
+        assertEquals(numero, prestitiAutori, "Ogni prestito deve essere attribuito a un autore.");
+    }
+}
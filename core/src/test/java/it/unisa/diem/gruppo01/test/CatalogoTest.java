@@ -0,0 +1,1208 @@
+/**
+ * @file CatalogoTest.java
+ * @brief Classe di test per l'implementazione della classe Catalogo.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.CartellaDati;
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.OsservatoreModifiche;
+import it.unisa.diem.gruppo01.classi.SalvataggioAutomatico;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @brief Classe di test per la classe Catalogo.
+ */
+
+public class CatalogoTest {
+    
+    // Variabili di istanza per i test
+    private Libro libro1;
+    private Libro libro2;
+    private Libro libro3;
+    private Libro libro4;
+    private Libro libro5;
+    private Libro libro6;
+    private Libro libro7;
+    private Libro libro8;
+    private Libro libro9;
+    private Libro libro10;
+
+    private final static String NOME_FILE_TEST = "Lista_Libri.csv";
+    
+    private final static String NOME_FILE_LOG = "Lista_Libri.log";
+    
+    // L'istanza Ssarà ottenuta tramite getIstanza() in setUp()
+    private Catalogo istanzaCatalogo;
+    
+    /**
+     * @brief Costruttore di default.
+     */
+    public CatalogoTest() {
+    }
+    
+    /**
+     * @brief Configurazione eseguita una sola volta prima di tutti i test.
+     * Non utilizzato in questo caso.
+     */
+    @BeforeAll
+    public static void setUpClass() {
+    }
+    
+    /**
+     * @brief Pulizia eseguita una sola volta dopo tutti i test.
+     * Tenta di eliminare il file CSV creato durante i test per garantire l'isolamento.
+     */
+    @AfterAll
+    public static void tearDownClass() {
+        // Pulizia finale del file di test
+        File file = new File(NOME_FILE_TEST);
+        if (file.exists()) {
+            file.delete();
+        }
+        new File(NOME_FILE_LOG).delete();
+    }
+    
+    /**
+     * @brief Configurazione eseguita prima di ogni metodo di test.
+     * Inizializza i dati di prova e ottiene l'istanza Singleton di Catalogo.
+     */
+    @BeforeEach
+    public void setUp() {
+        // Inizializzazione dei dati di prova
+        LocalDate data = LocalDate.of(2000, 1, 1);
+        libro1 = new Libro("1111", "Prova", "Gruppo", LocalDate.of(2025, 1, 1), 1);
+        libro2 = new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2);
+        libro3 = new Libro("8947", "Il Piccolo Principe", "Antoine de Saint-Exupéry", LocalDate.of(1943, 1, 1), 4);
+        libro4 = new Libro("8846", "Il Signore degli Anelli", "J.R.R. Tolkien", LocalDate.of(1954, 1, 1), 1);
+        libro5 = new Libro("4125", "Orgoglio e Pregiudizio", "Jane Austen", LocalDate.of(1813, 1, 1), 3);
+        libro6 = new Libro("8624", "Niente di nuovo sul fronte occidentale", "Erich Maria Remarque", LocalDate.of(1929, 1, 1), 5);
+        libro7 = new Libro("8561", "Se questo è un uomo", "Primo Levi", LocalDate.of(1947, 1, 1), 3);
+        libro8 = new Libro("4568", "Frankenstein", "Mary Shelley", LocalDate.of(1818, 1, 1), 2);
+        libro9 = new Libro("7954", "L'esorcista", "William Peter Blatty", LocalDate.of(1971, 1, 1), 7);
+        libro10 = new Libro("7012", "Critica della ragione artificiale. Una difesa dell'umanità", "Éric Sadin", LocalDate.of(2017, 1, 1), 5);
+        
+        
+        // Otteniamo l'istanza  la puliamo
+        istanzaCatalogo = Catalogo.getIstanza();
+        istanzaCatalogo.svuota();
+        
+        // Assicuriamoci che il file di persistenza non esista prima di molti test
+        new File(NOME_FILE_TEST).delete();
+        new File(NOME_FILE_LOG).delete();
+    }
+    
+    /**
+     * @brief Pulizia eseguita dopo ogni metodo di test.
+     * Non utilizzato in questo caso.
+     */
+    @AfterEach
+    public void tearDown() {
+        // Eventuale pulizia post-test
+    }
+
+    /**
+     * @brief Test del metodo getInventarioLibri(), della classe Catalogo.
+     * Verifica che il TreeSet restituito sia non nullo, inizialmente vuoto dopo setUp() e non modificabile.
+     */
+    @Test
+    public void testGetInventarioLibri() {
+        System.out.println("testGetInventarioLibri");
+        NavigableSet<Libro> result = istanzaCatalogo.getInventarioLibri();
+        assertNotNull(result, "Il TreeSet non deve essere nullo.");
+        assertTrue(result.isEmpty(), "Il TreeSet dovrebbe essere vuoto dopo setUp().");
+        assertThrows(UnsupportedOperationException.class, () -> result.add(libro1), "L'inventario restituito non deve essere modificabile.");
+    }
+
+    /**
+     * @brief Test del metodo getIstanza(), della classe Catalogo (Singleton pattern).
+     * Verifica che due chiamate al metodo restituiscano la stessa istanza.
+     */
+    @Test
+    public void testGetIstanza() {
+        System.out.println("testGetIstanza");
+        Catalogo result = Catalogo.getIstanza();
+        Catalogo result2 = Catalogo.getIstanza();
+        assertNotNull(result, "L'istanza non deve essere nulla.");
+        assertSame(result, result2, "Le istanze dovrebbero essere le stesse (Singleton).");
+    }
+
+    /**
+     * @brief Test del metodo salvaDati(), della classe Catalogo.
+     * Verifica che i dati in memoria vengano scritti correttamente sul file CSV.
+     * Nota: Testa l'effettiva creazione del file e il contenuto tramite caricaCSV().
+     */
+    @Test
+    public void testSalvaDati() {
+        System.out.println("testSalvaDati");
+        
+        istanzaCatalogo.aggiungiLibro(libro1);
+        istanzaCatalogo.aggiungiLibro(libro2);
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.aggiungiLibro(libro4);
+        istanzaCatalogo.aggiungiLibro(libro5);
+        istanzaCatalogo.aggiungiLibro(libro6);
+        istanzaCatalogo.aggiungiLibro(libro7);
+        istanzaCatalogo.aggiungiLibro(libro8);
+        istanzaCatalogo.aggiungiLibro(libro9);
+        istanzaCatalogo.aggiungiLibro(libro10);
+        
+        // Esegui il salvataggio
+        Catalogo.salvaDati();
+        
+        File file = new File(NOME_FILE_TEST);
+        assertTrue(file.exists(), "Il file CSV deve essere creato dopo salvaDati().");
+        
+        // Puliamo l'inventario in memoria per testare il caricamento
+        istanzaCatalogo.svuota();
+        
+        // Ricarichiamo per verificare che il salvataggio sia andato a buon fine
+        istanzaCatalogo.caricaCSV();
+        
+        assertEquals(10, istanzaCatalogo.getInventarioLibri().size(), "Dopo il salvataggio e ricaricamento, ci deve essere 1 libro.");
+        
+        // Pulizia
+        file.delete();
+    }
+
+    /**
+     * @brief Test del metodo aggiungiLibro(), della classe Catalogo.
+     * Verifica l'aggiunta di un nuovo libro e l'incremento delle copie per un libro esistente.
+     */
+    @Test
+    public void testAggiungiLibro() {
+        System.out.println("testAggiungiLibro");
+        
+        // Aggiunta di un nuovo libro
+       boolean aggiuntoNuovo = istanzaCatalogo.aggiungiLibro(libro2); // ISBN: 978-0743273565, Copie: 3
+    assertTrue(aggiuntoNuovo, "Dovrebbe ritornare true per un nuovo libro.");
+    assertEquals(1, istanzaCatalogo.getInventarioLibri().size(), "Ci deve essere 9 libro.");
+    
+    // Tentativo di aggiungere un libro con lo STESSO ISBN (dovrebbe incrementare le copie)
+    // Usiamo lo stesso ISBN di libro2, ma copie e dettagli diversi
+    Libro libro2b = new Libro(libro2.getIsbn(), "Titolo Nuovo", "Autore Nuovo", LocalDate.of(2010, 1, 1), 2);
+    
+    // Il metodo cercaLibroPerISBN lo troverà. Dovrebbe restituire false.
+    boolean aggiornato = istanzaCatalogo.aggiungiLibro(libro2b);
+    
+    // ASSERZIONE CORRETTA
+    assertFalse(aggiornato, "Dovrebbe ritornare false per un libro esistente."); // Risolve expected:<false> but was:<true>
+    assertEquals(1, istanzaCatalogo.getInventarioLibri().size(), "Il numero di elementi deve rimanere 9.");
+    
+    // Verifica l'incremento delle copie (2+2=4)
+    Libro libroTrovato = istanzaCatalogo.istantaneaInventario().get(0);
+    assertEquals(4, libroTrovato.getNumCopie(), "Il numero di copie deve essere incrementato (3 + 2 = 5).");
+    }
+
+    /**
+     * @brief Test del metodo incrementaCopie(), della classe Catalogo.
+     * Verifica l'incremento delle copie di un libro dato l'ISBN e la gestione del caso di libro non trovato.
+     */
+    @Test
+    public void testIncrementaCopie() {
+        System.out.println("testIncrementaCopie");
+        
+        istanzaCatalogo.aggiungiLibro(libro1); // Copie iniziali: 5
+        
+       //  Incremento riuscito
+        boolean incrementato = istanzaCatalogo.incrementaCopie(libro1.getIsbn()); // Catalogo ha 1 libro con 1 copia
+        assertTrue(incrementato, "Dovrebbe ritornare true per l'incremento riuscito."); // +1 copia
+        // Correzione: 1 + 1 = 2
+        assertEquals(2, istanzaCatalogo.istantaneaInventario().get(0).getNumCopie(), "Il numero di copie deve essere 2.");
+        
+        //  Incremento fallito (ISBN non esistente)
+        boolean nonIncrementato = istanzaCatalogo.incrementaCopie("ISBN-INESISTENTE");
+        assertFalse(nonIncrementato, "Dovrebbe ritornare false se l'ISBN non esiste.");
+        // Correzione: il valore deve rimanere 2
+        assertEquals(2, istanzaCatalogo.istantaneaInventario().get(0).getNumCopie(), "Il numero di copie deve rimanere 2.");
+    }
+
+    /**
+     * @brief Test del metodo restituisciCopia(), della classe Catalogo.
+     * Verifica che la copia restituita venga contata una sola volta, sia per un libro presente
+     * sia per un libro eliminato durante il prestito, anche con più restituzioni concorrenti.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testRestituisciCopia() throws InterruptedException {
+        System.out.println("testRestituisciCopia");
+
+        istanzaCatalogo.aggiungiLibro(libro2); // 2 copie
+        assertFalse(istanzaCatalogo.restituisciCopia(libro2), "Il libro presente non deve essere reinserito.");
+        assertEquals(3, istanzaCatalogo.cercaLibroPerISBN(libro2.getIsbn()).getNumCopie(), "La copia deve essere aggiunta una sola volta.");
+
+        // Libro eliminato durante il prestito: viene reinserito con una copia
+        Libro prestato = new Libro(libro3.getIsbn(), libro3.getTitolo(), libro3.getAutore(), libro3.getAnnoPb(), 4);
+        assertTrue(istanzaCatalogo.restituisciCopia(prestato), "Il libro assente deve essere reinserito.");
+        assertEquals(1, istanzaCatalogo.cercaLibroPerISBN(libro3.getIsbn()).getNumCopie(), "Il libro reinserito deve avere una copia.");
+        assertEquals(4, prestato.getNumCopie(), "Il libro del prestito non deve essere modificato.");
+
+        // Restituzioni concorrenti dello stesso libro eliminato: una sola reinserisce il libro
+        istanzaCatalogo.eliminaLibro(libro3.getIsbn());
+        int restituzioni = 8;
+        AtomicInteger reinserimenti = new AtomicInteger();
+        CountDownLatch partenza = new CountDownLatch(1);
+        Thread[] thread = new Thread[restituzioni];
+        for (int i = 0; i < restituzioni; i++) {
+            thread[i] = new Thread(() -> {
+                try {
+                    partenza.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (istanzaCatalogo.restituisciCopia(prestato)) {
+                    reinserimenti.incrementAndGet();
+                }
+            });
+            thread[i].start();
+        }
+        partenza.countDown();
+        for (Thread t : thread) {
+            t.join();
+        }
+        assertEquals(1, reinserimenti.get(), "Il libro deve essere reinserito una sola volta.");
+        assertEquals(restituzioni, istanzaCatalogo.cercaLibroPerISBN(libro3.getIsbn()).getNumCopie(), "Ogni copia restituita deve essere contata una sola volta.");
+    }
+
+    /**
+     * @brief Test del metodo cercaLibroPerISBN(), della classe Catalogo.
+     * Verifica che l'indice primario resti allineato all'inventario dopo aggiunte,
+     * eliminazioni, modifiche e svuotamento del catalogo.
+     */
+    @Test
+    public void testCercaLibroPerISBN() {
+        System.out.println("testCercaLibroPerISBN");
+        
+        istanzaCatalogo.aggiungiLibro(libro1);
+        istanzaCatalogo.aggiungiLibro(libro2);
+        istanzaCatalogo.aggiungiLibro(libro3);
+        
+        // Ricerca riuscita: deve restituire la stessa istanza presente nel TreeSet
+        assertSame(libro2, istanzaCatalogo.cercaLibroPerISBN(libro2.getIsbn()), "Deve restituire il libro con l'ISBN cercato.");
+        assertNull(istanzaCatalogo.cercaLibroPerISBN("ISBN-INESISTENTE"), "Deve restituire null per un ISBN non presente.");
+        
+        // Dopo l'eliminazione il libro non deve essere più trovato
+        istanzaCatalogo.eliminaLibro(libro1.getIsbn());
+        assertNull(istanzaCatalogo.cercaLibroPerISBN(libro1.getIsbn()), "Il libro eliminato non deve essere trovato.");
+        
+        // Il cambio di titolo riordina il TreeSet ma non altera l'indice
+        istanzaCatalogo.modificaLibro(libro3.getIsbn(), "Zoro: L'inizio", libro3.getAutore(), libro3.getAnnoPb(), 4);
+        assertSame(libro3, istanzaCatalogo.cercaLibroPerISBN(libro3.getIsbn()), "Il libro modificato deve essere ancora indicizzato.");
+        
+        // Svuotamento del catalogo: anche l'indice deve essere svuotato
+        istanzaCatalogo.svuota();
+        assertNull(istanzaCatalogo.cercaLibroPerISBN(libro2.getIsbn()), "Dopo svuota() nessun libro deve essere trovato.");
+        assertTrue(istanzaCatalogo.aggiungiLibro(libro2), "Il libro deve poter essere aggiunto di nuovo dopo svuota().");
+    }
+
+    /**
+     * @brief Test del metodo cercaLibriPerTitoloAutore(): corrispondenza esatta senza distinzione
+     * tra maiuscole e minuscole, più edizioni con lo stesso titolo e autore, allineamento dell'indice
+     * dopo modifiche, eliminazioni e ricaricamento.
+     */
+    @Test
+    public void testCercaLibriPerTitoloAutore() {
+        System.out.println("testCercaLibriPerTitoloAutore");
+        
+        Libro edizione1 = new Libro("9788800000002", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 0);
+        Libro edizione2 = new Libro("9788800000001", "IL NOME DELLA ROSA", "umberto eco", LocalDate.of(2012, 1, 1), 2);
+        Libro altroAutore = new Libro("9788800000003", "Il Nome della Rosa", "Altro Autore", LocalDate.of(2000, 1, 1), 1);
+        istanzaCatalogo.aggiungiLibro(edizione1);
+        istanzaCatalogo.aggiungiLibro(edizione2);
+        istanzaCatalogo.aggiungiLibro(altroAutore);
+        
+        List<Libro> edizioni = istanzaCatalogo.cercaLibriPerTitoloAutore("il nome della rosa", "UMBERTO ECO");
+        assertEquals(2, edizioni.size(), "Devono essere trovate entrambe le edizioni.");
+        assertSame(edizione2, edizioni.get(0), "Le edizioni devono essere ordinate per ISBN.");
+        assertSame(edizione1, edizioni.get(1));
+        assertTrue(istanzaCatalogo.cercaLibriPerTitoloAutore("Il Nome della", "Umberto Eco").isEmpty(), "La ricerca deve essere esatta, non per sottostringa.");
+        assertThrows(UnsupportedOperationException.class, () -> edizioni.clear(), "Il risultato non deve essere modificabile.");
+        
+        // Modifica dell'autore: il libro passa sotto la nuova chiave
+        istanzaCatalogo.modificaLibro(edizione1.getIsbn(), edizione1.getTitolo(), "Altro Autore", edizione1.getAnnoPb(), 0);
+        assertEquals(1, istanzaCatalogo.cercaLibriPerTitoloAutore("Il Nome della Rosa", "Umberto Eco").size(), "Il libro modificato non deve comparire sotto il vecchio autore.");
+        assertEquals(2, istanzaCatalogo.cercaLibriPerTitoloAutore("Il Nome della Rosa", "Altro Autore").size(), "Il libro modificato deve comparire sotto il nuovo autore.");
+        
+        // Eliminazione
+        istanzaCatalogo.eliminaLibro(edizione2.getIsbn());
+        assertTrue(istanzaCatalogo.cercaLibriPerTitoloAutore("Il Nome della Rosa", "Umberto Eco").isEmpty(), "Il libro eliminato non deve essere trovato.");
+        
+        // Ricaricamento dal CSV e svuotamento del catalogo
+        istanzaCatalogo.salvaCSV();
+        istanzaCatalogo.caricaCSV();
+        assertEquals(2, istanzaCatalogo.cercaLibriPerTitoloAutore("il nome della rosa", "altro autore").size(), "L'indice deve essere ricostruito dal caricamento.");
+        istanzaCatalogo.svuota();
+        assertTrue(istanzaCatalogo.cercaLibriPerTitoloAutore("Il Nome della Rosa", "Altro Autore").isEmpty(), "Dopo svuota() nessun libro deve essere trovato.");
+    }
+    
+    /**
+     * @brief Test delle notifiche agli osservatori: ogni modifica produce un solo evento del tipo
+     * corrispondente, con la copia precedente per i cambi di titolo, e il caricamento un evento ricaricato.
+     */
+    @Test
+    public void testOsservatori() {
+        System.out.println("testOsservatori");
+        
+        List<String> eventi = new ArrayList<>();
+        OsservatoreModifiche<Libro> osservatore = new OsservatoreModifiche<Libro>() {
+            @Override
+            public void aggiunto(Libro l) {
+                eventi.add("aggiunto " + l.getIsbn());
+            }
+            @Override
+            public void rimosso(Libro l) {
+                eventi.add("rimosso " + l.getIsbn());
+            }
+            @Override
+            public void aggiornato(Libro l) {
+                eventi.add("aggiornato " + l.getIsbn() + " " + l.getNumCopie());
+            }
+            @Override
+            public void spostato(Libro l, Libro precedente) {
+                eventi.add("spostato " + l.getIsbn() + " da " + precedente.getTitolo() + " a " + l.getTitolo());
+            }
+            @Override
+            public void ricaricato() {
+                eventi.add("ricaricato");
+            }
+        };
+        istanzaCatalogo.aggiungiOsservatore(osservatore);
+        
+        istanzaCatalogo.aggiungiLibro(new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2));
+        istanzaCatalogo.aggiungiLibro(new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 1));
+        istanzaCatalogo.decrementaCopie("1462");
+        istanzaCatalogo.incrementaCopie("1462");
+        istanzaCatalogo.modificaLibro("1462", "Il Nome della Rosa", "U. Eco", LocalDate.of(1980, 1, 1), 5);
+        istanzaCatalogo.modificaLibro("1462", "Nome della Rosa", "U. Eco", LocalDate.of(1980, 1, 1), 5);
+        istanzaCatalogo.eliminaLibro("1462");
+        istanzaCatalogo.eliminaLibro("1462");
+        istanzaCatalogo.caricaCSV();
+        
+        List<String> attesi = new ArrayList<>();
+        attesi.add("aggiunto 1462");
+        attesi.add("aggiornato 1462 3");
+        attesi.add("aggiornato 1462 2");
+        attesi.add("aggiornato 1462 3");
+        attesi.add("aggiornato 1462 5");
+        attesi.add("spostato 1462 da Il Nome della Rosa a Nome della Rosa");
+        attesi.add("rimosso 1462");
+        attesi.add("ricaricato");
+        assertEquals(attesi, eventi, "Ogni modifica riuscita deve produrre un solo evento, nell'ordine delle modifiche.");
+        
+        istanzaCatalogo.rimuoviOsservatore(osservatore);
+        istanzaCatalogo.aggiungiLibro(libro1);
+        assertEquals(attesi.size(), eventi.size(), "Un osservatore rimosso non deve ricevere eventi.");
+    }
+    
+    /**
+     * @brief Test del metodo cercaLibri(), della classe Catalogo.
+     * Confronta i risultati dell'indice a trigrammi con una scansione completa
+     * del catalogo, anche dopo modifiche ed eliminazioni.
+     */
+    @Test
+    public void testCercaLibri() {
+        System.out.println("testCercaLibri");
+        
+        istanzaCatalogo.aggiungiLibro(libro1);
+        istanzaCatalogo.aggiungiLibro(libro2);
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.aggiungiLibro(libro4);
+        istanzaCatalogo.aggiungiLibro(libro5);
+        istanzaCatalogo.aggiungiLibro(libro6);
+        istanzaCatalogo.aggiungiLibro(libro7);
+        istanzaCatalogo.aggiungiLibro(libro8);
+        istanzaCatalogo.aggiungiLibro(libro9);
+        istanzaCatalogo.aggiungiLibro(libro10);
+        
+        String[][] ricerche = {
+            {"il ", "", ""}, {"IL", "", ""}, {"", "eco", ""}, {"", "", "84"}, {"", "", "8947"},
+            {"signore", "tolkien", ""}, {"ragione", "", "7012"}, {"rosa", "levi", ""}, {"xyz", "", ""}
+        };
+        for (String[] r : ricerche) {
+            assertEquals(scansione(r[0], r[1], r[2]), istanzaCatalogo.cercaLibri(r[0], r[1], r[2]), "Ricerca " + String.join("|", r));
+        }
+        assertEquals(3, istanzaCatalogo.cercaLibri("il ", "", "").size(), "Tre titoli contengono 'il '.");
+        
+        // Dopo la modifica del titolo la vecchia chiave non deve più trovare il libro
+        istanzaCatalogo.modificaLibro(libro2.getIsbn(), "Zoro: L'inizio", libro2.getAutore(), libro2.getAnnoPb(), 2);
+        assertTrue(istanzaCatalogo.cercaLibri("della rosa", "", "").isEmpty(), "Il vecchio titolo non deve essere trovato.");
+        assertEquals(1, istanzaCatalogo.cercaLibri("zoro", "eco", "").size(), "Il nuovo titolo deve essere trovato.");
+        
+        // Dopo l'eliminazione il libro non deve comparire tra i risultati
+        istanzaCatalogo.eliminaLibro(libro4.getIsbn());
+        assertTrue(istanzaCatalogo.cercaLibri("anelli", "", "").isEmpty(), "Il libro eliminato non deve essere trovato.");
+        for (String[] r : ricerche) {
+            assertEquals(scansione(r[0], r[1], r[2]), istanzaCatalogo.cercaLibri(r[0], r[1], r[2]), "Ricerca " + String.join("|", r));
+        }
+    }
+    
+    /**
+     * @brief Ricerca di riferimento tramite scansione completa dell'inventario.
+     */
+    private List<Libro> scansione(String titolo, String autore, String isbn) {
+        List<Libro> risultati = new ArrayList<>();
+        for (Libro l : istanzaCatalogo.getInventarioLibri()) {
+            if (l.getTitolo().toLowerCase().contains(titolo.toLowerCase())
+                    && l.getAutore().toLowerCase().contains(autore.toLowerCase())
+                    && l.getIsbn().toLowerCase().contains(isbn.toLowerCase())) {
+                risultati.add(l);
+            }
+        }
+        return risultati;
+    }
+
+    /**
+     * @brief Test del metodo eliminaLibro(), della classe Catalogo.
+     * Verifica la corretta eliminazione di un libro e la gestione del caso in cui non venga trovato.
+     */
+    @Test
+    public void testEliminaLibro() {
+        System.out.println("testEliminaLibro");
+        
+        istanzaCatalogo.aggiungiLibro(libro1);
+        istanzaCatalogo.aggiungiLibro(libro2);
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.aggiungiLibro(libro4);
+        istanzaCatalogo.aggiungiLibro(libro5);
+        istanzaCatalogo.aggiungiLibro(libro6);
+        istanzaCatalogo.aggiungiLibro(libro7);
+        istanzaCatalogo.aggiungiLibro(libro8);
+        istanzaCatalogo.aggiungiLibro(libro9);
+        istanzaCatalogo.aggiungiLibro(libro10);
+
+        assertEquals(10, istanzaCatalogo.getInventarioLibri().size(), "Dovrebbero esserci 10 libri.");
+        
+        //  Eliminazione riuscita
+        boolean eliminato = istanzaCatalogo.eliminaLibro(libro1.getIsbn());
+        assertTrue(eliminato, "Dovrebbe ritornare true per l'eliminazione riuscita.");
+        assertEquals(9, istanzaCatalogo.getInventarioLibri().size(), "Dovrebbe esserci 1 libro rimasto.");
+        
+        //  Eliminazione fallita (ISBN non esistente)
+        boolean nonEliminato = istanzaCatalogo.eliminaLibro("ISBN-INESISTENTE");
+        assertFalse(nonEliminato, "Dovrebbe ritornare false se l'ISBN non esiste.");
+        assertEquals(9, istanzaCatalogo.getInventarioLibri().size(), "Il numero di libri deve rimanere 1.");
+    }
+
+   
+   /**
+     * @brief Test del metodo modificaLibro(), della classe Catalogo.
+     * Verifica la modifica dei dettagli di un libro, la gestione del riordinamento nel TreeSet e la
+     * non-modifica dell'ordinamento quando si aggiornano solo campi non chiave (es. copie).
+     */
+    @Test
+    public void testModificaLibro() {
+        System.out.println("testModificaLibro");
+        
+        // Aggiungo i libri in un ordine noto per controllare l'ordinamento (libro2 viene prima di libro1 per titolo)
+        istanzaCatalogo.aggiungiLibro(libro1); 
+        istanzaCatalogo.aggiungiLibro(libro2); 
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.aggiungiLibro(libro4);
+        istanzaCatalogo.aggiungiLibro(libro5);
+        istanzaCatalogo.aggiungiLibro(libro6);
+        istanzaCatalogo.aggiungiLibro(libro7);
+        istanzaCatalogo.aggiungiLibro(libro8);
+        istanzaCatalogo.aggiungiLibro(libro9);
+        istanzaCatalogo.aggiungiLibro(libro10);
+       
+        assertEquals(libro10.getTitolo(), istanzaCatalogo.istantaneaInventario().get(0).getTitolo());
+        
+        //  Modifica riuscita SENZA cambiare il titolo o l'autore (non si altera l'ordinamento)
+        LocalDate nuovaData = LocalDate.of(2010, 1, 1);
+        String isbnLibro2 = libro2.getIsbn();
+        
+        // Modifico solo copie e anno di pubblicazione per libro2 ("Il Nome della Rosa")
+        boolean modificatoSoloDati = istanzaCatalogo.modificaLibro(isbnLibro2, libro2.getTitolo(), libro2.getAutore(), nuovaData, 10);
+        assertTrue(modificatoSoloDati, "La modifica di sole copie/anno dovrebbe riuscire.");
+        
+        // Trova libro2 in base al suo ISBN per asserire sui suoi campi modificati
+        Libro libroModificato = null;
+        for (Libro l : istanzaCatalogo.istantaneaInventario()) {
+            if (l.getIsbn().equals(isbnLibro2)) {
+                libroModificato = l;
+                break;
+            }
+        }
+        assertNotNull(libroModificato, "Il libro modificato deve esistere.");
+        
+        assertEquals(10, libroModificato.getNumCopie(), "Il numero di copie deve essere aggiornato a 10.");
+        assertEquals(nuovaData, libroModificato.getAnnoPb(), "L'anno di pubblicazione deve essere aggiornato.");
+        
+        // VERIFICA: L'ordinamento deve essere rimasto invariato (libro10 in posizione 0)
+        assertEquals(libro10.getTitolo(), istanzaCatalogo.istantaneaInventario().get(0).getTitolo(), "Il libro con il titolo minore deve rimanere in posizione 0.");
+        assertEquals(10, istanzaCatalogo.getInventarioLibri().size(), "Il numero di libri non deve cambiare.");
+
+        // 2. Modifica con CAMBIO titolo (forza il riordinamento: da "Il Nome della Rosa" a "Zoro...")
+        String nuovoTitolo = "Zoro: L'inizio";
+        
+        istanzaCatalogo.modificaLibro(isbnLibro2, nuovoTitolo, libroModificato.getAutore(), nuovaData, 10);
+        
+        // VERIFICA: Ora libro2 ("Zoro: L'inizio") è l'ultimo. Il libro10 ("Critica...") è il primo.
+        Libro libroRimodificato = null;
+        for (Libro l : istanzaCatalogo.istantaneaInventario()) {
+            if (l.getIsbn().equals(isbnLibro2)) {
+                libroRimodificato = l;
+                break;
+            }
+        }
+        
+        assertEquals(nuovoTitolo, libroRimodificato.getTitolo(), "Il titolo deve essere aggiornato.");
+        assertEquals(libro10.getTitolo(), istanzaCatalogo.istantaneaInventario().get(0).getTitolo(), "Il libro con il titolo minore deve essere il primo.");
+
+        //Controllo che la dimensione sia ancora 10
+    assertEquals(10, istanzaCatalogo.getInventarioLibri().size(), "Il numero di libri deve rimanere 10 dopo il riordinamento.");
+    
+        // Modifica fallita (ISBN non esistente)
+        boolean nonModificato = istanzaCatalogo.modificaLibro("ISBN-INESISTENTE", "Titolo Fittizio", "Autore Fittizio", nuovaData, 5);
+        assertFalse(nonModificato, "Dovrebbe ritornare false se l'ISBN non esiste.");
+        
+        //  Test con eccezione (nuoveCopie negative)
+        assertThrows(IllegalArgumentException.class, () -> {
+            istanzaCatalogo.modificaLibro(libro1.getIsbn(), "Titolo", "Autore", nuovaData, -1);
+        }, "Dovrebbe lanciare IllegalArgumentException per copie negative.");
+    }
+
+    /**
+     * @brief Test dell'ordinamento dei titoli accentati, della classe Catalogo.
+     * Verifica che le lettere accentate vengano ordinate insieme alle lettere base
+     * e che la modifica del titolo riposizioni il libro.
+     */
+    @Test
+    public void testOrdinamentoAccentato() {
+        System.out.println("testOrdinamentoAccentato");
+        LocalDate anno = LocalDate.of(2000, 1, 1);
+        Catalogo catalogo = new Catalogo();
+        catalogo.aggiungiLibro(new Libro("1", "zanna bianca", "Jack London", anno, 1));
+        catalogo.aggiungiLibro(new Libro("2", "Èden", "Stanisław Lem", anno, 1));
+        catalogo.aggiungiLibro(new Libro("3", "Dune", "Frank Herbert", anno, 1));
+        
+        List<Libro> ordinati = catalogo.istantaneaInventario();
+        assertEquals("Dune", ordinati.get(0).getTitolo(), "\"Dune\" deve precedere \"Èden\".");
+        assertEquals("Èden", ordinati.get(1).getTitolo(), "La È deve essere ordinata come la E.");
+        assertEquals("zanna bianca", ordinati.get(2).getTitolo(), "Le minuscole non devono essere ordinate dopo le maiuscole.");
+        
+        // Cambiando solo l'autore la posizione non cambia; cambiando il titolo il libro viene riposizionato
+        assertTrue(catalogo.modificaLibro("2", "Èden", "S. Lem", anno, 1));
+        assertEquals("2", catalogo.istantaneaInventario().get(1).getIsbn(), "La modifica dell'autore non deve spostare il libro.");
+        assertTrue(catalogo.modificaLibro("2", "Abbazia", "S. Lem", anno, 1));
+        assertEquals("2", catalogo.istantaneaInventario().get(0).getIsbn(), "Il nuovo titolo deve riposizionare il libro.");
+        assertSame(catalogo.cercaLibroPerISBN("2"), catalogo.cercaLibri("abbazia", "", "").get(0), "Il libro modificato deve essere trovato dalla ricerca.");
+    }
+
+    /**
+     * @brief Test del metodo istantaneaInventario(), della classe Catalogo.
+     * Verifica che la copia restituita contenga tutti gli elementi del TreeSet.
+     */
+    @Test
+    public void testIstantaneaInventario() {
+        System.out.println("testIstantaneaInventario");
+        
+        istanzaCatalogo.aggiungiLibro(libro1);
+        istanzaCatalogo.aggiungiLibro(libro2);
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.aggiungiLibro(libro4);
+        istanzaCatalogo.aggiungiLibro(libro5);
+        istanzaCatalogo.aggiungiLibro(libro6);
+        istanzaCatalogo.aggiungiLibro(libro7);
+        istanzaCatalogo.aggiungiLibro(libro8);
+        istanzaCatalogo.aggiungiLibro(libro9);
+        istanzaCatalogo.aggiungiLibro(libro10);
+
+        
+        List<Libro> result = istanzaCatalogo.istantaneaInventario();
+        
+        assertNotNull(result, "La lista non deve essere nulla.");
+        assertEquals(10, result.size(), "La lista deve contenere 10 elementi.");
+        assertTrue(result.contains(libro1), "La lista deve contenere libro1.");
+        assertTrue(result.contains(libro2), "La lista deve contenere libro2.");
+        assertTrue(result.contains(libro3), "La lista deve contenere libro3.");
+       assertTrue(result.contains(libro4), "La lista deve contenere libro4.");
+       assertTrue(result.contains(libro5), "La lista deve contenere libro5.");
+       assertTrue(result.contains(libro6), "La lista deve contenere libro6.");
+       assertTrue(result.contains(libro7), "La lista deve contenere libro7.");
+       assertTrue(result.contains(libro8), "La lista deve contenere libro8.");
+       assertTrue(result.contains(libro9), "La lista deve contenere libro9.");
+       assertTrue(result.contains(libro10), "La lista deve contenere libro10.");
+
+    }
+
+    /**
+     * @brief Test del metodo salvaCSV(), della classe Catalogo.
+     * Verifica l'effettiva creazione del file CSV.
+     */
+    @Test
+    public void testSalvaCSV() {
+        System.out.println("testSalvaCSV");
+        
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.salvaCSV();
+        
+        File file = new File(NOME_FILE_TEST);
+        assertTrue(file.exists(), "Il file CSV deve esistere dopo salvaCSV().");
+        
+        // Pulizia
+        file.delete();
+    }
+
+    /**
+     * @brief Test del metodo caricaCSV(), della classe Catalogo.
+     * Verifica il caricamento dei dati da un file CSV esistente e la gestione del file non trovato.
+     */
+    @Test
+    public void testCaricaCSV() {
+        System.out.println("testCaricaCSV");
+        
+        File file = new File(NOME_FILE_TEST);
+        
+        //  Test di caricamento da file non esistente
+        istanzaCatalogo.caricaCSV();
+        assertTrue(istanzaCatalogo.getInventarioLibri().isEmpty(), "Il catalogo deve essere vuoto se il file non esiste.");
+        
+        //  Creiamo e salviamo un file di prova
+        istanzaCatalogo.aggiungiLibro(libro1); // 1 libro
+        istanzaCatalogo.aggiungiLibro(libro2);
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.aggiungiLibro(libro4);
+        istanzaCatalogo.aggiungiLibro(libro5);
+        istanzaCatalogo.aggiungiLibro(libro6);
+        istanzaCatalogo.aggiungiLibro(libro7);
+        istanzaCatalogo.aggiungiLibro(libro8);
+        istanzaCatalogo.aggiungiLibro(libro9);
+        istanzaCatalogo.aggiungiLibro(libro10);
+
+        istanzaCatalogo.salvaCSV();
+        istanzaCatalogo.svuota();
+        assertTrue(istanzaCatalogo.getInventarioLibri().isEmpty(), "Il catalogo è stato pulito prima del caricamento.");
+        
+        // Test di caricamento da file esistente
+        istanzaCatalogo.caricaCSV();
+        assertEquals(10, istanzaCatalogo.getInventarioLibri().size(), "Il catalogo deve contenere 10 libro dopo il caricamento.");
+        
+        // Pulizia
+        file.delete();
+    }
+
+    /**
+     * @brief Test del metodo caricaCSVParallelo(), della classe Catalogo.
+     * Verifica che l'importazione parallela produca lo stesso catalogo e gli stessi messaggi
+     * di errore del caricamento sequenziale, qualunque sia il numero di thread.
+     * @throws IOException Se il file di prova non può essere scritto.
+     */
+    @Test
+    public void testCaricaCSVParallelo() throws IOException {
+        System.out.println("testCaricaCSVParallelo");
+        
+        // File di prova con ISBN duplicati (anche a grande distanza), righe malformate e terminatori misti
+        Random random = new Random(7);
+        try (PrintWriter pw = new PrintWriter(new FileWriter(NOME_FILE_TEST))) {
+            pw.print("Elenco Libri\r\n");
+            pw.print("Titolo;Autore;ISBN;Anno pb;Num_Copie\r\n");
+            for (int i = 0; i < 30000; i++) {
+                int isbn = random.nextInt(20000);
+                String terminatore = i % 3 == 0 ? "\r\n" : (i % 7 == 0 ? "\r" : "\n");
+                switch (i % 101) {
+                    case 0:
+                        pw.print("Copie non valide " + i + ";Autore;" + isbn + ";2000;molte" + terminatore);
+                        break;
+                    case 1:
+                        pw.print("Campi insufficienti;" + isbn + terminatore);
+                        break;
+                    case 2:
+                        pw.print(terminatore);
+                        break;
+                    default:
+                        pw.print("Titolo " + random.nextInt(5000) + ";Autore " + (i % 50) + ";" + isbn + ";" + (1900 + i % 100) + ";" + random.nextInt(4) + terminatore);
+                }
+            }
+        }
+        
+        Catalogo sequenziale = new Catalogo();
+        String avvisiSequenziali = erroriDi(() -> sequenziale.caricaCSV());
+        List<String> atteso = descrivi(sequenziale);
+        assertTrue(atteso.size() > 10000, "Il file di prova deve contenere molti libri distinti.");
+        
+        for (int thread : new int[]{1, 3, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(thread);
+            try {
+                Catalogo parallelo = new Catalogo();
+                String avvisiParalleli = erroriDi(() -> parallelo.caricaCSVParallelo(pool));
+                
+                assertEquals(atteso, descrivi(parallelo), "Con " + thread + " thread il catalogo deve coincidere con quello sequenziale.");
+                assertEquals(avvisiSequenziali, avvisiParalleli, "Con " + thread + " thread le righe scartate devono essere le stesse, nello stesso ordine.");
+                for (Libro libro : parallelo.getInventarioLibri()) {
+                    assertSame(libro, parallelo.cercaLibroPerISBN(libro.getIsbn()), "L'indice ISBN deve puntare ai libri del TreeSet.");
+                }
+                assertEquals(sequenziale.cercaLibri("olo 12", "", "").size(), parallelo.cercaLibri("olo 12", "", "").size(),
+                        "L'indice a trigrammi deve essere allineato.");
+            } finally {
+                pool.shutdown();
+            }
+        }
+        
+        // Pulizia
+        new File(NOME_FILE_TEST).delete();
+    }
+
+    /**
+     * @brief Test di caricaCSV() e caricaCSVParallelo() su un file con ISBN duplicati.
+     * Verifica che per ogni ISBN valga la prima riga e che le successive vengano segnalate e ignorate.
+     * @throws IOException Se il file di prova non può essere scritto.
+     */
+    @Test
+    public void testCaricaCSVDuplicati() throws IOException {
+        System.out.println("testCaricaCSVDuplicati");
+
+        try (PrintWriter pw = new PrintWriter(new FileWriter(NOME_FILE_TEST))) {
+            pw.println("Elenco Libri");
+            pw.println("Titolo;Autore;ISBN;Anno pb;Num_Copie");
+            pw.println("Il Nome della Rosa;Umberto Eco;1462;1980;2");
+            pw.println("Frankenstein;Mary Shelley;4568;1818;2");
+            pw.println("Copia errata;Umberto Eco;1462;1981;5");
+        }
+
+        Catalogo sequenziale = new Catalogo();
+        String avvisi = erroriDi(() -> sequenziale.caricaCSV());
+        assertEquals(2, sequenziale.getInventarioLibri().size(), "Il libro duplicato non deve essere inserito due volte.");
+        Libro primo = sequenziale.cercaLibroPerISBN("1462");
+        assertEquals("Il Nome della Rosa", primo.getTitolo(), "Deve valere la prima riga dell'ISBN.");
+        assertEquals(2, primo.getNumCopie(), "Le copie della riga duplicata non devono essere sommate.");
+        assertTrue(avvisi.contains("ignorata (ISBN 1462"), "La riga duplicata deve essere segnalata.");
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Catalogo parallelo = new Catalogo();
+            assertEquals(avvisi, erroriDi(() -> parallelo.caricaCSVParallelo(pool)), "Il caricamento parallelo deve segnalare la stessa riga.");
+            assertEquals(descrivi(sequenziale), descrivi(parallelo), "Il caricamento parallelo deve tenere la stessa riga.");
+        } finally {
+            pool.shutdown();
+        }
+
+        // Pulizia
+        new File(NOME_FILE_TEST).delete();
+    }
+
+    /**
+     * @brief Descrive tutti i libri del catalogo, nell'ordine del TreeSet.
+     * @param[in] catalogo Il catalogo.
+     * @return Una descrizione per libro con tutti i campi.
+     */
+    private static List<String> descrivi(Catalogo catalogo) {
+        List<String> descrizioni = new ArrayList<>();
+        for (Libro libro : catalogo.getInventarioLibri()) {
+            descrizioni.add(libro.getIsbn() + "|" + libro.getTitolo() + "|" + libro.getAutore() + "|" + libro.getAnnoPb() + "|" + libro.getNumCopie());
+        }
+        return descrizioni;
+    }
+    
+    /**
+     * @brief Esegue un'azione catturando ciò che scrive su System.err.
+     * @param[in] azione L'azione da eseguire.
+     * @return Il testo scritto su System.err.
+     */
+    private static String erroriDi(Runnable azione) {
+        PrintStream originale = System.err;
+        ByteArrayOutputStream catturato = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(catturato, true));
+        try {
+            azione.run();
+        } finally {
+            System.setErr(originale);
+        }
+        return catturato.toString();
+    }
+
+    /**
+     * @brief Test della modalità journaling della classe Catalogo.
+     * Verifica che le modifiche vengano accodate al registro, che il caricamento
+     * le riapplichi sopra lo snapshot CSV e che salvaCSV() compatti il registro.
+     */
+    @Test
+    public void testRegistroModifiche() {
+        System.out.println("testRegistroModifiche");
+        
+        File csv = new File(NOME_FILE_TEST);
+        File log = new File(NOME_FILE_LOG);
+        
+        // Snapshot iniziale con due libri
+        Catalogo catalogo = new Catalogo();
+        catalogo.aggiungiLibro(libro2);
+        catalogo.aggiungiLibro(libro3);
+        catalogo.salvaCSV();
+        assertFalse(log.exists(), "Senza modifiche successive allo snapshot il registro non deve esistere.");
+        
+        // Modifiche registrate dopo lo snapshot
+        catalogo.setJournaling(true);
+        catalogo.aggiungiLibro(libro5);
+        catalogo.incrementaCopie(libro2.getIsbn());
+        assertTrue(catalogo.decrementaCopie(libro3.getIsbn()), "Il decremento di un libro disponibile deve riuscire.");
+        catalogo.modificaLibro(libro5.getIsbn(), "Ragione e Sentimento", "Jane Austen", LocalDate.of(1811, 1, 1), 6);
+        catalogo.eliminaLibro(libro2.getIsbn());
+        catalogo.salvaModifiche();
+        assertTrue(log.exists(), "Le modifiche devono essere accodate al registro.");
+        
+        // Un nuovo catalogo caricato da snapshot + registro deve riprodurre lo stato
+        Catalogo ricaricato = new Catalogo();
+        ricaricato.caricaCSV();
+        assertEquals(2, ricaricato.getInventarioLibri().size(), "Il catalogo ricaricato deve contenere 2 libri.");
+        assertNull(ricaricato.cercaLibroPerISBN(libro2.getIsbn()), "Il libro eliminato non deve essere presente.");
+        assertEquals(3, ricaricato.cercaLibroPerISBN(libro3.getIsbn()).getNumCopie(), "Il decremento deve essere riapplicato.");
+        Libro modificato = ricaricato.cercaLibroPerISBN(libro5.getIsbn());
+        assertEquals("Ragione e Sentimento", modificato.getTitolo(), "La modifica del titolo deve essere riapplicata.");
+        assertEquals(6, modificato.getNumCopie(), "La modifica delle copie deve essere riapplicata.");
+        assertEquals(1, ricaricato.cercaLibri("sentimento", "", "").size(), "Gli indici devono riflettere le modifiche riapplicate.");
+        
+        // Lo snapshot completo compatta il registro
+        catalogo.salvaCSV();
+        assertFalse(log.exists(), "Dopo salvaCSV() il registro deve essere svuotato.");
+        
+        // Superata la soglia il registro viene compattato automaticamente
+        for (int i = 0; i < Catalogo.SOGLIA_COMPATTAZIONE; i++) {
+            catalogo.incrementaCopie(libro3.getIsbn());
+        }
+        assertFalse(log.exists(), "Raggiunta la soglia il registro deve essere compattato nel CSV.");
+        Catalogo compattato = new Catalogo();
+        compattato.caricaCSV();
+        assertEquals(3 + Catalogo.SOGLIA_COMPATTAZIONE, compattato.cercaLibroPerISBN(libro3.getIsbn()).getNumCopie(),
+                "Lo snapshot compattato deve contenere tutti gli incrementi.");
+        
+        // Pulizia
+        catalogo.setJournaling(false);
+        csv.delete();
+        log.delete();
+    }
+
+    /**
+     * @brief Test del salvataggio automatico della classe Catalogo.
+     * Verifica che le modifiche non vengano scritte dal thread chiamante, che attendiSalvataggio()
+     * le renda persistenti (snapshot CSV oppure record del registro) e che le scritture in
+     * background, eseguite mentre il catalogo continua a essere modificato, non perdano modifiche.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testSalvataggioAutomatico() throws InterruptedException {
+        System.out.println("testSalvataggioAutomatico");
+        
+        File csv = new File(NOME_FILE_TEST);
+        File log = new File(NOME_FILE_LOG);
+        SalvataggioAutomatico salvataggio = new SalvataggioAutomatico(60_000);
+        SalvataggioAutomatico immediato = new SalvataggioAutomatico(0);
+        
+        try {
+            // Senza journaling: lo snapshot CSV viene scritto in background
+            Catalogo catalogo = new Catalogo();
+            catalogo.setSalvataggioAutomatico(salvataggio);
+            catalogo.aggiungiLibro(libro2);
+            catalogo.aggiungiLibro(libro3);
+            catalogo.salvaModifiche();
+            assertTrue(catalogo.isModificato(), "Il catalogo deve risultare modificato.");
+            assertFalse(csv.exists(), "Nessuna scrittura deve avvenire sul thread chiamante.");
+            
+            salvataggio.attendiSalvataggio();
+            assertFalse(catalogo.isModificato(), "Dopo il salvataggio il catalogo non deve risultare modificato.");
+            Catalogo ricaricato = new Catalogo();
+            ricaricato.caricaCSV();
+            assertEquals(2, ricaricato.getInventarioLibri().size(), "Lo snapshot deve contenere i libri aggiunti.");
+            
+            // Con il journaling i record restano in sospeso fino alla scrittura in background
+            catalogo.setJournaling(true);
+            assertTrue(catalogo.decrementaCopie(libro3.getIsbn()), "Il decremento di un libro disponibile deve riuscire.");
+            catalogo.eliminaLibro(libro2.getIsbn());
+            assertFalse(log.exists(), "I record non devono essere scritti dal thread chiamante.");
+            
+            salvataggio.attendiSalvataggio();
+            assertTrue(log.exists(), "I record devono essere accodati al registro.");
+            ricaricato = new Catalogo();
+            ricaricato.caricaCSV();
+            assertEquals(1, ricaricato.getInventarioLibri().size(), "L'eliminazione deve essere riapplicata.");
+            assertEquals(3, ricaricato.cercaLibroPerISBN(libro3.getIsbn()).getNumCopie(), "Il decremento deve essere riapplicato.");
+            catalogo.setJournaling(false);
+            
+            // Scritture e compattazioni concorrenti alle modifiche: nessuna modifica va persa
+            Catalogo concorrente = new Catalogo();
+            concorrente.caricaCSV();
+            concorrente.setJournaling(true);
+            concorrente.setSalvataggioAutomatico(immediato);
+            for (int i = 0; i < 3 * Catalogo.SOGLIA_COMPATTAZIONE; i++) {
+                concorrente.incrementaCopie(libro3.getIsbn());
+                if (i % 10 == 0) {
+                    concorrente.aggiungiLibro(new Libro("99" + i, "Titolo " + i, "Autore", LocalDate.of(2000, 1, 1), 1));
+                }
+            }
+            immediato.attendiSalvataggio();
+            assertFalse(concorrente.isModificato(), "Dopo il salvataggio il catalogo non deve risultare modificato.");
+            
+            ricaricato = new Catalogo();
+            ricaricato.caricaCSV();
+            assertEquals(descrivi(concorrente), descrivi(ricaricato), "Snapshot e registro devono riprodurre tutte le modifiche.");
+            assertEquals(3 + 3 * Catalogo.SOGLIA_COMPATTAZIONE, ricaricato.cercaLibroPerISBN(libro3.getIsbn()).getNumCopie(),
+                    "Tutti gli incrementi devono essere persistenti.");
+            concorrente.setJournaling(false);
+        } finally {
+            salvataggio.chiudi();
+            immediato.chiudi();
+            csv.delete();
+            log.delete();
+        }
+    }
+
+    /**
+     * @brief Test di salvaSeModificato() con il journaling quando il registro non può essere scritto.
+     * Verifica che il catalogo resti modificato e che i record in sospeso vengano scritti
+     * al salvataggio successivo.
+     * @throws IOException Se la cartella temporanea non può essere creata.
+     */
+    @Test
+    public void testSalvaSeModificatoRegistroNonScrivibile() throws IOException {
+        System.out.println("testSalvaSeModificatoRegistroNonScrivibile");
+        File cartella = Files.createTempDirectory("dati").toFile();
+        System.setProperty(CartellaDati.PROPRIETA_CARTELLA, cartella.getPath());
+        SalvataggioAutomatico salvataggio = new SalvataggioAutomatico(60_000);
+        // Una cartella al posto del file di registro rende la scrittura impossibile
+        File log = new File(cartella, NOME_FILE_LOG);
+        assertTrue(log.mkdir());
+        try {
+            Catalogo catalogo = new Catalogo();
+            catalogo.setJournaling(true);
+            catalogo.setSalvataggioAutomatico(salvataggio);
+            catalogo.aggiungiLibro(libro1);
+
+            String errori = erroriDi(() -> catalogo.salvaSeModificato());
+            assertFalse(errori.isEmpty(), "L'errore di scrittura del registro deve essere segnalato.");
+            assertTrue(catalogo.isModificato(), "Se il registro non è stato scritto il catalogo deve restare modificato.");
+
+            assertTrue(log.delete());
+            catalogo.salvaSeModificato();
+            assertFalse(catalogo.isModificato(), "Dopo una scrittura riuscita il catalogo non deve risultare modificato.");
+            assertTrue(log.isFile(), "I record in sospeso devono essere scritti al salvataggio successivo.");
+            catalogo.setJournaling(false);
+        } finally {
+            salvataggio.chiudi();
+            System.clearProperty(CartellaDati.PROPRIETA_CARTELLA);
+            for (File f : cartella.listFiles()) {
+                f.delete();
+            }
+            cartella.delete();
+        }
+    }
+
+    /**
+     * @brief Test della cartella dei dati (CartellaDati.PROPRIETA_CARTELLA).
+     * Verifica che un catalogo creato con la proprietà impostata scriva e rilegga
+     * lo snapshot nella cartella indicata e non nella working directory.
+     * @throws IOException Se la cartella temporanea non può essere creata.
+     */
+    @Test
+    public void testCartellaDati() throws IOException {
+        System.out.println("testCartellaDati");
+        File cartella = Files.createTempDirectory("dati").toFile();
+        System.setProperty(CartellaDati.PROPRIETA_CARTELLA, cartella.getPath());
+        try {
+            Catalogo catalogo = new Catalogo();
+            catalogo.aggiungiLibro(libro1);
+            catalogo.salvaCSV();
+            assertTrue(new File(cartella, NOME_FILE_TEST).exists(), "Lo snapshot deve essere scritto nella cartella dei dati.");
+            assertFalse(new File(NOME_FILE_TEST).exists(), "La working directory non deve essere modificata.");
+            
+            Catalogo ricaricato = new Catalogo();
+            ricaricato.caricaCSV();
+            assertNotNull(ricaricato.cercaLibroPerISBN(libro1.getIsbn()), "Il catalogo deve essere ricaricato dalla cartella dei dati.");
+        } finally {
+            System.clearProperty(CartellaDati.PROPRIETA_CARTELLA);
+            for (File f : cartella.listFiles()) {
+                f.delete();
+            }
+            cartella.delete();
+        }
+    }
+
+    /**
+     * @brief Test dell'accesso concorrente alla classe Catalogo.
+     * Verifica che:
+     * - con più thread che prestano lo stesso libro ogni copia venga assegnata una sola volta;
+     * - ricerche e copie dell'inventario eseguite durante aggiunte, modifiche ed eliminazioni
+     *   concorrenti non sollevino eccezioni e restituiscano sempre un inventario ordinato e senza duplicati;
+     * - al termine inventario e indice per ISBN siano allineati;
+     * - getIstanza() restituisca la stessa istanza a tutti i thread.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testAccessoConcorrente() throws InterruptedException {
+        System.out.println("testAccessoConcorrente");
+        
+        final int thread = 8;
+        final int copie = 2000;
+        Catalogo catalogo = new Catalogo();
+        catalogo.aggiungiLibro(new Libro("0001", "Libro conteso", "Autore", LocalDate.of(2000, 1, 1), copie));
+        
+        // 1. Prestiti concorrenti dello stesso libro: esattamente "copie" prestiti riusciti
+        AtomicInteger riusciti = new AtomicInteger();
+        eseguiInParallelo(thread, indice -> {
+            for (int i = 0; i < copie; i++) {
+                if (catalogo.decrementaCopie("0001")) {
+                    riusciti.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(copie, riusciti.get(), "Ogni copia deve essere prestata una sola volta.");
+        assertEquals(0, catalogo.cercaLibroPerISBN("0001").getNumCopie(), "Le copie non devono diventare negative.");
+        
+        // 2. Scrittori e lettori concorrenti
+        final int libriPerScrittore = 500;
+        List<Throwable> errori = new CopyOnWriteArrayList<>();
+        AtomicBoolean finito = new AtomicBoolean();
+        Comparator<? super Libro> ordine = catalogo.getInventarioLibri().comparator();
+        Thread[] lettori = new Thread[thread / 2];
+        for (int l = 0; l < lettori.length; l++) {
+            lettori[l] = new Thread(() -> {
+                try {
+                    while (!finito.get()) {
+                        List<Libro> copia = catalogo.istantaneaInventario();
+                        for (int i = 1; i < copia.size(); i++) {
+                            assertTrue(ordine.compare(copia.get(i - 1), copia.get(i)) < 0,
+                                    "La copia dell'inventario deve essere ordinata e senza duplicati.");
+                        }
+                        assertNotNull(catalogo.cercaLibroPerISBN("0001"), "Il libro non modificato deve essere sempre trovato.");
+                        assertTrue(catalogo.cercaLibri("conteso", "", "").size() == 1, "La ricerca testuale deve trovare il libro non modificato.");
+                        catalogo.cercaLibri("Titolo", "", "");
+                    }
+                } catch (Throwable t) {
+                    errori.add(t);
+                }
+            });
+            lettori[l].start();
+        }
+        eseguiInParallelo(thread / 2, indice -> {
+            for (int i = 0; i < libriPerScrittore; i++) {
+                String isbn = indice + "-" + i;
+                catalogo.aggiungiLibro(new Libro(isbn, "Titolo " + isbn, "Autore " + indice, LocalDate.of(2000, 1, 1), 1));
+                catalogo.incrementaCopie(isbn);
+                catalogo.modificaLibro(isbn, "Titolo modificato " + isbn, "Autore " + indice, LocalDate.of(2001, 1, 1), 3);
+                if (i % 2 == 0) {
+                    catalogo.eliminaLibro(isbn);
+                }
+            }
+        });
+        finito.set(true);
+        for (Thread lettore : lettori) {
+            lettore.join();
+        }
+        assertTrue(errori.isEmpty(), "Le letture concorrenti non devono fallire: " + errori);
+        
+        List<Libro> finale = catalogo.istantaneaInventario();
+        assertEquals(1 + thread / 2 * libriPerScrittore / 2, finale.size(), "Devono restare i libri non eliminati.");
+        for (Libro libro : finale) {
+            assertSame(libro, catalogo.cercaLibroPerISBN(libro.getIsbn()), "Inventario e indice per ISBN devono essere allineati.");
+        }
+        assertEquals(3, catalogo.cercaLibroPerISBN("0-1").getNumCopie(), "Le modifiche devono essere applicate.");
+        assertNull(catalogo.cercaLibroPerISBN("0-0"), "I libri eliminati non devono essere trovati.");
+        
+        // 3. Singleton: tutti i thread ottengono la stessa istanza
+        Catalogo[] istanze = new Catalogo[thread];
+        eseguiInParallelo(thread, indice -> istanze[indice] = Catalogo.getIstanza());
+        for (Catalogo c : istanze) {
+            assertSame(istanzaCatalogo, c, "getIstanza() deve restituire la stessa istanza a tutti i thread.");
+        }
+    }
+    
+    /**
+     * @brief Esegue lo stesso compito su più thread avviati insieme e ne attende la terminazione.
+     * @param[in] thread Numero di thread.
+     * @param[in] compito Il compito, che riceve l'indice del thread.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    private static void eseguiInParallelo(int thread, IntConsumer compito) throws InterruptedException {
+        CountDownLatch partenza = new CountDownLatch(1);
+        List<Throwable> errori = new CopyOnWriteArrayList<>();
+        Thread[] esecutori = new Thread[thread];
+        for (int t = 0; t < thread; t++) {
+            final int indice = t;
+            esecutori[t] = new Thread(() -> {
+                try {
+                    partenza.await();
+                    compito.accept(indice);
+                } catch (Throwable ex) {
+                    errori.add(ex);
+                }
+            });
+            esecutori[t].start();
+        }
+        partenza.countDown();
+        for (Thread esecutore : esecutori) {
+            esecutore.join();
+        }
+        assertTrue(errori.isEmpty(), "I thread non devono fallire: " + errori);
+    }
+
+    /**
+     * @brief Test del metodo toString(), della classe Catalogo.
+     * Verifica che la stringa generata sia non vuota e che contenga i dati dei libri inseriti.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("testToString");
+        
+        //  Catalogo vuoto
+        String resultVuoto = istanzaCatalogo.toString();
+        assertEquals("Il catalogo è vuoto.", resultVuoto, "Il messaggio per il catalogo vuoto non è corretto.");
+        
+        //  Catalogo con elementi (aggiunti in un ordine diverso per testare l'ordinamento del TreeSet)
+        istanzaCatalogo.aggiungiLibro(libro2); 
+        istanzaCatalogo.aggiungiLibro(libro1); 
+        istanzaCatalogo.aggiungiLibro(libro3);
+        istanzaCatalogo.aggiungiLibro(libro4); 
+        istanzaCatalogo.aggiungiLibro(libro5);
+        istanzaCatalogo.aggiungiLibro(libro7); 
+        istanzaCatalogo.aggiungiLibro(libro6);
+        istanzaCatalogo.aggiungiLibro(libro8); 
+        istanzaCatalogo.aggiungiLibro(libro9); 
+        istanzaCatalogo.aggiungiLibro(libro10); 
+        
+        String resultPieno = istanzaCatalogo.toString();
+        assertFalse(resultPieno.isEmpty(), "La stringa non deve essere vuota.");
+        assertTrue(resultPieno.contains("===== CATALOGO LIBRI"), "Dovrebbe contenere l'header.");
+        
+        // Il TreeSet ordina per titolo
+        int indiceLibro2 = resultPieno.indexOf(libro2.getTitolo());
+        int indiceLibro3 = resultPieno.indexOf(libro3.getTitolo());
+        int indiceLibro1 = resultPieno.indexOf(libro1.getTitolo()); 
+        int indiceLibro4 = resultPieno.indexOf(libro4.getTitolo());
+        int indiceLibro5 = resultPieno.indexOf(libro5.getTitolo());
+        int indiceLibro7 = resultPieno.indexOf(libro7.getTitolo());
+        int indiceLibro6 = resultPieno.indexOf(libro6.getTitolo());
+        int indiceLibro8 = resultPieno.indexOf(libro8.getTitolo());
+        int indiceLibro9 = resultPieno.indexOf(libro9.getTitolo());
+        int indiceLibro10 = resultPieno.indexOf(libro10.getTitolo());
+        
+
+        
+        assertTrue(indiceLibro2 < indiceLibro1, "L'ordinamento per titolo non è rispettato.");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,888 @@
+/**
+ *@file ElencoTest.java
+ *@brief Classe di test unitario per la classe Elenco.
+ *
+ * Questa classe testa le funzionalità di creaziona/modifica/lettura/rimozione
+ * e di persistenza (salvataggio/caricamento) della classe Elenco, che gestisce
+ * un insieme di oggetti Studente, utilizzando un TreeSet
+ * per mantenere l'ordinamento.
+ *
+ *@author gruppo01
+ *@version 1.0
+*/
+
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.OsservatoreModifiche;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.SalvataggioAutomatico;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @brief Classe di test per la classe Elenco.
+ */
+public class ElencoTest {
+    
+    // Variabili di istanza per i test
+    private Elenco instance;
+    private Studente s1;
+    private Studente s2;
+    private Studente s3;
+    private Studente s4;
+    private Studente s5;
+    private Studente s6;
+    private Studente s7;
+    private Studente s8;
+    private Studente s9;
+    private Studente s10;
+    
+    private final String FILE_CSV = "Lista_studenti.csv"; //Nome del file CSV utilizzato per la persistenza del catalogo.
+    private final String FILE_DOS = "test_export.dat"; //Nome del file per l'esportazione DOS.
+    private final String FILE_BINARIO = "Lista_studenti.dat"; //Nome dell'archivio binario principale.
+    private final String FILE_ANAGRAFICA = "Lista_studenti_anagrafica.csv"; //File degli studenti dell'archivio normalizzato.
+    private final String FILE_PRESTITI = "Lista_prestiti.csv"; //File dei prestiti dell'archivio normalizzato.
+
+    
+    /**
+    * @brief Setup eseguito prima di ogni test. Inizializza l'istanza di Elenco e crea due studenti di prova.
+    */
+    
+    @BeforeEach
+    public void setUp() {
+        // Inizializza l'elenco e crea studenti di prova prima di ogni test
+        instance = new Elenco();
+        // Assumo il costruttore: Nome, Cognome, Matricola, Email, Sanzione, Ritardo
+        s2 = new Studente("Verdi", "Luigi", "1002", "l.verdi@studenti.unisa.it", "Nessuna", false);
+        s1 = new Studente("Rossi", "Mario", "1001", "m.rossi@studenti.unisa.it", "Nessuna", false);
+        s3 = new Studente("Bianchi", "Luca", "1003", "l.bianchi@studenti.unisa.it", "Nessuna", false);
+        s4 = new Studente("Lombardi", "Viola", "1004", "v.lombardi@studenti.unisa.it", "Nessuna", false);
+        s5 = new Studente("Galli", "Sofia", "1005", "s.galli@studenti.unisa.it", "Nessuna", false);
+        s6 = new Studente("Marini", "Leonardo", "1006", "l.marini@studenti.uni.it", "Nessuna", false);
+        s7 = new Studente("Serra", "Federica", "1007", "f.serra@studenti.unisa.it", "Nessuna", false);
+        s8 = new Studente("Colombo", "Alessandra", "1008", "a.colombo@studenti.unisa.it", "Nessuna", false);
+        s9 = new Studente("Conti", "Luigia", "1009", "l.conti@studenti.uni.it", "Nessuna", false);
+        s10 = new Studente("Pellegrini", "Luca", "1010", "l.pellegrini@studenti.unisa.it", "Nessuna", false);
+    }
+    
+    /**
+    *@brief Pulizia eseguita dopo ogni test. Elimina i file di persistenza creati dal test.
+    */
+    @AfterEach
+    public void tearDown() {
+       
+        File fDos = new File(FILE_DOS);
+        if (fDos.exists()) {
+            fDos.delete();
+        }
+    }
+
+    /**
+     * @brief Test del metodo getElencoStudenti(), verifica che restituisca il TreeSet corretto.
+     */
+    @Test
+    public void testGetElencoStudenti() {
+        System.out.println("getElencoStudenti");
+        
+        // Verifica iniziale: deve essere vuoto ma non null
+        NavigableSet<Studente> result = instance.getElencoStudenti();
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+        
+        // Verifica dopo inserimento
+        instance.aggiungiStudente(s1);
+        result = instance.getElencoStudenti();
+        assertEquals(1, result.size());
+        assertTrue(result.contains(s1));
+    }
+
+    /**
+     * @brief Test del metodo cercaStudenteperMatricola(), verifica la ricerca per chiave (Matricola).
+     */
+    @Test
+    public void testCercaStudenteperMatricola() {
+        System.out.println("cercaStudenteperMatricola");
+        
+        instance.aggiungiStudente(s1);
+        
+        // Caso 1:Matricola esistente
+        String matricola = "1001";
+        Studente result = instance.cercaStudenteperMatricola(matricola);
+        assertNotNull(result);
+        assertEquals(s1, result);
+        
+        // Caso 2: Matricola inesistente
+        String matricolaAssente = "999";
+        Studente resultNull = instance.cercaStudenteperMatricola(matricolaAssente);
+        assertNull(resultNull);
+    }
+
+    /**
+     * @brief Test del metodo aggiungiStudente(), verifica l'inserimento e la gestione dei duplicati.
+     */
+    @Test
+    public void testAggiungiStudente() {
+        System.out.println("aggiungiStudente");
+        
+        // Caso 1: Aggiunta con successo
+        boolean result = instance.aggiungiStudente(s1);
+        assertTrue(result);
+        assertEquals(1, instance.getElencoStudenti().size());
+        
+        boolean result2 = instance.aggiungiStudente(s3);
+        assertTrue(result2);
+        assertEquals(2, instance.getElencoStudenti().size());        
+        
+        boolean result3 = instance.aggiungiStudente(s4);
+        assertTrue(result3);
+        assertEquals(3, instance.getElencoStudenti().size());        
+        
+        boolean result4 = instance.aggiungiStudente(s5);
+        assertTrue(result4);
+        assertEquals(4, instance.getElencoStudenti().size());        
+        
+        boolean result5 = instance.aggiungiStudente(s6);
+        assertTrue(result5);
+        assertEquals(5, instance.getElencoStudenti().size());        
+        
+        boolean result6 = instance.aggiungiStudente(s7);
+        assertTrue(result6);
+        assertEquals(6, instance.getElencoStudenti().size());        
+        
+        boolean result7 = instance.aggiungiStudente(s8);
+        assertTrue(result7);
+        assertEquals(7, instance.getElencoStudenti().size());        
+        
+        boolean result8 = instance.aggiungiStudente(s9);
+        assertTrue(result8);
+        assertEquals(8, instance.getElencoStudenti().size());
+        
+        boolean result9 = instance.aggiungiStudente(s10);
+        assertTrue(result9);
+        assertEquals(9, instance.getElencoStudenti().size());
+        
+        
+        
+        
+        
+        
+        
+        // Caso 2: Tentativo di aggiunta duplicato (stessa matricola)
+        Studente sDuplicato = new Studente("Anna", "Bianchi", "1001", "a.bianchi@studenti.unisa.it", "Nessuna", false);
+        boolean resultDuplicato = instance.aggiungiStudente(sDuplicato);
+        assertFalse(resultDuplicato, "Non dovrebbe aggiungere studenti con matricola duplicata");
+        assertEquals(9, instance.getElencoStudenti().size()); // La dimensione rimane 1
+    }
+
+    /**
+     * @brief Test del metodo modificaStudente(), verifica l'aggiornamento dei dati e il potenziale riordinamento.
+     */
+    @Test
+    public void testModificaStudente() {
+        System.out.println("modificaStudente");
+        
+        instance.aggiungiStudente(s1); // Matricola 001, Rossi
+        
+        // Caso 1: Modifica valida
+        String matricola = "1001";
+        String nuovoNome = "MarioMod";
+        String nuovoCognome = "RossiMod"; // Cambia cognome per testare riordinamento
+        String nuovaEmail = "nuova@email.it";
+        
+        boolean result = instance.modificaStudente(matricola, nuovoNome, nuovoCognome, nuovaEmail);
+        assertTrue(result);
+        
+        Studente sModificato = instance.cercaStudenteperMatricola("1001");
+        assertEquals("RossiMod", sModificato.getCognome());
+        assertEquals("nuova@email.it", sModificato.getEmail());
+        
+        // Caso 2: Studente non trovato
+        boolean resultFail = instance.modificaStudente("999", "A", "B", "C");
+        assertFalse(resultFail);
+    }
+
+    /**
+     * @brief est del metodo eliminaStudente(), verifica la rimozione di un elemento.
+     */
+    @Test
+    public void testEliminaStudente() {
+        System.out.println("eliminaStudente");
+        
+        instance.aggiungiStudente(s1);
+        
+        // Caso 1: Eliminazione riuscita
+        String matricola = "1001";
+        boolean result = instance.eliminaStudente(matricola);
+        assertTrue(result);
+        assertTrue(instance.getElencoStudenti().isEmpty());
+        
+        // Caso 2: Eliminazione fallita (già eliminato o mai esistito)
+        boolean resultFail = instance.eliminaStudente("1001");
+        assertFalse(resultFail);
+    }
+
+    /**
+     * @brief Verifica che l'indice per matricola non diverga mai dal TreeSet ordinato.
+     * Esegue una sequenza pseudo-casuale (seme fisso) di aggiunte, modifiche ed eliminazioni,
+     * confrontando dopo ogni passo l'Elenco con un modello di riferimento (HashMap).
+     */
+    @Test
+    public void testIndiceMatricoleAllineato() {
+        System.out.println("indiceMatricoleAllineato");
+        
+        Random random = new Random(2025);
+        Map<String, Studente> modello = new HashMap<>();
+        
+        for (int passo = 0; passo < 2000; passo++) {
+            String matricola = String.valueOf(1000 + random.nextInt(200));
+            int operazione = random.nextInt(3);
+            
+            if (operazione == 0) {
+                Studente s = new Studente("Cognome" + random.nextInt(50), "Nome", matricola, "x@studenti.unisa.it", "Nessuna", false);
+                boolean atteso = !modello.containsKey(matricola);
+                assertEquals(atteso, instance.aggiungiStudente(s));
+                if (atteso) {
+                    modello.put(matricola, s);
+                }
+            } else if (operazione == 1) {
+                // Il cambio di cognome forza il riordinamento nel TreeSet
+                boolean atteso = modello.containsKey(matricola);
+                assertEquals(atteso, instance.modificaStudente(matricola, "Nome", "Cognome" + random.nextInt(50), "y@studenti.unisa.it"));
+            } else {
+                boolean atteso = modello.remove(matricola) != null;
+                assertEquals(atteso, instance.eliminaStudente(matricola));
+            }
+            
+            assertEquals(modello.size(), instance.getElencoStudenti().size());
+        }
+        
+        // Ogni studente del TreeSet deve essere raggiungibile tramite l'indice (stessa istanza)
+        for (Studente s : instance.getElencoStudenti()) {
+            assertSame(s, instance.cercaStudenteperMatricola(s.getMatricola()));
+            assertSame(modello.get(s.getMatricola()), s);
+        }
+        
+        // Le matricole assenti dal modello non devono essere trovate
+        for (int m = 1000; m < 1200; m++) {
+            String matricola = String.valueOf(m);
+            assertEquals(modello.containsKey(matricola), instance.cercaStudenteperMatricola(matricola) != null);
+        }
+    }
+    
+    /**
+     * @brief Verifica che l'indice per matricola sia ricostruito da caricaDati()
+     * e resti allineato alle modifiche dell'elenco.
+     */
+    @Test
+    public void testIndiceMatricoleCaricaDati() {
+        System.out.println("indiceMatricoleCaricaDati");
+        
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s2);
+        instance.salvaCSV();
+        
+        Elenco caricato = new Elenco();
+        caricato.caricaDati();
+        for (Studente s : caricato.getElencoStudenti()) {
+            assertSame(s, caricato.cercaStudenteperMatricola(s.getMatricola()));
+        }
+        assertTrue(caricato.eliminaStudente("1001"));
+        assertNull(caricato.cercaStudenteperMatricola("1001"));
+        assertEquals(1, caricato.getElencoStudenti().size());
+        
+        // Il TreeSet non può essere modificato dall'esterno: l'indice resta allineato
+        assertThrows(UnsupportedOperationException.class, () -> caricato.getElencoStudenti().clear());
+        assertEquals("1002", caricato.cercaStudenteperMatricola("1002").getMatricola());
+        assertFalse(caricato.aggiungiStudente(s2));
+    }
+
+    /**
+     * @brief Test del metodo getIstanza(): l'elenco condiviso viene creato e caricato una sola volta,
+     * anche se richiesto contemporaneamente da più thread.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testGetIstanza() throws InterruptedException {
+        System.out.println("testGetIstanza");
+        
+        Elenco[] istanze = new Elenco[4];
+        Thread[] thread = new Thread[istanze.length];
+        for (int i = 0; i < thread.length; i++) {
+            final int indice = i;
+            thread[i] = new Thread(() -> istanze[indice] = Elenco.getIstanza());
+            thread[i].start();
+        }
+        for (Thread t : thread) {
+            t.join();
+        }
+        assertNotNull(istanze[0], "L'istanza non deve essere nulla.");
+        for (Elenco e : istanze) {
+            assertSame(istanze[0], e, "Tutti i thread devono ricevere la stessa istanza.");
+        }
+        assertSame(istanze[0], Elenco.getIstanza(), "Le istanze dovrebbero essere le stesse (Singleton).");
+    }
+    
+    /**
+     * @brief Test del metodo riconciliaPrestiti(): i prestiti vengono collegati ai libri del catalogo
+     * (e ne vedono le modifiche), quelli con ISBN assenti dal catalogo vengono segnalati e
+     * condividono un solo libro per ISBN.
+     */
+    @Test
+    public void testRiconciliaPrestiti() {
+        System.out.println("testRiconciliaPrestiti");
+        
+        Catalogo catalogo = new Catalogo();
+        Libro rosa = new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2);
+        catalogo.aggiungiLibro(rosa);
+        
+        // Prestiti come letti dal file: ogni riga ha una propria copia del libro
+        LocalDate inizio = LocalDate.now();
+        Prestito p1 = new Prestito(new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 0), s1, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), null);
+        Prestito p2 = new Prestito(new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 0), s2, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), null);
+        Prestito p3 = new Prestito(new Libro("9999", "Scomparso", "Autore", LocalDate.of(2000, 1, 1), 0), s3, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), null);
+        Prestito p4 = new Prestito(new Libro("9999", "Scomparso", "Autore", LocalDate.of(2000, 1, 1), 0), s4, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), null);
+        s1.aggiungiPrestito(p1);
+        s2.aggiungiPrestito(p2);
+        s3.aggiungiPrestito(p3);
+        s4.aggiungiPrestito(p4);
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s2);
+        instance.aggiungiStudente(s3);
+        instance.aggiungiStudente(s4);
+        
+        assertEquals(Set.of("9999"), instance.riconciliaPrestiti(catalogo), "Deve essere segnalato solo l'ISBN assente dal catalogo.");
+        assertSame(rosa, p1.getLibro(), "Il prestito deve usare il libro del catalogo.");
+        assertSame(rosa, p2.getLibro(), "Il prestito deve usare il libro del catalogo.");
+        assertSame(p3.getLibro(), p4.getLibro(), "I prestiti orfani dello stesso ISBN devono condividere lo stesso libro.");
+        assertEquals("Scomparso", p4.getLibro().getTitolo(), "I prestiti orfani devono conservare i dati letti.");
+        
+        catalogo.modificaLibro("1462", "Il nome della rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 1);
+        assertEquals("Il nome della rosa", p1.getLibro().getTitolo(), "Il prestito deve vedere le modifiche del catalogo.");
+        assertEquals(1, p2.getLibro().getNumCopie(), "Le copie del prestito devono coincidere con quelle del catalogo.");
+        
+        assertTrue(instance.riconciliaPrestiti(catalogo).contains("9999"), "Una seconda riconciliazione non deve cambiare l'esito.");
+        assertSame(rosa, p1.getLibro());
+    }
+
+    /**
+     * @brief Calcola con una scansione completa i prestiti attivi con scadenza nell'intervallo indicato.
+     * @param[in] elenco L'elenco.
+     * @param[in] da Il primo giorno (incluso).
+     * @param[in] a L'ultimo giorno (incluso).
+     * @return Gli ISBN dei prestiti, ordinati.
+     */
+    private static List<String> scansione(Elenco elenco, LocalDate da, LocalDate a) {
+        List<String> isbn = new ArrayList<>();
+        for (Studente s : elenco.getElencoStudenti()) {
+            for (Prestito p : s.getPrestitiAttivi()) {
+                if (!p.getDataScadenza().isBefore(da) && !p.getDataScadenza().isAfter(a)) {
+                    isbn.add(p.getLibro().getIsbn());
+                }
+            }
+        }
+        isbn.sort(null);
+        return isbn;
+    }
+
+    /**
+     * @brief Restituisce gli ISBN dei prestiti, ordinati.
+     * @param[in] prestiti I prestiti.
+     * @return Gli ISBN.
+     */
+    private static List<String> isbn(List<Prestito> prestiti) {
+        List<String> isbn = new ArrayList<>();
+        for (Prestito p : prestiti) {
+            isbn.add(p.getLibro().getIsbn());
+        }
+        isbn.sort(null);
+        return isbn;
+    }
+
+    /**
+     * @brief Test di prestitiScaduti() e prestitiInScadenza(): i risultati coincidono con una
+     * scansione di tutti i prestiti dopo aggiunte, restituzioni, eliminazioni e un ricaricamento,
+     * e sono ordinati per scadenza.
+     */
+    @Test
+    public void testScadenzario() throws IOException {
+        System.out.println("testScadenzario");
+
+        LocalDate oggi = LocalDate.of(2025, 3, 15);
+        Random random = new Random(21);
+        Studente[] studenti = {s1, s2, s3, s4, s5, s6, s7, s8, s9, s10};
+
+        // Prestiti già presenti quando lo studente viene aggiunto all'elenco
+        s1.aggiungiPrestito(new Prestito(new Libro("P0000", "Titolo", "Autore", LocalDate.of(2000, 1, 1), 1), s1, oggi.minusDays(60), oggi.minusDays(10), null));
+        for (Studente s : studenti) {
+            instance.aggiungiStudente(s);
+        }
+        List<Prestito> aggiunti = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            Studente s = studenti[random.nextInt(studenti.length)];
+            LocalDate scadenza = oggi.plusDays(random.nextInt(81) - 40);
+            Prestito p = new Prestito(new Libro(String.format("P%04d", i), "Titolo", "Autore", LocalDate.of(2000, 1, 1), 1), s, scadenza.minusDays(Prestito.DURATA_PRESTITO), scadenza, null);
+            instance.aggiungiPrestito(s, p);
+            aggiunti.add(p);
+        }
+        for (int i = 0; i < 100; i++) {
+            Prestito p = aggiunti.get(i * 3);
+            instance.chiudiPrestito(p.getStudente(), p, oggi);
+        }
+        instance.eliminaStudente(s7.getMatricola());
+
+        List<Prestito> scaduti = instance.prestitiScaduti(oggi);
+        assertEquals(scansione(instance, LocalDate.MIN, oggi.minusDays(1)), isbn(scaduti), "I prestiti scaduti devono coincidere con la scansione completa.");
+        assertTrue(isbn(scaduti).contains("P0000"), "I prestiti dello studente aggiunto devono essere indicizzati.");
+        for (int i = 1; i < scaduti.size(); i++) {
+            assertFalse(scaduti.get(i).getDataScadenza().isBefore(scaduti.get(i - 1).getDataScadenza()), "I prestiti devono essere ordinati per scadenza.");
+        }
+        for (Prestito p : scaduti) {
+            assertTrue(p.calcolaGiorniRitardo(oggi) > 0, "Un prestito scaduto deve avere giorni di ritardo.");
+        }
+        assertEquals(scansione(instance, oggi, oggi.plusDays(7)), isbn(instance.prestitiInScadenza(oggi, 7)), "I prestiti in scadenza devono coincidere con la scansione completa.");
+        assertEquals(scansione(instance, oggi, oggi), isbn(instance.prestitiInScadenza(oggi, 0)));
+        assertThrows(IllegalArgumentException.class, () -> instance.prestitiInScadenza(oggi, -1));
+
+        // Dopo un ricaricamento lo scadenzario viene ricostruito dai prestiti letti
+        instance.salvaDOS(FILE_DOS);
+        Elenco ricaricato = new Elenco();
+        ricaricato.caricaDOS(FILE_DOS);
+        assertEquals(scansione(instance, LocalDate.MIN, oggi.minusDays(1)), isbn(ricaricato.prestitiScaduti(oggi)), "Lo scadenzario deve essere ricostruito dal caricamento.");
+        assertEquals(scansione(instance, oggi, oggi.plusDays(30)), isbn(ricaricato.prestitiInScadenza(oggi, 30)));
+    }
+    
+    /**
+     * @brief Test delle notifiche agli osservatori: ogni modifica produce un solo evento del tipo
+     * corrispondente, con la copia precedente per i cambi di cognome.
+     */
+    @Test
+    public void testOsservatori() {
+        System.out.println("testOsservatori");
+        
+        List<String> eventi = new ArrayList<>();
+        OsservatoreModifiche<Studente> osservatore = new OsservatoreModifiche<Studente>() {
+            @Override
+            public void aggiunto(Studente s) {
+                eventi.add("aggiunto " + s.getMatricola());
+            }
+            @Override
+            public void rimosso(Studente s) {
+                eventi.add("rimosso " + s.getMatricola());
+            }
+            @Override
+            public void aggiornato(Studente s) {
+                eventi.add("aggiornato " + s.getMatricola());
+            }
+            @Override
+            public void spostato(Studente s, Studente precedente) {
+                eventi.add("spostato " + s.getMatricola() + " da " + precedente.getCognome() + " a " + s.getCognome());
+            }
+            @Override
+            public void ricaricato() {
+                eventi.add("ricaricato");
+            }
+        };
+        instance.aggiungiOsservatore(osservatore);
+        
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s1);
+        instance.modificaStudente("1001", "Marco", "Rossi", s1.getEmail());
+        instance.modificaStudente("1001", "Marco", "Russo", s1.getEmail());
+        Prestito prestito = new Prestito(new Libro("1462", "Titolo", "Autore", LocalDate.of(1980, 1, 1), 1), s1,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null);
+        instance.aggiungiPrestito(s1, prestito);
+        instance.chiudiPrestito(s1, prestito, LocalDate.of(2025, 1, 20));
+        instance.eliminaStudente("1001");
+        instance.eliminaStudente("1001");
+        
+        List<String> attesi = new ArrayList<>();
+        attesi.add("aggiunto 1001");
+        attesi.add("aggiornato 1001");
+        attesi.add("spostato 1001 da Rossi a Russo");
+        attesi.add("aggiornato 1001");
+        attesi.add("aggiornato 1001");
+        attesi.add("rimosso 1001");
+        assertEquals(attesi, eventi, "Ogni modifica riuscita deve produrre un solo evento, nell'ordine delle modifiche.");
+        
+        instance.rimuoviOsservatore(osservatore);
+        instance.aggiungiStudente(s2);
+        assertEquals(attesi.size(), eventi.size(), "Un osservatore rimosso non deve ricevere eventi.");
+    }
+    
+    /**
+     * @brief Test del metodo salvaDOS(), verifica il salvataggio dei dati in formato DOS (binario o serializzazione).
+     * Si verifica l'esistenxa e la non vuotezza del file
+     */
+    @Test
+    public void testSalvaDOS() throws Exception {
+        System.out.println("salvaDOS");
+        
+        instance.aggiungiStudente(s1);
+        
+        instance.salvaDOS(FILE_DOS);
+        
+        File f = new File(FILE_DOS);
+        assertTrue(f.exists());
+        assertTrue(f.length() > 0);
+    }
+
+    /**
+     * @brief Test del metodo caricaDOS(), verifica che il file binario scritto da salvaDOS()
+     * venga ricaricato con tutti i dati degli studenti e dei prestiti.
+     */
+    @Test
+    public void testCaricaDOS() throws Exception {
+        System.out.println("caricaDOS");
+        
+        Studente sanzionato = new Studente("Àlvarez", "José", "1011", null, "Blocco prestiti", true);
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s2);
+        instance.aggiungiStudente(sanzionato);
+        Libro libro1 = new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2);
+        Libro libro2 = new Libro("4568", "Frankenstein", "Mary Shelley", LocalDate.of(1818, 1, 1), 1);
+        s1.aggiungiPrestito(new Prestito(libro1, s1, LocalDate.of(2025, 1, 10), LocalDate.of(2025, 3, 1), null));
+        sanzionato.aggiungiPrestito(new Prestito(libro1, sanzionato, LocalDate.of(2024, 11, 2), LocalDate.of(2024, 12, 22), LocalDate.of(2025, 1, 15)));
+        sanzionato.aggiungiPrestito(new Prestito(libro2, sanzionato, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 23), null));
+        
+        instance.salvaDOS(FILE_DOS);
+        
+        Elenco caricato = new Elenco();
+        caricato.caricaDOS(FILE_DOS);
+        
+        assertEquals(3, caricato.getElencoStudenti().size());
+        Studente letto = caricato.cercaStudenteperMatricola("1011");
+        assertEquals("Àlvarez", letto.getCognome());
+        assertEquals("José", letto.getNome());
+        assertNull(letto.getEmail(), "I campi nulli devono restare nulli.");
+        assertEquals("Blocco prestiti", letto.getSanzione());
+        assertEquals(sanzionato.isRitardo(), letto.isRitardo());
+        assertEquals(2, letto.getPrestitiAttivi().size());
+        
+        Prestito chiuso = letto.getPrestitiAttivi().get(0);
+        assertEquals("1462", chiuso.getLibro().getIsbn());
+        assertEquals("Il Nome della Rosa", chiuso.getLibro().getTitolo());
+        assertEquals("Umberto Eco", chiuso.getLibro().getAutore());
+        assertEquals(LocalDate.of(1980, 1, 1), chiuso.getLibro().getAnnoPb());
+        assertEquals(LocalDate.of(2024, 11, 2), chiuso.getDataInizio());
+        assertEquals(LocalDate.of(2024, 12, 22), chiuso.getDataScadenza());
+        assertEquals(LocalDate.of(2025, 1, 15), chiuso.getDataRestituzione());
+        assertSame(letto, chiuso.getStudente());
+        assertNull(letto.getPrestitiAttivi().get(1).getDataRestituzione());
+        assertEquals(1, caricato.cercaStudenteperMatricola("1001").contaPrestitiAttivi());
+        
+        // L'ordine dell'elenco deve essere quello del comparatore
+        List<String> ordineAtteso = new ArrayList<>();
+        for (Studente s : instance.getElencoStudenti()) {
+            ordineAtteso.add(s.getMatricola());
+        }
+        List<String> ordineLetto = new ArrayList<>();
+        for (Studente s : caricato.getElencoStudenti()) {
+            ordineLetto.add(s.getMatricola());
+        }
+        assertEquals(ordineAtteso, ordineLetto);
+        
+        // Un file che non è un archivio studenti viene rifiutato senza modificare l'elenco
+        try (PrintWriter pw = new PrintWriter(FILE_DOS)) {
+            pw.println("Elenco Studenti");
+        }
+        assertThrows(IOException.class, () -> caricato.caricaDOS(FILE_DOS));
+        assertEquals(3, caricato.getElencoStudenti().size());
+    }
+
+    /**
+     * @brief Test dell'archivio binario come archivio principale:
+     * salvaDati() e caricaDati() devono usare il file binario.
+     */
+    @Test
+    public void testArchivioBinarioPrincipale() {
+        System.out.println("archivioBinarioPrincipale");
+        
+        File fileBinario = new File(FILE_BINARIO);
+        fileBinario.delete();
+        
+        instance.setArchivioBinario(true);
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s3);
+        instance.salvaDati();
+        assertTrue(fileBinario.exists(), "salvaDati() deve scrivere l'archivio binario.");
+        
+        Elenco caricato = new Elenco();
+        caricato.setArchivioBinario(true);
+        caricato.caricaDati();
+        assertEquals(2, caricato.getElencoStudenti().size());
+        assertNotNull(caricato.cercaStudenteperMatricola("1003"));
+        
+        fileBinario.delete();
+    }
+
+    /**
+     * @brief Test dell'archivio normalizzato: studenti e prestiti in file separati, prestiti con
+     * matricola, ISBN e date come giorno epoch; i nuovi prestiti vengono accodati senza riscrivere
+     * gli studenti e il caricamento li ricollega agli studenti per matricola.
+     * @throws IOException Se i file non possono essere letti.
+     */
+    @Test
+    public void testArchivioNormalizzato() throws IOException {
+        System.out.println("archivioNormalizzato");
+        
+        File anagrafica = new File(FILE_ANAGRAFICA);
+        File prestiti = new File(FILE_PRESTITI);
+        try {
+            LocalDate inizio = LocalDate.of(2025, 3, 1);
+            Libro libro = new Libro("9788804668237", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2);
+            instance.setArchivioNormalizzato(true);
+            assertFalse(instance.isArchivioBinario());
+            instance.aggiungiStudente(s1);
+            instance.aggiungiStudente(s3);
+            instance.aggiungiPrestito(s1, new Prestito(libro, s1, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), null));
+            instance.salvaDati();
+            assertTrue(anagrafica.exists() && prestiti.exists(), "salvaDati() deve scrivere entrambi i file.");
+            
+            List<String> righe = Files.readAllLines(prestiti.toPath());
+            assertEquals(3, righe.size(), "Due righe di intestazione e un prestito.");
+            assertEquals("1001;9788804668237;" + inizio.toEpochDay() + ";" + inizio.plusDays(Prestito.DURATA_PRESTITO).toEpochDay() + ";", righe.get(2),
+                    "Il prestito deve contenere solo matricola, ISBN e date come giorno epoch.");
+            
+            // Un nuovo prestito viene accodato: il file degli studenti non viene riscritto
+            assertTrue(anagrafica.setLastModified(0));
+            instance.aggiungiPrestito(s3, new Prestito(libro, s3, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), null));
+            instance.salvaModifiche();
+            assertEquals(0, anagrafica.lastModified(), "Il file degli studenti non deve essere riscritto.");
+            assertEquals(4, Files.readAllLines(prestiti.toPath()).size(), "Il prestito deve essere accodato.");
+            
+            Elenco caricato = new Elenco();
+            caricato.setArchivioNormalizzato(true);
+            caricato.caricaDati();
+            assertEquals(2, caricato.getElencoStudenti().size());
+            Prestito letto = caricato.cercaStudenteperMatricola("1001").getPrestitiAttivi().get(0);
+            assertEquals("9788804668237", letto.getLibro().getIsbn());
+            assertEquals(inizio, letto.getDataInizio());
+            assertNull(letto.getDataRestituzione());
+            assertSame(letto.getLibro(), caricato.cercaStudenteperMatricola("1003").getPrestitiAttivi().get(0).getLibro(),
+                    "I prestiti dello stesso ISBN devono condividere un solo libro.");
+            
+            // La chiusura di un prestito modifica lo studente: entrambi i file vengono riscritti
+            caricato.chiudiPrestito(caricato.cercaStudenteperMatricola("1003"), caricato.cercaStudenteperMatricola("1003").getPrestitiAttivi().get(0), inizio.plusDays(10));
+            caricato.salvaModifiche();
+            assertNotEquals(0, anagrafica.lastModified(), "Il file degli studenti deve essere riscritto.");
+            assertEquals(3, Files.readAllLines(prestiti.toPath()).size(), "Il prestito chiuso non deve essere più salvato.");
+        } finally {
+            anagrafica.delete();
+            prestiti.delete();
+        }
+    }
+
+    /**
+     * @brief Test della fine del blocco di Categoria 2 nei tre archivi (CSV, binario e normalizzato):
+     * viene salvata come campo a sé, per gli studenti con e senza prestiti, senza modificare la sanzione.
+     * @throws Exception Se gli archivi non possono essere scritti o letti.
+     */
+    @Test
+    public void testFineBloccoArchivi() throws Exception {
+        System.out.println("fineBloccoArchivi");
+        
+        LocalDate restituzione = LocalDate.of(2025, 3, 1);
+        Libro libro = new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2);
+        s1.applicaSanzione(Prestito.sanzionePerRitardo(15), restituzione);
+        s1.aggiungiPrestito(new Prestito(libro, s1, restituzione, restituzione.plusDays(Prestito.DURATA_PRESTITO), null));
+        s3.applicaSanzione(Prestito.sanzionePerRitardo(20), restituzione.plusDays(1));
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s2);
+        instance.aggiungiStudente(s3);
+        
+        File anagrafica = new File(FILE_ANAGRAFICA);
+        File prestiti = new File(FILE_PRESTITI);
+        try {
+            instance.salvaCSV();
+            Elenco csv = new Elenco();
+            csv.caricaDati();
+            verificaFineBlocco(csv, restituzione);
+            
+            instance.salvaDOS(FILE_DOS);
+            Elenco binario = new Elenco();
+            binario.caricaDOS(FILE_DOS);
+            verificaFineBlocco(binario, restituzione);
+            
+            instance.setArchivioNormalizzato(true);
+            instance.salvaDati();
+            Elenco normalizzato = new Elenco();
+            normalizzato.setArchivioNormalizzato(true);
+            normalizzato.caricaDati();
+            verificaFineBlocco(normalizzato, restituzione);
+        } finally {
+            anagrafica.delete();
+            prestiti.delete();
+        }
+    }
+    
+    /**
+     * @brief Verifica la fine del blocco e la sanzione degli studenti caricati da testFineBloccoArchivi().
+     * @param[in] caricato L'elenco caricato.
+     * @param[in] restituzione Il giorno della sanzione di s1 (quella di s3 è del giorno successivo).
+     */
+    private void verificaFineBlocco(Elenco caricato, LocalDate restituzione) {
+        Studente letto = caricato.cercaStudenteperMatricola("1001");
+        assertEquals(Prestito.sanzionePerRitardo(15), letto.getSanzione(), "La sanzione deve essere salvata senza modifiche.");
+        assertEquals(restituzione.plusDays(Studente.GIORNI_BLOCCO), letto.getFineBlocco(), "La fine del blocco deve essere salvata.");
+        assertEquals(1, letto.contaPrestitiAttivi());
+        assertEquals(restituzione.plusDays(1 + Studente.GIORNI_BLOCCO), caricato.cercaStudenteperMatricola("1003").getFineBlocco(),
+                "La fine del blocco deve essere salvata anche per gli studenti senza prestiti.");
+        assertNull(caricato.cercaStudenteperMatricola("1002").getFineBlocco());
+    }
+
+    /**
+     * @brief Test del salvataggio automatico: le modifiche (anagrafiche e prestiti) vengono
+     * scritte nell'archivio principale dal thread in background e non dal thread chiamante.
+     * @throws IOException Se l'archivio non può essere letto.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testSalvataggioAutomatico() throws IOException, InterruptedException {
+        System.out.println("salvataggioAutomatico");
+        
+        File fileBinario = new File(FILE_BINARIO);
+        fileBinario.delete();
+        SalvataggioAutomatico salvataggio = new SalvataggioAutomatico(60_000);
+        
+        try {
+            instance.setArchivioBinario(true);
+            instance.setSalvataggioAutomatico(salvataggio);
+            instance.aggiungiStudente(s1);
+            instance.aggiungiStudente(s2);
+            Libro libro = new Libro("9788804668237", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 0);
+            Prestito prestito = new Prestito(libro, s1, LocalDate.now(), LocalDate.now().plusDays(Prestito.DURATA_PRESTITO), null);
+            instance.aggiungiPrestito(s1, prestito);
+            instance.salvaModifiche();
+            assertTrue(instance.isModificato(), "L'elenco deve risultare modificato.");
+            assertFalse(fileBinario.exists(), "Nessuna scrittura deve avvenire sul thread chiamante.");
+            
+            salvataggio.attendiSalvataggio();
+            assertFalse(instance.isModificato(), "Dopo il salvataggio l'elenco non deve risultare modificato.");
+            Elenco caricato = new Elenco();
+            caricato.caricaDOS(FILE_BINARIO);
+            assertEquals(2, caricato.getElencoStudenti().size());
+            assertEquals(1, caricato.cercaStudenteperMatricola("1001").contaPrestitiAttivi(), "Il prestito deve essere salvato.");
+            
+            // La restituzione passa dall'elenco e viene salvata allo stesso modo
+            instance.chiudiPrestito(s1, prestito, LocalDate.now());
+            assertEquals(0, s1.contaPrestitiAttivi());
+            assertEquals(LocalDate.now(), prestito.getDataRestituzione());
+            salvataggio.attendiSalvataggio();
+            caricato.caricaDOS(FILE_BINARIO);
+            assertEquals(0, caricato.cercaStudenteperMatricola("1001").contaPrestitiAttivi(), "La restituzione deve essere salvata.");
+        } finally {
+            salvataggio.chiudi();
+            fileBinario.delete();
+        }
+    }
+
+    /**
+     * @brief Test del metodo salvaCSV(), verifica il salvataggio dei dati in formato CSV.
+     *Si usa il nome file "Lista_studenti.csv"
+    */
+    @Test
+    public void testSalvaCSV() {
+        System.out.println("salvaCSV");
+        
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s2);
+        instance.aggiungiStudente(s3);
+        instance.aggiungiStudente(s4);
+        instance.aggiungiStudente(s5);
+        instance.aggiungiStudente(s6);
+        instance.aggiungiStudente(s7);
+        instance.aggiungiStudente(s8);
+        instance.aggiungiStudente(s9);
+        instance.aggiungiStudente(s10);
+        
+        
+        // Il metodo salvaCSV usa un nome file hardcoded "Lista_studenti.csv" nella classe Elenco
+        instance.salvaCSV();
+        
+        File f = new File(FILE_CSV);
+        assertTrue(f.exists());
+        assertTrue(f.length() > 0);
+    }
+
+    /**
+     * @brief Test del metodo caricaDati(), verifica il caricamento dei dati da CSV.
+     */
+    @Test
+    public void testCaricaDati() {
+        System.out.println("caricaDati");
+        
+        // Prepara dati e salva su file
+        instance.aggiungiStudente(s1);
+        instance.aggiungiStudente(s2);
+        instance.aggiungiStudente(s3);
+        instance.aggiungiStudente(s4);
+        instance.aggiungiStudente(s5);
+        instance.aggiungiStudente(s6);
+        instance.aggiungiStudente(s7);
+        instance.aggiungiStudente(s8);
+        instance.aggiungiStudente(s9);
+        instance.aggiungiStudente(s10);
+        instance.salvaCSV();
+        
+        // Crea una nuova istanza pulita
+        Elenco nuovaIstanza = new Elenco();
+        
+        // Carica i dati
+        nuovaIstanza.caricaDati();
+        
+        // Verifica che entrambi gli studenti siano stati caricati
+        assertEquals(10, nuovaIstanza.getElencoStudenti().size());
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1001"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1002"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1003"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1004"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1005"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1006"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1007"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1008"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1009"));
+        assertNotNull(nuovaIstanza.cercaStudenteperMatricola("1010"));
+    }
+
+    /**
+     * @brief Test del metodo toString(), verifica la rappresentazione stringa dell'elenco.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("toString");
+        
+        // Caso elenco vuoto
+        String resultEmpty = instance.toString();
+        assertNotNull(resultEmpty);
+        assertTrue(resultEmpty.contains("vuoto"));
+        
+        // Caso elenco pieno
+        instance.aggiungiStudente(s1);
+        String resultFull = instance.toString();
+        assertNotNull(resultFull);
+        // Verifica la presenza di dati chiave nell'output
+        assertTrue(resultFull.contains("Rossi")); // Controlla che ci sia il cognome
+        assertTrue(resultFull.contains("1001"));   // Controlla che ci sia la matricola
+    }
+}
\ No newline at end of file
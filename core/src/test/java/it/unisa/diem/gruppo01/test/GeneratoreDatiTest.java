@@ -0,0 +1,199 @@
+/**
+ *@file GeneratoreDatiTest.java
+ *@brief Classe di test unitario per la classe GeneratoreDati.
+ *
+ * Questa classe verifica che i file generati abbiano il formato di Catalogo.salvaCSV()
+ * ed Elenco.salvaCSV(), che la generazione sia deterministica e che i conteggi
+ * richiesti (libri, studenti, prestiti, prestiti scaduti) siano rispettati.
+ *
+ *@author gruppo01
+ *@version 1.0
+*/
+
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.CartellaDati;
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.GeneratoreDati;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @brief Classe di test per la classe GeneratoreDati.
+ */
+public class GeneratoreDatiTest {
+
+    private static final LocalDate OGGI = LocalDate.of(2025, 3, 1); // Data di riferimento fissa, per la riproducibilità.
+
+    private File cartella; // Cartella temporanea dei file generati.
+
+    /**
+     * @brief Crea la cartella temporanea e la imposta come cartella dei dati.
+     * @throws IOException Se la cartella non può essere creata.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        cartella = Files.createTempDirectory("generatore").toFile();
+        System.setProperty(CartellaDati.PROPRIETA_CARTELLA, cartella.getPath());
+    }
+
+    /**
+     * @brief Elimina la cartella temporanea.
+     */
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(CartellaDati.PROPRIETA_CARTELLA);
+        for (File f : cartella.listFiles()) {
+            f.delete();
+        }
+        cartella.delete();
+    }
+
+    /**
+     * @brief Generatore con parametri ridotti e data di riferimento fissa.
+     * @param[in] seme Il seme.
+     * @return Il generatore.
+     */
+    private GeneratoreDati generatore(long seme) {
+        return new GeneratoreDati(seme).setLibri(2000).setCopieMassime(4).setStudenti(1000)
+                .setPrestiti(1500).setQuotaScaduti(0.2).setOggi(OGGI);
+    }
+
+    /**
+     * @brief Verifica che i file generati vengano caricati da Catalogo ed Elenco con i conteggi richiesti.
+     * @throws IOException Se i file non possono essere scritti.
+     */
+    @Test
+    public void testConteggi() throws IOException {
+        System.out.println("testConteggi");
+        generatore(7).scrivi(cartella);
+
+        Catalogo catalogo = new Catalogo();
+        catalogo.caricaCSV();
+        assertEquals(2000, catalogo.getInventarioLibri().size(), "Il catalogo deve contenere tutti i libri generati.");
+
+        Elenco elenco = new Elenco();
+        elenco.caricaCSV(CartellaDati.percorso("Lista_studenti.csv"));
+        assertEquals(1000, elenco.getElencoStudenti().size(), "L'elenco deve contenere tutti gli studenti generati.");
+
+        int prestiti = 0;
+        int scaduti = 0;
+        for (Studente s : elenco.getElencoStudenti()) {
+            assertTrue(s.contaPrestitiAttivi() <= Prestito.LIMITE_PRESTITI, "Nessuno studente deve superare il limite di prestiti.");
+            for (Prestito p : s.getPrestitiAttivi()) {
+                prestiti++;
+                if (p.getDataScadenza().isBefore(OGGI)) {
+                    scaduti++;
+                }
+                assertNotNull(catalogo.cercaLibroPerISBN(p.getLibro().getIsbn()), "Ogni prestito deve riferirsi a un libro del catalogo.");
+            }
+        }
+        assertEquals(1500, prestiti, "Il numero di prestiti attivi deve essere quello richiesto.");
+        assertEquals(300, scaduti, "Il numero di prestiti scaduti deve essere quello richiesto.");
+    }
+
+    /**
+     * @brief Verifica che i file generati abbiano esattamente il formato di salvaCSV():
+     * ricaricati e salvati di nuovo, contengono le stesse righe (a meno dell'ordine).
+     * @throws IOException Se i file non possono essere letti o scritti.
+     */
+    @Test
+    public void testFormato() throws IOException {
+        System.out.println("testFormato");
+        generatore(11).scrivi(cartella);
+        File libri = new File(cartella, "Lista_Libri.csv");
+        File studenti = new File(cartella, "Lista_studenti.csv");
+        List<String> righeLibri = Files.readAllLines(libri.toPath());
+        List<String> righeStudenti = Files.readAllLines(studenti.toPath());
+
+        Catalogo catalogo = new Catalogo();
+        catalogo.caricaCSV();
+        catalogo.salvaCSV();
+        Elenco elenco = new Elenco();
+        elenco.caricaCSV(studenti.getPath());
+        elenco.salvaCSV(studenti.getPath());
+
+        assertEquals(ordinate(righeLibri), ordinate(Files.readAllLines(libri.toPath())), "Il catalogo generato deve avere il formato di Catalogo.salvaCSV().");
+        assertEquals(ordinate(righeStudenti), ordinate(Files.readAllLines(studenti.toPath())), "L'elenco generato deve avere il formato di Elenco.salvaCSV().");
+    }
+
+    /**
+     * @brief Verifica che lo stesso seme produca file identici e semi diversi file diversi.
+     * @throws IOException Se i file non possono essere scritti.
+     */
+    @Test
+    public void testDeterminismo() throws IOException {
+        System.out.println("testDeterminismo");
+        File primo = new File(cartella, "primo.csv");
+        File secondo = new File(cartella, "secondo.csv");
+        File altroSeme = new File(cartella, "altro.csv");
+        generatore(3).scriviStudenti(primo);
+        generatore(3).scriviStudenti(secondo);
+        generatore(4).scriviStudenti(altroSeme);
+
+        assertArrayEquals(Files.readAllBytes(primo.toPath()), Files.readAllBytes(secondo.toPath()), "Lo stesso seme deve produrre lo stesso file.");
+        assertFalse(java.util.Arrays.equals(Files.readAllBytes(primo.toPath()), Files.readAllBytes(altroSeme.toPath())), "Semi diversi devono produrre file diversi.");
+        assertEquals(generatore(3).libro(42).toString(), generatore(3).libro(42).toString(), "Lo stesso indice deve produrre lo stesso libro.");
+    }
+
+    /**
+     * @brief Verifica che la popolarità dei libri prestati sia concentrata (distribuzione di Zipf):
+     * il libro più prestato riceve molti più prestiti della media.
+     * @throws IOException Se il file non può essere scritto.
+     */
+    @Test
+    public void testPopolaritaZipf() throws IOException {
+        System.out.println("testPopolaritaZipf");
+        File studenti = new File(cartella, "Lista_studenti.csv");
+        new GeneratoreDati(5).setLibri(1000).setStudenti(4000).setPrestiti(10000).setOggi(OGGI).scriviStudenti(studenti);
+
+        Elenco elenco = new Elenco();
+        elenco.caricaCSV(studenti.getPath());
+        Map<String, Integer> conteggi = new HashMap<>();
+        for (Studente s : elenco.getElencoStudenti()) {
+            for (Prestito p : s.getPrestitiAttivi()) {
+                conteggi.merge(p.getLibro().getIsbn(), 1, Integer::sum);
+            }
+        }
+        int massimo = Collections.max(conteggi.values());
+        // Con esponente 1 e 1000 libri il primo rango ha probabilità 1 / H(1000), circa il 13%
+        assertTrue(massimo > 1000, "Il libro più popolare deve ricevere circa il 13% dei prestiti.");
+        assertTrue(conteggi.size() > 300, "Anche i libri meno popolari devono ricevere prestiti.");
+    }
+
+    /**
+     * @brief Verifica che troppi prestiti rispetto agli studenti vengano rifiutati.
+     */
+    @Test
+    public void testPrestitiTroppi() {
+        System.out.println("testPrestitiTroppi");
+        GeneratoreDati generatore = new GeneratoreDati(1).setStudenti(10).setPrestiti(31);
+        assertThrows(IllegalStateException.class, () -> generatore.scriviStudenti(new File(cartella, "Lista_studenti.csv")), "Ogni studente può avere al più LIMITE_PRESTITI prestiti.");
+    }
+
+    /**
+     * @brief Restituisce una copia ordinata delle righe.
+     * @param[in] righe Le righe.
+     * @return Le righe ordinate.
+     */
+    private static List<String> ordinate(List<String> righe) {
+        List<String> copia = new ArrayList<>(righe);
+        Collections.sort(copia);
+        return copia;
+    }
+}
@@ -0,0 +1,280 @@
+/**
+ *@file LettoreCSVMappatoTest.java
+ *@brief Classe di test unitario per la classe LettoreCSVMappato.
+ *
+ * Questa classe verifica che il lettore basato sulla mappatura in memoria
+ * produca gli stessi libri e studenti della lettura tramite BufferedReader
+ * e String.split(), anche su righe malformate o con terminatori diversi.
+ *
+ *@author gruppo01
+ *@version 1.0
+*/
+
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.AvanzamentoCaricamento;
+import it.unisa.diem.gruppo01.classi.LettoreCSVMappato;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Classe di test per la classe LettoreCSVMappato.
+ */
+public class LettoreCSVMappatoTest {
+
+    private File file; ///< File temporaneo usato da ciascun test.
+
+    /**
+     * @brief Crea il file temporaneo prima di ogni test.
+     * @throws IOException Se il file non può essere creato.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = File.createTempFile("lettore", ".csv");
+    }
+
+    /**
+     * @brief Elimina il file temporaneo dopo ogni test.
+     */
+    @AfterEach
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * @brief Verifica la lettura dei libri su righe valide, malformate e con terminatori diversi.
+     * @throws IOException Se il file non può essere scritto o letto.
+     */
+    @Test
+    public void testLeggiLibri() throws IOException {
+        System.out.println("testLeggiLibri");
+
+        scrivi("Elenco Libri\r\n"
+                + "Titolo;Autore;ISBN;Anno pb;Num_Copie\r\n"
+                + "Il Nome della Rosa;Umberto Eco;1462;1980;2\r\n"
+                + "  Frankenstein ; Mary Shelley ;4568; 1818 ; 3 \n"
+                + "Riga con campi vuoti finali;Autore;1;2000;1;;;\r"
+                + "Campi insufficienti;Autore;2;2000\n"
+                + "\n"
+                + "Copie non numeriche;Autore;3;2000;tante\n"
+                + "Copie negative;Autore;4;2000;-1\n"
+                + "Segno esplicito;Autore;5;+2001;+7\n"
+                + "Anno troppo lungo;Autore;6;99999999999;1\n"
+                + ";;;;\n"
+                + "Senza autore;;7;1999;0\n"
+                + "Accentate: perché è così;Éric Sadin;8;2017;5");
+
+        List<String> letti = new ArrayList<>();
+        LettoreCSVMappato.leggiLibri(file, libro -> letti.add(descrivi(libro)));
+
+        assertEquals(riferimentoLibri(), letti, "Il lettore mappato deve produrre gli stessi libri della lettura con split().");
+        assertEquals(6, letti.size(), "Devono essere lette solo le 6 righe valide.");
+        assertTrue(letti.contains("4568|Frankenstein|Mary Shelley|1818|3"), "I campi devono essere ripuliti dagli spazi.");
+    }
+
+    /**
+     * @brief Verifica la lettura degli studenti e dei loro prestiti.
+     * @throws IOException Se il file non può essere scritto o letto.
+     */
+    @Test
+    public void testLeggiStudenti() throws IOException {
+        System.out.println("testLeggiStudenti");
+
+        scrivi("Elenco Studenti\n"
+                + "Cognome; Nome; Matricola; Email; Sanzione; Ritardo; PrestitoAttivo; ISBN; Titolo; Autore; AnnoPubblicazione; DataInizio; DataScadenza; DataRestituzione\n"
+                + "Bianchi;Luca;1003;l.bianchi@studenti.unisa.it;Nessuna;false;0;;;;;;;;\n"
+                + "Rossi;Mario;1001;m.rossi@studenti.unisa.it;Nessuna;TRUE;2;1462;Il Nome della Rosa;Umberto Eco;1980;2025-01-10;2025-02-10;\r\n"
+                + "Rossi;Mario;1001;m.rossi@studenti.unisa.it;Nessuna;TRUE;2;4568;Frankenstein;Mary Shelley;1818-01-01;2025-01-12;2025-02-12;2025-02-01\r\n"
+                + "Verdi;Anna;1002;a.verdi@studenti.unisa.it;Nessuna;false;1;8947;Titolo;Autore;19x3;2025-03-01;2025-04-01;\n"
+                + "Verdi;Anna;1002;a.verdi@studenti.unisa.it;Nessuna;false;1;8846;Titolo;Autore;1954;2025-02-30;2025-04-01;\n"
+                + "Neri;Paolo;1004;p.neri@studenti.unisa.it;Nessuna;false;uno;8846;Titolo;Autore;1954;2025-02-01;2025-04-01;\n"
+                + "Riga;corta;1005\n"
+                + "Gialli;Sara;1006;s.gialli@studenti.unisa.it;Nessuna;false;1;7012;Titolo;Autore;2017;2025-1-5;2025-04-01;");
+
+        HashMap<String, Studente> letti = LettoreCSVMappato.leggiStudenti(file);
+
+        assertEquals(riferimentoStudenti(), descrivi(letti), "Il lettore mappato deve produrre gli stessi studenti della lettura con split().");
+        assertEquals(5, letti.size(), "Le righe con meno di 6 campi devono essere ignorate.");
+        assertEquals(2, letti.get("1001").contaPrestitiAttivi(), "Le righe della stessa matricola devono essere raggruppate.");
+        assertEquals(LocalDate.of(2025, 2, 1), letti.get("1001").getPrestitiAttivi().get(1).getDataRestituzione(), "La data di restituzione deve essere letta.");
+        assertEquals(1, letti.get("1002").contaPrestitiAttivi(), "Il prestito con data non valida deve essere scartato.");
+        assertEquals(0, letti.get("1004").contaPrestitiAttivi(), "Lo studente deve essere creato anche se il prestito non è valido.");
+    }
+
+    /**
+     * @brief Verifica che un file inesistente venga segnalato con una IOException.
+     */
+    @Test
+    public void testFileInesistente() {
+        System.out.println("testFileInesistente");
+
+        file.delete();
+        assertThrows(IOException.class, () -> LettoreCSVMappato.leggiStudenti(file), "Un file inesistente deve sollevare IOException.");
+    }
+
+    /**
+     * @brief Verifica l'avanzamento aggiornato durante la lettura: a fine lettura conta tutte
+     * le righe di dati (anche quelle scartate) e tutti i byte del file.
+     * @throws IOException Se il file non può essere scritto o letto.
+     */
+    @Test
+    public void testAvanzamento() throws IOException {
+        System.out.println("testAvanzamento");
+
+        StringBuilder contenuto = new StringBuilder("Elenco Libri\nTitolo;Autore;ISBN;Anno pb;Num_Copie\n");
+        for (int i = 0; i < 10_000; i++) {
+            contenuto.append("Titolo ").append(i).append(";Autore;").append(i).append(";2000;1\n");
+        }
+        contenuto.append("Riga non valida\n");
+        scrivi(contenuto.toString());
+
+        AvanzamentoCaricamento avanzamento = new AvanzamentoCaricamento();
+        assertEquals(-1, avanzamento.getFrazione(), "Prima della lettura la dimensione del file non è nota.");
+        List<Libro> letti = new ArrayList<>();
+        LettoreCSVMappato.leggiLibri(file, letti::add, avanzamento);
+
+        assertEquals(10_000, letti.size());
+        assertEquals(10_001, avanzamento.getRighe(), "Devono essere contate tutte le righe di dati.");
+        assertEquals(file.length(), avanzamento.getByteTotali(), "I byte da leggere devono essere la dimensione del file.");
+        assertEquals(file.length(), avanzamento.getByteLetti(), "A fine lettura devono risultare letti tutti i byte.");
+        assertEquals(1.0, avanzamento.getFrazione());
+
+        scrivi("Elenco Studenti\nIntestazione\nRossi;Mario;1001;m.rossi@studenti.unisa.it;Nessuna;false;0;;;;;;;;\n");
+        LettoreCSVMappato.leggiStudenti(file, avanzamento);
+        assertEquals(10_002, avanzamento.getRighe(), "L'avanzamento deve accumulare le letture successive.");
+        assertEquals(avanzamento.getByteTotali(), avanzamento.getByteLetti());
+    }
+
+    /**
+     * @brief Scrive il contenuto nel file temporaneo con la codifica della piattaforma.
+     * @param[in] contenuto Il testo da scrivere.
+     * @throws IOException Se il file non può essere scritto.
+     */
+    private void scrivi(String contenuto) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
+            pw.print(contenuto);
+        }
+    }
+
+    /**
+     * @brief Lettura dei libri con BufferedReader e split(), come nella versione precedente di Catalogo.caricaCSV().
+     * @return La descrizione dei libri letti.
+     * @throws IOException Se il file non può essere letto.
+     */
+    private List<String> riferimentoLibri() throws IOException {
+        List<String> libri = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            br.readLine();
+            br.readLine();
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] dati = line.split(";");
+                if (dati.length == 5) {
+                    try {
+                        LocalDate annoPb = LocalDate.of(Integer.parseInt(dati[3].trim()), 1, 1);
+                        libri.add(descrivi(new Libro(dati[2].trim(), dati[0].trim(), dati[1].trim(), annoPb, Integer.parseInt(dati[4].trim()))));
+                    } catch (IllegalArgumentException ex) {
+                        // riga saltata
+                    }
+                }
+            }
+        }
+        return libri;
+    }
+
+    /**
+     * @brief Lettura degli studenti con BufferedReader e split(), come nella versione precedente di Elenco.caricaDati().
+     * @return La descrizione degli studenti letti, ordinata per matricola.
+     * @throws IOException Se il file non può essere letto.
+     */
+    private Map<String, String> riferimentoStudenti() throws IOException {
+        HashMap<String, Studente> studenti = new HashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            br.readLine();
+            br.readLine();
+            String riga;
+            while ((riga = br.readLine()) != null) {
+                try {
+                    String[] campi = riga.split(";", -1);
+                    if (campi.length >= 6) {
+                        String matricola = campi[2].trim();
+                        Studente studente = studenti.get(matricola);
+                        if (studente == null) {
+                            studente = new Studente(campi[0].trim(), campi[1].trim(), matricola, campi[3].trim(), campi[4].trim(), Boolean.parseBoolean(campi[5].trim()));
+                            studenti.put(matricola, studente);
+                        }
+                        if (campi.length >= 14 && !campi[6].trim().isEmpty() && Integer.parseInt(campi[6].trim()) > 0) {
+                            String annoPbStr = campi[10].trim();
+                            LocalDate dataInizio = LocalDate.parse(campi[11].trim());
+                            LocalDate dataScadenza = LocalDate.parse(campi[12].trim());
+                            LocalDate annoPb;
+                            if (annoPbStr.length() == 4 && annoPbStr.matches("\\d{4}")) {
+                                annoPb = LocalDate.of(Integer.parseInt(annoPbStr), 1, 1);
+                            } else {
+                                try {
+                                    annoPb = LocalDate.parse(annoPbStr);
+                                } catch (DateTimeParseException e) {
+                                    annoPb = LocalDate.now();
+                                }
+                            }
+                            LocalDate dataRestituzione = campi[13].trim().isEmpty() ? null : LocalDate.parse(campi[13].trim());
+                            Libro libro = new Libro(campi[7].trim(), campi[8].trim(), campi[9].trim(), annoPb, 0);
+                            studente.aggiungiPrestito(new Prestito(libro, studente, dataInizio, dataScadenza, dataRestituzione));
+                        }
+                    }
+                } catch (Exception ex) {
+                    // riga (o prestito) saltata
+                }
+            }
+        }
+        return descrivi(studenti);
+    }
+
+    /**
+     * @brief Descrive un libro con tutti i campi letti dal file.
+     * @param[in] libro Il libro.
+     * @return La descrizione del libro.
+     */
+    private static String descrivi(Libro libro) {
+        return libro.getIsbn() + "|" + libro.getTitolo() + "|" + libro.getAutore() + "|"
+                + libro.getAnnoPb().getYear() + "|" + libro.getNumCopie();
+    }
+
+    /**
+     * @brief Descrive gli studenti con tutti i campi letti dal file, prestiti compresi.
+     * @param[in] studenti Gli studenti indicizzati per matricola.
+     * @return Le descrizioni, ordinate per matricola.
+     */
+    private static Map<String, String> descrivi(Map<String, Studente> studenti) {
+        Map<String, String> descrizioni = new TreeMap<>();
+        for (Studente s : studenti.values()) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(s.getCognome()).append('|').append(s.getNome()).append('|').append(s.getEmail())
+                    .append('|').append(s.getSanzione()).append('|').append(s.isRitardo());
+            for (Prestito p : s.getPrestitiAttivi()) {
+                sb.append("|[").append(descrivi(p.getLibro())).append('|').append(p.getDataInizio())
+                        .append('|').append(p.getDataScadenza()).append('|').append(p.getDataRestituzione()).append(']');
+            }
+            descrizioni.put(s.getMatricola(), sb.toString());
+        }
+        return descrizioni;
+    }
+}
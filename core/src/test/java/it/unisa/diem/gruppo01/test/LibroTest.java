@@ -91,6 +91,23 @@ public class LibroTest {
         assertEquals(nuovoTitolo, libroDiTest.getTitolo());
     }
 
+    /**
+     * @brief Verifica la chiave di ordinamento: minuscola, senza accenti, ricalcolata solo quando il titolo cambia.
+     */
+    @Test
+    public void testGetChiaveOrdinamento() {
+        System.out.println("Test getChiaveOrdinamento");
+        libroDiTest.setTitolo("Perché Così TANTI Libri");
+        assertEquals("perche cosi tanti libri", libroDiTest.getChiaveOrdinamento(), "La chiave deve essere minuscola e senza accenti.");
+        
+        String chiave = libroDiTest.getChiaveOrdinamento();
+        libroDiTest.setTitolo("Perché Così TANTI Libri");
+        assertSame(chiave, libroDiTest.getChiaveOrdinamento(), "Con lo stesso titolo la chiave non deve essere ricalcolata.");
+        
+        libroDiTest.setTitolo("Éric");
+        assertEquals("eric", libroDiTest.getChiaveOrdinamento(), "Un nuovo titolo deve aggiornare la chiave.");
+    }
+
     @Test
     public void testGetAutore() {
         System.out.println("Test getAutore");
@@ -0,0 +1,268 @@
+/**
+ * @file RicalcoloSanzioniTest.java
+ * @brief Classe di test per l'implementazione della classe RicalcoloSanzioni.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.CartellaDati;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.OsservatoreModifiche;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.RicalcoloSanzioni;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Classe di test per la classe RicalcoloSanzioni e per Elenco.ricalcolaSanzioni().
+ * L'elenco salva in una cartella temporanea.
+ */
+public class RicalcoloSanzioniTest {
+
+    private static final LocalDate OGGI = LocalDate.of(2025, 3, 1); ///< Giorno del ricalcolo.
+
+    private File cartella; ///< Cartella temporanea dei file dati.
+    private Elenco elenco; ///< Elenco sotto test.
+    private ForkJoinPool pool; ///< Pool del calcolo parallelo.
+    private List<String> aggiornati; ///< Matricole notificate come aggiornate.
+
+    /**
+     * @brief Configurazione eseguita prima di ogni metodo di test.
+     * @throws IOException Se la cartella temporanea non può essere creata.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        cartella = Files.createTempDirectory("sanzioni").toFile();
+        System.setProperty(CartellaDati.PROPRIETA_CARTELLA, cartella.getPath());
+        elenco = new Elenco();
+        pool = new ForkJoinPool(4);
+        aggiornati = new ArrayList<>();
+        elenco.aggiungiOsservatore(new OsservatoreModifiche<Studente>() {
+            @Override
+            public void aggiunto(Studente s) {
+            }
+            @Override
+            public void rimosso(Studente s) {
+            }
+            @Override
+            public void aggiornato(Studente s) {
+                aggiornati.add(s.getMatricola());
+            }
+            @Override
+            public void spostato(Studente s, Studente precedente) {
+            }
+            @Override
+            public void ricaricato() {
+            }
+        });
+    }
+
+    /**
+     * @brief Pulizia eseguita dopo ogni metodo di test.
+     */
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+        System.clearProperty(CartellaDati.PROPRIETA_CARTELLA);
+        for (File f : cartella.listFiles()) {
+            f.delete();
+        }
+        cartella.delete();
+    }
+
+    /**
+     * @brief Aggiunge all'elenco uno studente con un prestito per ciascuna delle scadenze indicate.
+     * @param[in] matricola La matricola dello studente.
+     * @param[in] sanzione La sanzione iniziale.
+     * @param[in] scadenze Le scadenze dei prestiti attivi.
+     * @return Lo studente.
+     */
+    private Studente studente(String matricola, String sanzione, LocalDate... scadenze) {
+        Studente s = new Studente("Cognome" + matricola, "Nome", matricola, matricola + "@studenti.unisa.it", sanzione, false);
+        for (LocalDate scadenza : scadenze) {
+            s.aggiungiPrestito(new Prestito(new Libro("ISBN" + matricola, "Titolo", "Autore", LocalDate.of(2000, 1, 1), 1), s, scadenza.minusDays(Prestito.DURATA_PRESTITO), scadenza, null));
+        }
+        elenco.aggiungiStudente(s);
+        return s;
+    }
+
+    /**
+     * @brief Test di Elenco.ricalcolaSanzioni(): sanzioni dei prestiti scaduti, categorie non ridotte,
+     * notifiche e salvataggio solo per gli studenti modificati, ricalcolo ripetuto senza modifiche.
+     */
+    @Test
+    public void testRicalcolaSanzioni() {
+        System.out.println("testRicalcolaSanzioni");
+
+        Studente senzaPrestiti = studente("1001", "Nessuna");
+        Studente inRegola = studente("1002", "Nessuna", OGGI.plusDays(10));
+        Studente lieve = studente("1003", "Nessuna", OGGI.plusDays(3), OGGI.minusDays(5));
+        Studente trenta = studente("1004", "Nessuna", OGGI.minusDays(15));
+        Studente permanente = studente("1005", "Categoria 1 (2 gg ritardo): Blocco lieve.", OGGI.minusDays(2), OGGI.minusDays(30));
+        Studente giaPermanente = studente("1006", "Categoria 3 (40 gg ritardo): Blocco PERMANENTE.", OGGI.minusDays(3));
+        elenco.salvaModifiche();
+        assertFalse(elenco.isModificato());
+
+        RicalcoloSanzioni.Esito esito = elenco.ricalcolaSanzioni(OGGI, pool);
+        System.out.println(esito);
+        assertEquals(6, esito.getStudenti());
+        assertEquals(5, esito.getConPrestiti(), "Devono essere contati gli studenti con prestiti attivi.");
+        assertEquals(4, esito.getInRitardo(), "Devono essere contati gli studenti con prestiti scaduti.");
+        assertEquals(3, esito.getModificati());
+
+        assertEquals("Nessuna", senzaPrestiti.getSanzione());
+        assertEquals("Nessuna", inRegola.getSanzione(), "Un prestito non scaduto non deve produrre sanzioni.");
+        assertEquals(Prestito.sanzionePerRitardo(5), lieve.getSanzione());
+        assertEquals(Prestito.sanzionePerRitardo(15), trenta.getSanzione());
+        assertEquals(OGGI.plusDays(Studente.GIORNI_BLOCCO), trenta.getFineBlocco(), "Il blocco di Categoria 2 deve decorrere dal giorno del ricalcolo.");
+        assertFalse(trenta.isAbilitato(OGGI.plusDays(Studente.GIORNI_BLOCCO - 1).toEpochDay()));
+        assertEquals(Prestito.sanzionePerRitardo(30), permanente.getSanzione(), "Deve valere il prestito più in ritardo.");
+        assertEquals("Categoria 3 (40 gg ritardo): Blocco PERMANENTE.", giaPermanente.getSanzione(), "La categoria della sanzione non deve essere ridotta.");
+        assertEquals(List.of("1003", "1004", "1005"), aggiornati, "Devono essere notificati solo gli studenti modificati.");
+        assertTrue(elenco.isModificato(), "Le sanzioni modificate devono essere salvate.");
+        assertEquals(Prestito.sanzionePerRitardo(lieve.getPrestitiAttivi().get(1).calcolaGiorniRitardo(OGGI)), lieve.getSanzione(),
+                "Il ritardo deve coincidere con quello calcolato da Prestito.");
+
+        aggiornati.clear();
+        assertEquals(0, elenco.ricalcolaSanzioni(OGGI, pool).getModificati(), "Un secondo ricalcolo nello stesso giorno non deve modificare nulla.");
+        assertTrue(aggiornati.isEmpty());
+
+        // Il giorno dopo i ritardi crescono di un giorno, ma nessuna categoria cambia
+        elenco.salvaModifiche();
+        assertFalse(elenco.isModificato());
+        aggiornati.clear();
+        assertEquals(0, elenco.ricalcolaSanzioni(OGGI.plusDays(1), pool).getModificati(),
+                "Senza cambi di categoria il ricalcolo del giorno dopo non deve modificare nessuno studente.");
+        assertTrue(aggiornati.isEmpty(), "Nessuno studente deve essere notificato.");
+        assertFalse(elenco.isModificato(), "L'elenco non deve essere salvato di nuovo.");
+        assertEquals(Prestito.sanzionePerRitardo(5), lieve.getSanzione());
+        assertEquals(OGGI.plusDays(Studente.GIORNI_BLOCCO), trenta.getFineBlocco(), "Il blocco di Categoria 2 non deve essere rinnovato.");
+        assertEquals("Categoria 3 (40 gg ritardo): Blocco PERMANENTE.", giaPermanente.getSanzione());
+
+        // Dopo sei giorni il prestito più in ritardo di 1003 supera i 10 giorni e quello di 1004 i 20
+        assertEquals(2, elenco.ricalcolaSanzioni(OGGI.plusDays(6), pool).getModificati());
+        assertEquals(Prestito.sanzionePerRitardo(11), lieve.getSanzione());
+        assertEquals(OGGI.plusDays(6 + Studente.GIORNI_BLOCCO), lieve.getFineBlocco());
+        assertEquals(Prestito.sanzionePerRitardo(21), trenta.getSanzione());
+        assertEquals(List.of("1003", "1004"), aggiornati);
+    }
+
+    /**
+     * @brief Test di Elenco.ricalcolaSanzioni() con una restituzione durante il calcolo: il calcolo
+     * avviene senza il lock dell'elenco e lo studente modificato nel frattempo viene saltato.
+     * @throws InterruptedException Se il test viene interrotto durante l'attesa.
+     */
+    @Test
+    public void testRicalcolaSanzioniModificaConcorrente() throws InterruptedException {
+        System.out.println("testRicalcolaSanzioniModificaConcorrente");
+
+        Studente restituisce = studente("1001", "Nessuna", OGGI.minusDays(5), OGGI.minusDays(20));
+        Studente trenta = studente("1002", "Nessuna", OGGI.minusDays(15));
+        ForkJoinPool occupato = new ForkJoinPool(1);
+        CountDownLatch sblocco = new CountDownLatch(1);
+        AtomicReference<RicalcoloSanzioni.Esito> esito = new AtomicReference<>();
+        try {
+            // L'unico thread del pool resta occupato: il calcolo attende in coda dopo la copia
+            occupato.execute(() -> {
+                try {
+                    sblocco.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Thread ricalcolo = new Thread(() -> esito.set(elenco.ricalcolaSanzioni(OGGI, occupato)));
+            ricalcolo.start();
+            for (int i = 0; i < 500 && occupato.getQueuedSubmissionCount() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, occupato.getQueuedSubmissionCount(), "Il calcolo deve essere in attesa del pool.");
+
+            // Il lock dell'elenco è libero durante il calcolo
+            String sanzione = elenco.chiudiPrestito(restituisce, restituisce.getPrestitiAttivi().get(0), OGGI);
+            sblocco.countDown();
+            ricalcolo.join(5000);
+
+            assertEquals(1, esito.get().getModificati(), "Lo studente modificato durante il calcolo deve essere saltato.");
+            assertEquals(sanzione, restituisce.getSanzione(), "Deve restare la sanzione della restituzione.");
+            assertEquals(Prestito.sanzionePerRitardo(15), trenta.getSanzione());
+        } finally {
+            sblocco.countDown();
+            occupato.shutdown();
+        }
+    }
+
+    /**
+     * @brief Test del calcolo parallelo su un elenco grande: il risultato coincide con il calcolo
+     * sequenziale, prestito per prestito, di Prestito.calcolaGiorniRitardo().
+     */
+    @Test
+    public void testRicalcoloParallelo() {
+        System.out.println("testRicalcoloParallelo");
+
+        Random random = new Random(22);
+        List<Studente> studenti = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            int prestiti = random.nextInt(4);
+            LocalDate[] scadenze = new LocalDate[prestiti];
+            for (int j = 0; j < prestiti; j++) {
+                scadenze[j] = OGGI.plusDays(random.nextInt(100) - 40);
+            }
+            studenti.add(studente(String.valueOf(1_000_000 + i), "Nessuna", scadenze));
+        }
+
+        RicalcoloSanzioni.Esito esito = elenco.ricalcolaSanzioni(OGGI, pool);
+        System.out.println(esito);
+
+        int attesi = 0;
+        for (Studente s : studenti) {
+            int ritardo = 0;
+            for (Prestito p : s.getPrestitiAttivi()) {
+                ritardo = Math.max(ritardo, p.calcolaGiorniRitardo(OGGI));
+            }
+            String attesa = ritardo > 0 ? Prestito.sanzionePerRitardo(ritardo) : "Nessuna";
+            assertEquals(attesa, s.getSanzione(), "Sanzione errata per la matricola " + s.getMatricola());
+            if (ritardo > 0) {
+                attesi++;
+            }
+        }
+        assertEquals(attesi, esito.getModificati());
+        assertEquals(attesi, aggiornati.size());
+    }
+
+    /**
+     * @brief Test di avvia(): il primo ricalcolo viene eseguito subito, in background.
+     * @throws InterruptedException Se il test viene interrotto durante l'attesa.
+     */
+    @Test
+    public void testAvvia() throws InterruptedException {
+        System.out.println("testAvvia");
+
+        Studente scaduto = studente("1001", "Nessuna", LocalDate.now().minusDays(4));
+        RicalcoloSanzioni ricalcolo = new RicalcoloSanzioni(elenco, pool, LocalTime.of(2, 0));
+        assertNull(ricalcolo.getUltimoEsito());
+        ricalcolo.avvia();
+        for (int i = 0; i < 500 && ricalcolo.getUltimoEsito() == null; i++) {
+            Thread.sleep(10);
+        }
+        ricalcolo.chiudi();
+        assertNotNull(ricalcolo.getUltimoEsito(), "Il primo ricalcolo deve essere eseguito all'avvio.");
+        assertEquals(1, ricalcolo.getUltimoEsito().getModificati());
+        assertEquals(Prestito.sanzionePerRitardo(4), scaduto.getSanzione());
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * @file SalvataggioAutomaticoTest.java
+ * @brief Classe di test per l'implementazione della classe SalvataggioAutomatico.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.SalvataggioAutomatico;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Classe di test per la classe SalvataggioAutomatico.
+ * Al posto dei salvataggi di Catalogo ed Elenco viene registrato un contatore
+ * che annota il thread su cui viene eseguito.
+ */
+public class SalvataggioAutomaticoTest {
+
+    private SalvataggioAutomatico salvataggio; ///< Pianificatore sotto test.
+    private AtomicInteger esecuzioni; ///< Numero di esecuzioni del salvataggio registrato.
+    private List<String> thread; ///< Nomi dei thread su cui è stato eseguito il salvataggio.
+
+    /**
+     * @brief Costruttore di default.
+     */
+    public SalvataggioAutomaticoTest() {
+    }
+
+    /**
+     * @brief Configurazione eseguita prima di ogni metodo di test.
+     */
+    @BeforeEach
+    public void setUp() {
+        esecuzioni = new AtomicInteger();
+        thread = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * @brief Pulizia eseguita dopo ogni metodo di test: arresta il thread in background.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (salvataggio != null) {
+            salvataggio.chiudi();
+        }
+    }
+
+    /**
+     * @brief Crea il pianificatore e vi registra il contatore.
+     * @param[in] attesa Millisecondi di quiete.
+     * @param[in] attesaMassima Millisecondi massimi dalla prima modifica.
+     */
+    private void crea(long attesa, long attesaMassima) {
+        salvataggio = new SalvataggioAutomatico(attesa, attesaMassima);
+        salvataggio.registra(() -> {
+            esecuzioni.incrementAndGet();
+            thread.add(Thread.currentThread().getName());
+        });
+    }
+
+    /**
+     * @brief Test del costruttore: tempi di attesa non validi.
+     */
+    @Test
+    public void testCostruttore() {
+        System.out.println("testCostruttore");
+        assertThrows(IllegalArgumentException.class, () -> new SalvataggioAutomatico(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SalvataggioAutomatico(100, 50));
+        assertEquals(100, new SalvataggioAutomatico(100).getAttesa(), "L'attesa deve essere quella indicata.");
+    }
+
+    /**
+     * @brief Test del metodo segnalaModifica(): una raffica di segnalazioni produce una sola
+     * scrittura, eseguita sul thread in background dopo l'attesa.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testSegnalaModifica() throws InterruptedException {
+        System.out.println("testSegnalaModifica");
+        crea(200, 60_000);
+
+        for (int i = 0; i < 100; i++) {
+            salvataggio.segnalaModifica();
+        }
+        assertEquals(0, esecuzioni.get(), "Prima dell'attesa non deve avvenire alcuna scrittura.");
+
+        Thread.sleep(1000);
+        assertEquals(1, esecuzioni.get(), "La raffica di modifiche deve produrre una sola scrittura.");
+        assertEquals("salvataggio-automatico", thread.get(0), "La scrittura deve avvenire sul thread in background.");
+
+        // Una nuova modifica apre una nuova finestra di attesa
+        salvataggio.segnalaModifica();
+        Thread.sleep(1000);
+        assertEquals(2, esecuzioni.get(), "Una modifica successiva deve produrre una nuova scrittura.");
+    }
+
+    /**
+     * @brief Test dell'attesa massima: con segnalazioni continue la scrittura non viene rinviata all'infinito.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testAttesaMassima() throws InterruptedException {
+        System.out.println("testAttesaMassima");
+        crea(300, 600);
+
+        long fine = System.nanoTime() + 2_000_000_000L;
+        while (System.nanoTime() < fine) {
+            salvataggio.segnalaModifica();
+            Thread.sleep(20);
+        }
+        assertTrue(esecuzioni.get() >= 2, "Con modifiche continue la scrittura deve avvenire entro l'attesa massima.");
+    }
+
+    /**
+     * @brief Test del metodo attendiSalvataggio(): la scrittura avviene subito e il metodo ne attende il completamento.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testAttendiSalvataggio() throws InterruptedException {
+        System.out.println("testAttendiSalvataggio");
+        crea(60_000, 60_000);
+
+        salvataggio.segnalaModifica();
+        salvataggio.attendiSalvataggio();
+        assertEquals(1, esecuzioni.get(), "attendiSalvataggio() deve eseguire la scrittura senza attendere la quiete.");
+        assertEquals("salvataggio-automatico", thread.get(0), "La scrittura deve avvenire sul thread in background.");
+
+        // La scrittura pianificata è stata assorbita da quella immediata
+        Thread.sleep(200);
+        assertEquals(1, esecuzioni.get(), "La scrittura pianificata deve essere annullata.");
+    }
+
+    /**
+     * @brief Test del metodo chiudi(): le modifiche in sospeso vengono scritte prima del ritorno,
+     * quelle successive alla chiusura sul thread chiamante.
+     */
+    @Test
+    public void testChiudi() {
+        System.out.println("testChiudi");
+        crea(60_000, 60_000);
+
+        salvataggio.segnalaModifica();
+        salvataggio.chiudi();
+        assertEquals(1, esecuzioni.get(), "chiudi() deve scrivere le modifiche in sospeso.");
+        assertEquals("salvataggio-automatico", thread.get(0), "La scrittura finale deve avvenire sul thread in background.");
+
+        salvataggio.chiudi();
+        assertEquals(1, esecuzioni.get(), "Una seconda chiusura non deve scrivere di nuovo.");
+
+        salvataggio.segnalaModifica();
+        assertEquals(2, esecuzioni.get(), "Dopo la chiusura le modifiche devono essere scritte subito.");
+        assertEquals(Thread.currentThread().getName(), thread.get(1), "Dopo la chiusura la scrittura avviene sul thread chiamante.");
+    }
+
+    /**
+     * @brief Test del metodo rimuovi(): un salvataggio rimosso non viene più eseguito.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testRimuovi() throws InterruptedException {
+        System.out.println("testRimuovi");
+        crea(60_000, 60_000);
+
+        AtomicInteger altro = new AtomicInteger();
+        Runnable contatore = altro::incrementAndGet;
+        salvataggio.registra(contatore);
+        salvataggio.segnalaModifica();
+        salvataggio.attendiSalvataggio();
+        assertEquals(1, altro.get(), "Il salvataggio registrato deve essere eseguito.");
+
+        salvataggio.rimuovi(contatore);
+        salvataggio.segnalaModifica();
+        salvataggio.attendiSalvataggio();
+        assertEquals(1, altro.get(), "Il salvataggio rimosso non deve essere eseguito.");
+        assertEquals(2, esecuzioni.get(), "Gli altri salvataggi devono continuare a essere eseguiti.");
+    }
+}
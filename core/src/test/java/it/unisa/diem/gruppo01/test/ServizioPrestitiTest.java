@@ -0,0 +1,230 @@
+/**
+ * @file ServizioPrestitiTest.java
+ * @brief Classe di test per l'implementazione della classe ServizioPrestiti.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.CartellaDati;
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.SalvataggioAutomatico;
+import it.unisa.diem.gruppo01.classi.ServizioPrestiti;
+import it.unisa.diem.gruppo01.classi.ServizioPrestiti.Esito;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Classe di test per la classe ServizioPrestiti.
+ * Catalogo ed Elenco salvano in background in una cartella temporanea.
+ */
+public class ServizioPrestitiTest {
+
+    private static final LocalDate OGGI = LocalDate.of(2025, 3, 1); ///< Data delle operazioni.
+
+    private File cartella; ///< Cartella temporanea dei file dati.
+    private SalvataggioAutomatico salvataggio; ///< Salvataggio in background di catalogo ed elenco.
+    private Catalogo catalogo; ///< Catalogo sotto test.
+    private Elenco elenco; ///< Elenco sotto test.
+    private ServizioPrestiti servizio; ///< Servizio sotto test.
+
+    /**
+     * @brief Configurazione eseguita prima di ogni metodo di test.
+     * @throws IOException Se la cartella temporanea non può essere creata.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        cartella = Files.createTempDirectory("prestiti").toFile();
+        System.setProperty(CartellaDati.PROPRIETA_CARTELLA, cartella.getPath());
+        salvataggio = new SalvataggioAutomatico(50);
+        catalogo = new Catalogo();
+        catalogo.setJournaling(true);
+        catalogo.setSalvataggioAutomatico(salvataggio);
+        elenco = new Elenco();
+        elenco.setSalvataggioAutomatico(salvataggio);
+        servizio = new ServizioPrestiti(catalogo, elenco);
+
+        catalogo.aggiungiLibro(new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2));
+        elenco.aggiungiStudente(new Studente("Rossi", "Mario", "1001", "m.rossi@studenti.unisa.it", "Nessuna", false));
+        elenco.aggiungiStudente(new Studente("Verdi", "Anna", "1002", "a.verdi@studenti.unisa.it", "Categoria 3 (25 gg ritardo): Blocco PERMANENTE.", false));
+    }
+
+    /**
+     * @brief Pulizia eseguita dopo ogni metodo di test.
+     */
+    @AfterEach
+    public void tearDown() {
+        salvataggio.chiudi();
+        System.clearProperty(CartellaDati.PROPRIETA_CARTELLA);
+        for (File f : cartella.listFiles()) {
+            f.delete();
+        }
+        cartella.delete();
+    }
+
+    /**
+     * @brief Test del metodo presta(): prestito registrato e casi di rifiuto.
+     */
+    @Test
+    public void testPresta() {
+        System.out.println("testPresta");
+
+        ServizioPrestiti.Risultato risultato = servizio.presta("1001", "1462", OGGI);
+        assertEquals(Esito.ESEGUITO, risultato.getEsito(), "Il prestito deve essere registrato.");
+        assertEquals(OGGI.plusDays(Prestito.DURATA_PRESTITO), risultato.getPrestito().getDataScadenza(), "La scadenza deve essere dopo DURATA_PRESTITO giorni.");
+        assertEquals(1, catalogo.cercaLibroPerISBN("1462").getNumCopie(), "Le copie disponibili devono diminuire.");
+        assertEquals(1, elenco.cercaStudenteperMatricola("1001").contaPrestitiAttivi(), "Lo studente deve avere un prestito attivo.");
+
+        assertEquals(Esito.STUDENTE_NON_TROVATO, servizio.presta("9999", "1462", OGGI).getEsito());
+        assertEquals(Esito.LIBRO_NON_TROVATO, servizio.presta("1001", "0000", OGGI).getEsito());
+        assertEquals(Esito.STUDENTE_NON_ABILITATO, servizio.presta("1002", "1462", OGGI).getEsito(), "Una sanzione di Categoria 3 blocca i prestiti.");
+        assertEquals(Esito.ESEGUITO, servizio.presta("1001", "1462", OGGI).getEsito());
+        assertEquals(Esito.COPIE_ESAURITE, servizio.presta("1001", "1462", OGGI).getEsito(), "Senza copie il prestito deve essere rifiutato.");
+    }
+
+    /**
+     * @brief Test del metodo restituisci(): chiusura del prestito, sanzione e copia rientrata,
+     * anche se il libro è stato eliminato dal catalogo durante il prestito.
+     */
+    @Test
+    public void testRestituisci() {
+        System.out.println("testRestituisci");
+
+        servizio.presta("1001", "1462", OGGI);
+        assertEquals(Esito.PRESTITO_NON_TROVATO, servizio.restituisci("1001", "0000", OGGI).getEsito());
+
+        ServizioPrestiti.Risultato risultato = servizio.restituisci("1001", "1462", OGGI.plusDays(Prestito.DURATA_PRESTITO + 5));
+        assertEquals(Esito.ESEGUITO, risultato.getEsito(), "La restituzione deve essere registrata.");
+        assertTrue(risultato.getSanzione().startsWith("Categoria 1"), "Cinque giorni di ritardo comportano una sanzione di Categoria 1.");
+        assertEquals(0, elenco.cercaStudenteperMatricola("1001").contaPrestitiAttivi(), "Il prestito non deve più essere attivo.");
+        assertEquals(2, catalogo.cercaLibroPerISBN("1462").getNumCopie(), "La copia deve rientrare nel catalogo.");
+        assertEquals(Esito.PRESTITO_NON_TROVATO, servizio.restituisci("1001", "1462", OGGI).getEsito(), "Un prestito non può essere restituito due volte.");
+
+        servizio.presta("1001", "1462", OGGI);
+        catalogo.eliminaLibro("1462");
+        assertEquals(Esito.ESEGUITO, servizio.restituisci("1001", "1462", OGGI).getEsito());
+        assertEquals(1, catalogo.cercaLibroPerISBN("1462").getNumCopie(), "Il libro eliminato deve essere reinserito con la copia restituita.");
+    }
+
+    /**
+     * @brief Test del blocco di Categoria 2: dopo una restituzione con 15 giorni di ritardo lo studente
+     * non può prendere libri in prestito per Studente.GIORNI_BLOCCO giorni dalla restituzione.
+     */
+    @Test
+    public void testBloccoCategoria2() {
+        System.out.println("testBloccoCategoria2");
+
+        servizio.presta("1001", "1462", OGGI);
+        LocalDate restituzione = OGGI.plusDays(Prestito.DURATA_PRESTITO + 15);
+        assertTrue(servizio.restituisci("1001", "1462", restituzione).getSanzione().startsWith("Categoria 2"));
+        assertEquals(restituzione.plusDays(Studente.GIORNI_BLOCCO), elenco.cercaStudenteperMatricola("1001").getFineBlocco(),
+                "Il blocco deve decorrere dalla restituzione.");
+
+        assertEquals(Esito.STUDENTE_NON_ABILITATO, servizio.presta("1001", "1462", restituzione.plusDays(Studente.GIORNI_BLOCCO - 1)).getEsito(),
+                "Durante il blocco il prestito deve essere rifiutato.");
+        assertEquals(Esito.ESEGUITO, servizio.presta("1001", "1462", restituzione.plusDays(Studente.GIORNI_BLOCCO)).getEsito(),
+                "Al termine del blocco il prestito deve essere registrato.");
+    }
+
+    /**
+     * @brief Test dell'accesso concorrente: più thread chiedono in prestito libri per lo stesso studente
+     * e lo stesso libro per studenti diversi. Nessuno studente deve superare Prestito.LIMITE_PRESTITI
+     * e ogni copia deve essere assegnata una sola volta; restituendo poi gli stessi prestiti da più
+     * thread, ogni prestito deve essere chiuso una sola volta.
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    @Test
+    public void testAccessoConcorrente() throws InterruptedException {
+        System.out.println("testAccessoConcorrente");
+        final int thread = 8;
+        final int studenti = 400;
+        final int copie = 150;
+        catalogo.aggiungiLibro(new Libro("2000", "Libro conteso", "Autore", LocalDate.of(2000, 1, 1), copie));
+        for (int i = 0; i < 10; i++) {
+            catalogo.aggiungiLibro(new Libro("30" + i, "Libro " + i, "Autore", LocalDate.of(2000, 1, 1), 100));
+        }
+        for (int i = 0; i < studenti; i++) {
+            elenco.aggiungiStudente(new Studente("Cognome" + i, "Nome", "S" + i, "s" + i + "@studenti.unisa.it", "Nessuna", false));
+        }
+
+        AtomicInteger prestitiConteso = new AtomicInteger();
+        AtomicInteger prestitiRossi = new AtomicInteger();
+        List<Throwable> errori = new CopyOnWriteArrayList<>();
+        CountDownLatch partenza = new CountDownLatch(1);
+        Thread[] esecutori = new Thread[thread];
+        for (int t = 0; t < thread; t++) {
+            final int indice = t;
+            esecutori[t] = new Thread(() -> {
+                try {
+                    partenza.await();
+                    for (int i = indice; i < studenti; i += thread) {
+                        if (servizio.presta("S" + i, "2000", OGGI).getEsito() == Esito.ESEGUITO) {
+                            prestitiConteso.incrementAndGet();
+                        }
+                        if (servizio.presta("1001", "30" + (i % 10), OGGI).getEsito() == Esito.ESEGUITO) {
+                            prestitiRossi.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    errori.add(e);
+                }
+            });
+            esecutori[t].start();
+        }
+        partenza.countDown();
+        for (Thread t : esecutori) {
+            t.join();
+        }
+
+        assertTrue(errori.isEmpty(), "Nessun thread deve sollevare eccezioni: " + errori);
+        assertEquals(copie, prestitiConteso.get(), "Ogni copia del libro conteso deve essere prestata una sola volta.");
+        assertEquals(0, catalogo.cercaLibroPerISBN("2000").getNumCopie(), "Le copie del libro conteso devono essere esaurite.");
+        assertEquals(Prestito.LIMITE_PRESTITI, prestitiRossi.get(), "Lo studente non deve superare il limite di prestiti.");
+        assertEquals(Prestito.LIMITE_PRESTITI, elenco.cercaStudenteperMatricola("1001").contaPrestitiAttivi());
+
+        // Restituzioni concorrenti degli stessi prestiti: ognuno viene chiuso una sola volta
+        AtomicInteger restituzioni = new AtomicInteger();
+        CountDownLatch ripartenza = new CountDownLatch(1);
+        for (int t = 0; t < thread; t++) {
+            esecutori[t] = new Thread(() -> {
+                try {
+                    ripartenza.await();
+                    for (int i = 0; i < 10; i++) {
+                        if (servizio.restituisci("1001", "30" + i, OGGI).getEsito() == Esito.ESEGUITO) {
+                            restituzioni.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    errori.add(e);
+                }
+            });
+            esecutori[t].start();
+        }
+        ripartenza.countDown();
+        for (Thread t : esecutori) {
+            t.join();
+        }
+
+        assertTrue(errori.isEmpty(), "Nessun thread deve sollevare eccezioni: " + errori);
+        assertEquals(Prestito.LIMITE_PRESTITI, restituzioni.get(), "Ogni prestito deve essere restituito una sola volta.");
+        int copieRientrate = 0;
+        for (int i = 0; i < 10; i++) {
+            copieRientrate += catalogo.cercaLibroPerISBN("30" + i).getNumCopie();
+        }
+        assertEquals(10 * 100, copieRientrate, "Ogni copia restituita deve rientrare una sola volta.");
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * @file StoricoPrestitiTest.java
+ * @brief Classe di test per l'implementazione della classe StoricoPrestiti.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.CartellaDati;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.StoricoPrestiti;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Classe di test per la classe StoricoPrestiti. Lo storico è scritto in una cartella temporanea.
+ */
+public class StoricoPrestitiTest {
+
+    private static final LocalDate INIZIO = LocalDate.of(2025, 1, 10); ///< Data di inizio dei prestiti di prova.
+
+    private File cartella; ///< Cartella temporanea dei file dati.
+    private File file; ///< File dello storico.
+
+    /**
+     * @brief Configurazione eseguita prima di ogni metodo di test.
+     * @throws IOException Se la cartella temporanea non può essere creata.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        cartella = Files.createTempDirectory("storico").toFile();
+        file = new File(cartella, "Storico_prestiti.dat");
+    }
+
+    /**
+     * @brief Pulizia eseguita dopo ogni metodo di test.
+     */
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(CartellaDati.PROPRIETA_CARTELLA);
+        for (File f : cartella.listFiles()) {
+            f.delete();
+        }
+        cartella.delete();
+    }
+
+    /**
+     * @brief Crea un prestito chiuso.
+     * @param[in] matricola La matricola dello studente.
+     * @param[in] isbn L'ISBN del libro.
+     * @param[in] giorni I giorni trascorsi da INIZIO all'inizio del prestito.
+     * @return Il prestito, restituito dieci giorni dopo l'inizio.
+     */
+    private static Prestito chiuso(String matricola, String isbn, int giorni) {
+        Studente s = new Studente("Cognome", "Nome", matricola, matricola + "@studenti.unisa.it", "Nessuna", false);
+        Libro l = new Libro(isbn, "Titolo", "Autore", LocalDate.of(2000, 1, 1), 1);
+        LocalDate inizio = INIZIO.plusDays(giorni);
+        return new Prestito(l, s, inizio, inizio.plusDays(Prestito.DURATA_PRESTITO), inizio.plusDays(10));
+    }
+
+    /**
+     * @brief Legge tutti i prestiti dello storico come stringhe "matricola isbn inizio scadenza restituzione".
+     * @param[in] storico Lo storico.
+     * @return I prestiti, nell'ordine del file.
+     * @throws IOException Se lo storico non può essere letto.
+     */
+    private static List<String> leggi(StoricoPrestiti storico) throws IOException {
+        List<String> righe = new ArrayList<>();
+        storico.scorri(b -> {
+            for (int i = 0; i < b.getRighe(); i++) {
+                righe.add(b.matricola(b.getStudenti()[i]) + " " + b.isbn(b.getLibri()[i]) + " "
+                        + LocalDate.ofEpochDay(b.getInizi()[i]) + " " + LocalDate.ofEpochDay(b.getScadenze()[i]) + " "
+                        + LocalDate.ofEpochDay(b.getRestituzioni()[i]));
+            }
+        });
+        return righe;
+    }
+
+    /**
+     * @brief Restituisce la rappresentazione di un prestito usata da leggi().
+     * @param[in] p Il prestito.
+     * @return La stringa.
+     */
+    private static String riga(Prestito p) {
+        return p.getStudente().getMatricola() + " " + p.getLibro().getIsbn() + " " + p.getDataInizio() + " "
+                + p.getDataScadenza() + " " + p.getDataRestituzione();
+    }
+
+    /**
+     * @brief Test di accoda(), scarica() e scorri(): i prestiti vengono scritti solo da scarica() e
+     * riletti identici, anche dopo la riapertura dello storico, che riprende i codici dei dizionari.
+     * @throws IOException Se lo storico non può essere letto o scritto.
+     */
+    @Test
+    public void testAccodaEScorri() throws IOException {
+        System.out.println("testAccodaEScorri");
+
+        StoricoPrestiti storico = new StoricoPrestiti(file);
+        List<String> attesi = new ArrayList<>();
+        Prestito[] prestiti = {chiuso("0612700001", "9788845292613", 0), chiuso("0612700002", "9788845292613", 1), chiuso("0612700001", "9788804668237", 2)};
+        for (Prestito p : prestiti) {
+            storico.accoda(p);
+            attesi.add(riga(p));
+        }
+        assertEquals(3, storico.getNumeroInAttesa());
+        assertTrue(leggi(storico).isEmpty(), "I prestiti accodati non devono essere scritti prima di scarica().");
+
+        storico.scarica();
+        assertEquals(0, storico.getNumeroInAttesa());
+        assertEquals(3, storico.getNumeroPrestiti());
+        assertEquals(attesi, leggi(storico));
+
+        // Riapertura: le matricole e gli ISBN già presenti non vengono ripetuti nel file
+        long dimensione = file.length();
+        StoricoPrestiti riaperto = new StoricoPrestiti(file);
+        assertEquals(3, riaperto.getNumeroPrestiti());
+        Prestito nuovo = chiuso("0612700002", "9788804668237", 3);
+        riaperto.accoda(nuovo);
+        attesi.add(riga(nuovo));
+        riaperto.scarica();
+        assertEquals(4 + 4 + 4 + 4 + 5 * 4 + 4, file.length() - dimensione, "Un prestito con matricola e ISBN già noti deve occupare solo le colonne.");
+        assertEquals(attesi, leggi(riaperto));
+
+        assertThrows(IllegalArgumentException.class, () -> riaperto.accoda(new Prestito(prestiti[0].getLibro(), prestiti[0].getStudente(), INIZIO, INIZIO.plusDays(30), null)),
+                "Un prestito attivo non deve essere accodato.");
+    }
+
+    /**
+     * @brief Test dell'apertura di uno storico con un blocco incompleto in fondo (scrittura interrotta):
+     * il blocco viene ignorato dalla lettura e rimosso all'apertura.
+     * @throws IOException Se lo storico non può essere letto o scritto.
+     */
+    @Test
+    public void testBloccoIncompleto() throws IOException {
+        System.out.println("testBloccoIncompleto");
+
+        StoricoPrestiti storico = new StoricoPrestiti(file);
+        Prestito primo = chiuso("0612700001", "9788845292613", 0);
+        storico.accoda(primo);
+        storico.scarica();
+        long valido = file.length();
+        storico.accoda(chiuso("0612700002", "9788804668237", 1));
+        storico.scarica();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(file.length() - 3);
+        }
+
+        assertEquals(List.of(riga(primo)), leggi(storico), "Il blocco incompleto deve essere ignorato.");
+        StoricoPrestiti riaperto = new StoricoPrestiti(file);
+        assertEquals(valido, file.length(), "Il blocco incompleto deve essere rimosso all'apertura.");
+        assertEquals(1, riaperto.getNumeroPrestiti());
+        Prestito nuovo = chiuso("0612700003", "9788804668237", 2);
+        riaperto.accoda(nuovo);
+        riaperto.scarica();
+        assertEquals(List.of(riga(primo), riga(nuovo)), leggi(riaperto));
+
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> new StoricoPrestiti(file), "Un file diverso non deve essere aperto come storico.");
+    }
+
+    /**
+     * @brief Test di compattaSeFrammentato(): uno storico scritto un prestito alla volta viene
+     * riscritto in pochi blocchi, con gli stessi prestiti.
+     * @throws IOException Se lo storico non può essere letto o scritto.
+     */
+    @Test
+    public void testCompatta() throws IOException {
+        System.out.println("testCompatta");
+
+        StoricoPrestiti storico = new StoricoPrestiti(file);
+        assertFalse(storico.compattaSeFrammentato());
+        for (int i = 0; i < 300; i++) {
+            storico.accoda(chiuso(String.valueOf(612700000 + i % 50), "97888" + (i % 70), i));
+            storico.scarica();
+        }
+        List<String> attesi = leggi(storico);
+        assertEquals(300, storico.getNumeroBlocchi());
+
+        assertTrue(storico.compattaSeFrammentato());
+        assertEquals(1, storico.getNumeroBlocchi());
+        assertEquals(attesi, leggi(storico));
+        assertEquals(attesi, leggi(new StoricoPrestiti(file)));
+        assertFalse(storico.compattaSeFrammentato(), "Uno storico compatto non deve essere riscritto.");
+    }
+
+    /**
+     * @brief Test di scorri() su molti prestiti in più blocchi: conteggi coerenti e velocità di lettura.
+     * @throws IOException Se lo storico non può essere letto o scritto.
+     */
+    @Test
+    public void testScorriMoltiPrestiti() throws IOException {
+        System.out.println("testScorriMoltiPrestiti");
+
+        StoricoPrestiti storico = new StoricoPrestiti(file);
+        int numero = 1_000_000;
+        Prestito[] modelli = new Prestito[1000];
+        for (int i = 0; i < modelli.length; i++) {
+            modelli[i] = chiuso(String.valueOf(612700000 + i * 7 % 1000), "97888" + (i * 13 % 1000), i % 365);
+        }
+        for (int i = 0; i < numero; i++) {
+            storico.accoda(modelli[i % modelli.length]);
+        }
+        storico.scarica();
+        assertEquals(numero, storico.getNumeroPrestiti());
+        assertTrue(file.length() < numero * 21L, "Ogni prestito deve occupare circa 20 byte.");
+
+        long[] totali = new long[2];
+        long inizio = System.nanoTime();
+        storico.scorri(b -> {
+            assertEquals(totali[0], b.getPrimo());
+            totali[0] += b.getRighe();
+            int[] restituzioni = b.getRestituzioni();
+            int[] inizi = b.getInizi();
+            for (int i = 0; i < b.getRighe(); i++) {
+                totali[1] += restituzioni[i] - inizi[i];
+            }
+        });
+        long nano = System.nanoTime() - inizio;
+        System.out.println("Letti " + totali[0] + " prestiti in " + nano / 1_000_000 + " ms");
+        assertEquals(numero, totali[0]);
+        assertEquals(10L * numero, totali[1], "Ogni prestito di prova dura dieci giorni.");
+    }
+
+    /**
+     * @brief Test dello storico collegato all'Elenco: i prestiti chiusi con chiudiPrestito() vengono
+     * scritti nello storico al salvataggio.
+     * @throws IOException Se lo storico non può essere letto o scritto.
+     */
+    @Test
+    public void testElencoChiudiPrestito() throws IOException {
+        System.out.println("testElencoChiudiPrestito");
+
+        System.setProperty(CartellaDati.PROPRIETA_CARTELLA, cartella.getPath());
+        Elenco elenco = new Elenco();
+        StoricoPrestiti storico = new StoricoPrestiti(file);
+        elenco.setStorico(storico);
+        Studente s = new Studente("Rossi", "Mario", "0612700001", "m.rossi@studenti.unisa.it", "Nessuna", false);
+        Libro l = new Libro("9788845292613", "Titolo", "Autore", LocalDate.of(2000, 1, 1), 1);
+        Prestito p = new Prestito(l, s, INIZIO, INIZIO.plusDays(Prestito.DURATA_PRESTITO), null);
+        s.aggiungiPrestito(p);
+        elenco.aggiungiStudente(s);
+
+        elenco.chiudiPrestito(s, p, INIZIO.plusDays(5));
+        assertTrue(s.getPrestitiAttivi().isEmpty());
+        assertEquals(1, storico.getNumeroInAttesa());
+        elenco.salvaModifiche();
+        assertEquals(0, storico.getNumeroInAttesa());
+        assertEquals(List.of("0612700001 9788845292613 " + INIZIO + " " + INIZIO.plusDays(Prestito.DURATA_PRESTITO) + " " + INIZIO.plusDays(5)),
+                leggi(storico), "Il prestito chiuso deve essere conservato nello storico.");
+    }
+}
@@ -16,7 +16,6 @@ import it.unisa.diem.gruppo01.classi.Libro;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -69,6 +68,24 @@ public class StudenteTest {
         );
     }
 
+    /**
+     * @brief Test della chiave di ordinamento.
+     * @test Verifica che la chiave sia il cognome in minuscolo e senza accenti
+     * e che venga ricalcolata solo quando il cognome cambia.
+     */
+    @Test
+    public void testGetChiaveOrdinamento() {
+        studente.setCognome("D'Àmato Niccolò");
+        assertEquals("d'amato niccolo", studente.getChiaveOrdinamento(), "La chiave deve essere minuscola e senza accenti");
+        
+        String chiave = studente.getChiaveOrdinamento();
+        studente.setCognome("D'Àmato Niccolò");
+        assertSame(chiave, studente.getChiaveOrdinamento(), "Con lo stesso cognome la chiave non deve essere ricalcolata");
+        
+        studente.setCognome("Rossi");
+        assertEquals("rossi", studente.getChiaveOrdinamento(), "Un nuovo cognome deve aggiornare la chiave");
+    }
+
     /**
      * @brief Test gestione della lista prestiti.
      * @test Verifica le operazioni CRUD sulla lista interna:
@@ -123,47 +140,59 @@ public class StudenteTest {
     }
 
     /**
-     * @brief Test White-Box avanzato per Categoria 2 (Blocco attivo).
+     * @brief Test per Categoria 2 (Blocco attivo).
      * @test Verifica che il blocco temporaneo (30gg) sia efficace se la restituzione è recente.
-     * @throws NoSuchFieldException Se il campo 'prestito' non esiste.
-     * @throws IllegalAccessException Se la reflection non riesce ad accedere al campo privato.
      */
     @Test
-    public void testIsAbilitato_SanzioneCategoria2_NonScaduta() throws NoSuchFieldException, IllegalAccessException {
-        studente.setSanzione("Categoria 2 (Blocco 30gg)");
-        
-        // Creiamo un prestito restituito oggi (quindi blocco attivo perché < 30gg)
-        Prestito prestitoRecente = new Prestito(null, studente, LocalDate.now().minusDays(50), LocalDate.now().minusDays(20), LocalDate.now());
-        
-        // --- INIZIO REFLECTION ---
-        Field field = Studente.class.getDeclaredField("prestito");
-        field.setAccessible(true); // Bypass dell'incapsulamento
-        field.set(studente, prestitoRecente); // Injection
-        // --- FINE REFLECTION ---
+    public void testIsAbilitato_SanzioneCategoria2_NonScaduta() {
+        // Sanzione decisa alla restituzione di oggi (quindi blocco attivo perché < 30gg)
+        studente.applicaSanzione("Categoria 2 (Blocco 30gg)", LocalDate.now());
 
         assertFalse(studente.isAbilitato(), "Blocco Categoria 2 attivo se restituzione < 30gg fa");
+        assertEquals(LocalDate.now().plusDays(Studente.GIORNI_BLOCCO), studente.getFineBlocco());
     }
     
     /**
-     * @brief Test White-Box avanzato per Categoria 2 (Blocco scaduto).
+     * @brief Test per Categoria 2 (Blocco scaduto).
      * @test Verifica che lo studente torni abilitato se sono passati più di 30 giorni dalla restituzione.
-     * @note Utilizza **Java Reflection** per manipolare lo stato interno.
      */
     @Test
-    public void testIsAbilitato_SanzioneCategoria2_Scaduta() throws NoSuchFieldException, IllegalAccessException {
-        studente.setSanzione("Categoria 2 (Blocco 30gg)");
-        
-        // Prestito restituito 40 giorni fa (Blocco scaduto)
-        Prestito prestitoVecchio = new Prestito(null, studente, LocalDate.now().minusDays(100), LocalDate.now().minusDays(50), LocalDate.now().minusDays(40));
-        
-        // Reflection per iniettare il prestito
-        Field field = Studente.class.getDeclaredField("prestito");
-        field.setAccessible(true);
-        field.set(studente, prestitoVecchio);
+    public void testIsAbilitato_SanzioneCategoria2_Scaduta() {
+        // Sanzione decisa alla restituzione di 40 giorni fa (Blocco scaduto)
+        studente.applicaSanzione("Categoria 2 (Blocco 30gg)", LocalDate.now().minusDays(40));
 
         assertTrue(studente.isAbilitato(), "Blocco Categoria 2 non attivo se restituzione > 30gg fa");
     }
 
+    /**
+     * @brief Test dei limiti del blocco di Categoria 2 e della sua copia su un altro studente.
+     * @test Il blocco termina esattamente GIORNI_BLOCCO giorni dopo la sanzione e la descrizione della
+     * sanzione non viene modificata; uno studente creato con la stessa descrizione (come alla lettura da file)
+     * ha lo stesso blocco solo dopo setFineBlocco(); una sanzione di un'altra categoria rimuove il blocco.
+     */
+    @Test
+    public void testIsAbilitato_SanzioneCategoria2_FineBlocco() {
+        LocalDate restituzione = LocalDate.of(2025, 3, 1);
+        studente.applicaSanzione(Prestito.sanzionePerRitardo(15), restituzione);
+        long fine = restituzione.plusDays(Studente.GIORNI_BLOCCO).toEpochDay();
+        assertEquals(Prestito.sanzionePerRitardo(15), studente.getSanzione(), "La descrizione della sanzione non deve essere modificata.");
+        assertFalse(studente.isAbilitato(fine - 1), "L'ultimo giorno del blocco lo studente non è abilitato.");
+        assertTrue(studente.isAbilitato(fine), "Al termine del blocco lo studente è di nuovo abilitato.");
+
+        Studente letto = new Studente("Bianchi", "Luca", "0612700001", "l.bianchi@studenti.unisa.it", studente.getSanzione(), false);
+        assertNull(letto.getFineBlocco(), "Senza fine del blocco la sanzione non deve bloccare i prestiti.");
+        assertTrue(letto.isAbilitato(fine - 1));
+        letto.setFineBlocco(studente.getFineBlocco());
+        assertEquals(studente.getFineBlocco(), letto.getFineBlocco());
+        assertFalse(letto.isAbilitato(fine - 1));
+
+        studente.setSanzione("Nessuna");
+        assertNull(studente.getFineBlocco());
+        assertTrue(studente.isAbilitato(fine - 1), "Una nuova sanzione deve rimuovere il blocco precedente.");
+        studente.setFineBlocco(restituzione);
+        assertNull(studente.getFineBlocco(), "Il blocco deve essere ignorato se la sanzione non è di Categoria 2.");
+    }
+
     /**
      * @brief Test della logica booleana complessa di isRitardo().
      * @test Copre tre rami decisionali (Branch Coverage):
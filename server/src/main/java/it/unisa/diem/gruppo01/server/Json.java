@@ -0,0 +1,181 @@
+/**
+ * @file Json.java
+ * @brief Serializzazione in JSON degli oggetti del dominio restituiti dal server.
+ * @author Gruppo01
+ * @version 1.0
+ */
+
+package it.unisa.diem.gruppo01.server;
+
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.ServizioPrestiti;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.util.List;
+
+/**
+ * @brief Scrittura in JSON di libri, studenti e prestiti.
+ * Il formato è piatto e stabile (nomi dei campi in italiano), così che il server non dipenda
+ * da librerie esterne.
+ */
+final class Json {
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private Json() {
+    }
+
+    /**
+     * @brief Scrive un libro.
+     * @param[in] sb Il buffer di destinazione.
+     * @param[in] libro Il libro.
+     * @return Il buffer.
+     */
+    static StringBuilder libro(StringBuilder sb, Libro libro) {
+        sb.append("{\"isbn\":");
+        stringa(sb, libro.getIsbn());
+        sb.append(",\"titolo\":");
+        stringa(sb, libro.getTitolo());
+        sb.append(",\"autore\":");
+        stringa(sb, libro.getAutore());
+        sb.append(",\"anno\":").append(libro.getAnnoPb().getYear());
+        sb.append(",\"copie\":").append(libro.getNumCopie());
+        return sb.append('}');
+    }
+
+    /**
+     * @brief Scrive un elenco di libri, limitato ai primi libri.
+     * @param[in] libri I libri.
+     * @param[in] limite Il numero massimo di libri da scrivere.
+     * @return Il documento JSON: totale dei risultati e libri restituiti.
+     */
+    static String libri(List<Libro> libri, int limite) {
+        StringBuilder sb = new StringBuilder(64 + 128 * Math.min(libri.size(), limite));
+        sb.append("{\"totale\":").append(libri.size()).append(",\"libri\":[");
+        for (int i = 0; i < libri.size() && i < limite; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            libro(sb, libri.get(i));
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * @brief Scrive un prestito.
+     * @param[in] sb Il buffer di destinazione.
+     * @param[in] prestito Il prestito.
+     * @return Il buffer.
+     */
+    static StringBuilder prestito(StringBuilder sb, Prestito prestito) {
+        sb.append("{\"libro\":");
+        libro(sb, prestito.getLibro());
+        sb.append(",\"dataInizio\":");
+        stringa(sb, String.valueOf(prestito.getDataInizio()));
+        sb.append(",\"dataScadenza\":");
+        stringa(sb, String.valueOf(prestito.getDataScadenza()));
+        if (prestito.getDataRestituzione() != null) {
+            sb.append(",\"dataRestituzione\":");
+            stringa(sb, prestito.getDataRestituzione().toString());
+        }
+        return sb.append('}');
+    }
+
+    /**
+     * @brief Scrive uno studente con i suoi prestiti attivi e, se presente, la fine del blocco di Categoria 2.
+     * @param[in] studente Lo studente.
+     * @param[in] prestiti I prestiti attivi dello studente (vedi ServizioPrestiti.prestitiAttivi()).
+     * @return Il documento JSON.
+     */
+    static String studente(Studente studente, Prestito[] prestiti) {
+        StringBuilder sb = new StringBuilder(256 + 256 * prestiti.length);
+        sb.append("{\"matricola\":");
+        stringa(sb, studente.getMatricola());
+        sb.append(",\"cognome\":");
+        stringa(sb, studente.getCognome());
+        sb.append(",\"nome\":");
+        stringa(sb, studente.getNome());
+        sb.append(",\"email\":");
+        stringa(sb, studente.getEmail());
+        sb.append(",\"sanzione\":");
+        stringa(sb, studente.getSanzione());
+        if (studente.getFineBlocco() != null) {
+            sb.append(",\"fineBlocco\":");
+            stringa(sb, studente.getFineBlocco().toString());
+        }
+        sb.append(",\"prestiti\":[");
+        for (int i = 0; i < prestiti.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            prestito(sb, prestiti[i]);
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * @brief Scrive il risultato di un prestito o di una restituzione eseguiti.
+     * @param[in] risultato Il risultato.
+     * @return Il documento JSON.
+     */
+    static String risultato(ServizioPrestiti.Risultato risultato) {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"prestito\":");
+        prestito(sb, risultato.getPrestito());
+        if (risultato.getSanzione() != null) {
+            sb.append(",\"sanzione\":");
+            stringa(sb, risultato.getSanzione());
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * @brief Scrive un messaggio di errore.
+     * @param[in] messaggio Il messaggio.
+     * @return Il documento JSON.
+     */
+    static String errore(String messaggio) {
+        return stringa(new StringBuilder("{\"errore\":"), messaggio).append('}').toString();
+    }
+
+    /**
+     * @brief Scrive una stringa JSON, con i caratteri speciali preceduti da escape.
+     * @param[in] sb Il buffer di destinazione.
+     * @param[in] valore La stringa (null viene scritto come null).
+     * @return Il buffer.
+     */
+    static StringBuilder stringa(StringBuilder sb, String valore) {
+        if (valore == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < valore.length(); i++) {
+            char c = valore.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,422 @@
+/**
+ * @file ServerBiblioteca.java
+ * @brief Server HTTP/JSON senza interfaccia grafica, condiviso da più postazioni.
+ * @author Gruppo01
+ * @version 1.0
+ */
+
+package it.unisa.diem.gruppo01.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import it.unisa.diem.gruppo01.classi.CaricamentoIniziale;
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.SalvataggioAutomatico;
+import it.unisa.diem.gruppo01.classi.ServizioPrestiti;
+import it.unisa.diem.gruppo01.classi.Studente;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @brief API HTTP/JSON su Catalogo ed Elenco, basata sul server HTTP del JDK (com.sun.net.httpserver).
+ *
+ * Risorse:
+ * - GET  /libri?titolo=&autore=&isbn=&limite=  ricerca nel catalogo (Catalogo.cercaLibri), al più limite risultati (predefinito 100);
+ * - GET  /libri/{isbn}                          libro per ISBN;
+ * - GET  /studenti/{matricola}                  studente con i prestiti attivi;
+ * - POST /prestiti      (matricola, isbn)       nuovo prestito (201), 409 se lo studente non è abilitato o le copie sono esaurite;
+ * - POST /restituzioni  (matricola, isbn)       restituzione, con l'esito della verifica delle sanzioni.
+ * I parametri delle richieste POST possono essere passati nella query string o nel corpo
+ * (application/x-www-form-urlencoded). Gli errori sono restituiti come {"errore": "..."}.
+ *
+ * Ogni richiesta viene eseguita su un thread virtuale, se la JVM li supporta (Java 21 o successivo);
+ * altrimenti su un pool di thread di piattaforma. La concorrenza sui dati è gestita dal Catalogo
+ * (ricerche sotto lock di lettura, copie decrementate atomicamente) e da ServizioPrestiti (prestiti e
+ * restituzioni serializzati sul lock dell'elenco).
+ */
+public class ServerBiblioteca {
+
+    public static final int PORTA_PREDEFINITA = 8080; ///< Porta usata se non ne viene indicata un'altra.
+    public static final int LIMITE_PREDEFINITO = 100; ///< Numero massimo predefinito di libri restituiti da una ricerca.
+    private static final int CODA_CONNESSIONI = 1024; ///< Connessioni in attesa di essere accettate.
+    private static final int ATTESA_ARRESTO = 3; ///< Secondi concessi alle richieste in corso durante l'arresto.
+
+    private static final Logger LOGGER = Logger.getLogger(ServerBiblioteca.class.getName()); ///< Log degli errori del server.
+
+    /**
+     * @brief Gestione di una richiesta: restituisce la risposta o solleva un'eccezione (risposta 500).
+     */
+    private interface Gestore {
+        /**
+         * @brief Elabora la richiesta.
+         * @param[in] scambio La richiesta.
+         * @return La risposta.
+         * @throws IOException Se il corpo della richiesta non può essere letto.
+         */
+        Risposta gestisci(HttpExchange scambio) throws IOException;
+    }
+
+    /**
+     * @brief Codice di stato e corpo JSON di una risposta.
+     */
+    private static final class Risposta {
+
+        private final int codice; ///< Codice di stato HTTP.
+        private final String corpo; ///< Documento JSON.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] codice Codice di stato HTTP.
+         * @param[in] corpo Documento JSON.
+         */
+        Risposta(int codice, String corpo) {
+            this.codice = codice;
+            this.corpo = corpo;
+        }
+    }
+
+    private final Catalogo catalogo; ///< Catalogo condiviso.
+    private final Elenco elenco; ///< Elenco condiviso.
+    private final ServizioPrestiti servizioPrestiti; ///< Prestiti e restituzioni.
+    private final HttpServer server; ///< Server HTTP del JDK.
+    private final ExecutorService esecutore; ///< Esecutore delle richieste.
+    private final boolean threadVirtuali; ///< true se le richieste sono eseguite su thread virtuali.
+
+    /**
+     * @brief Costruttore: crea il server sulla porta indicata, senza avviarlo.
+     * @param[in] catalogo Il catalogo.
+     * @param[in] elenco L'elenco degli studenti.
+     * @param[in] porta La porta (0 per una porta libera qualsiasi).
+     * @throws IOException Se la porta non è disponibile.
+     */
+    public ServerBiblioteca(Catalogo catalogo, Elenco elenco, int porta) throws IOException {
+        this.catalogo = catalogo;
+        this.elenco = elenco;
+        this.servizioPrestiti = new ServizioPrestiti(catalogo, elenco);
+
+        ExecutorService virtuali = esecutoreThreadVirtuali();
+        this.threadVirtuali = virtuali != null;
+        this.esecutore = threadVirtuali ? virtuali : esecutoreThreadPiattaforma();
+
+        this.server = HttpServer.create(new InetSocketAddress(porta), CODA_CONNESSIONI);
+        server.setExecutor(esecutore);
+        server.createContext("/libri", scambio -> esegui(scambio, "GET", true, this::libri));
+        server.createContext("/studenti", scambio -> esegui(scambio, "GET", true, this::studente));
+        server.createContext("/prestiti", scambio -> esegui(scambio, "POST", false, this::prestito));
+        server.createContext("/restituzioni", scambio -> esegui(scambio, "POST", false, this::restituzione));
+    }
+
+    /**
+     * @brief Avvia il server.
+     */
+    public void avvia() {
+        server.start();
+    }
+
+    /**
+     * @brief Arresta il server: le nuove richieste vengono rifiutate e quelle in corso vengono
+     * completate, attendendo al più ATTESA_ARRESTO secondi per la risposta e altrettanti per la
+     * terminazione dei thread che le eseguono. Al ritorno nessuna richiesta modifica più
+     * catalogo ed elenco, salvo che l'attesa sia scaduta (il caso viene registrato nel log).
+     */
+    public void ferma() {
+        server.stop(ATTESA_ARRESTO);
+        esecutore.shutdown();
+        try {
+            if (!esecutore.awaitTermination(ATTESA_ARRESTO, TimeUnit.SECONDS)) {
+                LOGGER.log(Level.WARNING, "Arresto del server: alcune richieste non sono terminate entro {0} secondi.", ATTESA_ARRESTO);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @brief Restituisce la porta su cui il server è in ascolto.
+     * @return La porta.
+     */
+    public int getPorta() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @brief Indica se le richieste sono eseguite su thread virtuali.
+     * @return true con Java 21 o successivo, false se si usa il pool di thread di piattaforma.
+     */
+    public boolean isThreadVirtuali() {
+        return threadVirtuali;
+    }
+
+    /**
+     * @brief Crea un esecutore con un thread virtuale per richiesta (Executors.newVirtualThreadPerTaskExecutor).
+     * Il metodo viene cercato per riflessione: il progetto è compilato per Java 17, dove non esiste.
+     * @return L'esecutore, oppure null se la JVM non supporta i thread virtuali.
+     */
+    private static ExecutorService esecutoreThreadVirtuali() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @brief Crea il pool di thread di piattaforma usato quando i thread virtuali non sono disponibili.
+     * Le richieste sono brevi e non bloccano su I/O (le scritture su disco sono in background):
+     * pochi thread per core bastano a saturare la CPU.
+     * @return L'esecutore.
+     */
+    private static ExecutorService esecutoreThreadPiattaforma() {
+        AtomicInteger numero = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(16, 4 * Runtime.getRuntime().availableProcessors()), compito -> {
+            Thread thread = new Thread(compito, "server-biblioteca-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @brief Esegue una richiesta e invia la risposta JSON.
+     * @param[in] scambio La richiesta.
+     * @param[in] metodo Il metodo HTTP ammesso dalla risorsa.
+     * @param[in] segmento true se il contesto ammette un segmento dopo di sé (es. /libri/{isbn}).
+     * @param[in] gestore La gestione della richiesta.
+     * @throws IOException Se la risposta non può essere inviata.
+     */
+    private void esegui(HttpExchange scambio, String metodo, boolean segmento, Gestore gestore) throws IOException {
+        Risposta risposta;
+        try {
+            String resto = risorsa(scambio);
+            if (resto == null || (!segmento && !resto.isEmpty())) {
+                // HttpServer associa i contesti per prefisso: /librixyz o /studenti/a/b arrivano qui
+                risposta = new Risposta(404, Json.errore("Risorsa non trovata: " + scambio.getRequestURI().getPath()));
+            } else if (!metodo.equals(scambio.getRequestMethod())) {
+                scambio.getResponseHeaders().set("Allow", metodo);
+                risposta = new Risposta(405, Json.errore("Metodo non ammesso: usare " + metodo + "."));
+            } else {
+                risposta = gestore.gestisci(scambio);
+            }
+        } catch (IllegalArgumentException e) {
+            risposta = new Risposta(400, Json.errore(e.getMessage()));
+        } catch (RuntimeException | IOException e) {
+            // I dettagli dell'errore restano nel log del server e non vengono esposti al client
+            LOGGER.log(Level.SEVERE, "Errore durante " + scambio.getRequestMethod() + " " + scambio.getRequestURI(), e);
+            risposta = new Risposta(500, Json.errore("Errore interno del server."));
+        }
+        byte[] corpo = risposta.corpo.getBytes(StandardCharsets.UTF_8);
+        scambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        scambio.sendResponseHeaders(risposta.codice, corpo.length);
+        try (OutputStream os = scambio.getResponseBody()) {
+            os.write(corpo);
+        }
+    }
+
+    /**
+     * @brief GET /libri (ricerca) e GET /libri/{isbn}.
+     * @param[in] scambio La richiesta.
+     * @return La risposta.
+     * @throws IOException Se la richiesta non può essere letta.
+     */
+    private Risposta libri(HttpExchange scambio) throws IOException {
+        String isbn = risorsa(scambio);
+        if (!isbn.isEmpty()) {
+            Libro libro = catalogo.cercaLibroPerISBN(isbn);
+            return libro == null
+                    ? new Risposta(404, Json.errore("Nessun libro con ISBN " + isbn + "."))
+                    : new Risposta(200, Json.libro(new StringBuilder(256), libro).toString());
+        }
+        Map<String, String> parametri = parametri(scambio);
+        int limite = LIMITE_PREDEFINITO;
+        if (parametri.containsKey("limite")) {
+            try {
+                limite = Integer.parseInt(parametri.get("limite"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Il parametro limite deve essere un numero intero.");
+            }
+        }
+        List<Libro> trovati = catalogo.cercaLibri(parametri.get("titolo"), parametri.get("autore"), parametri.get("isbn"));
+        return new Risposta(200, Json.libri(trovati, limite));
+    }
+
+    /**
+     * @brief GET /studenti/{matricola}.
+     * @param[in] scambio La richiesta.
+     * @return La risposta.
+     */
+    private Risposta studente(HttpExchange scambio) {
+        String matricola = risorsa(scambio);
+        if (matricola.isEmpty()) {
+            throw new IllegalArgumentException("Indicare la matricola: /studenti/{matricola}.");
+        }
+        Studente studente = elenco.cercaStudenteperMatricola(matricola);
+        return studente == null
+                ? new Risposta(404, Json.errore("Nessuno studente con matricola " + matricola + "."))
+                : new Risposta(200, Json.studente(studente, servizioPrestiti.prestitiAttivi(studente)));
+    }
+
+    /**
+     * @brief POST /prestiti.
+     * @param[in] scambio La richiesta.
+     * @return La risposta.
+     * @throws IOException Se il corpo della richiesta non può essere letto.
+     */
+    private Risposta prestito(HttpExchange scambio) throws IOException {
+        Map<String, String> parametri = parametri(scambio);
+        ServizioPrestiti.Risultato risultato = servizioPrestiti.presta(obbligatorio(parametri, "matricola"), obbligatorio(parametri, "isbn"), LocalDate.now());
+        return risposta(risultato, 201, parametri);
+    }
+
+    /**
+     * @brief POST /restituzioni.
+     * @param[in] scambio La richiesta.
+     * @return La risposta.
+     * @throws IOException Se il corpo della richiesta non può essere letto.
+     */
+    private Risposta restituzione(HttpExchange scambio) throws IOException {
+        Map<String, String> parametri = parametri(scambio);
+        ServizioPrestiti.Risultato risultato = servizioPrestiti.restituisci(obbligatorio(parametri, "matricola"), obbligatorio(parametri, "isbn"), LocalDate.now());
+        return risposta(risultato, 200, parametri);
+    }
+
+    /**
+     * @brief Converte il risultato di un prestito o di una restituzione in una risposta.
+     * @param[in] risultato Il risultato.
+     * @param[in] codiceSuccesso Il codice di stato se l'operazione è stata eseguita.
+     * @param[in] parametri I parametri della richiesta (per i messaggi di errore).
+     * @return La risposta.
+     */
+    private static Risposta risposta(ServizioPrestiti.Risultato risultato, int codiceSuccesso, Map<String, String> parametri) {
+        switch (risultato.getEsito()) {
+            case ESEGUITO:
+                return new Risposta(codiceSuccesso, Json.risultato(risultato));
+            case STUDENTE_NON_TROVATO:
+                return new Risposta(404, Json.errore("Nessuno studente con matricola " + parametri.get("matricola") + "."));
+            case LIBRO_NON_TROVATO:
+                return new Risposta(404, Json.errore("Nessun libro con ISBN " + parametri.get("isbn") + "."));
+            case PRESTITO_NON_TROVATO:
+                return new Risposta(404, Json.errore("Lo studente non ha in prestito il libro con ISBN " + parametri.get("isbn") + "."));
+            case COPIE_ESAURITE:
+                return new Risposta(409, Json.errore("Tutte le copie sono in prestito."));
+            case STUDENTE_NON_ABILITATO:
+                return new Risposta(409, Json.errore("Lo studente non è abilitato a nuovi prestiti."));
+            default:
+                throw new IllegalStateException("Esito sconosciuto: " + risultato.getEsito());
+        }
+    }
+
+    /**
+     * @brief Restituisce il segmento del percorso che segue il contesto (es. l'ISBN in /libri/{isbn}).
+     *
+     * Sono ammessi solo il contesto stesso o il contesto seguito da "/" e da un unico segmento,
+     * con al più una "/" finale.
+     * @param[in] scambio La richiesta.
+     * @return Il segmento decodificato, stringa vuota se assente, null se il percorso non
+     * appartiene alla risorsa (es. /librixyz) o contiene più segmenti (es. /studenti/a/b).
+     */
+    private static String risorsa(HttpExchange scambio) {
+        String contesto = scambio.getHttpContext().getPath();
+        String percorso = scambio.getRequestURI().getPath();
+        if (percorso.equals(contesto)) {
+            return "";
+        }
+        if (!percorso.startsWith(contesto + "/")) {
+            return null;
+        }
+        String resto = percorso.substring(contesto.length() + 1);
+        if (resto.endsWith("/")) {
+            resto = resto.substring(0, resto.length() - 1);
+        }
+        return resto.indexOf('/') < 0 ? resto : null;
+    }
+
+    /**
+     * @brief Legge i parametri della query string e, per le richieste POST, del corpo.
+     * @param[in] scambio La richiesta.
+     * @return I parametri decodificati.
+     * @throws IOException Se il corpo non può essere letto.
+     */
+    private static Map<String, String> parametri(HttpExchange scambio) throws IOException {
+        Map<String, String> parametri = new HashMap<>();
+        decodifica(scambio.getRequestURI().getRawQuery(), parametri);
+        if ("POST".equals(scambio.getRequestMethod())) {
+            try (InputStream is = scambio.getRequestBody()) {
+                decodifica(new String(is.readAllBytes(), StandardCharsets.UTF_8), parametri);
+            }
+        }
+        return parametri;
+    }
+
+    /**
+     * @brief Decodifica una stringa application/x-www-form-urlencoded.
+     * @param[in] codificati La stringa (null o vuota se non ci sono parametri).
+     * @param[out] parametri La mappa in cui inserire i parametri.
+     */
+    private static void decodifica(String codificati, Map<String, String> parametri) {
+        if (codificati == null || codificati.isEmpty()) {
+            return;
+        }
+        for (String coppia : codificati.split("&")) {
+            int uguale = coppia.indexOf('=');
+            String nome = uguale < 0 ? coppia : coppia.substring(0, uguale);
+            String valore = uguale < 0 ? "" : coppia.substring(uguale + 1);
+            parametri.put(URLDecoder.decode(nome, StandardCharsets.UTF_8), URLDecoder.decode(valore, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * @brief Restituisce un parametro obbligatorio.
+     * @param[in] parametri I parametri della richiesta.
+     * @param[in] nome Il nome del parametro.
+     * @return Il valore.
+     * @throws IllegalArgumentException Se il parametro manca o è vuoto (risposta 400).
+     */
+    private static String obbligatorio(Map<String, String> parametri, String nome) {
+        String valore = parametri.get(nome);
+        if (valore == null || valore.trim().isEmpty()) {
+            throw new IllegalArgumentException("Parametro obbligatorio mancante: " + nome + ".");
+        }
+        return valore.trim();
+    }
+
+    /**
+     * @brief Avvia il server sui dati della cartella corrente (vedi CartellaDati).
+     * Le modifiche vengono salvate in background, come nell'interfaccia grafica, e scritte
+     * alla chiusura della JVM.
+     * @param[in] args Porta facoltativa (predefinita PORTA_PREDEFINITA).
+     * @throws IOException Se la porta non è disponibile.
+     */
+    public static void main(String[] args) throws IOException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PREDEFINITA;
+
+        // Catalogo ed elenco vengono caricati in parallelo, con la stessa persistenza dell'interfaccia grafica
+        CaricamentoIniziale.avvia().getCompletamento().join();
+        Catalogo catalogo = Catalogo.getIstanza();
+        Elenco elenco = Elenco.getIstanza();
+
+        ServerBiblioteca server = new ServerBiblioteca(catalogo, elenco, porta);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // Il salvataggio finale avviene solo dopo che le richieste in corso sono terminate
+            server.ferma();
+            SalvataggioAutomatico.getIstanza().chiudi();
+        }));
+        server.avvia();
+        System.out.println("Server della biblioteca in ascolto sulla porta " + server.getPorta()
+                + (server.isThreadVirtuali() ? " (thread virtuali)." : " (pool di thread di piattaforma)."));
+    }
+}
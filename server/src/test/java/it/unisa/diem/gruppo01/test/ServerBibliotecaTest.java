@@ -0,0 +1,289 @@
+/**
+ * @file ServerBibliotecaTest.java
+ * @brief Classe di test per l'implementazione della classe ServerBiblioteca.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.CartellaDati;
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.SalvataggioAutomatico;
+import it.unisa.diem.gruppo01.classi.Studente;
+import it.unisa.diem.gruppo01.server.ServerBiblioteca;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Classe di test per la classe ServerBiblioteca.
+ * Il server viene avviato su una porta libera con un catalogo e un elenco in memoria;
+ * i file dati vengono scritti in background in una cartella temporanea.
+ */
+public class ServerBibliotecaTest {
+
+    private static final int LIBRI = 10_000; ///< Libri del catalogo di prova.
+    private static final int STUDENTI = 2_000; ///< Studenti dell'elenco di prova.
+
+    private File cartella; ///< Cartella temporanea dei file dati.
+    private SalvataggioAutomatico salvataggio; ///< Salvataggio in background.
+    private Catalogo catalogo; ///< Catalogo servito.
+    private Elenco elenco; ///< Elenco servito.
+    private ServerBiblioteca server; ///< Server sotto test.
+    private HttpClient client; ///< Client HTTP.
+
+    /**
+     * @brief Popola catalogo ed elenco e avvia il server.
+     * @throws IOException Se il server non può essere avviato.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        cartella = Files.createTempDirectory("server").toFile();
+        System.setProperty(CartellaDati.PROPRIETA_CARTELLA, cartella.getPath());
+        salvataggio = new SalvataggioAutomatico(50);
+        catalogo = new Catalogo();
+        catalogo.setJournaling(true);
+        catalogo.setSalvataggioAutomatico(salvataggio);
+        elenco = new Elenco();
+        elenco.setSalvataggioAutomatico(salvataggio);
+
+        LocalDate anno = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < LIBRI; i++) {
+            catalogo.aggiungiLibro(new Libro("ISBN" + i, "Titolo del libro " + i, "Autore " + (i % 100), anno, 3));
+        }
+        catalogo.aggiungiLibro(new Libro("8846", "Il Signore degli Anelli", "J.R.R. Tolkien", LocalDate.of(1954, 1, 1), 1));
+        for (int i = 0; i < STUDENTI; i++) {
+            elenco.aggiungiStudente(new Studente("Cognome" + i, "Nome", "M" + i, "m" + i + "@studenti.unisa.it", "Nessuna", false));
+        }
+
+        server = new ServerBiblioteca(catalogo, elenco, 0);
+        server.avvia();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    /**
+     * @brief Arresta il server ed elimina i file temporanei.
+     */
+    @AfterEach
+    public void tearDown() {
+        server.ferma();
+        salvataggio.chiudi();
+        System.clearProperty(CartellaDati.PROPRIETA_CARTELLA);
+        for (File f : cartella.listFiles()) {
+            f.delete();
+        }
+        cartella.delete();
+    }
+
+    /**
+     * @brief Crea una richiesta GET.
+     * @param[in] percorso Percorso e query string.
+     * @return La richiesta.
+     */
+    private HttpRequest get(String percorso) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPorta() + percorso)).build();
+    }
+
+    /**
+     * @brief Crea una richiesta POST con parametri nel corpo.
+     * @param[in] percorso Percorso della risorsa.
+     * @param[in] corpo Parametri application/x-www-form-urlencoded.
+     * @return La richiesta.
+     */
+    private HttpRequest post(String percorso, String corpo) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPorta() + percorso))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo)).build();
+    }
+
+    /**
+     * @brief Invia una richiesta e attende la risposta.
+     * @param[in] richiesta La richiesta.
+     * @return La risposta.
+     * @throws Exception Se la richiesta non può essere inviata.
+     */
+    private HttpResponse<String> invia(HttpRequest richiesta) throws Exception {
+        return client.send(richiesta, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * @brief Test delle risorse /libri e /studenti.
+     * @throws Exception Se le richieste non possono essere inviate.
+     */
+    @Test
+    public void testRicerche() throws Exception {
+        System.out.println("testRicerche");
+
+        HttpResponse<String> risposta = invia(get("/libri/8846"));
+        assertEquals(200, risposta.statusCode());
+        assertTrue(risposta.body().contains("\"titolo\":\"Il Signore degli Anelli\""), "La risposta deve contenere il libro: " + risposta.body());
+        assertTrue(risposta.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+
+        risposta = invia(get("/libri?titolo=signore&autore=tolkien"));
+        assertEquals(200, risposta.statusCode());
+        assertTrue(risposta.body().startsWith("{\"totale\":1,"), "La ricerca deve trovare un libro: " + risposta.body());
+
+        risposta = invia(get("/libri?autore=Autore%2042&limite=5"));
+        assertTrue(risposta.body().startsWith("{\"totale\":100,"), "La ricerca deve contare tutti i risultati: " + risposta.body().substring(0, 40));
+        assertEquals(5, risposta.body().split("\"isbn\"").length - 1, "Devono essere restituiti al più limite libri.");
+
+        assertEquals(404, invia(get("/libri/0000")).statusCode());
+        assertEquals(400, invia(get("/libri?limite=tanti")).statusCode());
+        assertEquals(405, invia(post("/libri", "")).statusCode());
+
+        risposta = invia(get("/studenti/M7"));
+        assertEquals(200, risposta.statusCode());
+        assertTrue(risposta.body().contains("\"cognome\":\"Cognome7\"") && risposta.body().contains("\"prestiti\":[]"), risposta.body());
+        assertEquals(404, invia(get("/studenti/X")).statusCode());
+    }
+
+    /**
+     * @brief Test dei percorsi che condividono solo il prefisso con un contesto o hanno segmenti in più.
+     * @throws Exception Se le richieste non possono essere inviate.
+     */
+    @Test
+    public void testPercorsiNonValidi() throws Exception {
+        System.out.println("testPercorsiNonValidi");
+
+        assertEquals(404, invia(get("/librix8846")).statusCode(), "/librix8846 non deve essere letto come /libri/8846.");
+        assertEquals(404, invia(get("/librixyz")).statusCode());
+        assertEquals(404, invia(get("/libri/8846/copie")).statusCode());
+        assertEquals(404, invia(get("/studentixM7")).statusCode(), "/studentixM7 non deve essere letto come /studenti/M7.");
+        assertEquals(404, invia(get("/studenti/a/b")).statusCode());
+        assertEquals(404, invia(post("/prestiti/x", "matricola=M1&isbn=8846")).statusCode());
+        assertEquals(404, invia(post("/prestitixyz", "matricola=M1&isbn=8846")).statusCode());
+        assertEquals(1, catalogo.cercaLibroPerISBN("8846").getNumCopie(), "Nessun prestito deve essere stato registrato.");
+
+        assertEquals(200, invia(get("/libri/8846/")).statusCode(), "Una / finale deve essere ammessa.");
+        assertEquals(200, invia(get("/libri")).statusCode());
+        assertEquals(200, invia(get("/studenti/M7")).statusCode());
+    }
+
+    /**
+     * @brief Test delle risorse /prestiti e /restituzioni.
+     * @throws Exception Se le richieste non possono essere inviate.
+     */
+    @Test
+    public void testPrestitoERestituzione() throws Exception {
+        System.out.println("testPrestitoERestituzione");
+
+        HttpResponse<String> risposta = invia(post("/prestiti", "matricola=M1&isbn=8846"));
+        assertEquals(201, risposta.statusCode(), risposta.body());
+        assertTrue(risposta.body().contains("\"dataScadenza\":\"" + LocalDate.now().plusDays(Prestito.DURATA_PRESTITO) + "\""), risposta.body());
+        assertEquals(0, catalogo.cercaLibroPerISBN("8846").getNumCopie());
+        assertTrue(invia(get("/studenti/M1")).body().contains("\"isbn\":\"8846\""), "Il prestito deve comparire tra quelli dello studente.");
+
+        assertEquals(409, invia(post("/prestiti", "matricola=M2&isbn=8846")).statusCode(), "Senza copie il prestito deve essere rifiutato.");
+        assertEquals(400, invia(post("/prestiti", "matricola=M2")).statusCode(), "L'ISBN è obbligatorio.");
+        assertEquals(404, invia(post("/prestiti?matricola=X&isbn=8846", "")).statusCode());
+
+        risposta = invia(post("/restituzioni", "matricola=M1&isbn=8846"));
+        assertEquals(200, risposta.statusCode(), risposta.body());
+        assertTrue(risposta.body().contains("\"sanzione\":"), risposta.body());
+        assertEquals(1, catalogo.cercaLibroPerISBN("8846").getNumCopie(), "La copia deve rientrare nel catalogo.");
+        assertEquals(404, invia(post("/restituzioni", "matricola=M1&isbn=8846")).statusCode(), "Un prestito non può essere restituito due volte.");
+    }
+
+    /**
+     * @brief Test di carico in locale: migliaia di richieste concorrenti (ricerche, consultazioni e prestiti).
+     * Stampa il numero di richieste al secondo e verifica che nessuna fallisca e che i prestiti
+     * concorrenti rispettino copie disponibili e limite per studente.
+     * @throws Exception Se le richieste non possono essere inviate.
+     */
+    @Test
+    public void testCarico() throws Exception {
+        System.out.println("testCarico");
+
+        // Riscaldamento: compilazione JIT e connessioni
+        esegui(2_000, 64, i -> get("/libri/ISBN" + (i % LIBRI)));
+
+        final int richieste = 20_000;
+        long inizio = System.nanoTime();
+        int[] codici = esegui(richieste, 64, i -> {
+            switch (i % 4) {
+                case 0:
+                    return get("/libri/ISBN" + (i * 7919 % LIBRI));
+                case 1:
+                    return get("/studenti/M" + (i % STUDENTI));
+                case 2:
+                    return get("/libri?titolo=libro%20" + (i % 1000) + "&limite=10");
+                default:
+                    return post("/prestiti", "matricola=M" + (i % STUDENTI) + "&isbn=ISBN" + (i % 50));
+            }
+        });
+        double secondi = (System.nanoTime() - inizio) / 1e9;
+        System.out.printf("%d richieste in %.2f s: %.0f richieste/s (%s)%n", richieste, secondi, richieste / secondi,
+                server.isThreadVirtuali() ? "thread virtuali" : "pool di thread di piattaforma");
+
+        int prestitiEseguiti = 0;
+        for (int i = 0; i < richieste; i++) {
+            if (i % 4 == 3) {
+                assertTrue(codici[i] == 201 || codici[i] == 409, "Un prestito deve essere eseguito o rifiutato, non fallire: " + codici[i]);
+                if (codici[i] == 201) {
+                    prestitiEseguiti++;
+                }
+            } else {
+                assertEquals(200, codici[i], "Le richieste di consultazione non devono fallire.");
+            }
+        }
+        // 50 libri con 3 copie ciascuno: al più 150 prestiti, tutti registrati sugli studenti
+        int copieRimaste = 0;
+        for (int i = 0; i < 50; i++) {
+            copieRimaste += catalogo.cercaLibroPerISBN("ISBN" + i).getNumCopie();
+        }
+        int prestitiRegistrati = 0;
+        for (Studente s : elenco.getElencoStudenti()) {
+            assertTrue(s.contaPrestitiAttivi() <= Prestito.LIMITE_PRESTITI, "Nessuno studente deve superare il limite di prestiti.");
+            prestitiRegistrati += s.contaPrestitiAttivi();
+        }
+        assertEquals(150, prestitiEseguiti + copieRimaste, "Ogni copia deve essere prestata al più una volta.");
+        assertEquals(prestitiEseguiti, prestitiRegistrati, "Ogni prestito eseguito deve essere registrato sullo studente.");
+    }
+
+    /**
+     * @brief Invia le richieste con al più concorrenza richieste in corso contemporaneamente.
+     * @param[in] numero Numero di richieste.
+     * @param[in] concorrenza Richieste in corso al massimo.
+     * @param[in] richiesta La richiesta i-esima.
+     * @return I codici di stato delle risposte (-1 se la richiesta non è riuscita).
+     * @throws InterruptedException Se il thread viene interrotto.
+     */
+    private int[] esegui(int numero, int concorrenza, IntFunction<HttpRequest> richiesta) throws InterruptedException {
+        int[] codici = new int[numero];
+        Semaphore inCorso = new Semaphore(concorrenza);
+        AtomicInteger completate = new AtomicInteger();
+        List<CompletableFuture<Void>> risposte = new ArrayList<>(numero);
+        for (int i = 0; i < numero; i++) {
+            final int indice = i;
+            inCorso.acquire();
+            risposte.add(client.sendAsync(richiesta.apply(i), HttpResponse.BodyHandlers.discarding())
+                    .handle((risposta, errore) -> {
+                        codici[indice] = errore == null ? risposta.statusCode() : -1;
+                        completate.incrementAndGet();
+                        inCorso.release();
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(risposte.toArray(new CompletableFuture[0])).join();
+        assertEquals(numero, completate.get());
+        return codici;
+    }
+}
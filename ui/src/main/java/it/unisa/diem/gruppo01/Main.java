@@ -6,7 +6,8 @@
 */
 
 package it.unisa.diem.gruppo01;
-import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.CaricamentoIniziale;
+import it.unisa.diem.gruppo01.classi.SalvataggioAutomatico;
 import java.io.IOException;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -33,7 +34,10 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) throws IOException {
 
-              Catalogo.getIstanza(); ///< Assicura che il catalogo sia pronto e che i dati siano disponibili prima che l'interfaccia utente tenti di accedervi.
+        // Catalogo ed elenco studenti vengono caricati in parallelo, in background, mentre è già mostrata
+        // la schermata di accesso (che ne mostra l'avanzamento); il caricamento attiva anche il registro
+        // delle modifiche e il salvataggio automatico, così che le scritture non avvengano mai sul thread JavaFX.
+        CaricamentoIniziale.avvia();
        Parent root = FXMLLoader.load(getClass().getResource("/it/unisa/diem/gruppo01/interfacce/Interfaccia1View.fxml"));
 
         
@@ -47,15 +51,15 @@ public class Main extends Application {
     
     /**
      * @brief Metodo per il salvataggio automatico alla chiusura.
-    *Viene invocato in metodo sul contenitore dei libri, per dalvare lo 
-    *stato corrente dell'inverntario sul file csv, prima che 
+    *Arresta il salvataggio automatico, che scrive in modo sincrono le modifiche
+    *ancora in sospeso del catalogo e dell'elenco studenti prima che
     *l'applicazione chiuda
     * @throws Exception Se si verifica un errore durante l'operazione di salvataggio.
     */
     @Override
     public void stop() throws Exception
     {
-        Catalogo.salvaDati();
+        SalvataggioAutomatico.getIstanza().chiudi();
         super.stop();
     }
     
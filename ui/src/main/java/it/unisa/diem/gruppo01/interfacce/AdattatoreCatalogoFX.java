@@ -0,0 +1,56 @@
+/**
+ * @file AdattatoreCatalogoFX.java
+ * @brief Adattatore tra il Catalogo (modulo core, senza JavaFX) e le collezioni osservabili dell'interfaccia.
+ * @author Gruppo01
+ * @version 1.0
+ */
+
+package it.unisa.diem.gruppo01.interfacce;
+
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Libro;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * @brief Fornisce le viste osservabili del Catalogo usate dalle TableView.
+ * Il Catalogo non dipende da JavaFX: la conversione in ObservableList avviene solo qui,
+ * nel modulo dell'interfaccia.
+ */
+public final class AdattatoreCatalogoFX {
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private AdattatoreCatalogoFX() {
+    }
+
+    /**
+     * @brief Fornisce una vista osservabile dell'inventario.
+     * Questo è il metodo che il Controller deve usare per popolare la TableView.
+     * @param[in] catalogo Il catalogo.
+     * @return ObservableList<Libro> contenente tutti i libri del catalogo, in ordine di titolo.
+     */
+    public static ObservableList<Libro> listaOsservabile(Catalogo catalogo) {
+        return FXCollections.observableArrayList(catalogo.istantaneaInventario());
+    }
+
+    /**
+     * @brief Crea una vista osservabile dell'inventario che resta allineata al catalogo:
+     * ogni modifica successiva viene applicata alla lista come singolo inserimento, rimozione o
+     * sostituzione sul thread JavaFX (vedi ListaSincronizzata).
+     * Il chiamante deve mantenere un riferimento alla ListaSincronizzata finché la schermata è aperta.
+     * @pre Invocato sul thread JavaFX.
+     * @param[in] catalogo Il catalogo.
+     * @return La lista sincronizzata, già popolata con l'inventario in ordine di titolo.
+     */
+    public static ListaSincronizzata<Libro> sincronizza(Catalogo catalogo) {
+        ListaSincronizzata<Libro> lista = new ListaSincronizzata<>(catalogo.getInventarioLibri().comparator(),
+                catalogo::istantaneaInventario, Platform::runLater);
+        // Registrazione prima della copia: nessuna modifica intermedia viene persa
+        catalogo.aggiungiOsservatore(lista.osservatoreDebole(catalogo::rimuoviOsservatore));
+        lista.risincronizza();
+        return lista;
+    }
+}
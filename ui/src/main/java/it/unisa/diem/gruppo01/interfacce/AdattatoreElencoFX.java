@@ -0,0 +1,42 @@
+/**
+ * @file AdattatoreElencoFX.java
+ * @brief Adattatore tra l'Elenco degli studenti (modulo core, senza JavaFX) e le collezioni osservabili dell'interfaccia.
+ * @author Gruppo01
+ * @version 1.0
+ */
+
+package it.unisa.diem.gruppo01.interfacce;
+
+import it.unisa.diem.gruppo01.classi.Elenco;
+import it.unisa.diem.gruppo01.classi.Studente;
+import javafx.application.Platform;
+
+/**
+ * @brief Fornisce la vista osservabile dell'Elenco usata dalla TableView degli studenti.
+ */
+public final class AdattatoreElencoFX {
+
+    /**
+     * @brief Costruttore privato: la classe espone solo metodi statici.
+     */
+    private AdattatoreElencoFX() {
+    }
+
+    /**
+     * @brief Crea una vista osservabile degli studenti che resta allineata all'elenco:
+     * ogni modifica successiva viene applicata alla lista come singolo inserimento, rimozione o
+     * sostituzione sul thread JavaFX (vedi ListaSincronizzata).
+     * Il chiamante deve mantenere un riferimento alla ListaSincronizzata finché la schermata è aperta.
+     * @pre Invocato sul thread JavaFX.
+     * @param[in] elenco L'elenco degli studenti.
+     * @return La lista sincronizzata, già popolata con gli studenti in ordine di cognome.
+     */
+    public static ListaSincronizzata<Studente> sincronizza(Elenco elenco) {
+        ListaSincronizzata<Studente> lista = new ListaSincronizzata<>(elenco.getElencoStudenti().comparator(),
+                elenco::istantaneaElenco, Platform::runLater);
+        // Registrazione prima della copia: nessuna modifica intermedia viene persa
+        elenco.aggiungiOsservatore(lista.osservatoreDebole(elenco::rimuoviOsservatore));
+        lista.risincronizza();
+        return lista;
+    }
+}
@@ -102,32 +102,27 @@ public class GestioneLibriController implements Initializable {
     private Catalogo catalogo ; ///< Istanza del Catalogo, il modello dati che contiene tutti i libri.
     
     private ObservableList<Libro> datiTabella = FXCollections.observableArrayList(); ///< Lista che punterà ai dati del Catalogo per la TableView
+    
+    private ListaSincronizzata<Libro> sincronizzazione; ///< Mantiene datiTabella allineata al Catalogo con modifiche puntuali.
   
     
     /**
      * @brief Metodo per inserire l'istanza del Catalogo nel controller.
-     * È cruciale per l'interazione con il modello di dati. Inizializza anche l'ObservableList
-     * e la collega alla TableView.
+     * È cruciale per l'interazione con il modello di dati. Inizializza anche l'ObservableList,
+     * sincronizzata con le modifiche del Catalogo, e la collega alla TableView.
      * @param catalogo L'istanza del Catalogo da utilizzare
     */
    public void setCatalogo(Catalogo catalogo) {
         this.catalogo = catalogo;
         // Carica la TableView solo DOPO aver ricevuto l'istanza corretta
-        this.datiTabella = FXCollections.observableArrayList(catalogo.getInventarioLibri()); 
+        this.sincronizzazione = AdattatoreCatalogoFX.sincronizza(catalogo);
+        this.datiTabella = sincronizzazione.getLista();
         tableViewLibri.setItems(datiTabella); ///< Collegamento Lista -> Tabella (usa la lista del Controller)
         
         System.out.println("Catalogo inserito in GestioneLibriController. Dati caricati nella tabella.");
     }
    
     
-    /**
-    * @brief Metodo che aggiorna l' ObservableList  e di conseguenza la TableView
-    * con i dati  presenti nel Catalogo.
-    */
-   private void aggiornaInterfaccia(){
-        datiTabella.clear();
-        datiTabella.addAll(catalogo.getInventarioLibri());
-    }
    
     
     /**
@@ -237,16 +232,14 @@ public class GestioneLibriController implements Initializable {
 
     // Controllo per libro identico (incrementare copie anziché aggiungere un nuovo elemento)
     boolean libroIdenticoTrovato = false;
-    for (Libro libroEsistente : catalogo.getInventarioLibri()) {
-        if (libroEsistente.getTitolo().equalsIgnoreCase(titolo) &&
-            libroEsistente.getAutore().equalsIgnoreCase(autore) &&
-            libroEsistente.getIsbn().equals(isbn) &&
-            libroEsistente.getAnnoPb().getYear() == anno) {
-
-            catalogo.incrementaCopie(libroEsistente.getIsbn());
-            libroIdenticoTrovato = true;
-            break;
-        }
+    Libro libroEsistente = catalogo.cercaLibroPerISBN(isbn);
+    if (libroEsistente != null &&
+        libroEsistente.getTitolo().equalsIgnoreCase(titolo) &&
+        libroEsistente.getAutore().equalsIgnoreCase(autore) &&
+        libroEsistente.getAnnoPb().getYear() == anno) {
+
+        catalogo.incrementaCopie(libroEsistente.getIsbn());
+        libroIdenticoTrovato = true;
     }
 
     Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -262,7 +255,6 @@ public class GestioneLibriController implements Initializable {
     }
 
     alert.showAndWait();
-    aggiornaInterfaccia();
 
     pulisciCampi();
 
@@ -372,9 +364,7 @@ if (!nuovoIsbn.isEmpty() && !nuovoIsbn.equals(libroSelezionato.getIsbn())) {
     );
 
     if (successo) {
-        //Aggiorna la TableView
-        datiTabella.clear();
-        datiTabella.addAll(catalogo.getInventarioLibri());
+        //La riga di datiTabella è aggiornata dal Catalogo; refresh() ridisegna anche i risultati di una ricerca
         tableViewLibri.refresh();
 
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -415,24 +405,10 @@ if (!nuovoIsbn.isEmpty() && !nuovoIsbn.equals(libroSelezionato.getIsbn())) {
             tableViewLibri.setItems(datiTabella);
             return;
         }
-            //Creazione di una lista osservabile temporanea per i risultati della ricerca
-            ObservableList<Libro> risultatiRicerca = FXCollections.observableArrayList();
-            
-            
-            //Scorro la lista originale (listaLibri) per trovare il libri desiderato.
-            
-            for(Libro libro: datiTabella){
-                //Controll0 se il campo di ricerca è vuoto oppure se il libro ha quel Titolo,Autore e Isbn
-                
-                boolean titoloTrovato = titoloCercato.isEmpty() || libro.getTitolo().toLowerCase().contains(titoloCercato);
-                boolean autoreTrovato = autoreCercato.isEmpty() || libro.getAutore().toLowerCase().contains(autoreCercato);
-                boolean isbnTrovato = isbnCercato.isEmpty() || libro.getIsbn().toLowerCase().contains(isbnCercato);
-                
-                 if(titoloTrovato && autoreTrovato && isbnTrovato){
-                risultatiRicerca.add(libro);
-                
-            }
-            }
+            //Creazione di una lista osservabile temporanea per i risultati della ricerca:
+            //la ricerca per sottostringa è risolta dal Catalogo tramite l'indice a trigrammi
+            ObservableList<Libro> risultatiRicerca = FXCollections.observableArrayList(
+                    catalogo.cercaLibri(titoloCercato, autoreCercato, isbnCercato));
             
             //Aggiorna la TableView con i risultati
             tableViewLibri.setItems(risultatiRicerca);
@@ -503,10 +479,8 @@ if (!nuovoIsbn.isEmpty() && !nuovoIsbn.equals(libroSelezionato.getIsbn())) {
             // Esegue l'azione sul modello (Catalogo)
             boolean rimosso = catalogo.eliminaLibro(libroSelezionato.getIsbn());
             
-            if (rimosso) {
-                // Aggiorna l'interfaccia rimuovendo il libro dall'ObservableList
-               aggiornaInterfaccia();
-            } else {
+            // Se rimosso, il libro viene tolto da datiTabella dall'evento del Catalogo
+            if (!rimosso) {
                 // Logica di fallback se il libro era in tabella ma non nel catalogo (improbabile)
                 Alert errore = new Alert(Alert.AlertType.ERROR);
                 errore.setHeaderText("Errore Eliminazione");
@@ -535,16 +509,16 @@ if (!nuovoIsbn.isEmpty() && !nuovoIsbn.equals(libroSelezionato.getIsbn())) {
     
     /**
      * @brief Metodo ch gestisce l'evento di clic sul pulsante Salva (saveLButton).
-     * Invocando catalogo.salvaCSV(), persiste lo stato attuale del Catalogo
-     * su un file in formato CSV.
+     * Invocando catalogo.salvaModifiche(), persiste lo stato attuale del Catalogo
+     * (con il salvataggio automatico la scrittura avviene in background).
      * @param event L'evento di azione generato dal clic.
      * @throws IOException Se si verifica un errore durante la scrittura del file.
      */
     @FXML
     private void saveLFile(ActionEvent event) throws IOException {
-        //Salvataggio con CSV: salva manualmente in file csv
-        catalogo.salvaCSV();  // creo un file e salvo i dati 
-        System.out.println("\nLista libri salvata su file Lista_libri.csv\n");
+        //Salvataggio manuale: il catalogo viene scritto in background
+        catalogo.salvaModifiche();  // la scrittura su file avviene nel thread del salvataggio automatico
+        System.out.println("\nSalvataggio della lista libri richiesto\n");
     }
     
     
@@ -91,13 +91,15 @@ public class GestioneStudenteController implements Initializable {
    
     private Elenco elenco; ///< Istanza dell'Elenco, il modello dati che contiene tutti gli studenti.
     private ObservableList<Studente> listaStudenti = FXCollections.observableArrayList(); ///< Lista osservabile per sincronizzare i dati dell'Elenco con la TableView
+    
+    private ListaSincronizzata<Studente> sincronizzazione; ///< Mantiene listaStudenti allineata all'Elenco con modifiche puntuali.
    
     
     /**
      * @brief Metodo chiamato per inizializzare un controller dopo che il suo elemento radice è stato completamente elaborato.
-     * Inizializza l'oggetto Elenco.
+     * Ottiene l'Elenco condiviso dall'applicazione (vedi Elenco.getIstanza()).
      * Configura il binding delle colonne della tabella.
-     * Carica i dati iniziali dal file CSV.
+     * Collega la tabella all'Elenco, così che mostri anche le modifiche fatte da altre schermate.
      * Imposta il gestore per il doppio clic per la visualizzazione dei dettagli.
      *
      * @param url L'ubicazione relativa o assoluta del file FXML.
@@ -106,17 +108,15 @@ public class GestioneStudenteController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         
-        elenco = new Elenco();
+        elenco = Elenco.getIstanza();
         // Configurazione del PropertyValueFactory (binding colonna -> attributo Studente)
         colCognome.setCellValueFactory(new PropertyValueFactory("cognome"));
         colNome.setCellValueFactory(new PropertyValueFactory("nome"));
         colMatr.setCellValueFactory(new PropertyValueFactory("matricola"));
         
-        // CARICA I DATI DAL FILE CSV
-        elenco.caricaDati();
-    
         // AGGIORNA LA VIEW con i dati caricati
-        listaStudenti.addAll(elenco.getElencoStudenti());
+        sincronizzazione = AdattatoreElencoFX.sincronizza(elenco);
+        listaStudenti = sincronizzazione.getLista();
         tableViewStudenti.setItems(listaStudenti);
         
         
@@ -183,13 +183,12 @@ public class GestioneStudenteController implements Initializable {
     }
     
     /**
-     * @brief Metodo che copia i dati da elenco(TreeSet) e li inserisce in listaStudenti (observableList).
-     * Assicura che l'ordinamento per cognome definito in elenco venga rispettato.
+     * @brief Metodo che mostra nella tabella l'intero elenco (listaStudenti), ad esempio dopo una ricerca.
+     * listaStudenti è già allineata all'elenco, con l'ordinamento per cognome, dagli eventi di modifica.
      */
     
     private void aggiornaInterfaccia(){
-        listaStudenti.clear();
-        listaStudenti.addAll(elenco.getElencoStudenti());
+        tableViewStudenti.setItems(listaStudenti);
     }
     
     
@@ -238,7 +237,6 @@ if (!isValidEmail(email)) {
             boolean inserito = elenco.aggiungiStudente(nuovoStudente);
             
             if(inserito){
-                aggiornaInterfaccia(); //aggiorna la tabella
                 pulisciCampi();
             }else{
                 //se false, la matricola esiste già
@@ -325,7 +323,7 @@ if (!isValidEmail(email)) {
     );
 
     if (modificato) {
-        aggiornaInterfaccia();
+        //La riga di listaStudenti è aggiornata dall'Elenco; refresh() ridisegna anche i risultati di una ricerca
         tableViewStudenti.refresh();
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setHeaderText(null);
@@ -434,11 +432,8 @@ if (!isValidEmail(email)) {
          //Rimozione tramite elenco e matricola
          boolean rimosso = elenco.eliminaStudente(studenteSelezionato.getMatricola());
          
-         if(rimosso){
-             
-             aggiornaInterfaccia();
-             
-         }else{
+         // Se rimosso, lo studente viene tolto da listaStudenti dall'evento dell'Elenco
+         if(!rimosso){
              
              Alert error = new Alert(Alert.AlertType.ERROR);
              error.setContentText("Errore durantel'eliminazione.");
@@ -474,16 +469,16 @@ if (!isValidEmail(email)) {
     
     /**
      * @brief Metodo che gestisce l'evento di clic sul pulsante Salva (saveSButton).
-     * Invocando elenco.salvaCSV(), persiste lo stato attuale dell'Elenco
-     * su un file in formato CSV.
+     * Invocando elenco.salvaModifiche(), persiste lo stato attuale dell'Elenco
+     * nell'archivio principale (file CSV oppure binario); la scrittura avviene in background.
      *
      * @param event L'evento di azione generato dal clic.
      * @throws IOException Se si verifica un errore durante la scrittura del file.
     */
     @FXML
     private void saveSFile(ActionEvent event) throws IOException {
-        elenco.salvaCSV();
-        System.out.println("\nLista libri salvata su file Elenco_studenti.csv\n");
+        elenco.salvaModifiche();
+        System.out.println("\nSalvataggio dell'elenco studenti richiesto (archivio " + (elenco.isArchivioBinario() ? "binario" : elenco.isArchivioNormalizzato() ? "normalizzato" : "CSV") + ")\n");
 
     }
     
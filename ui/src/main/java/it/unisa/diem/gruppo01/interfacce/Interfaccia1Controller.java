@@ -8,8 +8,13 @@
 package it.unisa.diem.gruppo01.interfacce;
 
 // Import necessari per la gestione della nuova scena
-import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.AvanzamentoCaricamento;
+import it.unisa.diem.gruppo01.classi.CaricamentoIniziale;
 import java.io.IOException;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -23,8 +28,10 @@ import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Label; 
+import javafx.util.Duration;
 
 
 /**
@@ -45,11 +52,19 @@ public class Interfaccia1Controller implements Initializable {
     private PasswordField passwordFile; ///< Campo nascosto per la password.
     @FXML
     private Label errorMessageLabel; ///< Etichetta per messaggi di errore (es. login fallito).
+    @FXML
+    private ProgressBar caricamentoBar; ///< Avanzamento del caricamento di catalogo ed elenco studenti.
+    @FXML
+    private Label caricamentoLabel; ///< Righe e byte letti durante il caricamento.
+    
+    private CaricamentoIniziale caricamento; ///< Caricamento in background dei dati condivisi.
+    private Timeline aggiornamentoAvanzamento; ///< Aggiorna periodicamente barra ed etichetta finché il caricamento è in corso.
 
     /**
      * @brief Inizializza il controller dopo il caricamento della vista.
-     * Imposta l'etichetta di errore vuota, inizializza il catalogo singleton
-     * e configura il pulsante "Accedi" come pulsante di default per abilitare l'invio con ENTER.
+     * Imposta l'etichetta di errore vuota, avvia (se non è già avviato) il caricamento in background
+     * di catalogo ed elenco studenti e configura il pulsante "Accedi" come pulsante di default per
+     * abilitare l'invio con ENTER. Il pulsante resta disabilitato finché il caricamento non è terminato.
      * @post errorMessageLabel.getText().isEmpty() == true
      * @post accessButton.isDefaultButton() == true
      * @param[in] url L'ubicazione relativa o assoluta del file FXML.
@@ -61,8 +76,15 @@ public class Interfaccia1Controller implements Initializable {
             errorMessageLabel.setText("");
         }
         
-        // Inizializza il Catalogo all'avvio dell'app 
-        Catalogo.getIstanza();
+        // Il caricamento dei dati avviene in background: la schermata è subito utilizzabile
+        caricamento = CaricamentoIniziale.avvia();
+        if (!caricamento.isCompletato()) {
+            accessButton.setDisable(true);
+            aggiornamentoAvanzamento = new Timeline(new KeyFrame(Duration.millis(100), event -> mostraAvanzamento()));
+            aggiornamentoAvanzamento.setCycleCount(Animation.INDEFINITE);
+            aggiornamentoAvanzamento.play();
+        }
+        caricamento.getCompletamento().whenComplete((esito, errore) -> Platform.runLater(() -> caricamentoTerminato(errore)));
         
         // CONFIGURAZIONE INVIO DA TASTIERA
         // Imposta questo bottone come "Default Button".
@@ -73,6 +95,39 @@ public class Interfaccia1Controller implements Initializable {
         }
     }
 
+    /**
+     * @brief Mostra righe e byte letti finora e la frazione complessiva dei file già letta
+     * (indeterminata finché la dimensione dei file non è nota).
+     */
+    private void mostraAvanzamento() {
+        AvanzamentoCaricamento libri = caricamento.getAvanzamentoCatalogo();
+        AvanzamentoCaricamento studenti = caricamento.getAvanzamentoElenco();
+        long totali = libri.getByteTotali() + studenti.getByteTotali();
+        caricamentoBar.setProgress(totali == 0 ? ProgressBar.INDETERMINATE_PROGRESS
+                : Math.min(1.0, (double) (libri.getByteLetti() + studenti.getByteLetti()) / totali));
+        caricamentoLabel.setText("Caricamento libri: " + libri + " - studenti: " + studenti);
+    }
+
+    /**
+     * @brief Termina la visualizzazione dell'avanzamento: se il caricamento è riuscito abilita
+     * l'accesso al menu, altrimenti mostra l'errore e lascia l'accesso disabilitato.
+     * @param[in] errore L'errore del caricamento, oppure null se è riuscito.
+     */
+    private void caricamentoTerminato(Throwable errore) {
+        if (aggiornamentoAvanzamento != null) {
+            aggiornamentoAvanzamento.stop();
+        }
+        caricamentoBar.setVisible(false);
+        if (errore == null) {
+            int orfani = caricamento.getIsbnOrfani().size();
+            caricamentoLabel.setText(orfani == 0 ? "" : "Attenzione: " + orfani + " libri in prestito non sono presenti nel catalogo.");
+            accessButton.setDisable(false);
+        } else {
+            Throwable causa = errore.getCause() != null ? errore.getCause() : errore;
+            caricamentoLabel.setText("Caricamento dei dati non riuscito: " + causa.getMessage());
+        }
+    }
+
     /**
      * @brief Gestisce il tentativo di accesso.
      * Verifica le credenziali hardcoded. Se corrette, carica la scena del menu.
@@ -92,6 +147,10 @@ public class Interfaccia1Controller implements Initializable {
                 || usernameInserito.equals("MACUCC") && passwordInserita.equals("9473")) {
             
             // ACCESSO RIUSCITO
+            if (!caricamento.isCompletato()) {
+                // Il menu usa catalogo ed elenco: non è disponibile finché non sono caricati
+                return;
+            }
             System.out.println("Accesso Eseguito con successo! Caricamento del Menu...");
             
             try {
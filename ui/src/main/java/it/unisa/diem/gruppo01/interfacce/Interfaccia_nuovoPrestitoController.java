@@ -12,7 +12,7 @@ package it.unisa.diem.gruppo01.interfacce;
 import it.unisa.diem.gruppo01.classi.Catalogo;
 import it.unisa.diem.gruppo01.classi.Elenco;
 import it.unisa.diem.gruppo01.classi.Libro;
-import it.unisa.diem.gruppo01.classi.Prestito;
+import it.unisa.diem.gruppo01.classi.ServizioPrestiti;
 import it.unisa.diem.gruppo01.classi.Studente;
 import java.io.IOException;
 import java.net.URL;
@@ -81,6 +81,7 @@ public class Interfaccia_nuovoPrestitoController implements Initializable {
     
     private Elenco elencoStudenti;   ///< Riferimento all'elenco studenti.
     private Catalogo catalogoLibri;  ///< Riferimento al catalogo libri.
+    private ServizioPrestiti servizioPrestiti;  ///< Prestiti e restituzioni, con le stesse regole del server.
     
     
     //variabile per tenere traccia dello studente corrente
@@ -102,6 +103,7 @@ public class Interfaccia_nuovoPrestitoController implements Initializable {
         
         this.elencoStudenti = elencoStudenti;
         this.catalogoLibri = catalogoLibri;
+        this.servizioPrestiti = new ServizioPrestiti(catalogoLibri, elencoStudenti);
     }
     
     
@@ -210,7 +212,8 @@ public class Interfaccia_nuovoPrestitoController implements Initializable {
     
   /**
    * @brief Ricerca automaticamente un libro nel catalogo in base a Titolo e Autore.
-   * Controlla se il libro esiste e se ci sono copie disponibili.
+   * Controlla se il libro esiste e se ci sono copie disponibili; se più edizioni hanno
+   * lo stesso titolo e autore viene scelta la prima (per ISBN) con copie disponibili.
    * @param[in] event L'evento generato dai campi di testo Titolo e Autore.
    */
     
@@ -228,13 +231,12 @@ public class Interfaccia_nuovoPrestitoController implements Initializable {
             return;
         }
         
-        // 2. Ricerca nel catalogo
+        // 2. Ricerca nel catalogo (indice per titolo e autore): tra più edizioni si preferisce una disponibile
         libroCorrente = null;
         if(catalogoLibri != null){
-             for(Libro l : catalogoLibri.getInventarioLibri()){
-                 if(l.getTitolo().equalsIgnoreCase(titolo) && l.getAutore().equalsIgnoreCase(autore)){
+             for(Libro l : catalogoLibri.cercaLibriPerTitoloAutore(titolo, autore)){
+                 if(libroCorrente == null || (!libroCorrente.isDisponibile() && l.isDisponibile())){
                      libroCorrente = l;
-                     break;
                  }
              }
         }
@@ -269,11 +271,10 @@ public class Interfaccia_nuovoPrestitoController implements Initializable {
     
     /**
      * @brief Salva il nuovo prestito.
-     * Esegue le seguenti operazioni:
-     * 1. Decrementa le copie disponibili del libro.
-     * 2. Crea un nuovo oggetto Prestito.
-     * 3. Associa il prestito allo Studente.
-     * 4. Salva le modifiche sul file CSV (Studenti e libri).
+     * Il prestito viene registrato tramite ServizioPrestiti, che verifica di nuovo l'abilitazione
+     * dello studente e la disponibilità del libro, decrementa le copie e associa il prestito allo
+     * studente come un'unica operazione (altre postazioni possono aver modificato i dati nel frattempo).
+     * Le modifiche vengono poi salvate (Studenti e libri).
      * @param[in] event L'evento di click sul pulsante Salva. 
      */
     
@@ -288,28 +289,25 @@ public class Interfaccia_nuovoPrestitoController implements Initializable {
         }
         
         try{
-            //Decrementa le copie de libro 
-            boolean decremento = libroCorrente.decrementaCopie();
-            if(!decremento){
-                
-            mostraAlert(AlertType.ERROR, "Errore", "Impossibile decrementare le copie (già 0)");
-            return;
-            
-           }
-            
-            LocalDate oggi = LocalDate.now();
-            LocalDate scadenza = oggi.plusDays(Prestito.DURATA_PRESTITO);
-            
-            Prestito nuovoPrestito = new Prestito(libroCorrente, studenteCorrente, oggi, scadenza, null);
-            
-            //Aggiunge il prestito allo studente
-            
-            studenteCorrente.aggiungiPrestito(nuovoPrestito);
-            
-            elencoStudenti.salvaCSV(); // Salva il prestito nel file studenti
-            catalogoLibri.salvaCSV();  // Salva il numero copie aggiornato nel file libri
+            ServizioPrestiti.Risultato risultato = servizioPrestiti.presta(studenteCorrente.getMatricola(), libroCorrente.getIsbn(), LocalDate.now());
+            switch(risultato.getEsito()){
+                case ESEGUITO:
+                    break;
+                case STUDENTE_NON_ABILITATO:
+                    mostraAlert(AlertType.ERROR, "Studente Bloccato", "L'utente non è più abilitato a nuovi prestiti.");
+                    return;
+                case COPIE_ESAURITE:
+                    mostraAlert(AlertType.ERROR, "Non Disponibile", "Tutte le copie sono in prestito.");
+                    return;
+                case LIBRO_NON_TROVATO:
+                    mostraAlert(AlertType.ERROR, "Non Trovato", "Libro non presente in catalogo.");
+                    return;
+                default:
+                    mostraAlert(AlertType.ERROR, "Non trovato", "Nessuno studente trovato con questa matricola.");
+                    return;
+            }
             
-            mostraAlert(AlertType.INFORMATION, "Successo", "Prestito registrato con successo.\n Scadenza: "+ scadenza);
+            mostraAlert(AlertType.INFORMATION, "Successo", "Prestito registrato con successo.\n Scadenza: "+ risultato.getPrestito().getDataScadenza());
             pulisciCampiAnagrafici();
             inserisciT.clear();
             inserisciA.clear();
@@ -356,72 +354,21 @@ public class Interfaccia_nuovoPrestitoController implements Initializable {
            return;
        }
        
-       Studente studente = elencoStudenti.cercaStudenteperMatricola(matricola);
-       
-       if(studente == null){
-           mostraAlert(AlertType.ERROR, "Non trovato", "Nessuno studente trovato con matricola: " + matricola);
-           return;
-       }
-       
-       Prestito prestitoDaChiudere = null;
-       for(Prestito p : studente.getPrestitiAttivi()){
-           if(p.getLibro().getIsbn().equals(isbn)){
-               prestitoDaChiudere = p;
-               break; 
-           }
-       }
-       
-       if(prestitoDaChiudere == null){
-           mostraAlert(AlertType.WARNING,"Nessun prestito", "Lo studente "+ studente.getCognome() + " non ha in prestito il libro con ISBN:" +isbn);
-           return;
-       }
-       
        try{
-           // Imposta la data di restituzione ad oggi
-           prestitoDaChiudere.setDatarestituzione(LocalDate.now());
-           
-           // --- MODIFICA IMPORTANTE: AGGIORNA IL CATALOGO ---
-           String isbnLibro = prestitoDaChiudere.getLibro().getIsbn();
+           // Chiude il prestito ad oggi (data di restituzione, sanzione, rimozione dai prestiti attivi)
+           // e rimette la copia nel catalogo, reinserendo il libro se nel frattempo è stato eliminato
+           ServizioPrestiti.Risultato risultato = servizioPrestiti.restituisci(matricola, isbn, LocalDate.now());
            
-           if(catalogoLibri != null) {
-               boolean trovato = false;
-               for(Libro l : catalogoLibri.getInventarioLibri()){
-                   if(l.getIsbn().equals(isbnLibro)){
-                       l.incrementaCopie(1); // Incrementa il libro nel catalogo
-                       trovato=true;
-                       break;
-                   }
-                  
-               }
-                if(!trovato)
-                {
-                     Libro libroPrestato = prestitoDaChiudere.getLibro();
-
-                    Libro nuovoLibro = new Libro(
-                        libroPrestato.getIsbn(),
-                        libroPrestato.getTitolo(),
-                        libroPrestato.getAutore(),
-                        libroPrestato.getAnnoPb(),
-                         1   // almeno una copia rientrata
-                    );
-
-                    catalogoLibri.aggiungiLibro(nuovoLibro);
-                    
-                }
+           if(risultato.getEsito() == ServizioPrestiti.Esito.STUDENTE_NON_TROVATO){
+               mostraAlert(AlertType.ERROR, "Non trovato", "Nessuno studente trovato con matricola: " + matricola);
+               return;
            }
-
-                  
-    
-          
-          
-           
-           String esitoSanzione = prestitoDaChiudere.gestioneSanzioni();
-           studente.setSanzione(prestitoDaChiudere.gestioneSanzioni());
-           studente.rimuoviPrestito(prestitoDaChiudere);
-           
-           // Salva le modifiche su file
-           elencoStudenti.salvaCSV(); 
-           catalogoLibri.salvaCSV();
+           if(risultato.getEsito() == ServizioPrestiti.Esito.PRESTITO_NON_TROVATO){
+               Studente studente = elencoStudenti.cercaStudenteperMatricola(matricola);
+               mostraAlert(AlertType.WARNING,"Nessun prestito", "Lo studente "+ studente.getCognome() + " non ha in prestito il libro con ISBN:" +isbn);
+               return;
+           }
+           String esitoSanzione = risultato.getSanzione();
            
            Alert alert = new Alert(Alert.AlertType.INFORMATION);
            alert.setTitle("Restituzione completata");
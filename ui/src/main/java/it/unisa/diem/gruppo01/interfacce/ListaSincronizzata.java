@@ -0,0 +1,273 @@
+/**
+ * @file ListaSincronizzata.java
+ * @brief Lista osservabile mantenuta allineata a una collezione ordinata del dominio tramite modifiche puntuali.
+ * @author Gruppo01
+ * @version 1.0
+ */
+
+package it.unisa.diem.gruppo01.interfacce;
+
+import it.unisa.diem.gruppo01.classi.OsservatoreModifiche;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * @brief ObservableList ordinata come il Catalogo o l'Elenco, aggiornata con le singole modifiche
+ * notificate dal modello (vedi OsservatoreModifiche) invece che svuotandola e ricopiandola.
+ *
+ * Ogni evento diventa una modifica minima della lista: un inserimento, una rimozione o una
+ * sostituzione nella posizione trovata per ricerca binaria (O(log n) confronti), così che la
+ * TableView aggiorni solo le righe interessate. Gli eventi vengono accodati dal thread che modifica
+ * il modello e applicati sul thread dell'interfaccia (l'esecutore indicato, Platform.runLater()
+ * nell'applicazione), nell'ordine in cui sono avvenuti. Se un evento non è coerente con la lista
+ * (modifiche concorrenti non ancora applicate) o il modello è stato ricaricato, la lista viene
+ * ricostruita da una copia del modello.
+ *
+ * @param <T> Il tipo degli elementi (Libro, Studente).
+ */
+public final class ListaSincronizzata<T> implements OsservatoreModifiche<T> {
+
+    /**
+     * @brief Osservatore registrato sul modello: inoltra gli eventi alla lista finché questa è
+     * raggiungibile e si rimuove dal modello quando la schermata che la usa è stata chiusa.
+     */
+    private static final class OsservatoreDebole<T> implements OsservatoreModifiche<T> {
+
+        private final WeakReference<ListaSincronizzata<T>> lista; ///< La lista, raggiungibile finché lo è il controller che la usa.
+        private final Consumer<OsservatoreModifiche<T>> rimuovi; ///< Rimozione dell'osservatore dal modello.
+
+        /**
+         * @brief Costruttore.
+         * @param[in] lista La lista a cui inoltrare gli eventi.
+         * @param[in] rimuovi Rimozione dell'osservatore dal modello.
+         */
+        OsservatoreDebole(ListaSincronizzata<T> lista, Consumer<OsservatoreModifiche<T>> rimuovi) {
+            this.lista = new WeakReference<>(lista);
+            this.rimuovi = rimuovi;
+        }
+
+        /**
+         * @brief Restituisce la lista, oppure null (rimuovendo l'osservatore) se non è più raggiungibile.
+         * @return La lista o null.
+         */
+        private ListaSincronizzata<T> lista() {
+            ListaSincronizzata<T> l = lista.get();
+            if (l == null) {
+                rimuovi.accept(this);
+            }
+            return l;
+        }
+
+        @Override
+        public void aggiunto(T elemento) {
+            ListaSincronizzata<T> l = lista();
+            if (l != null) {
+                l.aggiunto(elemento);
+            }
+        }
+
+        @Override
+        public void rimosso(T elemento) {
+            ListaSincronizzata<T> l = lista();
+            if (l != null) {
+                l.rimosso(elemento);
+            }
+        }
+
+        @Override
+        public void aggiornato(T elemento) {
+            ListaSincronizzata<T> l = lista();
+            if (l != null) {
+                l.aggiornato(elemento);
+            }
+        }
+
+        @Override
+        public void spostato(T elemento, T precedente) {
+            ListaSincronizzata<T> l = lista();
+            if (l != null) {
+                l.spostato(elemento, precedente);
+            }
+        }
+
+        @Override
+        public void ricaricato() {
+            ListaSincronizzata<T> l = lista();
+            if (l != null) {
+                l.ricaricato();
+            }
+        }
+    }
+
+    private final ObservableList<T> lista = FXCollections.observableArrayList(); ///< Copia ordinata mostrata dall'interfaccia.
+    private final Comparator<? super T> ordine; ///< Ordinamento del modello.
+    private final Supplier<List<T>> fonte; ///< Copia del modello, usata per ricostruire la lista.
+    private final Executor esecutore; ///< Esecutore del thread dell'interfaccia.
+    private final Queue<Consumer<ListaSincronizzata<T>>> coda = new ConcurrentLinkedQueue<>(); ///< Eventi non ancora applicati.
+    private final AtomicBoolean pianificata = new AtomicBoolean(); ///< true se l'applicazione degli eventi è già pianificata.
+
+    /**
+     * @brief Costruttore: la lista è vuota finché non viene invocato risincronizza().
+     * @param[in] ordine L'ordinamento della collezione osservata.
+     * @param[in] fonte Fornisce una copia della collezione, nel suo ordine.
+     * @param[in] esecutore Esecutore del thread dell'interfaccia (Platform::runLater).
+     */
+    public ListaSincronizzata(Comparator<? super T> ordine, Supplier<List<T>> fonte, Executor esecutore) {
+        this.ordine = ordine;
+        this.fonte = fonte;
+        this.esecutore = esecutore;
+    }
+
+    /**
+     * @brief Restituisce la lista osservabile da collegare alla TableView.
+     * @return La lista, da modificare solo tramite gli eventi del modello.
+     */
+    public ObservableList<T> getLista() {
+        return lista;
+    }
+
+    /**
+     * @brief Crea l'osservatore da registrare sul modello. L'osservatore tiene la lista con un
+     * riferimento debole: quando la schermata viene chiusa e la lista non è più raggiungibile,
+     * al primo evento successivo si rimuove dal modello.
+     * @param[in] rimuovi Rimozione dell'osservatore dal modello (es. catalogo::rimuoviOsservatore).
+     * @return L'osservatore.
+     */
+    public OsservatoreModifiche<T> osservatoreDebole(Consumer<OsservatoreModifiche<T>> rimuovi) {
+        return new OsservatoreDebole<>(this, rimuovi);
+    }
+
+    /**
+     * @brief Ricostruisce la lista da una copia del modello (un unico evento di sostituzione).
+     * @pre Invocato sul thread dell'interfaccia, senza possedere il lock del modello.
+     */
+    public void risincronizza() {
+        lista.setAll(fonte.get());
+    }
+
+    @Override
+    public void aggiunto(T elemento) {
+        accoda(l -> l.inserisci(elemento));
+    }
+
+    @Override
+    public void rimosso(T elemento) {
+        accoda(l -> l.rimuovi(elemento));
+    }
+
+    @Override
+    public void aggiornato(T elemento) {
+        accoda(l -> l.sostituisci(elemento));
+    }
+
+    @Override
+    public void spostato(T elemento, T precedente) {
+        accoda(l -> l.sposta(elemento, precedente));
+    }
+
+    @Override
+    public void ricaricato() {
+        accoda(ListaSincronizzata::risincronizza);
+    }
+
+    /**
+     * @brief Accoda un evento e, se non è già pianificata, pianifica l'applicazione della coda
+     * sul thread dell'interfaccia.
+     * @param[in] azione La modifica corrispondente all'evento.
+     */
+    private void accoda(Consumer<ListaSincronizzata<T>> azione) {
+        coda.add(azione);
+        if (pianificata.compareAndSet(false, true)) {
+            esecutore.execute(this::applicaEventi);
+        }
+    }
+
+    /**
+     * @brief Applica alla lista gli eventi accodati, nell'ordine di arrivo.
+     */
+    private void applicaEventi() {
+        pianificata.set(false);
+        Consumer<ListaSincronizzata<T>> azione;
+        while ((azione = coda.poll()) != null) {
+            azione.accept(this);
+        }
+    }
+
+    /**
+     * @brief Inserisce un elemento nella sua posizione (o lo sostituisce, se è già presente).
+     * @param[in] elemento L'elemento.
+     */
+    private void inserisci(T elemento) {
+        int posizione = Collections.binarySearch(lista, elemento, ordine);
+        if (posizione >= 0) {
+            lista.set(posizione, elemento);
+        } else {
+            lista.add(-posizione - 1, elemento);
+        }
+    }
+
+    /**
+     * @brief Rimuove un elemento.
+     * @param[in] elemento L'elemento.
+     */
+    private void rimuovi(T elemento) {
+        int posizione = Collections.binarySearch(lista, elemento, ordine);
+        if (posizione >= 0 && lista.get(posizione) == elemento) {
+            lista.remove(posizione);
+        } else {
+            risincronizza();
+        }
+    }
+
+    /**
+     * @brief Sostituisce un elemento con se stesso, così che la TableView ridisegni la sua riga.
+     * @param[in] elemento L'elemento.
+     */
+    private void sostituisci(T elemento) {
+        int posizione = Collections.binarySearch(lista, elemento, ordine);
+        if (posizione >= 0 && lista.get(posizione) == elemento) {
+            lista.set(posizione, elemento);
+        } else {
+            risincronizza();
+        }
+    }
+
+    /**
+     * @brief Sposta un elemento la cui chiave di ordinamento è cambiata.
+     * La vecchia posizione viene cercata con i valori precedenti: durante la ricerca l'elemento
+     * (che ha già i nuovi valori) viene confrontato come se fosse ancora la sua copia precedente.
+     * @param[in] elemento L'elemento, con i nuovi valori.
+     * @param[in] precedente La copia dell'elemento con i valori precedenti.
+     */
+    private void sposta(T elemento, T precedente) {
+        int vecchia = Collections.binarySearch(lista, precedente,
+                (a, b) -> ordine.compare(a == elemento ? precedente : a, b == elemento ? precedente : b));
+        if (vecchia < 0 || lista.get(vecchia) != elemento) {
+            risincronizza();
+            return;
+        }
+        if ((vecchia == 0 || ordine.compare(lista.get(vecchia - 1), elemento) < 0)
+                && (vecchia == lista.size() - 1 || ordine.compare(elemento, lista.get(vecchia + 1)) < 0)) {
+            // L'ordine rispetto agli elementi vicini non è cambiato: basta ridisegnare la riga
+            lista.set(vecchia, elemento);
+            return;
+        }
+        lista.remove(vecchia);
+        int nuova = Collections.binarySearch(lista, elemento, ordine);
+        if (nuova >= 0) {
+            risincronizza();
+        } else {
+            lista.add(-nuova - 1, elemento);
+        }
+    }
+}
@@ -83,7 +83,8 @@ public class Menu_BibliotecaController implements Initializable {
     /**
      * @brief Metodo che inizializza il controller dopo che l'elemento radice FXML è stato elaborato.
      * Configura i Tooltip per i pulsanti.
-     * Inizializza i Modelli Dati: Ottiene l'istanza del Catalogo e carica l'Elenco Studenti.
+     * Inizializza i Modelli Dati: Ottiene le istanze condivise del Catalogo e dell'Elenco Studenti,
+     * caricati una sola volta per l'intera applicazione.
      * @param url L'ubicazione relativa o assoluta del file FXML.
      * @param rb Le risorse utilizzate per localizzare l'oggetto radice
     */
@@ -114,9 +115,8 @@ public class Menu_BibliotecaController implements Initializable {
         
         this.catalogo = Catalogo.getIstanza();
         
-        // Inizializziamo l'elenco e carichiamo i dati dal file CSV
-        this.elenco = new Elenco();
-        this.elenco.caricaDati(); 
+        // Elenco condiviso: caricato una sola volta (in background all'avvio, vedi Main)
+        this.elenco = Elenco.getIstanza();
     }  
     
     
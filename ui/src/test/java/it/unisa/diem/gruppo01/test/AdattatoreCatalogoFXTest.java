@@ -0,0 +1,51 @@
+/**
+ * @file AdattatoreCatalogoFXTest.java
+ * @brief Classe di test per la classe AdattatoreCatalogoFX.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.interfacce.AdattatoreCatalogoFX;
+import java.time.LocalDate;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @brief Classe di test per la classe AdattatoreCatalogoFX.
+ */
+public class AdattatoreCatalogoFXTest {
+
+    /**
+     * @brief Test del metodo listaOsservabile(), della classe AdattatoreCatalogoFX.
+     * Verifica che la lista osservabile restituita contenga tutti i libri del catalogo, in ordine di titolo,
+     * e che sia una copia: modificarla non modifica il catalogo.
+     */
+    @Test
+    public void testListaOsservabile() {
+        System.out.println("testListaOsservabile");
+
+        Catalogo catalogo = new Catalogo();
+        Libro libro1 = new Libro("1462", "Il Nome della Rosa", "Umberto Eco", LocalDate.of(1980, 1, 1), 2);
+        Libro libro2 = new Libro("4568", "Frankenstein", "Mary Shelley", LocalDate.of(1818, 1, 1), 2);
+        Libro libro3 = new Libro("7954", "L'esorcista", "William Peter Blatty", LocalDate.of(1971, 1, 1), 7);
+        catalogo.aggiungiLibro(libro1);
+        catalogo.aggiungiLibro(libro2);
+        catalogo.aggiungiLibro(libro3);
+
+        ObservableList<Libro> result = AdattatoreCatalogoFX.listaOsservabile(catalogo);
+
+        assertNotNull(result, "La lista osservabile non deve essere nulla.");
+        assertEquals(3, result.size(), "La lista deve contenere 3 elementi.");
+        assertSame(libro2, result.get(0), "Il primo libro deve essere quello con il titolo minore.");
+        assertTrue(result.contains(libro1), "La lista deve contenere libro1.");
+        assertTrue(result.contains(libro3), "La lista deve contenere libro3.");
+
+        result.clear();
+        assertEquals(3, catalogo.getInventarioLibri().size(), "Svuotare la lista osservabile non deve modificare il catalogo.");
+    }
+}
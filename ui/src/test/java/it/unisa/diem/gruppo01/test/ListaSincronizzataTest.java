@@ -0,0 +1,135 @@
+/**
+ * @file ListaSincronizzataTest.java
+ * @brief Classe di test per la classe ListaSincronizzata.
+ * @author gruppo01
+ * @version 1.0
+ */
+package it.unisa.diem.gruppo01.test;
+
+import it.unisa.diem.gruppo01.classi.Catalogo;
+import it.unisa.diem.gruppo01.classi.Libro;
+import it.unisa.diem.gruppo01.interfacce.ListaSincronizzata;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @brief Classe di test per la classe ListaSincronizzata.
+ * Al posto di Platform.runLater() gli aggiornamenti vengono accodati e applicati dal test,
+ * così che non serva avviare JavaFX.
+ */
+public class ListaSincronizzataTest {
+
+    private static final int LIBRI = 100_000; ///< Dimensione del catalogo di prova.
+
+    private Catalogo catalogo; ///< Catalogo osservato.
+    private List<Runnable> threadFX; ///< Aggiornamenti in attesa di essere eseguiti "sul thread JavaFX".
+    private ListaSincronizzata<Libro> sincronizzata; ///< Lista sotto test.
+    private List<int[]> modifiche; ///< Modifiche notificate dalla lista: posizione, elementi aggiunti, elementi rimossi.
+
+    /**
+     * @brief Configurazione eseguita prima di ogni metodo di test: catalogo di LIBRI libri e lista collegata.
+     */
+    @BeforeEach
+    public void setUp() {
+        catalogo = new Catalogo();
+        for (int i = 0; i < LIBRI; i++) {
+            catalogo.aggiungiLibro(new Libro(String.format("%06d", i), "Titolo " + i, "Autore", LocalDate.of(2000, 1, 1), 1));
+        }
+        threadFX = new ArrayList<>();
+        sincronizzata = new ListaSincronizzata<>(catalogo.getInventarioLibri().comparator(), catalogo::istantaneaInventario, threadFX::add);
+        catalogo.aggiungiOsservatore(sincronizzata.osservatoreDebole(catalogo::rimuoviOsservatore));
+        sincronizzata.risincronizza();
+        modifiche = new ArrayList<>();
+        sincronizzata.getLista().addListener((ListChangeListener<Libro>) c -> {
+            while (c.next()) {
+                modifiche.add(new int[]{c.getFrom(), c.getAddedSize(), c.getRemovedSize()});
+            }
+        });
+    }
+
+    /**
+     * @brief Esegue gli aggiornamenti accodati, come farebbe il thread JavaFX.
+     */
+    private void eseguiThreadFX() {
+        List<Runnable> inAttesa = new ArrayList<>(threadFX);
+        threadFX.clear();
+        inAttesa.forEach(Runnable::run);
+    }
+
+    /**
+     * @brief Test delle modifiche puntuali: ogni modifica del catalogo produce una sola variazione
+     * della lista, nella posizione corretta, e la lista resta uguale all'inventario.
+     */
+    @Test
+    public void testModifichePuntuali() {
+        System.out.println("testModifichePuntuali");
+
+        Libro nuovo = new Libro("999999", "Titolo 5000a", "Autore", LocalDate.of(2000, 1, 1), 1);
+        catalogo.aggiungiLibro(nuovo);
+        assertEquals(LIBRI, sincronizzata.getLista().size(), "Gli eventi devono essere applicati solo sul thread JavaFX.");
+        eseguiThreadFX();
+        assertEquals(1, modifiche.size(), "L'aggiunta deve produrre una sola modifica.");
+        assertArrayEquals(new int[]{sincronizzata.getLista().indexOf(nuovo), 1, 0}, modifiche.get(0), "Il libro deve essere inserito nella sua posizione.");
+        assertEquals(catalogo.istantaneaInventario(), sincronizzata.getLista(), "La lista deve coincidere con l'inventario.");
+
+        modifiche.clear();
+        catalogo.decrementaCopie("999999");
+        eseguiThreadFX();
+        assertEquals(1, modifiche.size(), "La variazione delle copie deve produrre una sola modifica.");
+        assertArrayEquals(new int[]{sincronizzata.getLista().indexOf(nuovo), 1, 1}, modifiche.get(0), "La riga deve essere sostituita, non ricaricata.");
+
+        modifiche.clear();
+        Libro spostato = catalogo.cercaLibroPerISBN("000042");
+        catalogo.modificaLibro("000042", "Zeta", "Autore", LocalDate.of(2000, 1, 1), 1);
+        catalogo.eliminaLibro("000007");
+        eseguiThreadFX();
+        assertEquals(3, modifiche.size(), "Spostamento (rimozione e inserimento) ed eliminazione devono produrre tre modifiche.");
+        for (int[] modifica : modifiche) {
+            assertEquals(1, modifica[1] + modifica[2], "Ogni modifica deve riguardare un solo libro.");
+        }
+        assertSame(spostato, sincronizzata.getLista().get(sincronizzata.getLista().size() - 1), "Il libro rinominato deve essere spostato in fondo.");
+
+        assertEquals(catalogo.istantaneaInventario(), sincronizzata.getLista(), "La lista deve coincidere con l'inventario.");
+    }
+
+    /**
+     * @brief Test degli eventi applicati in blocco: più modifiche in sequenza vengono applicate
+     * con un solo passaggio sul thread JavaFX, nell'ordine in cui sono avvenute.
+     */
+    @Test
+    public void testEventiAccodati() {
+        System.out.println("testEventiAccodati");
+
+        catalogo.aggiungiLibro(new Libro("999999", "Nuovo", "Autore", LocalDate.of(2000, 1, 1), 1));
+        catalogo.modificaLibro("999999", "Nuovissimo", "Autore", LocalDate.of(2000, 1, 1), 2);
+        catalogo.eliminaLibro("999999");
+        assertEquals(1, threadFX.size(), "Gli eventi devono essere applicati con un solo passaggio sul thread JavaFX.");
+        eseguiThreadFX();
+        assertEquals(catalogo.istantaneaInventario(), sincronizzata.getLista(), "La lista deve coincidere con l'inventario.");
+    }
+
+    /**
+     * @brief Test della risincronizzazione: un evento incoerente con la lista o un ricaricamento
+     * ricostruiscono la lista dall'inventario.
+     */
+    @Test
+    public void testRisincronizzazione() {
+        System.out.println("testRisincronizzazione");
+
+        // Evento che non trova il libro nella lista
+        sincronizzata.rimosso(new Libro("ASSENTE", "Titolo 1", "Autore", LocalDate.of(2000, 1, 1), 1));
+        eseguiThreadFX();
+        assertEquals(catalogo.istantaneaInventario(), sincronizzata.getLista());
+
+        sincronizzata.getLista().remove(0);
+        sincronizzata.ricaricato();
+        eseguiThreadFX();
+        assertEquals(LIBRI, sincronizzata.getLista().size(), "Dopo un ricaricamento la lista deve essere ricostruita.");
+    }
+}